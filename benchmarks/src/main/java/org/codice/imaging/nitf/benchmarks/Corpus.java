@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.codice.imaging.nitf.core.SlottedParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfInputStreamReader;
+import org.codice.imaging.nitf.core.header.NitfParser;
+
+/**
+ * Access to the shared test resources corpus for the benchmarks.
+ *
+ * The corpus files are loaded into memory once per trial, so the benchmarks measure the parser and renderer rather
+ * than the disk.
+ */
+final class Corpus {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private Corpus() {
+    }
+
+    /**
+     * Load a corpus file from the shared test resources.
+     *
+     * @param resourceName the name of the resource, relative to the root of the corpus (e.g. "ECRG/00000000hj0013.lf2")
+     * @return the content of the file
+     * @throws IOException if the resource is missing or could not be read
+     */
+    static byte[] load(final String resourceName) throws IOException {
+        try (InputStream inputStream = Corpus.class.getResourceAsStream("/" + resourceName)) {
+            if (inputStream == null) {
+                throw new IOException("Corpus file missing: " + resourceName);
+            }
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                content.write(buffer, 0, bytesRead);
+            }
+            return content.toByteArray();
+        }
+    }
+
+    /**
+     * Parse in-memory NITF content.
+     *
+     * @param content the file content to parse
+     * @param parseStrategy the strategy to parse with
+     * @return the parse strategy, for chaining
+     * @throws NitfFormatException if the content could not be parsed
+     */
+    static SlottedParseStrategy parse(final byte[] content, final SlottedParseStrategy parseStrategy) throws NitfFormatException {
+        NitfParser.parse(new NitfInputStreamReader(new ByteArrayInputStream(content)), parseStrategy);
+        return parseStrategy;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.benchmarks;
+
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.codice.imaging.nitf.core.ConfigurableHeapStrategy;
+import org.codice.imaging.nitf.core.FileBackedHeapStrategy;
+import org.codice.imaging.nitf.core.HeapStrategy;
+import org.codice.imaging.nitf.core.HeapStrategyConfiguration;
+import org.codice.imaging.nitf.core.InMemoryHeapStrategy;
+import org.codice.imaging.nitf.core.OffHeapHeapStrategy;
+import org.codice.imaging.nitf.core.SpillStore;
+
+/**
+ * The image data heap strategies that the parse benchmarks compare.
+ */
+public enum HeapStrategyType {
+
+    /**
+     * Image data held in memory.
+     */
+    IN_MEMORY {
+        @Override
+        HeapStrategy<ImageInputStream> create() {
+            return new InMemoryHeapStrategy<>(is -> new MemoryCacheImageInputStream(is));
+        }
+    },
+
+    /**
+     * Image data held in direct buffers, outside the Java heap.
+     */
+    OFF_HEAP {
+        @Override
+        HeapStrategy<ImageInputStream> create() {
+            return new OffHeapHeapStrategy<>(stream -> stream);
+        }
+    },
+
+    /**
+     * Image data spilled to a temporary file.
+     */
+    FILE_BACKED {
+        @Override
+        HeapStrategy<ImageInputStream> create() {
+            return new FileBackedHeapStrategy<>(file -> new FileImageInputStream(file));
+        }
+    },
+
+    /**
+     * Image data held in memory up to a size threshold, then spilled to the default spill store.
+     */
+    CONFIGURABLE {
+        @Override
+        HeapStrategy<ImageInputStream> create() {
+            HeapStrategyConfiguration configuration = new HeapStrategyConfiguration(length -> length > SPILL_THRESHOLD);
+            return new ConfigurableHeapStrategy<>(configuration, SpillStore.getDefault(),
+                    stream -> stream, is -> new MemoryCacheImageInputStream(is));
+        }
+    };
+
+    private static final long SPILL_THRESHOLD = 100000L;
+
+    /**
+     * Create a new heap strategy instance of this type.
+     *
+     * @return the heap strategy
+     */
+    abstract HeapStrategy<ImageInputStream> create();
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.DataSource;
+import org.codice.imaging.nitf.core.HeapStrategy;
+import org.codice.imaging.nitf.core.SlottedParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parse throughput over the shared test resources corpus.
+ *
+ * The header-only benchmark parses the file header and all segment subheaders (including TREs), skipping the segment
+ * data. The full parse benchmark also reads all segment data, storing image data using each of the heap strategies.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = BenchmarkRunner.WARMUP_ITERATIONS)
+@Measurement(iterations = BenchmarkRunner.MEASUREMENT_ITERATIONS)
+@Fork(1)
+public class ParseBenchmark {
+
+    /**
+     * The corpus file being parsed.
+     */
+    @State(Scope.Benchmark)
+    public static class CorpusState {
+
+        /**
+         * The corpus file, relative to the root of the shared test resources.
+         */
+        @Param({"JitcNitf20Samples/U_1130F.NTF",
+                "JitcNitf21Samples/i_3001a.ntf",
+                "ECRG/00000000hj0013.lf2",
+                "JitcJpeg2000/p0_05a.ntf",
+                "WPAFB-21Oct2009/20091021203850-01001116-VIS.ntf.r5"})
+        protected String file;
+
+        private byte[] content;
+
+        /**
+         * Load the corpus file into memory.
+         *
+         * @throws IOException if the corpus file could not be read
+         */
+        @Setup
+        public final void loadFile() throws IOException {
+            content = Corpus.load(file);
+        }
+    }
+
+    /**
+     * The heap strategy used to store the image data.
+     */
+    @State(Scope.Benchmark)
+    public static class HeapState {
+
+        /**
+         * The heap strategy type.
+         */
+        @Param({"IN_MEMORY", "OFF_HEAP", "FILE_BACKED", "CONFIGURABLE"})
+        protected HeapStrategyType heapStrategy;
+    }
+
+    /**
+     * Parse the headers only.
+     *
+     * @param corpus the corpus file
+     * @return the parsed data source
+     * @throws NitfFormatException if the file could not be parsed
+     */
+    @Benchmark
+    public final DataSource headerOnly(final CorpusState corpus) throws NitfFormatException {
+        return Corpus.parse(corpus.content, new SlottedParseStrategy(SlottedParseStrategy.HEADERS_ONLY)).getDataSource();
+    }
+
+    /**
+     * Parse the headers and all of the segment data.
+     *
+     * @param corpus the corpus file
+     * @param heap the heap strategy to store image data with
+     * @return the parsed data source
+     * @throws NitfFormatException if the file could not be parsed
+     * @throws IOException if the image data could not be released
+     */
+    @Benchmark
+    public final DataSource fullParse(final CorpusState corpus, final HeapState heap) throws NitfFormatException, IOException {
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        HeapStrategy<ImageInputStream> heapStrategy = heap.heapStrategy.create();
+        parseStrategy.setImageHeapStrategy(heapStrategy);
+        DataSource dataSource = Corpus.parse(corpus.content, parseStrategy).getDataSource();
+        for (ImageSegment imageSegment : dataSource.getImageSegments()) {
+            if (imageSegment.getData() != null) {
+                imageSegment.getData().close();
+            }
+        }
+        heapStrategy.cleanUp();
+        return dataSource;
+    }
+}
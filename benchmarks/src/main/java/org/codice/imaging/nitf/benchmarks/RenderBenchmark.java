@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.codice.imaging.nitf.core.InMemoryHeapStrategy;
+import org.codice.imaging.nitf.core.SlottedParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.NitfRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Render throughput for each of the supported image compression types.
+ *
+ * Each compression type is exercised using the first image segment of a representative corpus file. The segment data
+ * is held in memory, so this measures decoding rather than I/O.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = BenchmarkRunner.WARMUP_ITERATIONS)
+@Measurement(iterations = BenchmarkRunner.MEASUREMENT_ITERATIONS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+
+    private static final Map<String, String> CORPUS_FILE_FOR_COMPRESSION = new HashMap<>();
+
+    static {
+        CORPUS_FILE_FOR_COMPRESSION.put("NC", "JitcNitf21Samples/i_3001a.ntf");
+        CORPUS_FILE_FOR_COMPRESSION.put("C1", "JitcNitf21Samples/i_3041a.ntf");
+        CORPUS_FILE_FOR_COMPRESSION.put("C3", "JitcNitf21Samples/i_3309a.ntf");
+        CORPUS_FILE_FOR_COMPRESSION.put("C4", "fromOSGEO/cadrg/001zc013.on1");
+        CORPUS_FILE_FOR_COMPRESSION.put("C8", "ECRG/00000000hj0013.lf2");
+        CORPUS_FILE_FOR_COMPRESSION.put("M3", "JitcNitf21Samples/ns3301j.nsf");
+        CORPUS_FILE_FOR_COMPRESSION.put("M4", "JitcNitf20Samples/U_3058B.NTF");
+    }
+
+    /**
+     * The image compression (IC) code to render.
+     */
+    @Param({"NC", "C1", "C3", "C4", "C8", "M3", "M4"})
+    protected String compression;
+
+    private ImageSegment imageSegment;
+
+    private byte[] segmentData;
+
+    private final NitfRenderer renderer = new NitfRenderer();
+
+    /**
+     * Parse the corpus file for the compression type, and keep the first image segment.
+     *
+     * @throws IOException if the corpus file could not be read
+     * @throws NitfFormatException if the corpus file could not be parsed
+     */
+    @Setup
+    public final void loadFile() throws IOException, NitfFormatException {
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.IMAGE_DATA);
+        parseStrategy.setImageHeapStrategy(new InMemoryHeapStrategy<>(is -> new MemoryCacheImageInputStream(is)));
+        Corpus.parse(Corpus.load(CORPUS_FILE_FOR_COMPRESSION.get(compression)), parseStrategy);
+        imageSegment = parseStrategy.getDataSource().getImageSegments().get(0);
+        if (imageSegment.getImageCompression() != ImageCompression.getEnumValue(compression)) {
+            throw new IllegalStateException("Corpus file for " + compression + " has compression "
+                    + imageSegment.getImageCompression().getTextEquivalent());
+        }
+        segmentData = new byte[(int) imageSegment.getDataLength()];
+        imageSegment.getData().seek(0);
+        imageSegment.getData().readFully(segmentData);
+    }
+
+    /**
+     * Render the image segment.
+     *
+     * @return the rendered image
+     * @throws IOException if the image data could not be read
+     */
+    @Benchmark
+    public final BufferedImage render() throws IOException {
+        try (ImageInputStream data = new MemoryCacheImageInputStream(new ByteArrayInputStream(segmentData))) {
+            imageSegment.setData(data);
+            return renderer.render(imageSegment);
+        }
+    }
+}
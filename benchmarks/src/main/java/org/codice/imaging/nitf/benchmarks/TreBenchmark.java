@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.codice.imaging.nitf.core.DataSource;
+import org.codice.imaging.nitf.core.SlottedParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.TaggedRecordExtensionHandler;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.tre.TreOutputBuffer;
+import org.codice.imaging.nitf.core.tre.TreParser;
+import org.codice.imaging.nitf.core.tre.TreSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TRE parsing and serialisation throughput, over the corpus files with the most TREs.
+ *
+ * Data extension segment data is parsed as well as the headers, so that TRE overflow segments are included.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = BenchmarkRunner.WARMUP_ITERATIONS)
+@Measurement(iterations = BenchmarkRunner.MEASUREMENT_ITERATIONS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TreBenchmark {
+
+    /**
+     * The corpus file, relative to the root of the shared test resources.
+     */
+    @Param({"JitcNitf20Samples/U_1130F.NTF",
+            "JitcNitf21Samples/i_3128b.ntf",
+            "fromVTS/GHSarNITF21_good.ntf",
+            "ECRG/00000000hj0013.lf2"})
+    protected String file;
+
+    private byte[] content;
+
+    private DataSource dataSource;
+
+    private TreParser treParser;
+
+    private final TreOutputBuffer treOutput = new TreOutputBuffer();
+
+    /**
+     * Load the corpus file into memory, and parse it once for the serialisation benchmark.
+     *
+     * @throws IOException if the corpus file could not be read
+     * @throws NitfFormatException if the corpus file could not be parsed
+     */
+    @Setup
+    public final void loadFile() throws IOException, NitfFormatException {
+        content = Corpus.load(file);
+        dataSource = Corpus.parse(content, new SlottedParseStrategy(SlottedParseStrategy.DES_DATA)).getDataSource();
+        treParser = new TreParser();
+    }
+
+    /**
+     * Parse the headers and TRE overflow segments.
+     *
+     * @return the parsed data source
+     * @throws NitfFormatException if the file could not be parsed
+     */
+    @Benchmark
+    public final DataSource parseTREs() throws NitfFormatException {
+        return Corpus.parse(content, new SlottedParseStrategy(SlottedParseStrategy.DES_DATA)).getDataSource();
+    }
+
+    /**
+     * Serialise the file header, image subheader and TRE overflow segment TREs.
+     *
+     * @return the number of bytes of serialised TREs
+     * @throws NitfFormatException if a TRE could not be serialised
+     */
+    @Benchmark
+    public final int serialiseTREs() throws NitfFormatException {
+        int totalLength = 0;
+        totalLength += serialise(dataSource.getNitfHeader(), TreSource.UserDefinedHeaderData);
+        totalLength += serialise(dataSource.getNitfHeader(), TreSource.ExtendedHeaderData);
+        for (ImageSegment imageSegment : dataSource.getImageSegments()) {
+            totalLength += serialise(imageSegment, TreSource.UserDefinedImageData);
+            totalLength += serialise(imageSegment, TreSource.ImageExtendedSubheaderData);
+        }
+        for (DataExtensionSegment dataExtensionSegment : dataSource.getDataExtensionSegments()) {
+            if (dataExtensionSegment.isTreOverflow()) {
+                totalLength += serialise(dataExtensionSegment, TreSource.TreOverflowDES);
+            }
+        }
+        return totalLength;
+    }
+
+    private int serialise(final TaggedRecordExtensionHandler handler, final TreSource source)
+            throws NitfFormatException {
+        treOutput.reset();
+        treParser.writeTREs(handler, source, treOutput);
+        return treOutput.size();
+    }
+}
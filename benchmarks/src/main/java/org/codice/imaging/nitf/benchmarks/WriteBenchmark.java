@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.codice.imaging.nitf.core.DataSource;
+import org.codice.imaging.nitf.core.InMemoryHeapStrategy;
+import org.codice.imaging.nitf.core.NitfFileWriter;
+import org.codice.imaging.nitf.core.NitfOutputStreamWriter;
+import org.codice.imaging.nitf.core.SlottedParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round-trip write throughput: a parsed corpus file is written back out, to memory and to a file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = BenchmarkRunner.WARMUP_ITERATIONS)
+@Measurement(iterations = BenchmarkRunner.MEASUREMENT_ITERATIONS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WriteBenchmark {
+
+    /**
+     * The corpus file, relative to the root of the shared test resources.
+     */
+    @Param({"JitcNitf20Samples/U_1130F.NTF",
+            "JitcNitf21Samples/i_3001a.ntf",
+            "ECRG/00000000hj0013.lf2",
+            "JitcJpeg2000/p0_05a.ntf"})
+    protected String file;
+
+    private DataSource dataSource;
+
+    private ByteArrayOutputStream outputStream;
+
+    private File outputFile;
+
+    /**
+     * Parse the corpus file, holding all of the segment data in memory.
+     *
+     * @throws IOException if the corpus file could not be read, or the output file could not be created
+     * @throws NitfFormatException if the corpus file could not be parsed
+     */
+    @Setup
+    public final void loadFile() throws IOException, NitfFormatException {
+        byte[] content = Corpus.load(file);
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        parseStrategy.setImageHeapStrategy(new InMemoryHeapStrategy<>(is -> new MemoryCacheImageInputStream(is)));
+        dataSource = Corpus.parse(content, parseStrategy).getDataSource();
+        outputStream = new ByteArrayOutputStream(content.length);
+        outputFile = File.createTempFile("nitfbench", ".ntf");
+    }
+
+    /**
+     * Remove the output file.
+     *
+     * @throws IOException if the output file could not be deleted
+     */
+    @TearDown
+    public final void deleteOutputFile() throws IOException {
+        Files.deleteIfExists(outputFile.toPath());
+    }
+
+    /**
+     * Write to an in-memory stream.
+     *
+     * @return the number of bytes written
+     */
+    @Benchmark
+    public final int writeToStream() {
+        outputStream.reset();
+        new NitfOutputStreamWriter(dataSource, outputStream).write();
+        return outputStream.size();
+    }
+
+    /**
+     * Write to a file, calculating the segment lengths up front.
+     *
+     * @return the length of the written file
+     */
+    @Benchmark
+    public final long writeToFile() {
+        new NitfFileWriter(dataSource, outputFile.getPath()).write();
+        return outputFile.length();
+    }
+
+    /**
+     * Write to a file, back-patching the segment lengths after the data is written.
+     *
+     * @return the length of the written file
+     */
+    @Benchmark
+    public final long writeToFileStreaming() {
+        NitfFileWriter writer = new NitfFileWriter(dataSource, outputFile.getPath());
+        writer.setStreamingMode(true);
+        writer.write();
+        return outputFile.length();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import org.codice.imaging.nitf.core.common.AsyncFileChannelReader;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.header.FileLayout;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous parsing of NITF files.
+ * <p>
+ * The file header and segment subheaders are read using an AsynchronousFileChannel, so no thread is held while waiting
+ * for those reads to complete. The start of the file is read first, and the length fields in the file header are used
+ * to find the rest of the file header and each subheader, which are then read concurrently. Once they are available,
+ * parsing is scheduled on the supplied executor. This allows a large number of files to be in-flight without needing a
+ * thread for each file.
+ * <p>
+ * Segment data that the parse strategy stores is then loaded in the same way, in chunks of up to 16MB that are read
+ * one after another, so parsing never waits for the file. Each chunk is discarded as soon as the heap strategy has
+ * copied it, but all of the stored data is held in memory until parsing starts, so the stored segments must fit in
+ * memory. Data that the parse strategy skips is never read, so a HEADERS_ONLY strategy can parse files of any size.
+ */
+public final class AsyncNitfParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncNitfParser.class);
+
+    /**
+     * The length of the initial read, which always includes the file header fields up to the segment lengths.
+     */
+    private static final int LAYOUT_READ_LENGTH = 64 * 1024;
+
+    /**
+     * The maximum length of each segment data load.
+     */
+    private static final int DATA_CHUNK_LENGTH = 16 * 1024 * 1024;
+
+    private AsyncNitfParser() {
+    }
+
+    /**
+     * Parse a NITF file asynchronously.
+     * <p>
+     * The returned future completes with the parsed DataSource, or exceptionally if the file could not be read (with
+     * an IOException) or parsed (with a NitfFormatException).
+     *
+     * @param nitfFile the file to parse.
+     * @param parseStrategy the parsing strategy, which should not be shared with any other parse.
+     * @param executor the executor to use for I/O completion and parsing.
+     * @return future for the parse result.
+     */
+    public static CompletableFuture<DataSource> parse(final Path nitfFile, final SlottedParseStrategy parseStrategy,
+            final ExecutorService executor) {
+        AsyncFileChannelReader reader;
+        try {
+            reader = new AsyncFileChannelReader(nitfFile, executor);
+        } catch (IOException | RuntimeException ex) {
+            CompletableFuture<DataSource> result = new CompletableFuture<>();
+            result.completeExceptionally(ex);
+            return result;
+        }
+        CompletableFuture<DataSource> result = reader.loadRegion(0, (int) Math.min(reader.getFileLength(), LAYOUT_READ_LENGTH))
+                .thenComposeAsync(loaded -> loadHeaders(reader, parseStrategy), executor)
+                .thenApplyAsync(loaded -> {
+                    try {
+                        NitfParser.parse(reader, parseStrategy);
+                        return parseStrategy.getDataSource();
+                    } catch (NitfFormatException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, executor);
+        return result.whenComplete((dataSource, ex) -> closeReader(reader));
+    }
+
+    /**
+     * Load the file header and segment subheaders, using the lengths from the start of the file header, followed by
+     * the segment data that the parse strategy stores.
+     *
+     * @param reader the reader, with the start of the file loaded.
+     * @param parseStrategy the parse strategy, which determines the segment data to load.
+     * @return future that completes when the headers and data have been loaded.
+     */
+    private static CompletableFuture<Void> loadHeaders(final AsyncFileChannelReader reader, final SlottedParseStrategy parseStrategy) {
+        FileLayout layout;
+        try {
+            layout = NitfParser.readFileLayout(reader);
+            reader.seekToAbsoluteOffset(0);
+        } catch (NitfFormatException ex) {
+            throw new CompletionException(ex);
+        }
+        List<CompletableFuture<ByteBuffer>> loads = new ArrayList<>();
+        loadIfRequired(reader, 0, layout.getHeaderLength(), loads);
+        if (layout.isStreamingMode()) {
+            return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[loads.size()]));
+        }
+        for (int i = 0; i < layout.getNumberOfSegments(); ++i) {
+            loadIfRequired(reader, layout.getSubheaderOffsets().get(i), layout.getSubheaderLengths().get(i), loads);
+        }
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[loads.size()]))
+                .thenCompose(loaded -> loadData(reader, layout, parseStrategy));
+    }
+
+    /**
+     * Load the segment data that the parse strategy stores, one chunk at a time.
+     *
+     * @param reader the reader.
+     * @param layout the file layout.
+     * @param parseStrategy the parse strategy, which determines the segment data to load.
+     * @return future that completes when the data has been loaded.
+     */
+    private static CompletableFuture<Void> loadData(final AsyncFileChannelReader reader, final FileLayout layout,
+            final SlottedParseStrategy parseStrategy) {
+        CompletableFuture<Void> loads = CompletableFuture.allOf();
+        for (int i = 0; i < layout.getNumberOfSegments(); ++i) {
+            if (!parseStrategy.isDataStored(layout.getSegmentTypes().get(i))) {
+                continue;
+            }
+            long dataOffset = layout.getSubheaderOffsets().get(i) + layout.getSubheaderLengths().get(i);
+            long dataLength = Math.min(layout.getDataLengths().get(i), reader.getFileLength() - dataOffset);
+            for (long chunkOffset = dataOffset; chunkOffset < dataOffset + dataLength; chunkOffset += DATA_CHUNK_LENGTH) {
+                final long offset = chunkOffset;
+                final int length = (int) Math.min(DATA_CHUNK_LENGTH, dataOffset + dataLength - chunkOffset);
+                loads = loads.thenCompose(loaded -> reader.loadDataRegion(offset, length).thenAccept(region -> { }));
+            }
+        }
+        return loads;
+    }
+
+    private static void loadIfRequired(final AsyncFileChannelReader reader, final long offset, final long length,
+            final List<CompletableFuture<ByteBuffer>> loads) {
+        long availableLength = Math.min(length, reader.getFileLength() - offset);
+        if ((availableLength > 0) && !reader.isLoaded(offset, availableLength)) {
+            loads.add(reader.loadRegion(offset, (int) availableLength));
+        }
+    }
+
+    private static void closeReader(final AsyncFileChannelReader reader) {
+        try {
+            reader.close();
+        } catch (IOException ex) {
+            LOGGER.warn("Unable to close file", ex);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.codice.imaging.nitf.core;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.util.function.Function;
+import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import org.slf4j.LoggerFactory;
@@ -25,6 +26,11 @@ import org.slf4j.LoggerFactory;
  * An implementation of HeapStrategy that either stores the data in memory or on disk based
  * on the supplied configuration.
  *
+ * Data stored on disk is appended to a SpillStore, which is usually the shared default store.
+ *
+ * If the configuration has a MemoryBudget when this strategy is constructed, in-memory storage is reserved against
+ * the budget instead of checking free memory, and the reservations are released by cleanUp().
+ *
  * @param <R> The type to be returned by this heap strategy.
  */
 public class ConfigurableHeapStrategy<R> implements HeapStrategy<R> {
@@ -37,7 +43,30 @@ public class ConfigurableHeapStrategy<R> implements HeapStrategy<R> {
 
     private final HeapStrategyConfiguration heapStrategyConfiguration;
 
+    private final MemoryBudgetReservations memoryBudgetReservations;
+
     /**
+     * Constructor for a strategy that spills segment data into a SpillStore.
+     *
+     * @param dataStrategyConfiguration a HeapStrategyConfiguration which tells this
+     *                                  HeapStrategy when to use JVM heap or disk. May
+     *                                  not be null.
+     * @param store the SpillStore to append spilled segment data to, which may be shared with other strategies. This
+     *              is usually SpillStore.getDefault().
+     * @param regionTFunction a function that will convert a read-only ImageInputStream over the spilled data into the
+     *                        expected type &lt;R&gt;.
+     * @param inputStreamTFunction a function that will convert a java.io.InputStream into the
+     *                             expected type &lt;R&gt;.
+     */
+    public ConfigurableHeapStrategy(final HeapStrategyConfiguration dataStrategyConfiguration, final SpillStore store,
+            final Function<ImageInputStream, R> regionTFunction,
+            final Function<InputStream, R> inputStreamTFunction) {
+        this(dataStrategyConfiguration, new FileBackedHeapStrategy<>(store, regionTFunction), inputStreamTFunction);
+    }
+
+    /**
+     * Constructor for a strategy that spills each segment into a temporary file of its own.
+     *
      * @param dataStrategyConfiguration a HeapStrategyConfiguration which tells this
      *                                  HeapStrategy when to use JVM heap or disk. May
      *                                  not be null.
@@ -45,10 +74,18 @@ public class ConfigurableHeapStrategy<R> implements HeapStrategy<R> {
      *                      &lt;R&gt;.
      * @param inputStreamTFunction a function that will convert a java.io.InputStream into the
      *                             expected type &lt;R&gt;.
+     * @deprecated creates a temporary file for every spilled segment. Use the constructor that takes a SpillStore.
      */
+    @Deprecated
     public ConfigurableHeapStrategy(final HeapStrategyConfiguration dataStrategyConfiguration,
             final Function<RandomAccessFile, R> fileTFunction,
             final Function<InputStream, R> inputStreamTFunction) {
+        this(dataStrategyConfiguration, new FileBackedHeapStrategy<>(fileTFunction), inputStreamTFunction);
+    }
+
+    private ConfigurableHeapStrategy(final HeapStrategyConfiguration dataStrategyConfiguration,
+            final HeapStrategy<R> fileBackedStrategy,
+            final Function<InputStream, R> inputStreamTFunction) {
         if (dataStrategyConfiguration == null) {
             throw new IllegalArgumentException("ConfigurableHeapStrategy(): argument "
                     + "'heapStrategyConfiguration' may not be null.");
@@ -56,7 +93,13 @@ public class ConfigurableHeapStrategy<R> implements HeapStrategy<R> {
 
         this.heapStrategyConfiguration = dataStrategyConfiguration;
         this.inMemoryImageDataStrategy = new InMemoryHeapStrategy<>(inputStreamTFunction);
-        this.fileBackedImageDataStrategy = new FileBackedHeapStrategy<>(fileTFunction);
+        this.fileBackedImageDataStrategy = fileBackedStrategy;
+        if (dataStrategyConfiguration.getMemoryBudget() != null) {
+            this.memoryBudgetReservations = new MemoryBudgetReservations(dataStrategyConfiguration.getMemoryBudget(),
+                    dataStrategyConfiguration.getMemoryBudgetPolicy());
+        } else {
+            this.memoryBudgetReservations = null;
+        }
     }
 
     /**
@@ -65,6 +108,9 @@ public class ConfigurableHeapStrategy<R> implements HeapStrategy<R> {
     @Override
     public final R handleSegment(final NitfReader reader, final long length)
             throws NitfFormatException {
+        if (memoryBudgetReservations != null) {
+            return handleSegmentWithinBudget(reader, length);
+        }
         if (!isRenderable(length)) {
             reader.skip(length);
             return null;
@@ -77,10 +123,36 @@ public class ConfigurableHeapStrategy<R> implements HeapStrategy<R> {
         }
     }
 
+    private R handleSegmentWithinBudget(final NitfReader reader, final long length) throws NitfFormatException {
+        if (!heapStrategyConfiguration.maximumFileSizePredicate().test(length)) {
+            reader.skip(length);
+            return null;
+        }
+        if (heapStrategyConfiguration.temporaryFilePredicate().test(length)) {
+            return fileBackedImageDataStrategy.handleSegment(reader, length);
+        }
+        if (memoryBudgetReservations.reserve(length)) {
+            try {
+                return inMemoryImageDataStrategy.handleSegment(reader, length);
+            } catch (NitfFormatException | RuntimeException ex) {
+                memoryBudgetReservations.release(length);
+                throw ex;
+            }
+        }
+        if (memoryBudgetReservations.spillWhenRefused()) {
+            return fileBackedImageDataStrategy.handleSegment(reader, length);
+        }
+        reader.skip(length);
+        return null;
+    }
+
     @Override
     public final void cleanUp() {
         inMemoryImageDataStrategy.cleanUp();
         fileBackedImageDataStrategy.cleanUp();
+        if (memoryBudgetReservations != null) {
+            memoryBudgetReservations.releaseAll();
+        }
     }
 
     /**
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A pool of direct ByteBuffers, for reuse between parses.
+ * <p>
+ * Allocating direct buffers is relatively expensive, and the memory is only returned to the operating system when the
+ * buffer is garbage collected. Released buffers are kept for reuse, up to a limit on the total capacity held by the
+ * pool; buffers released beyond that limit are freed immediately. A pool is safe for use from several threads.
+ */
+public final class DirectBufferPool {
+
+    private static final int MAXIMUM_WASTE_FACTOR = 2;
+
+    private final long maximumPooledBytes;
+
+    private final NavigableMap<Integer, Deque<ByteBuffer>> freeBuffers = new TreeMap<>();
+
+    private long pooledBytes = 0;
+
+    private int pooledBufferCount = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumPooledCapacity the maximum total capacity of the buffers held for reuse, in bytes.
+     */
+    public DirectBufferPool(final long maximumPooledCapacity) {
+        if (maximumPooledCapacity < 0) {
+            throw new IllegalArgumentException("DirectBufferPool(): argument 'maximumPooledCapacity' may not be negative.");
+        }
+        maximumPooledBytes = maximumPooledCapacity;
+    }
+
+    /**
+     * Get a direct buffer.
+     * <p>
+     * A pooled buffer is reused if there is one of at least the requested length, and not much larger. Otherwise a new
+     * buffer is allocated.
+     *
+     * @param length the required length, in bytes.
+     * @return a direct buffer, with position zero and limit equal to length. The content is undefined.
+     */
+    public synchronized ByteBuffer acquire(final int length) {
+        Map.Entry<Integer, Deque<ByteBuffer>> entry = freeBuffers.ceilingEntry(length);
+        if ((entry == null) || (entry.getKey() / MAXIMUM_WASTE_FACTOR > length)) {
+            return ByteBuffer.allocateDirect(length);
+        }
+        ByteBuffer buffer = entry.getValue().pop();
+        if (entry.getValue().isEmpty()) {
+            freeBuffers.remove(entry.getKey());
+        }
+        pooledBytes -= buffer.capacity();
+        pooledBufferCount--;
+        buffer.clear();
+        buffer.limit(length);
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool.
+     * <p>
+     * The buffer must not be used by the caller, or through any view of it, after it is released.
+     *
+     * @param buffer the buffer to release. Buffers that are not direct are ignored.
+     */
+    public synchronized void release(final ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return;
+        }
+        if (pooledBytes + buffer.capacity() > maximumPooledBytes) {
+            DirectBuffers.free(buffer);
+            return;
+        }
+        freeBuffers.computeIfAbsent(buffer.capacity(), capacity -> new ArrayDeque<>()).push(buffer);
+        pooledBytes += buffer.capacity();
+        pooledBufferCount++;
+    }
+
+    /**
+     * @return the total capacity of the buffers held for reuse, in bytes.
+     */
+    public synchronized long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    /**
+     * @return the number of buffers held for reuse.
+     */
+    public synchronized int getPooledBufferCount() {
+        return pooledBufferCount;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Support for freeing direct ByteBuffers without waiting for garbage collection.
+ * <p>
+ * The memory behind a direct buffer is normally only returned when the buffer object is collected, which may be long
+ * after a large parse has finished with it. On Java 8, each direct buffer has a Cleaner that frees the memory
+ * immediately. Where that is not accessible, the buffer is left to the garbage collector as before.
+ */
+final class DirectBuffers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectBuffers.class);
+
+    private DirectBuffers() {
+    }
+
+    /**
+     * Free the memory held by a direct buffer.
+     * <p>
+     * The buffer, and every view of it, must not be used after this call.
+     *
+     * @param buffer the buffer to free. Buffers that are not direct are ignored.
+     */
+    static void free(final ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return;
+        }
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                Method cleanMethod = cleaner.getClass().getMethod("clean");
+                cleanMethod.setAccessible(true);
+                cleanMethod.invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("Direct buffer could not be freed, leaving it to the garbage collector.", e);
+        }
+    }
+}
@@ -19,33 +19,72 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
+import javax.imageio.stream.ImageInputStream;
 
+import org.codice.imaging.nitf.core.common.FileRegionSegmentData;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * An implementation of HeapStrategy that stores the image data in a temporary file and
- * returns an FileImageImputStream pointing to that.
+ * An implementation of HeapStrategy that stores the image data in temporary files.
+ * <p>
+ * When constructed with a SpillStore, segment data is appended to the store's pooled spill files, and the result is
+ * converted from a read-only ImageInputStream positioned over the segment's region. Otherwise each segment is stored
+ * in a temporary file of its own, and the result is converted from a read-only RandomAccessFile over that file.
+ * <p>
+ * All of the files or regions used by this strategy are released by cleanUp(), after which the data is no longer
+ * available.
  *
  * @param <R> the return type for this heap strategy.
  */
 public class FileBackedHeapStrategy<R> implements HeapStrategy<R> {
     private static final Logger LOGGER = LoggerFactory.getLogger(FileBackedHeapStrategy.class);
 
+    private static final int COPY_CHUNK_SIZE = 1024 * 1024;
+
     private final Function<RandomAccessFile, R> resultConversionFunction;
 
-    private File dataFile;
+    private final SpillStore spillStore;
+
+    private final Function<ImageInputStream, R> regionConversionFunction;
+
+    private final List<File> dataFiles = new ArrayList<>();
 
-    private RandomAccessFile randomAccessFile;
+    private final List<RandomAccessFile> randomAccessFiles = new ArrayList<>();
+
+    private final List<FileRegionSegmentData> regions = new ArrayList<>();
 
     /**
+     * Constructor for a strategy that stores each segment in a temporary file of its own.
+     *
      * @param resultConverter a function that converts a RandomAccessFile to &lt;R&gt;
      */
     public FileBackedHeapStrategy(final Function<RandomAccessFile, R> resultConverter) {
         this.resultConversionFunction = resultConverter;
+        this.spillStore = null;
+        this.regionConversionFunction = null;
+    }
+
+    /**
+     * Constructor for a strategy that stores segments in pooled spill files.
+     *
+     * @param store the spill store to append segment data to. This may be shared with other strategies.
+     * @param resultConverter a function that converts a read-only ImageInputStream over the segment data to &lt;R&gt;
+     */
+    public FileBackedHeapStrategy(final SpillStore store, final Function<ImageInputStream, R> resultConverter) {
+        if (store == null) {
+            throw new IllegalArgumentException("FileBackedHeapStrategy(): argument 'store' may not be null.");
+        }
+        this.resultConversionFunction = null;
+        this.spillStore = store;
+        this.regionConversionFunction = resultConverter;
     }
 
     /**
@@ -54,35 +93,73 @@ public class FileBackedHeapStrategy<R> implements HeapStrategy<R> {
     @Override
     public final R handleSegment(final NitfReader reader, final long dataLength)
             throws NitfFormatException {
-        LOGGER.info(String.format("Storing %s bytes in temporary file.", dataLength));
-        byte[] bytes = reader.readBytesRaw((int) dataLength);
-
-        try {
-            dataFile = File.createTempFile("nitf", (String) null);
-            dataFile.deleteOnExit();
-        } catch (IOException ioe) {
-            throw new RuntimeException(ioe);
+        long startTime = NitfMetricsRegistry.startTimer();
+        R result;
+        if (spillStore != null) {
+            LOGGER.info(String.format("Storing %s bytes in spill file.", dataLength));
+            FileRegionSegmentData region = spillStore.store(reader, dataLength);
+            synchronized (regions) {
+                regions.add(region);
+            }
+            result = regionConversionFunction.apply(region.newCursor());
+        } else {
+            LOGGER.info(String.format("Storing %s bytes in temporary file.", dataLength));
+            result = resultConversionFunction.apply(copyToTemporaryFile(reader, dataLength));
         }
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.COPIED, dataLength);
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.SEGMENT_DATA, startTime);
+        return result;
+    }
 
-        try (FileOutputStream fos = new FileOutputStream(dataFile)) {
-            fos.write(bytes);
-            this.randomAccessFile = new RandomAccessFile(dataFile, "rwd");
-            R result = resultConversionFunction.apply(randomAccessFile);
-            return result;
+    private RandomAccessFile copyToTemporaryFile(final NitfReader reader, final long dataLength) throws NitfFormatException {
+        try {
+            File dataFile = File.createTempFile("nitf", (String) null);
+            synchronized (dataFiles) {
+                dataFiles.add(dataFile);
+            }
+            try (FileOutputStream fos = new FileOutputStream(dataFile)) {
+                long remaining = dataLength;
+                while (remaining > 0) {
+                    int chunkLength = (int) Math.min(COPY_CHUNK_SIZE, remaining);
+                    fos.write(reader.readBytesRaw(chunkLength));
+                    remaining -= chunkLength;
+                }
+            }
+            RandomAccessFile randomAccessFile = new RandomAccessFile(dataFile, "r");
+            synchronized (dataFiles) {
+                randomAccessFiles.add(randomAccessFile);
+            }
+            return randomAccessFile;
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new NitfFormatException("Unable to store segment data in temporary file", e);
         }
     }
 
     @Override
     public final void cleanUp() {
-        if (dataFile != null) {
-            try {
-                randomAccessFile.close();
-                Files.deleteIfExists(dataFile.toPath());
-            } catch (IOException e) {
-                LOGGER.warn("Unable to delete file.", e);
+        synchronized (regions) {
+            for (FileRegionSegmentData region : regions) {
+                spillStore.release(region);
+            }
+            regions.clear();
+        }
+        synchronized (dataFiles) {
+            for (RandomAccessFile randomAccessFile : randomAccessFiles) {
+                try {
+                    randomAccessFile.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Unable to close file.", e);
+                }
+            }
+            randomAccessFiles.clear();
+            for (File dataFile : dataFiles) {
+                try {
+                    Files.deleteIfExists(dataFile.toPath());
+                } catch (IOException e) {
+                    LOGGER.warn("Unable to delete file.", e);
+                }
             }
+            dataFiles.clear();
         }
     }
 }
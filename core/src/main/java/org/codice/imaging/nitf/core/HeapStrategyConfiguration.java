@@ -27,6 +27,8 @@ import java.util.function.Predicate;
  * The other setting determines whether data is stored at all, as opposed to being skipped. That corresponds to the
  * maximumFileSizePredicate, and maximumSize parameter. If the maximumFileSizePredicate results in data not being
  * stored, the temporaryFilePredicate has no effect.
+ *
+ * Optionally, a MemoryBudget can be set, which limits the total amount of segment data stored in memory.
  */
 public class HeapStrategyConfiguration {
     private long maximumSegmentSize = Long.MAX_VALUE;
@@ -35,6 +37,10 @@ public class HeapStrategyConfiguration {
 
     private final Predicate<Long> maximumFileSizePredicate = length -> length <= maximumSegmentSize;
 
+    private MemoryBudget memoryBudget = null;
+
+    private MemoryBudget.Policy memoryBudgetPolicy = MemoryBudget.Policy.BLOCK;
+
     /**
      * HeapStrategyConfiguration that allows selective storage.
      *
@@ -80,6 +86,38 @@ public class HeapStrategyConfiguration {
     public HeapStrategyConfiguration() {
     }
 
+    /**
+     * Set the memory budget to reserve against before storing segment data in memory.
+     *
+     * The budget is normally shared by all heap strategies in the process. When a budget is set, it replaces the
+     * check on free memory.
+     *
+     * @param budget the memory budget, or null for no budget.
+     * @param policy what to do with segment data when the budget is exhausted. If null, BLOCK is used.
+     */
+    public final void setMemoryBudget(final MemoryBudget budget, final MemoryBudget.Policy policy) {
+        this.memoryBudget = budget;
+        if (policy != null) {
+            this.memoryBudgetPolicy = policy;
+        } else {
+            this.memoryBudgetPolicy = MemoryBudget.Policy.BLOCK;
+        }
+    }
+
+    /**
+     * @return the memory budget, or null if there is no budget.
+     */
+    public final MemoryBudget getMemoryBudget() {
+        return this.memoryBudget;
+    }
+
+    /**
+     * @return what to do with segment data when the memory budget is exhausted.
+     */
+    public final MemoryBudget.Policy getMemoryBudgetPolicy() {
+        return this.memoryBudgetPolicy;
+    }
+
     /**
      * @return the predicate used to determine whether the segment data should be stored in memory or in temporary
      * files.
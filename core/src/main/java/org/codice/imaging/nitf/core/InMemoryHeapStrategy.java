@@ -14,10 +14,11 @@
  */
 package org.codice.imaging.nitf.core;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.function.Function;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,9 +48,11 @@ public class InMemoryHeapStrategy<R> implements HeapStrategy<R> {
     public final R handleSegment(final NitfReader reader, final long length)
             throws NitfFormatException {
         LOGGER.info(String.format("Storing %s bytes in heap space.", length));
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(
-                reader.readBytesRaw((int) length));
+        long startTime = NitfMetricsRegistry.startTimer();
+        InputStream inputStream = SegmentDataBuffers.readToInputStream(reader, length, SegmentDataBuffers.DEFAULT_BUFFER_LENGTH);
         R result = resultConversionFunction.apply(inputStream);
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.COPIED, length);
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.SEGMENT_DATA, startTime);
         return result;
     }
 
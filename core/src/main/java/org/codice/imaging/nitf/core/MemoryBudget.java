@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
+
+/**
+ * A limit on the amount of segment data held in memory.
+ * <p>
+ * Heap strategies reserve the length of each segment against the budget before reading it into memory, and release
+ * the reservation in cleanUp(). Sharing one budget between all of the heap strategies in a process provides admission
+ * control for concurrent parses, which a per-segment check of free memory cannot do.
+ * <p>
+ * A reservation that is larger than the whole budget is only granted when nothing else is reserved, so very large
+ * segments are still processed, one at a time.
+ * <p>
+ * This class is thread safe.
+ */
+public final class MemoryBudget {
+
+    /**
+     * What to do with segment data when the budget is exhausted.
+     */
+    public enum Policy {
+        /**
+         * Wait until enough of the budget is released.
+         * <p>
+         * A heap strategy only waits for its first reservation. Once it holds part of the budget, segment data that
+         * does not fit is stored in a temporary file instead, because waiting could deadlock.
+         */
+        BLOCK,
+        /**
+         * Store the segment data in a temporary file instead.
+         */
+        SPILL,
+        /**
+         * Skip the segment data.
+         */
+        SKIP
+    }
+
+    private final long limit;
+
+    private long reserved = 0;
+
+    private long peakReserved = 0;
+
+    private final AtomicLong reservationCount = new AtomicLong();
+
+    private final AtomicLong refusedCount = new AtomicLong();
+
+    private final AtomicLong totalWaitNanoseconds = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param limitBytes the maximum number of bytes that can be reserved at once.
+     */
+    public MemoryBudget(final long limitBytes) {
+        if (limitBytes <= 0) {
+            throw new IllegalArgumentException("MemoryBudget(): limit must be positive.");
+        }
+        limit = limitBytes;
+    }
+
+    /**
+     * Create a budget that is a fraction of the maximum heap size.
+     *
+     * @param fraction the fraction of Runtime.maxMemory() to allow, greater than 0 and at most 1.
+     * @return new memory budget.
+     */
+    public static MemoryBudget ofMaxHeapFraction(final double fraction) {
+        if ((fraction <= 0) || (fraction > 1)) {
+            throw new IllegalArgumentException("MemoryBudget.ofMaxHeapFraction(): fraction must be in the range (0, 1].");
+        }
+        return new MemoryBudget(Math.max(1, (long) (Runtime.getRuntime().maxMemory() * fraction)));
+    }
+
+    /**
+     * Reserve memory if it is available, without waiting.
+     *
+     * @param bytes the number of bytes to reserve.
+     * @return true if the memory was reserved, otherwise false.
+     */
+    public synchronized boolean tryReserve(final long bytes) {
+        if (!canReserve(bytes)) {
+            refusedCount.incrementAndGet();
+            NitfMetricsRegistry.getMetrics().recordMemoryReservationRefused(bytes);
+            return false;
+        }
+        addReservation(bytes, 0);
+        return true;
+    }
+
+    /**
+     * Reserve memory, waiting until it is available.
+     *
+     * @param bytes the number of bytes to reserve.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public synchronized void reserve(final long bytes) throws InterruptedException {
+        long startTime = System.nanoTime();
+        while (!canReserve(bytes)) {
+            wait();
+        }
+        addReservation(bytes, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Reserve memory, waiting up to the specified time for it to become available.
+     *
+     * @param bytes the number of bytes to reserve.
+     * @param timeout the maximum time to wait.
+     * @param unit the unit of the timeout.
+     * @return true if the memory was reserved, or false if the timeout expired first.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public synchronized boolean reserve(final long bytes, final long timeout, final TimeUnit unit) throws InterruptedException {
+        long startTime = System.nanoTime();
+        long deadline = startTime + unit.toNanos(timeout);
+        while (!canReserve(bytes)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                refusedCount.incrementAndGet();
+                NitfMetricsRegistry.getMetrics().recordMemoryReservationRefused(bytes);
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        addReservation(bytes, System.nanoTime() - startTime);
+        return true;
+    }
+
+    /**
+     * Release previously reserved memory.
+     *
+     * @param bytes the number of bytes to release.
+     */
+    public synchronized void release(final long bytes) {
+        reserved = Math.max(0, reserved - bytes);
+        notifyAll();
+    }
+
+    /**
+     * Get the limit of this budget.
+     *
+     * @return the maximum number of bytes that can be reserved at once.
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get the amount of memory currently reserved.
+     *
+     * @return the number of bytes reserved.
+     */
+    public synchronized long getReserved() {
+        return reserved;
+    }
+
+    /**
+     * Get the largest amount of memory that has been reserved at once.
+     *
+     * @return the peak number of bytes reserved.
+     */
+    public synchronized long getPeakReserved() {
+        return peakReserved;
+    }
+
+    /**
+     * Get the number of reservations that have been granted.
+     *
+     * @return the number of reservations.
+     */
+    public long getReservationCount() {
+        return reservationCount.get();
+    }
+
+    /**
+     * Get the number of reservations that have been refused (by tryReserve(), or by a reserve() timeout).
+     *
+     * @return the number of refused reservations.
+     */
+    public long getRefusedCount() {
+        return refusedCount.get();
+    }
+
+    /**
+     * Get the total time spent waiting for reservations.
+     *
+     * @param unit the unit to return the time in.
+     * @return the total wait time.
+     */
+    public long getTotalWaitTime(final TimeUnit unit) {
+        return unit.convert(totalWaitNanoseconds.get(), TimeUnit.NANOSECONDS);
+    }
+
+    private boolean canReserve(final long bytes) {
+        return (reserved == 0) || (reserved + bytes <= limit);
+    }
+
+    private void addReservation(final long bytes, final long waitNanoseconds) {
+        reserved += bytes;
+        peakReserved = Math.max(peakReserved, reserved);
+        reservationCount.incrementAndGet();
+        totalWaitNanoseconds.addAndGet(waitNanoseconds);
+        NitfMetricsRegistry.getMetrics().recordMemoryReservation(bytes, waitNanoseconds);
+    }
+}
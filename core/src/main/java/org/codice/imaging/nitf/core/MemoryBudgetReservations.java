@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+
+/**
+ * Reservations made against a MemoryBudget by one heap strategy.
+ * <p>
+ * All of the reservations are released together when the heap strategy is cleaned up.
+ */
+final class MemoryBudgetReservations {
+
+    private final MemoryBudget budget;
+
+    private final MemoryBudget.Policy policy;
+
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param memoryBudget the budget to reserve against.
+     * @param budgetPolicy what to do when the budget is exhausted.
+     */
+    MemoryBudgetReservations(final MemoryBudget memoryBudget, final MemoryBudget.Policy budgetPolicy) {
+        budget = memoryBudget;
+        policy = budgetPolicy;
+    }
+
+    /**
+     * Reserve memory for segment data, according to the policy.
+     * <p>
+     * Under the BLOCK policy, this only waits if nothing is currently reserved by these reservations. The reservations
+     * are not released until cleanUp(), so waiting while holding any of them could wait forever: on this parse's own
+     * reservations if its segments total more than the budget, or on another parse that is itself waiting. When some
+     * memory is already held and the budget is exhausted, the segment data is spilled instead.
+     *
+     * @param length the length of the segment data.
+     * @return true if the memory was reserved, or false if the segment data should be spilled or skipped instead.
+     * @throws NitfFormatException if interrupted while waiting for the reservation.
+     */
+    boolean reserve(final long length) throws NitfFormatException {
+        if ((policy == MemoryBudget.Policy.BLOCK) && (reservedBytes.get() == 0)) {
+            try {
+                budget.reserve(length);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new NitfFormatException("Interrupted while waiting for memory budget", ex);
+            }
+        } else if (!budget.tryReserve(length)) {
+            return false;
+        }
+        reservedBytes.addAndGet(length);
+        return true;
+    }
+
+    /**
+     * Check whether segment data that could not be reserved should be spilled to a temporary file.
+     *
+     * @return true if the data should be spilled, or false if it should be skipped.
+     */
+    boolean spillWhenRefused() {
+        return policy != MemoryBudget.Policy.SKIP;
+    }
+
+    /**
+     * Release a reservation, for example when the segment data could not be read.
+     *
+     * @param length the length that was reserved.
+     */
+    void release(final long length) {
+        reservedBytes.addAndGet(-length);
+        budget.release(length);
+    }
+
+    /**
+     * Release all of the reservations.
+     */
+    void releaseAll() {
+        budget.release(reservedBytes.getAndSet(0));
+    }
+}
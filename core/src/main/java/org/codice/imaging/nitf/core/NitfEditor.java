@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.common.CommonSegment;
+import org.codice.imaging.nitf.core.common.FileReader;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
+import org.codice.imaging.nitf.core.common.NitfReader;
+import org.codice.imaging.nitf.core.common.ParseStrategy;
+import org.codice.imaging.nitf.core.common.SegmentType;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
+import org.codice.imaging.nitf.core.graphic.GraphicSegment;
+import org.codice.imaging.nitf.core.header.NitfHeader;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.header.SegmentLengths;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.symbol.SymbolSegment;
+import org.codice.imaging.nitf.core.tre.TreCollection;
+import org.codice.imaging.nitf.core.tre.TreSource;
+
+/**
+ * Editor for the metadata (file header, subheaders and TREs) of an existing NITF file.
+ * <p>
+ * The existing file is parsed without reading the image, graphic, symbol or DES data. The metadata in the data source
+ * can then be modified, and written out either:
+ * <ul>
+ * <li>to a new file, where the unmodified segment data is block copied from the existing file; or</li>
+ * <li>back into the existing file, if the modified headers are exactly the same size as the existing headers.</li>
+ * </ul>
+ * Segments can be added to or removed from the data source before writing to a new file. Segment data that has been
+ * replaced (using setData()) is written from the segment instead of the existing file.
+ */
+public class NitfEditor {
+
+    private static final String READ_MODE = "r";
+
+    private static final String WRITE_MODE = "rw";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final File mSourceFile;
+
+    private final SlottedParseStrategy mParseStrategy;
+
+    private final Map<CommonSegment, Long> mDataOffsets = new IdentityHashMap<>();
+
+    private final SegmentLengths mSourceLengths = new SegmentLengths();
+
+    private long mFileHeaderLength;
+
+    /**
+     * Construct an editor for an existing file.
+     * <p>
+     * This parses the file headers and subheaders, but does not read segment data (other than text, labels and TRE
+     * overflow DES).
+     *
+     * @param sourceFile the existing NITF file.
+     * @throws NitfFormatException if the file could not be parsed.
+     */
+    public NitfEditor(final File sourceFile) throws NitfFormatException {
+        mSourceFile = sourceFile;
+        mFileHeaderLength = sourceFile.length();
+        mParseStrategy = new SlottedParseStrategy(SlottedParseStrategy.TEXT_DATA
+                | SlottedParseStrategy.LABEL_DATA
+                | SlottedParseStrategy.DES_DATA);
+        // DES data is only read for TRE overflow, other DES data is left in the existing file
+        mParseStrategy.setDataExtensionSegmentHeapStrategy(new SkippingHeapStrategy());
+        NitfParser.parse(new FileReader(sourceFile), new LayoutRecordingParseStrategy());
+    }
+
+    /**
+     * Get the data source for the existing file, which can be modified before writing.
+     *
+     * @return the data source.
+     */
+    public final DataSource getDataSource() {
+        return mParseStrategy.getDataSource();
+    }
+
+    /**
+     * Write the (possibly modified) data source to a new file.
+     * <p>
+     * Segment data that was not replaced is copied directly from the existing file.
+     *
+     * @param outputFile the file to write to. This must not be the existing file.
+     * @throws NitfFormatException if there is a problem reading data
+     * @throws IOException if there is a problem writing data
+     */
+    public final void write(final File outputFile) throws NitfFormatException, IOException {
+        if (outputFile.getCanonicalFile().equals(mSourceFile.getCanonicalFile())) {
+            throw new IllegalArgumentException("Cannot write to the file being edited, use patchInPlace() instead");
+        }
+        try (RandomAccessFile source = new RandomAccessFile(mSourceFile, READ_MODE);
+                RandomAccessFile output = new RandomAccessFile(outputFile, WRITE_MODE)) {
+            output.setLength(0);
+            FileChannel sourceChannel = source.getChannel();
+            NitfFileWriter writer = new NitfFileWriter(getDataSource(), outputFile.getPath());
+            for (ImageSegment imageSegment : getDataSource().getImageSegments()) {
+                if (imageSegment.getData() == null) {
+                    addCopyProducer(writer, imageSegment, imageSegment.getDataLength(), sourceChannel);
+                }
+            }
+            for (GraphicSegment graphicSegment : getDataSource().getGraphicSegments()) {
+                if (graphicSegment.getData() == null) {
+                    addCopyProducer(writer, graphicSegment, graphicSegment.getDataLength(), sourceChannel);
+                }
+            }
+            for (SymbolSegment symbolSegment : getDataSource().getSymbolSegments()) {
+                if (symbolSegment.getData() == null) {
+                    addCopyProducer(writer, symbolSegment, symbolSegment.getDataLength(), sourceChannel);
+                }
+            }
+            for (DataExtensionSegment des : getDataSource().getDataExtensionSegments()) {
+                if ((des.getData() == null) && !des.isTreOverflow()) {
+                    addCopyProducer(writer, des, des.getDataLength(), sourceChannel);
+                }
+            }
+            writer.writeDataWithBackPatching(output);
+        }
+    }
+
+    /**
+     * Write the (possibly modified) headers back into the existing file.
+     * <p>
+     * This is only possible if every modified header is the same size as the existing header, the segments have not
+     * been changed, and the existing file was completely parsed. Fixed length fields (such as titles and security
+     * fields) can always be patched. Adding or removing TREs will change the header sizes.
+     *
+     * @return true if the existing file was updated, false if the header sizes changed (and nothing was written).
+     * @throws NitfFormatException if there is a problem reading data
+     * @throws IOException if there is a problem writing data
+     */
+    public final boolean patchInPlace() throws NitfFormatException, IOException {
+        if ((mFileHeaderLength + mSourceLengths.getTotalLength()) != mSourceFile.length()) {
+            return false;
+        }
+        for (DataExtensionSegment des : getDataSource().getDataExtensionSegments()) {
+            if (des.isStreamingMode()) {
+                return false;
+            }
+        }
+        try (RandomAccessFile output = new RandomAccessFile(mSourceFile, WRITE_MODE)) {
+            NitfFileWriter writer = new NitfFileWriter(getDataSource(), mSourceFile.getPath());
+            return writer.writeHeadersInPlace(output, mFileHeaderLength, mSourceLengths);
+        }
+    }
+
+    private void addCopyProducer(final SharedNitfWriter writer, final CommonSegment segment, final long dataLength,
+            final FileChannel sourceChannel) {
+        Long dataOffset = mDataOffsets.get(segment);
+        if (dataOffset != null) {
+            writer.setDataProducer(segment, output -> copyRange(sourceChannel, dataOffset, dataLength, output));
+        }
+    }
+
+    private static void copyRange(final FileChannel source, final long offset, final long length, final DataOutput output)
+            throws IOException {
+        if (offset + length > source.size()) {
+            throw new EOFException("Segment data extends past the end of the existing file");
+        }
+        long position = offset;
+        long remaining = length;
+        if (output instanceof RandomAccessFile) {
+            FileChannel target = ((RandomAccessFile) output).getChannel();
+            while (remaining > 0) {
+                long transferred = source.transferTo(position, remaining, target);
+                position += transferred;
+                remaining -= transferred;
+            }
+        } else {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            while (remaining > 0) {
+                byteBuffer.clear();
+                byteBuffer.limit((int) Math.min(buffer.length, remaining));
+                int bytesRead = source.read(byteBuffer, position);
+                if (bytesRead < 0) {
+                    throw new EOFException("Unexpected end of file reading segment data");
+                }
+                output.write(buffer, 0, bytesRead);
+                position += bytesRead;
+                remaining -= bytesRead;
+            }
+        }
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.COPIED, length);
+    }
+
+    private void recordLayout(final SegmentType segmentType, final List<? extends CommonSegment> segments,
+            final long subheaderOffset, final NitfReader reader, final long dataLength) {
+        if (mDataOffsets.isEmpty()) {
+            mFileHeaderLength = subheaderOffset;
+        }
+        long dataOffset = reader.getCurrentOffset() - dataLength;
+        mSourceLengths.add(segmentType, dataOffset - subheaderOffset, dataLength);
+        mDataOffsets.put(segments.get(segments.size() - 1), dataOffset);
+    }
+
+    /**
+     * Parse strategy that records where each segment is in the existing file.
+     */
+    private class LayoutRecordingParseStrategy implements ParseStrategy {
+
+        @Override
+        public void setFileHeader(final NitfHeader nitfHeader) {
+            mParseStrategy.setFileHeader(nitfHeader);
+        }
+
+        @Override
+        public NitfHeader getNitfHeader() {
+            return mParseStrategy.getNitfHeader();
+        }
+
+        @Override
+        public TreCollection parseTREs(final NitfReader reader, final int length, final TreSource source) throws NitfFormatException {
+            return mParseStrategy.parseTREs(reader, length, source);
+        }
+
+        @Override
+        public void handleImageSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+            long subheaderOffset = reader.getCurrentOffset();
+            mParseStrategy.handleImageSegment(reader, dataLength);
+            recordLayout(SegmentType.IMAGE, getDataSource().getImageSegments(), subheaderOffset, reader, dataLength);
+        }
+
+        @Override
+        public void handleGraphicSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+            long subheaderOffset = reader.getCurrentOffset();
+            mParseStrategy.handleGraphicSegment(reader, dataLength);
+            recordLayout(SegmentType.GRAPHIC, getDataSource().getGraphicSegments(), subheaderOffset, reader, dataLength);
+        }
+
+        @Override
+        public void handleSymbolSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+            long subheaderOffset = reader.getCurrentOffset();
+            mParseStrategy.handleSymbolSegment(reader, dataLength);
+            recordLayout(SegmentType.SYMBOL, getDataSource().getSymbolSegments(), subheaderOffset, reader, dataLength);
+        }
+
+        @Override
+        public void handleLabelSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+            long subheaderOffset = reader.getCurrentOffset();
+            mParseStrategy.handleLabelSegment(reader, dataLength);
+            recordLayout(SegmentType.LABEL, getDataSource().getLabelSegments(), subheaderOffset, reader, dataLength);
+        }
+
+        @Override
+        public void handleTextSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+            long subheaderOffset = reader.getCurrentOffset();
+            mParseStrategy.handleTextSegment(reader, dataLength);
+            recordLayout(SegmentType.TEXT, getDataSource().getTextSegments(), subheaderOffset, reader, dataLength);
+        }
+
+        @Override
+        public void handleDataExtensionSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+            long subheaderOffset = reader.getCurrentOffset();
+            mParseStrategy.handleDataExtensionSegment(reader, dataLength);
+            recordLayout(SegmentType.DATA_EXTENSION, getDataSource().getDataExtensionSegments(), subheaderOffset, reader, dataLength);
+        }
+    }
+
+    /**
+     * Heap strategy that leaves the data in the existing file.
+     */
+    private static class SkippingHeapStrategy implements HeapStrategy<ImageInputStream> {
+
+        @Override
+        public ImageInputStream handleSegment(final NitfReader reader, final long length) throws NitfFormatException {
+            reader.skip(length);
+            return null;
+        }
+
+        @Override
+        public void cleanUp() {
+            // Nothing to clean up
+        }
+    }
+}
@@ -22,6 +22,10 @@ import org.codice.imaging.nitf.core.common.NitfFormatException;
 
 /**
  * A NitfWriter implementation that works on files.
+ * <p>
+ * By default, the segment lengths are taken from the data source before writing. In streaming mode, the file header is
+ * written with placeholder lengths and then back-patched once the segment data has been written, which allows segment
+ * data to be produced incrementally (see setImageDataProducer()).
  */
 public class NitfFileWriter extends SharedNitfWriter {
 
@@ -29,6 +33,8 @@ public class NitfFileWriter extends SharedNitfWriter {
 
     private String mOutputFileName = null;
 
+    private boolean mStreamingMode = false;
+
     /**
      * Construct a file-based NITF writer.
      *
@@ -40,13 +46,30 @@ public class NitfFileWriter extends SharedNitfWriter {
         mOutputFileName = outputFileName;
     }
 
+    /**
+     * Set whether to write in streaming mode.
+     * <p>
+     * In streaming mode, the segment data lengths are measured as the data is written, and the file header is updated
+     * afterwards. This means the data lengths in the data source (and any lengths for image data producers) do not need
+     * to be known in advance.
+     *
+     * @param streamingMode true to write in streaming mode, false to use the lengths from the data source.
+     */
+    public final void setStreamingMode(final boolean streamingMode) {
+        mStreamingMode = streamingMode;
+    }
+
     @Override
     public final void write() {
         try {
             try (RandomAccessFile outputFile = new RandomAccessFile(mOutputFileName, WRITE_MODE)) {
                 outputFile.setLength(0);
                 mOutput = outputFile;
-                writeData();
+                if (mStreamingMode) {
+                    writeDataWithBackPatching(outputFile);
+                } else {
+                    writeData();
+                }
             }
         } catch (IOException | NitfFormatException ex) {
             Logger.getLogger(NitfFileWriter.class.getName()).log(Level.SEVERE, null, ex);
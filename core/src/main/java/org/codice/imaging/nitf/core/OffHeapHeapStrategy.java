@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.common.ByteBufferSegmentData;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
+import org.codice.imaging.nitf.core.common.NitfReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An implementation of HeapStrategy that stores segment data in direct ByteBuffers, outside the Java heap.
+ * <p>
+ * The result is converted from an ImageInputStream that reads directly from the buffers, so the data is held once
+ * and is not copied into an additional cache. Segment data longer than a single buffer can hold is split over several
+ * buffers. Optionally, buffers are taken from, and returned to, a DirectBufferPool.
+ * <p>
+ * The buffers are released by cleanUp(): they are returned to the pool if there is one, and otherwise freed
+ * immediately rather than when they are garbage collected. Reads from the segment data fail after cleanUp(), so the
+ * data must not be in use by another thread at the time of the call.
+ *
+ * @param <R> the return type for this heap strategy.
+ */
+public class OffHeapHeapStrategy<R> implements HeapStrategy<R> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapHeapStrategy.class);
+
+    private final Function<ImageInputStream, R> resultConversionFunction;
+
+    private final DirectBufferPool bufferPool;
+
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+
+    private final List<ByteBufferSegmentData> segmentData = new ArrayList<>();
+
+    /**
+     * Constructor for a strategy that allocates a new buffer for each segment.
+     *
+     * @param resultConverter a function that converts an ImageInputStream over the segment data to &lt;R&gt;
+     */
+    public OffHeapHeapStrategy(final Function<ImageInputStream, R> resultConverter) {
+        this(null, resultConverter);
+    }
+
+    /**
+     * Constructor for a strategy that takes buffers from a pool.
+     *
+     * @param pool the pool to take buffers from and release them to, or null to allocate a new buffer for each
+     * segment.
+     * @param resultConverter a function that converts an ImageInputStream over the segment data to &lt;R&gt;
+     */
+    public OffHeapHeapStrategy(final DirectBufferPool pool, final Function<ImageInputStream, R> resultConverter) {
+        this.bufferPool = pool;
+        this.resultConversionFunction = resultConverter;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final R handleSegment(final NitfReader reader, final long length)
+            throws NitfFormatException {
+        LOGGER.info(String.format("Storing %s bytes in direct buffer.", length));
+        long startTime = NitfMetricsRegistry.startTimer();
+        List<ByteBuffer> segmentBuffers = new ArrayList<>();
+        try {
+            SegmentDataBuffers.readToBuffers(reader, length, SegmentDataBuffers.DEFAULT_BUFFER_LENGTH, this::allocate, segmentBuffers);
+        } finally {
+            synchronized (buffers) {
+                buffers.addAll(segmentBuffers);
+            }
+        }
+        ByteBufferSegmentData data = new ByteBufferSegmentData(segmentBuffers);
+        synchronized (buffers) {
+            segmentData.add(data);
+        }
+        R result = resultConversionFunction.apply(data.newCursor());
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.COPIED, length);
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.SEGMENT_DATA, startTime);
+        return result;
+    }
+
+    private ByteBuffer allocate(final int length) {
+        if (bufferPool != null) {
+            return bufferPool.acquire(length);
+        }
+        return ByteBuffer.allocateDirect(length);
+    }
+
+    @Override
+    public final void cleanUp() {
+        synchronized (buffers) {
+            for (ByteBufferSegmentData data : segmentData) {
+                data.release();
+            }
+            segmentData.clear();
+            for (ByteBuffer buffer : buffers) {
+                if (bufferPool != null) {
+                    bufferPool.release(buffer);
+                } else {
+                    DirectBuffers.free(buffer);
+                }
+            }
+            buffers.clear();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.codice.imaging.nitf.core.common.CommonSegment;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
+import org.codice.imaging.nitf.core.graphic.GraphicSegment;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.label.LabelSegment;
+import org.codice.imaging.nitf.core.symbol.SymbolSegment;
+import org.codice.imaging.nitf.core.text.TextSegment;
+
+/**
+ * Filters for the segments and TREs that are of interest during parsing.
+ * <p>
+ * Segments that do not match the filter for their type have their TREs and data skipped, and are not stored. TREs
+ * that do not match the TRE filter are skipped without being parsed. In each case the skip uses the length from the
+ * file, so the parser only reads the parts of the file that are required.
+ * <p>
+ * Segment filters are evaluated once the fixed length subheader fields have been read, but before any TREs are parsed,
+ * so they cannot depend on the TREs in the segment. The filters may be evaluated more than once per segment, and
+ * should not have side effects.
+ * <p>
+ * By default, all segments and TREs are accepted.
+ */
+public class ParseFilter {
+
+    private Predicate<ImageSegment> imageSegmentFilter = segment -> true;
+    private Predicate<GraphicSegment> graphicSegmentFilter = segment -> true;
+    private Predicate<SymbolSegment> symbolSegmentFilter = segment -> true;
+    private Predicate<LabelSegment> labelSegmentFilter = segment -> true;
+    private Predicate<TextSegment> textSegmentFilter = segment -> true;
+    private Predicate<DataExtensionSegment> dataExtensionSegmentFilter = segment -> true;
+    private Predicate<String> treFilter = tag -> true;
+
+    /**
+     * Set the filter for image segments.
+     *
+     * @param filter predicate that returns true for the image segments to be parsed, e.g.
+     * {@code segment -> segment.getImageCategory() == ImageCategory.VISUAL}.
+     * @return this filter, for chaining.
+     */
+    public final ParseFilter imageSegments(final Predicate<ImageSegment> filter) {
+        imageSegmentFilter = filter;
+        return this;
+    }
+
+    /**
+     * Set the filter for graphic segments.
+     *
+     * @param filter predicate that returns true for the graphic segments to be parsed.
+     * @return this filter, for chaining.
+     */
+    public final ParseFilter graphicSegments(final Predicate<GraphicSegment> filter) {
+        graphicSegmentFilter = filter;
+        return this;
+    }
+
+    /**
+     * Set the filter for symbol segments (NITF 2.0 only).
+     *
+     * @param filter predicate that returns true for the symbol segments to be parsed.
+     * @return this filter, for chaining.
+     */
+    public final ParseFilter symbolSegments(final Predicate<SymbolSegment> filter) {
+        symbolSegmentFilter = filter;
+        return this;
+    }
+
+    /**
+     * Set the filter for label segments (NITF 2.0 only).
+     *
+     * @param filter predicate that returns true for the label segments to be parsed.
+     * @return this filter, for chaining.
+     */
+    public final ParseFilter labelSegments(final Predicate<LabelSegment> filter) {
+        labelSegmentFilter = filter;
+        return this;
+    }
+
+    /**
+     * Set the filter for text segments.
+     *
+     * @param filter predicate that returns true for the text segments to be parsed.
+     * @return this filter, for chaining.
+     */
+    public final ParseFilter textSegments(final Predicate<TextSegment> filter) {
+        textSegmentFilter = filter;
+        return this;
+    }
+
+    /**
+     * Set the filter for data extension segments.
+     *
+     * @param filter predicate that returns true for the data extension segments to be parsed, e.g.
+     * {@code segment -> "CSSHPA DES".equals(segment.getIdentifier().trim())}.
+     * @return this filter, for chaining.
+     */
+    public final ParseFilter dataExtensionSegments(final Predicate<DataExtensionSegment> filter) {
+        dataExtensionSegmentFilter = filter;
+        return this;
+    }
+
+    /**
+     * Set the filter for TREs.
+     *
+     * @param filter predicate on the TRE tag (name, without trailing spaces) that returns true for the TREs to be
+     * parsed.
+     * @return this filter, for chaining.
+     */
+    public final ParseFilter tres(final Predicate<String> filter) {
+        treFilter = filter;
+        return this;
+    }
+
+    /**
+     * Only parse the TREs with the specified names.
+     *
+     * @param treNames the names of the TREs to be parsed.
+     * @return this filter, for chaining.
+     */
+    public final ParseFilter treNames(final String... treNames) {
+        Set<String> names = new HashSet<>(Arrays.asList(treNames));
+        treFilter = names::contains;
+        return this;
+    }
+
+    /**
+     * Get the filter for TREs.
+     *
+     * @return predicate on the TRE tag.
+     */
+    public final Predicate<String> getTreFilter() {
+        return treFilter;
+    }
+
+    /**
+     * Test whether a segment matches the filter for its type.
+     *
+     * @param segment the segment to test.
+     * @return true if the segment should be parsed, otherwise false.
+     */
+    public final boolean accepts(final CommonSegment segment) {
+        if (segment instanceof ImageSegment) {
+            return imageSegmentFilter.test((ImageSegment) segment);
+        } else if (segment instanceof GraphicSegment) {
+            return graphicSegmentFilter.test((GraphicSegment) segment);
+        } else if (segment instanceof SymbolSegment) {
+            return symbolSegmentFilter.test((SymbolSegment) segment);
+        } else if (segment instanceof LabelSegment) {
+            return labelSegmentFilter.test((LabelSegment) segment);
+        } else if (segment instanceof TextSegment) {
+            return textSegmentFilter.test((TextSegment) segment);
+        } else if (segment instanceof DataExtensionSegment) {
+            return dataExtensionSegmentFilter.test((DataExtensionSegment) segment);
+        }
+        return true;
+    }
+}
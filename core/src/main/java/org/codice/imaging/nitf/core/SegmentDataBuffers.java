@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfReader;
+
+/**
+ * Support for reading segment data into memory in chunks.
+ * <p>
+ * Image segment data can be longer than a single array or ByteBuffer can hold, so it is read into a series of
+ * buffers. Every buffer except the last holds bufferLength bytes.
+ */
+final class SegmentDataBuffers {
+
+    /**
+     * The default length of each buffer, in bytes.
+     *
+     * This is small enough that each allocation is likely to succeed on a fragmented heap, while keeping the number
+     * of buffers for very large segments manageable.
+     */
+    static final int DEFAULT_BUFFER_LENGTH = 64 * 1024 * 1024;
+
+    private static final int COPY_CHUNK_SIZE = 1024 * 1024;
+
+    private SegmentDataBuffers() {
+    }
+
+    /**
+     * Read segment data into heap arrays, and return a stream over them.
+     *
+     * @param reader the reader, positioned at the start of the segment data.
+     * @param length the length of the segment data, in bytes.
+     * @param bufferLength the maximum length of each array, in bytes.
+     * @return a stream over the segment data.
+     * @throws NitfFormatException if the data could not be read.
+     */
+    static InputStream readToInputStream(final NitfReader reader, final long length, final int bufferLength)
+            throws NitfFormatException {
+        if (length <= bufferLength) {
+            return new ByteArrayInputStream(reader.readBytesRaw((int) length));
+        }
+        List<InputStream> streams = new ArrayList<>();
+        for (long remaining = length; remaining > 0; remaining -= bufferLength) {
+            streams.add(new ByteArrayInputStream(reader.readBytesRaw((int) Math.min(bufferLength, remaining))));
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    /**
+     * Read segment data into heap buffers.
+     *
+     * @param reader the reader, positioned at the start of the segment data.
+     * @param length the length of the segment data, in bytes.
+     * @param bufferLength the maximum length of each buffer, in bytes.
+     * @return the buffers, each with position zero and limit equal to the length of data it holds.
+     * @throws NitfFormatException if the data could not be read.
+     */
+    static List<ByteBuffer> readToHeap(final NitfReader reader, final long length, final int bufferLength)
+            throws NitfFormatException {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        long remaining = length;
+        do {
+            buffers.add(ByteBuffer.wrap(reader.readBytesRaw((int) Math.min(bufferLength, remaining))));
+            remaining -= bufferLength;
+        } while (remaining > 0);
+        return buffers;
+    }
+
+    /**
+     * Read segment data into buffers provided by an allocator, typically direct buffers.
+     * <p>
+     * The buffers are added to the supplied list as they are allocated, so that they can be released if reading
+     * fails.
+     *
+     * @param reader the reader, positioned at the start of the segment data.
+     * @param length the length of the segment data, in bytes.
+     * @param bufferLength the maximum length of each buffer, in bytes.
+     * @param allocator provides a buffer with at least the requested number of bytes remaining.
+     * @param buffers the list to add the buffers to. Each has position zero and limit equal to the length of data it
+     * holds.
+     * @throws NitfFormatException if the data could not be read.
+     */
+    static void readToBuffers(final NitfReader reader, final long length, final int bufferLength,
+            final IntFunction<ByteBuffer> allocator, final List<ByteBuffer> buffers) throws NitfFormatException {
+        long remaining = length;
+        do {
+            ByteBuffer buffer = allocator.apply((int) Math.min(bufferLength, remaining));
+            buffers.add(buffer);
+            remaining -= buffer.remaining();
+            while (buffer.hasRemaining()) {
+                buffer.put(reader.readBytesRaw(Math.min(COPY_CHUNK_SIZE, buffer.remaining())));
+            }
+            buffer.flip();
+        } while (remaining > 0);
+    }
+}
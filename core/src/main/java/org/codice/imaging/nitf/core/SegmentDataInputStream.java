@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfReader;
+
+/**
+ * InputStream over a fixed length range of a NitfReader.
+ * <p>
+ * Reads are passed straight through to the underlying reader, so nothing is buffered. Once the segment has been
+ * handled, finish() skips any unread data so the reader is positioned at the start of the next segment header.
+ */
+final class SegmentDataInputStream extends InputStream {
+
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+
+    private final NitfReader mReader;
+
+    private long mRemaining;
+
+    private boolean mClosed = false;
+
+    /**
+     * Constructor.
+     *
+     * @param reader the reader, positioned at the start of the segment data.
+     * @param length the length of the segment data, in bytes.
+     */
+    SegmentDataInputStream(final NitfReader reader, final long length) {
+        mReader = reader;
+        mRemaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        if (mRemaining <= 0) {
+            return -1;
+        }
+        return readFromReader(1)[0] & UNSIGNED_BYTE_MASK;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        if ((off < 0) || (len < 0) || (len > b.length - off)) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (mRemaining <= 0) {
+            return -1;
+        }
+        int count = (int) Math.min(len, mRemaining);
+        byte[] bytes = readFromReader(count);
+        System.arraycopy(bytes, 0, b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        ensureOpen();
+        long count = Math.min(n, mRemaining);
+        if (count <= 0) {
+            return 0;
+        }
+        try {
+            mReader.skip(count);
+        } catch (NitfFormatException ex) {
+            throw new IOException(ex);
+        }
+        mRemaining -= count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        mClosed = true;
+    }
+
+    /**
+     * Skip any unread data, and invalidate this stream.
+     *
+     * @throws NitfFormatException if the unread data could not be skipped.
+     */
+    void finish() throws NitfFormatException {
+        mClosed = true;
+        if (mRemaining > 0) {
+            mReader.skip(mRemaining);
+            mRemaining = 0;
+        }
+    }
+
+    private byte[] readFromReader(final int count) throws IOException {
+        try {
+            byte[] bytes = mReader.readBytesRaw(count);
+            mRemaining -= count;
+            return bytes;
+        } catch (NitfFormatException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (mClosed) {
+            throw new IOException("Segment data is only available during the segment callback");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Source of segment data that is generated as it is written, such as the output of an image encoder.
+ * <p>
+ * This allows segment data to be written without first being held in memory or in a temporary file.
+ */
+@FunctionalInterface
+public interface SegmentDataProducer {
+
+    /**
+     * Write the segment data to the output.
+     *
+     * @param output the target to write the segment data to.
+     * @throws IOException on write failure.
+     */
+    void writeData(DataOutput output) throws IOException;
+}
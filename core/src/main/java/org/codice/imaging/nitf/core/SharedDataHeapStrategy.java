@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.codice.imaging.nitf.core.common.ByteBufferReader;
+import org.codice.imaging.nitf.core.common.ByteBufferSegmentData;
+import org.codice.imaging.nitf.core.common.FileRegionSegmentData;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
+import org.codice.imaging.nitf.core.common.NitfReader;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An implementation of HeapStrategy that stores segment data so it can be read from several threads at once.
+ * <p>
+ * Data is stored either in memory or in a SpillStore, based on the supplied configuration, including any memory
+ * budget. If the reader is a ByteBufferReader, the data is not copied at all, and the segments share the reader's
+ * buffer.
+ * <p>
+ * The spilled regions are released by cleanUp(), after which the data is no longer available.
+ */
+public class SharedDataHeapStrategy implements HeapStrategy<SharedSegmentData> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedDataHeapStrategy.class);
+
+    private final HeapStrategyConfiguration heapStrategyConfiguration;
+
+    private final SpillStore spillStore;
+
+    private final List<FileRegionSegmentData> spilledRegions = new ArrayList<>();
+
+    private final MemoryBudgetReservations memoryBudgetReservations;
+
+    /**
+     * Constructor for a strategy that stores all data in memory.
+     */
+    public SharedDataHeapStrategy() {
+        this(new HeapStrategyConfiguration(length -> false));
+    }
+
+    /**
+     * Constructor for a strategy that spills data to the default temporary file directory.
+     *
+     * @param dataStrategyConfiguration a HeapStrategyConfiguration which determines whether data is stored in memory or
+     * in a temporary file, and the maximum size of data to store. May not be null.
+     */
+    public SharedDataHeapStrategy(final HeapStrategyConfiguration dataStrategyConfiguration) {
+        this(dataStrategyConfiguration, new SpillStore());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dataStrategyConfiguration a HeapStrategyConfiguration which determines whether data is stored in memory or
+     * in a temporary file, and the maximum size of data to store. May not be null.
+     * @param store the SpillStore to use for data that is not stored in memory. This may be shared with other
+     * strategies. May not be null.
+     */
+    public SharedDataHeapStrategy(final HeapStrategyConfiguration dataStrategyConfiguration, final SpillStore store) {
+        if (dataStrategyConfiguration == null) {
+            throw new IllegalArgumentException("SharedDataHeapStrategy(): argument "
+                    + "'heapStrategyConfiguration' may not be null.");
+        }
+        if (store == null) {
+            throw new IllegalArgumentException("SharedDataHeapStrategy(): argument 'store' may not be null.");
+        }
+        this.heapStrategyConfiguration = dataStrategyConfiguration;
+        this.spillStore = store;
+        if (dataStrategyConfiguration.getMemoryBudget() != null) {
+            this.memoryBudgetReservations = new MemoryBudgetReservations(dataStrategyConfiguration.getMemoryBudget(),
+                    dataStrategyConfiguration.getMemoryBudgetPolicy());
+        } else {
+            this.memoryBudgetReservations = null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final SharedSegmentData handleSegment(final NitfReader reader, final long length)
+            throws NitfFormatException {
+        if (!heapStrategyConfiguration.maximumFileSizePredicate().test(length)) {
+            reader.skip(length);
+            return null;
+        }
+        long startTime = NitfMetricsRegistry.startTimer();
+        SharedSegmentData result;
+        if (reader instanceof ByteBufferReader) {
+            result = new ByteBufferSegmentData(((ByteBufferReader) reader).readSlice((int) length));
+        } else if (heapStrategyConfiguration.temporaryFilePredicate().test(length)) {
+            result = copyToSpillStore(reader, length);
+        } else if (reserveMemory(length)) {
+            result = copyToMemory(reader, length);
+        } else if (memoryBudgetReservations.spillWhenRefused()) {
+            result = copyToSpillStore(reader, length);
+        } else {
+            reader.skip(length);
+            result = null;
+        }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.SEGMENT_DATA, startTime);
+        return result;
+    }
+
+    private boolean reserveMemory(final long length) throws NitfFormatException {
+        return (memoryBudgetReservations == null) || memoryBudgetReservations.reserve(length);
+    }
+
+    private SharedSegmentData copyToMemory(final NitfReader reader, final long length) throws NitfFormatException {
+        LOGGER.info(String.format("Storing %s bytes in heap space.", length));
+        try {
+            SharedSegmentData result = new ByteBufferSegmentData(
+                    SegmentDataBuffers.readToHeap(reader, length, SegmentDataBuffers.DEFAULT_BUFFER_LENGTH));
+            NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.COPIED, length);
+            return result;
+        } catch (NitfFormatException | RuntimeException ex) {
+            if (memoryBudgetReservations != null) {
+                memoryBudgetReservations.release(length);
+            }
+            throw ex;
+        }
+    }
+
+    private SharedSegmentData copyToSpillStore(final NitfReader reader, final long length) throws NitfFormatException {
+        LOGGER.info(String.format("Storing %s bytes in spill file.", length));
+        FileRegionSegmentData region = spillStore.store(reader, length);
+        synchronized (spilledRegions) {
+            spilledRegions.add(region);
+        }
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.COPIED, length);
+        return region;
+    }
+
+    @Override
+    public final void cleanUp() {
+        synchronized (spilledRegions) {
+            for (FileRegionSegmentData region : spilledRegions) {
+                spillStore.release(region);
+            }
+            spilledRegions.clear();
+        }
+        if (memoryBudgetReservations != null) {
+            memoryBudgetReservations.releaseAll();
+        }
+    }
+}
@@ -14,14 +14,33 @@
  */
 package org.codice.imaging.nitf.core;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.codice.imaging.nitf.core.common.AbstractSegmentWriter;
+import org.codice.imaging.nitf.core.common.CommonSegment;
+import org.codice.imaging.nitf.core.common.FileType;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
+import org.codice.imaging.nitf.core.common.SegmentType;
 import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
 import org.codice.imaging.nitf.core.dataextension.DataExtensionSegmentWriter;
 import org.codice.imaging.nitf.core.graphic.GraphicSegment;
 import org.codice.imaging.nitf.core.graphic.GraphicSegmentWriter;
 import org.codice.imaging.nitf.core.header.NitfHeaderWriter;
+import org.codice.imaging.nitf.core.header.SegmentLengths;
 import org.codice.imaging.nitf.core.image.ImageSegment;
 import org.codice.imaging.nitf.core.image.ImageSegmentWriter;
 import org.codice.imaging.nitf.core.label.LabelSegment;
@@ -30,15 +49,36 @@ import org.codice.imaging.nitf.core.symbol.SymbolSegment;
 import org.codice.imaging.nitf.core.symbol.SymbolSegmentWriter;
 import org.codice.imaging.nitf.core.text.TextSegment;
 import org.codice.imaging.nitf.core.text.TextSegmentWriter;
+import org.codice.imaging.nitf.core.tre.TreCache;
 import org.codice.imaging.nitf.core.tre.TreParser;
+import org.codice.imaging.nitf.core.tre.TreSource;
 
 /**
  * Output independent parts of a NitfWriter implementation.
+ * <p>
+ * Segment subheaders are serialised before anything is written, so that the subheader lengths (and any TREs) only
+ * need to be calculated once. Writing can then proceed in one of two ways:
+ * <ul>
+ * <li>"measure then emit", where the data lengths are taken from the segments, and the file header is written with
+ * the final lengths. This works on any output, including non-seekable streams.</li>
+ * <li>"back-patching", where the file header is written with placeholder data lengths, the segment data is streamed
+ * out, and the file header is re-written with the measured lengths. This requires a seekable output, but does not
+ * require the data lengths to be known in advance.</li>
+ * </ul>
  */
 public abstract class SharedNitfWriter implements NitfWriter {
 
     private TreParser mTreParser = null;
+
+    private TreCache mTreCache = null;
+
+    private ExecutorService mSubheaderExecutor = null;
+
     private DataSource mDataSource = null;
+    private final Map<CommonSegment, SegmentDataProducer> mDataProducers = new IdentityHashMap<>();
+    private final Map<SegmentType, List<byte[]>> mSubheaders = new EnumMap<>(SegmentType.class);
+    private RandomAccessFile mSeekableOutput = null;
+    private SegmentLengths mMeasuredLengths = null;
 
     /**
      * The target to write the data to.
@@ -54,16 +94,334 @@ public abstract class SharedNitfWriter implements NitfWriter {
         mDataSource = dataSource;
     }
 
+    /**
+     * Set an executor to serialise segment subheaders concurrently.
+     * <p>
+     * Each segment subheader (including security metadata, bands, LUTs and TREs) is serialised independently, so for
+     * files with many segments, or segments with large TREs, this can be done on a thread pool. The serialised
+     * subheaders are always written out in segment order by the calling thread.
+     * <p>
+     * The executor is not shut down by the writer. The data source must not be modified while writing is in progress.
+     *
+     * @param executor the executor to serialise subheaders on, or null to serialise them on the calling thread.
+     */
+    public final void setSubheaderExecutor(final ExecutorService executor) {
+        mSubheaderExecutor = executor;
+    }
+
+    /**
+     * Set a producer for the data of an image segment.
+     * <p>
+     * When a producer is set, it is used to write the image data instead of the image segment's data stream. This
+     * allows image data to be written as it is generated (e.g. by an encoder) without being held in memory.
+     * <p>
+     * If the output does not support back-patching, the producer must write exactly the number of bytes given by the
+     * image segment's data length.
+     *
+     * @param imageSegment the image segment (from the data source) that the producer provides data for.
+     * @param producer the producer of the image data, or null to use the image segment's data stream.
+     */
+    public final void setImageDataProducer(final ImageSegment imageSegment, final SegmentDataProducer producer) {
+        setDataProducer(imageSegment, producer);
+    }
+
+    /**
+     * Set a producer for the data of an image, graphic, symbol or data extension segment.
+     * <p>
+     * This is the same as setImageDataProducer(), but for any segment type that has a data length. Label and text
+     * segment data is always taken from the segment.
+     *
+     * @param segment the segment (from the data source) that the producer provides data for.
+     * @param producer the producer of the segment data, or null to use the segment's data.
+     */
+    public final void setDataProducer(final CommonSegment segment, final SegmentDataProducer producer) {
+        if ((segment instanceof LabelSegment) || (segment instanceof TextSegment)) {
+            throw new IllegalArgumentException("Data producers are not supported for label or text segments");
+        }
+        if (producer == null) {
+            mDataProducers.remove(segment);
+        } else {
+            mDataProducers.put(segment, producer);
+        }
+    }
+
     /**
      * Write out the data to the specified target.
+     * <p>
+     * This is the "measure then emit" approach, which does not require the output to be seekable.
      *
      * @throws NitfFormatException if there is a problem reading data
      * @throws IOException if there is a problem writing data
      */
     protected final void writeData() throws NitfFormatException, IOException {
+        long startTime = NitfMetricsRegistry.startTimer();
+        try {
+            startWriteSession();
+            serialiseSubheaders();
+            NitfHeaderWriter fileHeaderWriter = withTreCache(new NitfHeaderWriter(mOutput, mTreParser));
+            fileHeaderWriter.writeFileHeader(mDataSource, getDeclaredSegmentLengths());
+            writeSegments();
+        } finally {
+            mTreCache = null;
+        }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.WRITE, startTime);
+    }
+
+    /**
+     * Write out the data to the specified target, back-patching the lengths once the data has been written.
+     * <p>
+     * The output is positioned after the end of the written data on completion.
+     *
+     * @param output the seekable target to write the data to.
+     * @throws NitfFormatException if there is a problem reading data
+     * @throws IOException if there is a problem writing data
+     */
+    protected final void writeDataWithBackPatching(final RandomAccessFile output) throws NitfFormatException, IOException {
+        long startTime = NitfMetricsRegistry.startTimer();
+        mOutput = output;
+        mSeekableOutput = output;
+        try {
+            startWriteSession();
+            serialiseSubheaders();
+            mMeasuredLengths = new SegmentLengths();
+            for (SegmentType segmentType : SegmentType.values()) {
+                for (byte[] subheader : mSubheaders.get(segmentType)) {
+                    mMeasuredLengths.add(segmentType, subheader.length, 0);
+                }
+            }
+            long fileHeaderOffset = output.getFilePointer();
+            NitfHeaderWriter fileHeaderWriter = withTreCache(new NitfHeaderWriter(output, mTreParser));
+            fileHeaderWriter.writeFileHeader(mDataSource, mMeasuredLengths);
+            long fileHeaderEndOffset = output.getFilePointer();
+            writeSegments();
+            long endOffset = output.getFilePointer();
+            output.seek(fileHeaderOffset);
+            fileHeaderWriter.writeFileHeader(mDataSource, mMeasuredLengths);
+            if (output.getFilePointer() != fileHeaderEndOffset) {
+                throw new NitfFormatException("File header length changed while back-patching segment lengths");
+            }
+            output.seek(endOffset);
+        } finally {
+            // A failed write must not leave measured lengths behind for the next write to back-patch with
+            mMeasuredLengths = null;
+            mSeekableOutput = null;
+            mTreCache = null;
+        }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.WRITE, startTime);
+    }
+
+    /**
+     * Overwrite the file header and segment subheaders of an existing file, leaving the segment data in place.
+     * <p>
+     * This is only possible if the file header, every subheader and every segment data length are unchanged in size
+     * from the existing file. TRE overflow DES data is also rewritten, since it is generated from the TREs. Nothing is
+     * written if the sizes do not match.
+     *
+     * @param output the existing file, opened for writing.
+     * @param fileHeaderLength the length of the file header in the existing file.
+     * @param existingLengths the subheader and data lengths of each segment in the existing file.
+     * @return true if the headers were rewritten, false if the sizes did not match.
+     * @throws NitfFormatException if there is a problem reading data
+     * @throws IOException if there is a problem writing data
+     */
+    final boolean writeHeadersInPlace(final RandomAccessFile output, final long fileHeaderLength, final SegmentLengths existingLengths)
+            throws NitfFormatException, IOException {
+        try {
+            startWriteSession();
+            serialiseSubheaders();
+            SegmentLengths segmentLengths = getDeclaredSegmentLengths();
+            if (!segmentLengths.equals(existingLengths)) {
+                return false;
+            }
+            ByteArrayOutputStream fileHeader = new ByteArrayOutputStream();
+            withTreCache(new NitfHeaderWriter(new DataOutputStream(fileHeader), mTreParser)).writeFileHeader(mDataSource, segmentLengths);
+            if (fileHeader.size() != fileHeaderLength) {
+                return false;
+            }
+            output.seek(0);
+            output.write(fileHeader.toByteArray());
+            long offset = fileHeaderLength;
+            List<DataExtensionSegment> dataExtensionSegments = getDataExtensionSegmentsToWrite();
+            for (SegmentType segmentType : SegmentType.values()) {
+                for (int i = 0; i < segmentLengths.getNumberOfSegments(segmentType); ++i) {
+                    output.seek(offset);
+                    output.write(mSubheaders.get(segmentType).get(i));
+                    if ((segmentType == SegmentType.DATA_EXTENSION) && dataExtensionSegments.get(i).isTreOverflow()) {
+                        output.write(mTreCache.getTREs(dataExtensionSegments.get(i), TreSource.TreOverflowDES));
+                    }
+                    offset += segmentLengths.getSubheaderLength(segmentType, i) + segmentLengths.getDataLength(segmentType, i);
+                }
+            }
+            return true;
+        } finally {
+            mTreCache = null;
+        }
+    }
+
+    private void startWriteSession() throws NitfFormatException {
         mTreParser = new TreParser();
-        NitfHeaderWriter fileHeaderWriter = new NitfHeaderWriter(mOutput, mTreParser);
-        fileHeaderWriter.writeFileHeader(mDataSource);
+        mTreCache = new TreCache(mTreParser);
+    }
+
+    private <T extends AbstractSegmentWriter> T withTreCache(final T writer) {
+        writer.setTreCache(mTreCache);
+        return writer;
+    }
+
+    private void serialiseSubheaders() throws NitfFormatException, IOException {
+        FileType fileType = mDataSource.getNitfHeader().getFileType();
+        Map<SegmentType, List<SubheaderSerialiser>> serialisers = new EnumMap<>(SegmentType.class);
+        for (SegmentType segmentType : SegmentType.values()) {
+            serialisers.put(segmentType, new ArrayList<>());
+        }
+        for (ImageSegment imageSegment : mDataSource.getImageSegments()) {
+            serialisers.get(SegmentType.IMAGE).add(output -> withTreCache(new ImageSegmentWriter(output, mTreParser))
+                    .writeImageSubheader(imageSegment, fileType));
+        }
+        for (GraphicSegment graphicSegment : mDataSource.getGraphicSegments()) {
+            serialisers.get(SegmentType.GRAPHIC).add(output -> withTreCache(new GraphicSegmentWriter(output, mTreParser))
+                    .writeGraphicSubheader(graphicSegment));
+        }
+        for (SymbolSegment symbolSegment : mDataSource.getSymbolSegments()) {
+            serialisers.get(SegmentType.SYMBOL).add(output -> withTreCache(new SymbolSegmentWriter(output, mTreParser))
+                    .writeSymbolSubheader(symbolSegment));
+        }
+        for (LabelSegment labelSegment : mDataSource.getLabelSegments()) {
+            serialisers.get(SegmentType.LABEL).add(output -> withTreCache(new LabelSegmentWriter(output, mTreParser))
+                    .writeLabelSubheader(labelSegment));
+        }
+        for (TextSegment textSegment : mDataSource.getTextSegments()) {
+            serialisers.get(SegmentType.TEXT).add(output -> withTreCache(new TextSegmentWriter(output, mTreParser))
+                    .writeTextSubheader(textSegment, fileType));
+        }
+        for (DataExtensionSegment des : getDataExtensionSegmentsToWrite()) {
+            serialisers.get(SegmentType.DATA_EXTENSION).add(output -> withTreCache(new DataExtensionSegmentWriter(output, mTreParser))
+                    .writeDESSubheader(des));
+        }
+        if (mSubheaderExecutor == null) {
+            for (SegmentType segmentType : SegmentType.values()) {
+                List<byte[]> subheaders = new ArrayList<>();
+                for (SubheaderSerialiser serialiser : serialisers.get(segmentType)) {
+                    subheaders.add(serialise(serialiser));
+                }
+                mSubheaders.put(segmentType, subheaders);
+            }
+        } else {
+            serialiseSubheadersConcurrently(serialisers);
+        }
+    }
+
+    private void serialiseSubheadersConcurrently(final Map<SegmentType, List<SubheaderSerialiser>> serialisers)
+            throws NitfFormatException, IOException {
+        Map<SegmentType, List<Future<byte[]>>> futures = new EnumMap<>(SegmentType.class);
+        for (SegmentType segmentType : SegmentType.values()) {
+            List<Future<byte[]>> futuresForType = new ArrayList<>();
+            for (SubheaderSerialiser serialiser : serialisers.get(segmentType)) {
+                futuresForType.add(mSubheaderExecutor.submit(() -> serialise(serialiser)));
+            }
+            futures.put(segmentType, futuresForType);
+        }
+        try {
+            for (SegmentType segmentType : SegmentType.values()) {
+                List<byte[]> subheaders = new ArrayList<>();
+                for (Future<byte[]> future : futures.get(segmentType)) {
+                    subheaders.add(getSerialisedSubheader(future));
+                }
+                mSubheaders.put(segmentType, subheaders);
+            }
+        } finally {
+            for (List<Future<byte[]>> futuresForType : futures.values()) {
+                for (Future<byte[]> future : futuresForType) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    private static byte[] serialise(final SubheaderSerialiser serialiser) throws NitfFormatException, IOException {
+        ByteArrayOutputStream subheader = new ByteArrayOutputStream();
+        serialiser.writeSubheader(new DataOutputStream(subheader));
+        return subheader.toByteArray();
+    }
+
+    private static byte[] getSerialisedSubheader(final Future<byte[]> future) throws NitfFormatException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while serialising segment subheaders");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof NitfFormatException) {
+                throw (NitfFormatException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Failed to serialise segment subheader", cause);
+        }
+    }
+
+    /**
+     * Writes out a single segment subheader.
+     */
+    @FunctionalInterface
+    private interface SubheaderSerialiser {
+        void writeSubheader(DataOutput output) throws NitfFormatException, IOException;
+    }
+
+    private SegmentLengths getDeclaredSegmentLengths() throws NitfFormatException, IOException {
+        SegmentLengths segmentLengths = new SegmentLengths();
+        List<byte[]> imageSubheaders = mSubheaders.get(SegmentType.IMAGE);
+        for (int i = 0; i < imageSubheaders.size(); ++i) {
+            segmentLengths.add(SegmentType.IMAGE, imageSubheaders.get(i).length, mDataSource.getImageSegments().get(i).getDataLength());
+        }
+        List<byte[]> graphicSubheaders = mSubheaders.get(SegmentType.GRAPHIC);
+        for (int i = 0; i < graphicSubheaders.size(); ++i) {
+            segmentLengths.add(SegmentType.GRAPHIC, graphicSubheaders.get(i).length, mDataSource.getGraphicSegments().get(i).getDataLength());
+        }
+        List<byte[]> symbolSubheaders = mSubheaders.get(SegmentType.SYMBOL);
+        for (int i = 0; i < symbolSubheaders.size(); ++i) {
+            segmentLengths.add(SegmentType.SYMBOL, symbolSubheaders.get(i).length, mDataSource.getSymbolSegments().get(i).getDataLength());
+        }
+        List<byte[]> labelSubheaders = mSubheaders.get(SegmentType.LABEL);
+        for (int i = 0; i < labelSubheaders.size(); ++i) {
+            segmentLengths.add(SegmentType.LABEL, labelSubheaders.get(i).length, mDataSource.getLabelSegments().get(i).getData().length());
+        }
+        List<byte[]> textSubheaders = mSubheaders.get(SegmentType.TEXT);
+        for (int i = 0; i < textSubheaders.size(); ++i) {
+            segmentLengths.add(SegmentType.TEXT, textSubheaders.get(i).length, mDataSource.getTextSegments().get(i).getData().length());
+        }
+        List<byte[]> desSubheaders = mSubheaders.get(SegmentType.DATA_EXTENSION);
+        List<DataExtensionSegment> dataExtensionSegments = getDataExtensionSegmentsToWrite();
+        for (int i = 0; i < desSubheaders.size(); ++i) {
+            segmentLengths.add(SegmentType.DATA_EXTENSION, desSubheaders.get(i).length, getDeclaredDataLength(dataExtensionSegments.get(i)));
+        }
+        return segmentLengths;
+    }
+
+    private long getDeclaredDataLength(final DataExtensionSegment des) throws NitfFormatException, IOException {
+        if (des.isTreOverflow() && (des.getData() == null) && !mDataProducers.containsKey(des)) {
+            // The data is the overflowed TREs, which may have been modified since parsing
+            return mTreCache.getTREs(des, TreSource.TreOverflowDES).length;
+        }
+        return des.getDataLength();
+    }
+
+    private List<DataExtensionSegment> getDataExtensionSegmentsToWrite() {
+        List<DataExtensionSegment> dataExtensionSegments = new ArrayList<>();
+        for (DataExtensionSegment des : mDataSource.getDataExtensionSegments()) {
+            if (!des.isStreamingMode()) {
+                dataExtensionSegments.add(des);
+            }
+        }
+        return dataExtensionSegments;
+    }
+
+    private void writeSegments() throws NitfFormatException, IOException {
         writeImageSegments();
         writeGraphicSegments();
         writeSymbolSegments();
@@ -72,47 +430,95 @@ public abstract class SharedNitfWriter implements NitfWriter {
         writeDataExtensionSegments();
     }
 
+    private long startSegmentData(final SegmentType segmentType, final int index) throws IOException {
+        mOutput.write(mSubheaders.get(segmentType).get(index));
+        if (mSeekableOutput == null) {
+            return 0;
+        }
+        return mSeekableOutput.getFilePointer();
+    }
+
+    private void endSegmentData(final SegmentType segmentType, final int index, final long dataOffset) throws IOException {
+        if (mSeekableOutput != null) {
+            mMeasuredLengths.setDataLength(segmentType, index, mSeekableOutput.getFilePointer() - dataOffset);
+        }
+    }
+
     private void writeImageSegments() throws NitfFormatException, IOException {
-        ImageSegmentWriter imageSegmentWriter = new ImageSegmentWriter(mOutput, mTreParser);
-        for (ImageSegment imageSegment : mDataSource.getImageSegments()) {
-            imageSegmentWriter.writeImageSegment(imageSegment, mDataSource.getNitfHeader().getFileType());
+        ImageSegmentWriter imageSegmentWriter = withTreCache(new ImageSegmentWriter(mOutput, mTreParser));
+        List<ImageSegment> imageSegments = mDataSource.getImageSegments();
+        for (int i = 0; i < imageSegments.size(); ++i) {
+            long dataOffset = startSegmentData(SegmentType.IMAGE, i);
+            SegmentDataProducer producer = mDataProducers.get(imageSegments.get(i));
+            if (producer != null) {
+                producer.writeData(mOutput);
+            } else {
+                imageSegmentWriter.writeSegmentData(imageSegments.get(i).getData());
+            }
+            endSegmentData(SegmentType.IMAGE, i, dataOffset);
         }
     }
 
     private void writeGraphicSegments() throws IOException, NitfFormatException {
-        GraphicSegmentWriter graphicSegmentWriter = new GraphicSegmentWriter(mOutput, mTreParser);
-        for (GraphicSegment graphicSegment : mDataSource.getGraphicSegments()) {
-            graphicSegmentWriter.writeGraphicSegment(graphicSegment);
+        GraphicSegmentWriter graphicSegmentWriter = withTreCache(new GraphicSegmentWriter(mOutput, mTreParser));
+        List<GraphicSegment> graphicSegments = mDataSource.getGraphicSegments();
+        for (int i = 0; i < graphicSegments.size(); ++i) {
+            long dataOffset = startSegmentData(SegmentType.GRAPHIC, i);
+            SegmentDataProducer producer = mDataProducers.get(graphicSegments.get(i));
+            if (producer != null) {
+                producer.writeData(mOutput);
+            } else {
+                graphicSegmentWriter.writeSegmentData(graphicSegments.get(i).getData());
+            }
+            endSegmentData(SegmentType.GRAPHIC, i, dataOffset);
         }
     }
 
     private void writeSymbolSegments() throws NitfFormatException, IOException {
-        SymbolSegmentWriter symbolSegmentWriter = new SymbolSegmentWriter(mOutput, mTreParser);
-        for (SymbolSegment symbolSegment : mDataSource.getSymbolSegments()) {
-            symbolSegmentWriter.writeSymbolSegment(symbolSegment);
+        SymbolSegmentWriter symbolSegmentWriter = withTreCache(new SymbolSegmentWriter(mOutput, mTreParser));
+        List<SymbolSegment> symbolSegments = mDataSource.getSymbolSegments();
+        for (int i = 0; i < symbolSegments.size(); ++i) {
+            long dataOffset = startSegmentData(SegmentType.SYMBOL, i);
+            SegmentDataProducer producer = mDataProducers.get(symbolSegments.get(i));
+            if (producer != null) {
+                producer.writeData(mOutput);
+            } else {
+                symbolSegmentWriter.writeSegmentData(symbolSegments.get(i).getData());
+            }
+            endSegmentData(SegmentType.SYMBOL, i, dataOffset);
         }
     }
 
     private void writeLabelSegments() throws IOException, NitfFormatException {
-        LabelSegmentWriter labelSegmentWriter = new LabelSegmentWriter(mOutput, mTreParser);
-        for (LabelSegment labelSegment : mDataSource.getLabelSegments()) {
-            labelSegmentWriter.writeLabel(labelSegment);
+        List<LabelSegment> labelSegments = mDataSource.getLabelSegments();
+        for (int i = 0; i < labelSegments.size(); ++i) {
+            long dataOffset = startSegmentData(SegmentType.LABEL, i);
+            mOutput.writeBytes(labelSegments.get(i).getData());
+            endSegmentData(SegmentType.LABEL, i, dataOffset);
         }
     }
 
     private void writeTextSegments() throws NitfFormatException, IOException {
-        TextSegmentWriter textSegmentWriter = new TextSegmentWriter(mOutput, mTreParser);
-        for (TextSegment textSegment : mDataSource.getTextSegments()) {
-            textSegmentWriter.writeTextSegment(textSegment, mDataSource.getNitfHeader().getFileType());
+        List<TextSegment> textSegments = mDataSource.getTextSegments();
+        for (int i = 0; i < textSegments.size(); ++i) {
+            long dataOffset = startSegmentData(SegmentType.TEXT, i);
+            mOutput.writeBytes(textSegments.get(i).getData());
+            endSegmentData(SegmentType.TEXT, i, dataOffset);
         }
     }
 
     private void writeDataExtensionSegments() throws NitfFormatException, IOException {
-        DataExtensionSegmentWriter dataExtensionSegmentWriter = new DataExtensionSegmentWriter(mOutput, mTreParser);
-        for (DataExtensionSegment des : mDataSource.getDataExtensionSegments()) {
-            if (!des.isStreamingMode()) {
-                dataExtensionSegmentWriter.writeDESHeader(des);
+        DataExtensionSegmentWriter dataExtensionSegmentWriter = withTreCache(new DataExtensionSegmentWriter(mOutput, mTreParser));
+        List<DataExtensionSegment> dataExtensionSegments = getDataExtensionSegmentsToWrite();
+        for (int i = 0; i < dataExtensionSegments.size(); ++i) {
+            long dataOffset = startSegmentData(SegmentType.DATA_EXTENSION, i);
+            SegmentDataProducer producer = mDataProducers.get(dataExtensionSegments.get(i));
+            if (producer != null) {
+                producer.writeData(mOutput);
+            } else {
+                dataExtensionSegmentWriter.writeDESData(dataExtensionSegments.get(i));
             }
+            endSegmentData(SegmentType.DATA_EXTENSION, i, dataOffset);
         }
     }
 }
@@ -14,14 +14,17 @@
  */
 package org.codice.imaging.nitf.core;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.MemoryCacheImageInputStream;
 import javax.xml.transform.Source;
+import org.codice.imaging.nitf.core.common.CommonBasicSegment;
+import org.codice.imaging.nitf.core.common.CommonSegment;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import org.codice.imaging.nitf.core.common.ParseStrategy;
+import org.codice.imaging.nitf.core.common.SegmentType;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
 import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
 import org.codice.imaging.nitf.core.dataextension.DataExtensionSegmentParser;
 import org.codice.imaging.nitf.core.graphic.GraphicSegment;
@@ -50,6 +53,7 @@ public class SlottedParseStrategy implements ParseStrategy {
             new InMemoryHeapStrategy<>((InputStream is) -> new MemoryCacheImageInputStream(is));
     private HeapStrategy<ImageInputStream> desHeapStrategy
             = new InMemoryHeapStrategy<>((InputStream is) -> new MemoryCacheImageInputStream(is));
+    private HeapStrategy<SharedSegmentData> sharedDataHeapStrategy = null;
 
     /**
      * Stores the NITF data.
@@ -110,6 +114,8 @@ public class SlottedParseStrategy implements ParseStrategy {
 
     private int segmentsToExtract = ALL_SEGMENT_DATA;
 
+    private ParseFilter parseFilter = new ParseFilter();
+
     /**
      * Constructor.
      */
@@ -152,6 +158,36 @@ public class SlottedParseStrategy implements ParseStrategy {
         }
     }
 
+    /**
+     * Set the filter for the segments and TREs to parse.
+     *
+     * Segments that do not match the filter are skipped (including their TREs and data), and are not included in the
+     * resulting DataSource. TREs that do not match the filter are skipped without being parsed.
+     *
+     * @param filter the filter to apply. If null, then all segments and TREs are parsed.
+     */
+    public final void setParseFilter(final ParseFilter filter) {
+        if (filter != null) {
+            this.parseFilter = filter;
+        } else {
+            this.parseFilter = new ParseFilter();
+        }
+    }
+
+    /**
+     * Set the strategy to use for storing shared segment data.
+     *
+     * When set, image, graphic, symbol and DES data is stored using this strategy instead of the image and DES heap
+     * strategies, and is attached to the segments with setSharedData(). Each thread reading the segment data then gets
+     * its own cursor, so the resulting DataSource can be shared between threads once parsing is complete.
+     *
+     * @param dataStrategy the HeapStrategy to use for shared segment data, or null to use the image and DES heap
+     * strategies.
+     */
+    public final void setSharedDataHeapStrategy(final HeapStrategy<SharedSegmentData> dataStrategy) {
+        this.sharedDataHeapStrategy = dataStrategy;
+    }
+
     @Override
     public final NitfHeader getNitfHeader() {
         return nitfStorage.getNitfHeader();
@@ -171,6 +207,36 @@ public class SlottedParseStrategy implements ParseStrategy {
         return nitfStorage;
     }
 
+    /**
+     * Check whether this strategy stores the data of a type of segment.
+     * <p>
+     * The data of other types of segment is skipped without being read. Segments that the parse filter rejects are
+     * also skipped, even if their type is stored.
+     *
+     * @param segmentType the type of segment.
+     * @return true if the data of segments of this type is stored, otherwise false.
+     */
+    public final boolean isDataStored(final SegmentType segmentType) {
+        return (segmentsToExtract & getDataFlag(segmentType)) != 0;
+    }
+
+    private static int getDataFlag(final SegmentType segmentType) {
+        switch (segmentType) {
+            case IMAGE:
+                return IMAGE_DATA;
+            case GRAPHIC:
+                return GRAPHIC_DATA;
+            case SYMBOL:
+                return SYMBOL_DATA;
+            case LABEL:
+                return LABEL_DATA;
+            case TEXT:
+                return TEXT_DATA;
+            default:
+                return DES_DATA;
+        }
+    }
+
     private void initialiseTreCollectionParserIfRequired() throws NitfFormatException {
         if (treCollectionParser == null) {
             treCollectionParser = new TreCollectionParser();
@@ -184,8 +250,13 @@ public class SlottedParseStrategy implements ParseStrategy {
     public final void handleImageSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
         ImageSegmentParser imageSegmentParser = new ImageSegmentParser();
         ImageSegment imageSegment = imageSegmentParser.parse(reader, this, dataLength);
+        if (skipIfFilteredOut(imageSegment, reader, dataLength)) {
+            return;
+        }
         if ((segmentsToExtract & IMAGE_DATA) == IMAGE_DATA) {
-            if (dataLength > 0) {
+            if ((dataLength > 0) && (sharedDataHeapStrategy != null)) {
+                imageSegment.setSharedData(sharedDataHeapStrategy.handleSegment(reader, dataLength));
+            } else if (dataLength > 0) {
                 ImageInputStream iis = imageHeapStrategy.handleSegment(reader, dataLength);
                 imageSegment.setData(iis);
             }
@@ -204,11 +275,16 @@ public class SlottedParseStrategy implements ParseStrategy {
     public final void handleGraphicSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
         GraphicSegmentParser graphicSegmentParser = new GraphicSegmentParser();
         GraphicSegment graphicSegment = graphicSegmentParser.parse(reader, this, dataLength);
+        if (skipIfFilteredOut(graphicSegment, reader, dataLength)) {
+            return;
+        }
         if ((segmentsToExtract & GRAPHIC_DATA) == GRAPHIC_DATA) {
-            if (dataLength > 0) {
+            if ((dataLength > 0) && (sharedDataHeapStrategy != null)) {
+                graphicSegment.setSharedData(sharedDataHeapStrategy.handleSegment(reader, dataLength));
+            } else if (dataLength > 0) {
                 // TODO: [IMG-77] this implementation probably should have a file-backed option
-                byte[] bytes = reader.readBytesRaw((int) dataLength);
-                graphicSegment.setData(new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes)));
+                graphicSegment.setData(new MemoryCacheImageInputStream(
+                        SegmentDataBuffers.readToInputStream(reader, dataLength, SegmentDataBuffers.DEFAULT_BUFFER_LENGTH)));
             }
         } else {
             if (dataLength > 0) {
@@ -225,10 +301,15 @@ public class SlottedParseStrategy implements ParseStrategy {
     public final void handleSymbolSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
         SymbolSegmentParser symbolSegmentParser = new SymbolSegmentParser();
         SymbolSegment symbolSegment = symbolSegmentParser.parse(reader, this, dataLength);
+        if (skipIfFilteredOut(symbolSegment, reader, dataLength)) {
+            return;
+        }
         if ((segmentsToExtract & SYMBOL_DATA) == SYMBOL_DATA) {
-            if (dataLength > 0) {
-                byte[] bytes = reader.readBytesRaw((int) dataLength);
-                symbolSegment.setData(new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes)));
+            if ((dataLength > 0) && (sharedDataHeapStrategy != null)) {
+                symbolSegment.setSharedData(sharedDataHeapStrategy.handleSegment(reader, dataLength));
+            } else if (dataLength > 0) {
+                symbolSegment.setData(new MemoryCacheImageInputStream(
+                        SegmentDataBuffers.readToInputStream(reader, dataLength, SegmentDataBuffers.DEFAULT_BUFFER_LENGTH)));
             }
         } else {
             if (dataLength > 0) {
@@ -245,6 +326,9 @@ public class SlottedParseStrategy implements ParseStrategy {
     public final void handleLabelSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
         LabelSegmentParser labelSegmentParser = new LabelSegmentParser();
         LabelSegment labelSegment = labelSegmentParser.parse(reader, this);
+        if (skipIfFilteredOut(labelSegment, reader, dataLength)) {
+            return;
+        }
         if ((segmentsToExtract & LABEL_DATA) == LABEL_DATA) {
             if (dataLength > 0) {
                 labelSegment.setData(reader.readBytes((int) dataLength));
@@ -264,6 +348,9 @@ public class SlottedParseStrategy implements ParseStrategy {
     public final void handleTextSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
         TextSegmentParser textSegmentParser = new TextSegmentParser();
         TextSegment textSegment = textSegmentParser.parse(reader, this);
+        if (skipIfFilteredOut(textSegment, reader, dataLength)) {
+            return;
+        }
         if ((segmentsToExtract & TEXT_DATA) == TEXT_DATA) {
             if (dataLength > 0) {
                 String text = reader.readBytes((int) dataLength);
@@ -287,6 +374,9 @@ public class SlottedParseStrategy implements ParseStrategy {
 
         DataExtensionSegmentParser dataExtensionSegmentParser = new DataExtensionSegmentParser();
         DataExtensionSegment dataExtensionSegment = dataExtensionSegmentParser.parse(reader, dataLength);
+        if (skipIfFilteredOut(dataExtensionSegment, reader, dataLength)) {
+            return;
+        }
         if ((segmentsToExtract & DES_DATA) == DES_DATA) {
             if (dataLength > 0) {
                 readDataExtensionSegmentData(dataExtensionSegment, reader, dataLength);
@@ -316,11 +406,16 @@ public class SlottedParseStrategy implements ParseStrategy {
                 initialiseTreCollectionParserIfRequired();
                 TreCollection overflowTres = treCollectionParser.parse(reader,
                         (int) dataLength,
-                        TreSource.TreOverflowDES);
+                        TreSource.TreOverflowDES,
+                        parseFilter.getTreFilter());
                 dataExtensionSegment.mergeTREs(overflowTres);
             } else if (!"STREAMING_FILE_HEADER".equals(dataExtensionSegment.getIdentifier().trim())) {
-                ImageInputStream iis = desHeapStrategy.handleSegment(reader, dataLength);
-                dataExtensionSegment.setData(iis);
+                if (sharedDataHeapStrategy != null) {
+                    dataExtensionSegment.setSharedData(sharedDataHeapStrategy.handleSegment(reader, dataLength));
+                } else {
+                    ImageInputStream iis = desHeapStrategy.handleSegment(reader, dataLength);
+                    dataExtensionSegment.setData(iis);
+                }
             }
         }
     }
@@ -342,6 +437,25 @@ public class SlottedParseStrategy implements ParseStrategy {
     @Override
     public final TreCollection parseTREs(final NitfReader reader, final int length, final TreSource source) throws NitfFormatException {
         initialiseTreCollectionParserIfRequired();
-        return treCollectionParser.parse(reader, length, source);
+        return treCollectionParser.parse(reader, length, source, parseFilter.getTreFilter());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean isTreParsingRequired(final CommonBasicSegment segment) {
+        return parseFilter.accepts(segment);
+    }
+
+    private boolean skipIfFilteredOut(final CommonSegment segment, final NitfReader reader, final long dataLength)
+            throws NitfFormatException {
+        if (parseFilter.accepts(segment)) {
+            return false;
+        }
+        if (dataLength > 0) {
+            reader.skip(dataLength);
+        }
+        return true;
     }
 }
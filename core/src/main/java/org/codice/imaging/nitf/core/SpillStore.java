@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.codice.imaging.nitf.core.common.FileRegionSegmentData;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage for segment data that is spilled to disk.
+ * <p>
+ * Rather than creating a file for each segment, segment data is appended to a small number of large spill files in
+ * the spill directory, and each stored segment is returned as a read-only view of its region of a spill file. A new
+ * spill file is started when the current one would grow beyond the spill file size.
+ * <p>
+ * Every region is tracked. A spill file is closed and deleted as soon as all of the regions in it have been released,
+ * and close() deletes all remaining spill files. A SpillStore can be shared by several heap strategies, and is safe
+ * for use from several threads.
+ */
+public final class SpillStore implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillStore.class);
+
+    /**
+     * The default size at which a new spill file is started, in bytes.
+     */
+    public static final long DEFAULT_SPILL_FILE_SIZE = 256L * 1024 * 1024;
+
+    private static final int COPY_CHUNK_SIZE = 1024 * 1024;
+
+    private final Path spillDirectory;
+
+    private final long spillFileSize;
+
+    private final List<SpillFile> spillFiles = new ArrayList<>();
+
+    private final Map<FileRegionSegmentData, SpillFile> regions = new IdentityHashMap<>();
+
+    private SpillFile currentSpillFile = null;
+
+    private long storedBytes = 0;
+
+    /**
+     * A spill file, and the regions allocated in it.
+     */
+    private static final class SpillFile {
+        private final Path path;
+        private final FileChannel channel;
+        private long length = 0;
+        private int regionCount = 0;
+
+        SpillFile(final Path filePath, final FileChannel fileChannel) {
+            path = filePath;
+            channel = fileChannel;
+        }
+    }
+
+    /**
+     * A region allocated in a spill file, which has not yet been written.
+     */
+    private static final class Allocation {
+        private final SpillFile spillFile;
+        private final long offset;
+        private final FileRegionSegmentData region;
+
+        Allocation(final SpillFile file, final long regionOffset, final long length) {
+            spillFile = file;
+            offset = regionOffset;
+            region = new FileRegionSegmentData(file.channel, regionOffset, length);
+        }
+    }
+
+    /**
+     * Holder for the default store, so that it is only created when first used.
+     */
+    private static final class DefaultStoreHolder {
+        private static final SpillStore DEFAULT_STORE = new SpillStore();
+    }
+
+    /**
+     * Get the default store, which uses the default temporary file directory and spill file size.
+     * <p>
+     * The default store is shared by all heap strategies that do not have a store of their own, so should not be
+     * closed. Its spill files are deleted as each strategy releases its regions.
+     *
+     * @return the default store.
+     */
+    public static SpillStore getDefault() {
+        return DefaultStoreHolder.DEFAULT_STORE;
+    }
+
+    /**
+     * Constructor for a store in the default temporary file directory, using the default spill file size.
+     */
+    public SpillStore() {
+        this(Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Constructor for a store using the default spill file size.
+     *
+     * @param directory the directory to create spill files in. This is created if it does not exist.
+     */
+    public SpillStore(final Path directory) {
+        this(directory, DEFAULT_SPILL_FILE_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory to create spill files in. This is created if it does not exist.
+     * @param fileSize the size at which a new spill file is started, in bytes. Segments larger than this are stored in
+     * a spill file of their own.
+     */
+    public SpillStore(final Path directory, final long fileSize) {
+        if (directory == null) {
+            throw new IllegalArgumentException("SpillStore(): argument 'directory' may not be null.");
+        }
+        if (fileSize <= 0) {
+            throw new IllegalArgumentException("SpillStore(): argument 'fileSize' must be positive.");
+        }
+        spillDirectory = directory;
+        spillFileSize = fileSize;
+    }
+
+    /**
+     * Copy segment data from the reader into the store.
+     *
+     * @param reader the reader, positioned at the start of the segment data.
+     * @param length the length of the segment data, in bytes.
+     * @return a read-only view of the stored data, which remains valid until it is released.
+     * @throws NitfFormatException if the data could not be read or stored.
+     */
+    public FileRegionSegmentData store(final NitfReader reader, final long length) throws NitfFormatException {
+        Allocation allocation = allocate(length);
+        FileRegionSegmentData region = allocation.region;
+        try {
+            FileChannel channel = allocation.spillFile.channel;
+            long offset = allocation.offset;
+            long written = 0;
+            while (written < length) {
+                int chunkLength = (int) Math.min(COPY_CHUNK_SIZE, length - written);
+                ByteBuffer chunk = ByteBuffer.wrap(reader.readBytesRaw(chunkLength));
+                while (chunk.hasRemaining()) {
+                    written += channel.write(chunk, offset + written);
+                }
+            }
+            return region;
+        } catch (IOException ex) {
+            release(region);
+            throw new NitfFormatException("Unable to store segment data in spill file", ex);
+        } catch (NitfFormatException | RuntimeException ex) {
+            release(region);
+            throw ex;
+        }
+    }
+
+    /**
+     * Release a region previously returned by store().
+     * <p>
+     * If this is the last region in its spill file, the file is closed and deleted, after which cursors over any of
+     * its regions can no longer be read.
+     *
+     * @param region the region to release.
+     * @return true if the region was released, false if it was not stored in this store or has already been released.
+     */
+    public synchronized boolean release(final FileRegionSegmentData region) {
+        SpillFile spillFile = regions.remove(region);
+        if (spillFile == null) {
+            return false;
+        }
+        storedBytes -= region.getLength();
+        spillFile.regionCount--;
+        if (spillFile.regionCount == 0) {
+            spillFiles.remove(spillFile);
+            if (spillFile == currentSpillFile) {
+                currentSpillFile = null;
+            }
+            delete(spillFile);
+        }
+        return true;
+    }
+
+    /**
+     * Close and delete all spill files, including any regions that have not been released.
+     */
+    @Override
+    public synchronized void close() {
+        for (SpillFile spillFile : spillFiles) {
+            delete(spillFile);
+        }
+        spillFiles.clear();
+        regions.clear();
+        currentSpillFile = null;
+        storedBytes = 0;
+    }
+
+    /**
+     * @return the directory that spill files are created in.
+     */
+    public Path getDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * @return the size at which a new spill file is started, in bytes.
+     */
+    public long getSpillFileSize() {
+        return spillFileSize;
+    }
+
+    /**
+     * @return the number of spill files currently open.
+     */
+    public synchronized int getSpillFileCount() {
+        return spillFiles.size();
+    }
+
+    /**
+     * @return the number of regions that have been stored and not released.
+     */
+    public synchronized int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * @return the total length of the regions that have been stored and not released, in bytes.
+     */
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    private synchronized Allocation allocate(final long length) throws NitfFormatException {
+        if ((currentSpillFile == null) || ((currentSpillFile.length > 0) && (currentSpillFile.length + length > spillFileSize))) {
+            currentSpillFile = createSpillFile();
+            spillFiles.add(currentSpillFile);
+        }
+        Allocation allocation = new Allocation(currentSpillFile, currentSpillFile.length, length);
+        currentSpillFile.length += length;
+        currentSpillFile.regionCount++;
+        regions.put(allocation.region, currentSpillFile);
+        storedBytes += length;
+        return allocation;
+    }
+
+    private SpillFile createSpillFile() throws NitfFormatException {
+        try {
+            Files.createDirectories(spillDirectory);
+            Path path = Files.createTempFile(spillDirectory, "nitf", ".spill");
+            LOGGER.debug(String.format("Created spill file %s", path));
+            return new SpillFile(path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException ex) {
+            throw new NitfFormatException("Unable to create spill file in " + spillDirectory, ex);
+        }
+    }
+
+    private static void delete(final SpillFile spillFile) {
+        try {
+            spillFile.channel.close();
+            Files.deleteIfExists(spillFile.path);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete spill file.", e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
+import org.codice.imaging.nitf.core.graphic.GraphicSegment;
+import org.codice.imaging.nitf.core.header.NitfHeader;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.label.LabelSegment;
+import org.codice.imaging.nitf.core.symbol.SymbolSegment;
+import org.codice.imaging.nitf.core.text.TextSegment;
+import org.codice.imaging.nitf.core.tre.Tre;
+
+/**
+ * Callbacks for StreamingParseStrategy.
+ * <p>
+ * Each callback is made as soon as the corresponding part of the file has been parsed. The data stream passed to a
+ * segment callback is only valid for the duration of that callback. Any part of the data that is not read by the
+ * listener is skipped once the callback returns.
+ * <p>
+ * All methods have empty default implementations, so a listener only needs to implement the callbacks it is
+ * interested in.
+ */
+public interface StreamingParseListener {
+
+    /**
+     * Called when the file header has been parsed.
+     * <p>
+     * This is called before the first segment callback. Any TREs in the file header will already have been reported
+     * to onTre().
+     *
+     * @param nitfHeader the file header.
+     * @throws IOException if the listener cannot process the header.
+     */
+    default void onFileHeader(final NitfHeader nitfHeader) throws IOException {
+    }
+
+    /**
+     * Called when a TRE has been parsed.
+     * <p>
+     * TREs are reported as they are parsed, which is before the callback for the header or segment that contains
+     * them.
+     *
+     * @param tre the TRE.
+     * @throws IOException if the listener cannot process the TRE.
+     */
+    default void onTre(final Tre tre) throws IOException {
+    }
+
+    /**
+     * Called when an image segment has been parsed.
+     *
+     * @param imageSegment the image segment header.
+     * @param data the image segment data, only valid during this call.
+     * @throws IOException if the listener cannot process the segment.
+     */
+    default void onImageSegment(final ImageSegment imageSegment, final InputStream data) throws IOException {
+    }
+
+    /**
+     * Called when a graphic segment has been parsed.
+     *
+     * @param graphicSegment the graphic segment header.
+     * @param data the graphic segment data, only valid during this call.
+     * @throws IOException if the listener cannot process the segment.
+     */
+    default void onGraphicSegment(final GraphicSegment graphicSegment, final InputStream data) throws IOException {
+    }
+
+    /**
+     * Called when a symbol segment (NITF 2.0 only) has been parsed.
+     *
+     * @param symbolSegment the symbol segment header.
+     * @param data the symbol segment data, only valid during this call.
+     * @throws IOException if the listener cannot process the segment.
+     */
+    default void onSymbolSegment(final SymbolSegment symbolSegment, final InputStream data) throws IOException {
+    }
+
+    /**
+     * Called when a label segment (NITF 2.0 only) has been parsed.
+     *
+     * @param labelSegment the label segment header.
+     * @param data the label segment data, only valid during this call.
+     * @throws IOException if the listener cannot process the segment.
+     */
+    default void onLabelSegment(final LabelSegment labelSegment, final InputStream data) throws IOException {
+    }
+
+    /**
+     * Called when a text segment has been parsed.
+     *
+     * @param textSegment the text segment header.
+     * @param data the text segment data, only valid during this call.
+     * @throws IOException if the listener cannot process the segment.
+     */
+    default void onTextSegment(final TextSegment textSegment, final InputStream data) throws IOException {
+    }
+
+    /**
+     * Called when a data extension segment has been parsed.
+     * <p>
+     * For TRE_OVERFLOW segments, the overflow TREs have already been reported to onTre() and merged into the segment,
+     * and the data stream will be empty.
+     *
+     * @param dataExtensionSegment the data extension segment header.
+     * @param data the data extension segment data, only valid during this call.
+     * @throws IOException if the listener cannot process the segment.
+     */
+    default void onDataExtensionSegment(final DataExtensionSegment dataExtensionSegment, final InputStream data) throws IOException {
+    }
+
+    /**
+     * Called when parsing is complete.
+     *
+     * @throws IOException if the listener cannot complete processing.
+     */
+    default void onEnd() throws IOException {
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import javax.xml.transform.Source;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfReader;
+import org.codice.imaging.nitf.core.common.ParseStrategy;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegmentParser;
+import org.codice.imaging.nitf.core.graphic.GraphicSegment;
+import org.codice.imaging.nitf.core.graphic.GraphicSegmentParser;
+import org.codice.imaging.nitf.core.header.NitfHeader;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.ImageSegmentParser;
+import org.codice.imaging.nitf.core.label.LabelSegment;
+import org.codice.imaging.nitf.core.label.LabelSegmentParser;
+import org.codice.imaging.nitf.core.symbol.SymbolSegment;
+import org.codice.imaging.nitf.core.symbol.SymbolSegmentParser;
+import org.codice.imaging.nitf.core.text.TextSegment;
+import org.codice.imaging.nitf.core.text.TextSegmentParser;
+import org.codice.imaging.nitf.core.tre.Tre;
+import org.codice.imaging.nitf.core.tre.TreCollection;
+import org.codice.imaging.nitf.core.tre.TreCollectionParser;
+import org.codice.imaging.nitf.core.tre.TreSource;
+
+/**
+ * Event driven parse strategy.
+ * <p>
+ * Unlike SlottedParseStrategy, this strategy does not store the segments or their data. Instead each header, segment
+ * and TRE is passed to a StreamingParseListener as soon as it has been parsed. Segment data is passed as an
+ * InputStream that reads directly from the NitfReader, and is only valid during the callback. Any data the listener
+ * does not read is skipped. This allows arbitrarily large files, or files with many segments, to be processed in
+ * constant memory, including from non-seekable sources such as a socket.
+ * <p>
+ * An IOException thrown by the listener is wrapped in a NitfFormatException, which ends the parse and is thrown from
+ * parse(). The listener is not notified of the end of the file in that case.
+ */
+public final class StreamingParseStrategy implements ParseStrategy {
+
+    private final StreamingParseListener listener;
+
+    private final TreCollectionParser treCollectionParser;
+
+    private NitfHeader nitfHeader = null;
+
+    private boolean fileHeaderReported = false;
+
+    private NitfFormatException listenerFailure = null;
+
+    /**
+     * Callback for a segment's data stream.
+     */
+    @FunctionalInterface
+    private interface SegmentDataCallback {
+
+        void accept(InputStream data) throws IOException;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param parseListener the listener to notify as each part of the file is parsed.
+     * @throws NitfFormatException if the TRE descriptors could not be loaded.
+     */
+    public StreamingParseStrategy(final StreamingParseListener parseListener) throws NitfFormatException {
+        listener = parseListener;
+        treCollectionParser = new TreCollectionParser();
+    }
+
+    /**
+     * Register an additional TRE descriptor.
+     *
+     * @param source the source of the additional TreImpl descriptor.
+     * @throws NitfFormatException - when the TRE descriptors in the source are not in the expected format.
+     */
+    public void registerAdditionalTREdescriptor(final Source source) throws NitfFormatException {
+        treCollectionParser.registerAdditionalTREdescriptor(source);
+    }
+
+    /**
+     * Parse a NITF file, notifying the listener of each part, and then of the end of the file.
+     *
+     * @param reader the reader to parse from.
+     * @throws NitfFormatException if the file could not be parsed, or the listener failed to process any part of it.
+     */
+    public void parse(final NitfReader reader) throws NitfFormatException {
+        listenerFailure = null;
+        NitfParser.parse(reader, this);
+        // NitfParser only logs a failure to handle a segment, so listener failures have to be rethrown here
+        if (listenerFailure != null) {
+            throw listenerFailure;
+        }
+        reportFileHeaderIfRequired();
+        try {
+            listener.onEnd();
+        } catch (IOException ex) {
+            throw new NitfFormatException("Listener failed to process end of file", ex);
+        }
+    }
+
+    @Override
+    public void setFileHeader(final NitfHeader nitfFileHeader) {
+        nitfHeader = nitfFileHeader;
+        fileHeaderReported = false;
+    }
+
+    @Override
+    public NitfHeader getNitfHeader() {
+        return nitfHeader;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TreCollection parseTREs(final NitfReader reader, final int length, final TreSource source) throws NitfFormatException {
+        TreCollection treCollection = treCollectionParser.parse(reader, length, source);
+        try {
+            for (Tre tre : treCollection.getTREs()) {
+                listener.onTre(tre);
+            }
+        } catch (IOException ex) {
+            throw listenerFailed("Listener failed to process TRE", ex);
+        }
+        return treCollection;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handleImageSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+        reportFileHeaderIfRequired();
+        ImageSegment imageSegment = new ImageSegmentParser().parse(reader, this, dataLength);
+        handleData(reader, dataLength, data -> listener.onImageSegment(imageSegment, data));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handleGraphicSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+        reportFileHeaderIfRequired();
+        GraphicSegment graphicSegment = new GraphicSegmentParser().parse(reader, this, dataLength);
+        handleData(reader, dataLength, data -> listener.onGraphicSegment(graphicSegment, data));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handleSymbolSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+        reportFileHeaderIfRequired();
+        SymbolSegment symbolSegment = new SymbolSegmentParser().parse(reader, this, dataLength);
+        handleData(reader, dataLength, data -> listener.onSymbolSegment(symbolSegment, data));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handleLabelSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+        reportFileHeaderIfRequired();
+        LabelSegment labelSegment = new LabelSegmentParser().parse(reader, this);
+        handleData(reader, dataLength, data -> listener.onLabelSegment(labelSegment, data));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handleTextSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+        reportFileHeaderIfRequired();
+        TextSegment textSegment = new TextSegmentParser().parse(reader, this);
+        handleData(reader, dataLength, data -> listener.onTextSegment(textSegment, data));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handleDataExtensionSegment(final NitfReader reader, final long dataLength) throws NitfFormatException {
+        reportFileHeaderIfRequired();
+        DataExtensionSegment dataExtensionSegment = new DataExtensionSegmentParser().parse(reader, dataLength);
+        long remainingLength = dataLength;
+        if (dataExtensionSegment.isTreOverflow() && (dataLength > 0)) {
+            TreCollection overflowTres = parseTREs(reader, (int) dataLength, TreSource.TreOverflowDES);
+            dataExtensionSegment.mergeTREs(overflowTres);
+            remainingLength = 0;
+        }
+        handleData(reader, remainingLength, data -> listener.onDataExtensionSegment(dataExtensionSegment, data));
+    }
+
+    private void reportFileHeaderIfRequired() throws NitfFormatException {
+        if (!fileHeaderReported) {
+            fileHeaderReported = true;
+            try {
+                listener.onFileHeader(nitfHeader);
+            } catch (IOException ex) {
+                throw listenerFailed("Listener failed to process file header", ex);
+            }
+        }
+    }
+
+    private void handleData(final NitfReader reader, final long dataLength, final SegmentDataCallback callback)
+            throws NitfFormatException {
+        SegmentDataInputStream data = new SegmentDataInputStream(reader, dataLength);
+        try {
+            callback.accept(data);
+        } catch (IOException ex) {
+            throw listenerFailed("Listener failed to process segment", ex);
+        }
+        data.finish();
+    }
+
+    private NitfFormatException listenerFailed(final String message, final IOException cause) {
+        NitfFormatException failure = new NitfFormatException(message, cause);
+        if (listenerFailure == null) {
+            listenerFailure = failure;
+        }
+        return failure;
+    }
+}
@@ -43,7 +43,7 @@ public abstract class AbstractSegmentParser {
     protected final void readENCRYP() throws NitfFormatException {
         if (!"0".equals(reader.readBytes(ENCRYP_LENGTH))) {
             LOG.warn("Mismatch while reading ENCRYP");
-            throw new NitfFormatException("Unexpected ENCRYP value", (int) reader.getCurrentOffset());
+            throw new NitfFormatException("Unexpected ENCRYP value", reader.getCurrentOffset());
         }
     }
 
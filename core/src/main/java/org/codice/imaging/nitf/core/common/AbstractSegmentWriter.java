@@ -21,7 +21,9 @@ import static org.codice.imaging.nitf.core.common.CommonConstants.STANDARD_DATE_
 import org.codice.imaging.nitf.core.graphic.GraphicSegmentWriter;
 import org.codice.imaging.nitf.core.security.SecurityMetadata;
 import org.codice.imaging.nitf.core.security.SecurityMetadataWriter;
+import org.codice.imaging.nitf.core.tre.TreCache;
 import org.codice.imaging.nitf.core.tre.TreParser;
+import org.codice.imaging.nitf.core.tre.TreSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +51,8 @@ public abstract class AbstractSegmentWriter {
      */
     protected TreParser mTreParser = null;
 
+    private TreCache mTreCache = null;
+
     /**
      * Constructor.
      *
@@ -60,6 +64,33 @@ public abstract class AbstractSegmentWriter {
         mTreParser = treParser;
     }
 
+    /**
+     * Set a cache of serialised TREs to share with other writers.
+     * <p>
+     * If this is not set (or is set to null), TREs will be serialised each time they are needed.
+     *
+     * @param treCache the cache of serialised TREs, or null to not use a cache.
+     */
+    public final void setTreCache(final TreCache treCache) {
+        mTreCache = treCache;
+    }
+
+    /**
+     * Get the serialised TREs for the specified source, using the TRE cache if one has been set.
+     *
+     * @param handler the TRE handler to read TREs from
+     * @param source the source (which has to match the header) of the TREs.
+     * @return byte array of serialised TREs - may be empty if there are no TREs.
+     * @throws NitfFormatException on TRE parsing problem.
+     * @throws IOException on reading or writing problems.
+     */
+    protected final byte[] getTREs(final TaggedRecordExtensionHandler handler, final TreSource source) throws NitfFormatException, IOException {
+        if (mTreCache != null) {
+            return mTreCache.getTREs(handler, source);
+        }
+        return mTreParser.getTREs(handler, source);
+    }
+
     private String padNumberToLength(final long number, final int length) {
         return String.format("%0" + length + "d", number);
     }
@@ -202,8 +233,11 @@ public abstract class AbstractSegmentWriter {
         data.seek(0);
         byte[] buffer = new byte[GraphicSegmentWriter.BUFFER_SIZE];
         int bytesRead;
+        long bytesCopied = 0;
         while ((bytesRead = data.read(buffer)) != -1) {
             mOutput.write(buffer, 0, bytesRead);
+            bytesCopied += bytesRead;
         }
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.COPIED, bytesCopied);
     }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+    NitfReader implementation using an AsynchronousFileChannel.
+    <p>
+    Regions of the file, such as the file header and segment subheaders, can be loaded asynchronously before parsing,
+    using loadRegion(). Segment data, which is only read once, can be loaded in chunks using loadDataRegion(), and
+    each chunk is discarded as soon as it has been read. Reads that fall within loaded regions, including reads that
+    span consecutive regions, are served from memory. Any other read is made from the file by the parsing thread
+    when it is needed. This does not use the asynchronous channel, so parsing on the channel's executor cannot wait
+    for a task queued behind it. Skipping does not read anything, so segment data that the parse strategy skips is
+    never read.
+*/
+public class AsyncFileChannelReader extends SharedReader implements NitfReader, Closeable {
+
+    private final AsynchronousFileChannel channel;
+
+    private final FileChannel fileChannel;
+
+    private final long fileLength;
+
+    private final ConcurrentNavigableMap<Long, ByteBuffer> regions = new ConcurrentSkipListMap<>();
+
+    private final Set<Long> dataRegions = ConcurrentHashMap.newKeySet();
+
+    private long position = 0;
+
+    /**
+        Constructor.
+
+        @param file the file to read the NITF file contents from.
+        @param executor the executor to use for asynchronous I/O completion.
+        @throws IOException if the file could not be opened.
+    */
+    public AsyncFileChannelReader(final Path file, final ExecutorService executor) throws IOException {
+        channel = AsynchronousFileChannel.open(file, Collections.singleton(StandardOpenOption.READ), executor);
+        try {
+            fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+            fileLength = fileChannel.size();
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Close the file.
+     *
+     * @throws IOException if the file could not be closed.
+     */
+    @Override
+    public final void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    /**
+     * Get the length of the file.
+     *
+     * @return the file length in bytes.
+     */
+    public final long getFileLength() {
+        return fileLength;
+    }
+
+    /**
+     * Check whether a region of the file has been loaded.
+     *
+     * @param offset the offset of the start of the region from the start of the file.
+     * @param length the length of the region.
+     * @return true if all of the region is available from a single loaded region, otherwise false.
+     */
+    public final boolean isLoaded(final long offset, final long length) {
+        return findRegion(offset, length) != null;
+    }
+
+    /**
+     * Load a region of the file into memory asynchronously.
+     * <p>
+     * The region is only used for reads once the returned future has completed. Loading should not be started while
+     * the reader is being used to parse.
+     *
+     * @param offset the offset of the start of the region from the start of the file.
+     * @param length the length of the region.
+     * @return future for a read-only view of the loaded region, or that completes exceptionally if it could not be read.
+     */
+    public final CompletableFuture<ByteBuffer> loadRegion(final long offset, final int length) {
+        return load(offset, length, false);
+    }
+
+    /**
+     * Load a region of segment data into memory asynchronously.
+     * <p>
+     * This is the same as loadRegion(), except that the region is discarded once a read reaches its end, so the
+     * memory is released as soon as the parse strategy has stored the data. The data is expected to be read once,
+     * in order; any later read of the region is made from the file.
+     *
+     * @param offset the offset of the start of the region from the start of the file.
+     * @param length the length of the region.
+     * @return future for a read-only view of the loaded region, or that completes exceptionally if it could not be read.
+     */
+    public final CompletableFuture<ByteBuffer> loadDataRegion(final long offset, final int length) {
+        return load(offset, length, true);
+    }
+
+    private CompletableFuture<ByteBuffer> load(final long offset, final int length, final boolean discardAfterRead) {
+        CompletableFuture<ByteBuffer> result = new CompletableFuture<>();
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            channel.read(buffer, offset, buffer, new CompletionHandler<Integer, ByteBuffer>() {
+                @Override
+                public void completed(final Integer bytesRead, final ByteBuffer target) {
+                    if ((bytesRead >= 0) && target.hasRemaining()) {
+                        channel.read(target, offset + target.position(), target, this);
+                    } else if (target.hasRemaining()) {
+                        result.completeExceptionally(new NitfFormatException(
+                                String.format("Short read while loading NITF file region (%s/%s).", target.position(), length), offset));
+                    } else {
+                        target.flip();
+                        if (discardAfterRead) {
+                            dataRegions.add(offset);
+                        }
+                        regions.put(offset, target);
+                        result.complete(target.asReadOnlyBuffer());
+                    }
+                }
+
+                @Override
+                public void failed(final Throwable exc, final ByteBuffer target) {
+                    result.completeExceptionally(exc);
+                }
+            });
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Boolean canSeek() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final long getCurrentOffset() {
+        return position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void seekToEndOfFile() {
+        position = fileLength;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void seekBackwards(final long relativeOffset) throws NitfFormatException {
+        seekToAbsoluteOffset(position - relativeOffset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void seekToAbsoluteOffset(final long absoluteOffset) throws NitfFormatException {
+        if ((absoluteOffset < 0) || (absoluteOffset > fileLength)) {
+            throw new NitfFormatException("Unable to seek to absolute offset: " + absoluteOffset, position);
+        }
+        position = absoluteOffset;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final byte[] readBytesRaw(final int count) throws NitfFormatException {
+        if (count > fileLength - position) {
+            throw new NitfFormatException(String.format("Short read while reading from NITF file (%s/%s).", fileLength - position, count),
+                    position);
+        }
+        byte[] bytes = new byte[count];
+        ByteBuffer target = ByteBuffer.wrap(bytes);
+        while (target.hasRemaining()) {
+            long offset = position + target.position();
+            Map.Entry<Long, ByteBuffer> region = findRegion(offset, 1);
+            if (region == null) {
+                Long nextRegion = regions.higherKey(offset);
+                if ((nextRegion != null) && (nextRegion - offset < target.remaining())) {
+                    target.limit(target.position() + (int) (nextRegion - offset));
+                }
+                readFromFile(target);
+                target.limit(target.capacity());
+                continue;
+            }
+            ByteBuffer source = region.getValue().duplicate();
+            source.position((int) (offset - region.getKey()));
+            if (source.remaining() > target.remaining()) {
+                source.limit(source.position() + target.remaining());
+            }
+            target.put(source);
+            if ((source.limit() == region.getValue().limit()) && dataRegions.remove(region.getKey())) {
+                regions.remove(region.getKey());
+            }
+        }
+        position += count;
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.READ, count);
+        return bytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void skip(final long count) throws NitfFormatException {
+        if (count > fileLength - position) {
+            throw new NitfFormatException(String.format("Short skip while reading from NITF file (%s/%s).", fileLength - position, count),
+                    position);
+        }
+        position += count;
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.SKIPPED, count);
+    }
+
+    private Map.Entry<Long, ByteBuffer> findRegion(final long offset, final long length) {
+        Map.Entry<Long, ByteBuffer> region = regions.floorEntry(offset);
+        if ((region != null) && (offset + length <= region.getKey() + region.getValue().limit())) {
+            return region;
+        }
+        return null;
+    }
+
+    private void readFromFile(final ByteBuffer target) throws NitfFormatException {
+        try {
+            while (target.hasRemaining()) {
+                if (fileChannel.read(target, position + target.position()) < 0) {
+                    throw new NitfFormatException("Unexpected end of file reading from NITF file", position + target.position());
+                }
+            }
+        } catch (IOException ex) {
+            throw new NitfFormatException(FileReader.GENERIC_READ_ERROR_MESSAGE, ex);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.BooleanSupplier;
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * ImageInputStream reading directly from one or more ByteBuffers, without copying or caching.
+ * <p>
+ * The stream is the concatenation of the buffers, from index zero to the limit of each. Every buffer except the last
+ * must have the same limit, so that streams longer than a single buffer can be indexed directly. The buffer positions
+ * are changed by reads, so the buffers must not be shared with anything else.
+ * <p>
+ * Reads fail once the owner of the buffers reports that they have been released, so that a stream does not return
+ * whatever the memory has since been reused for.
+ */
+final class ByteBufferImageInputStream extends ImageInputStreamImpl {
+
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+
+    private final ByteBuffer[] buffers;
+
+    private final long bufferLength;
+
+    private final long streamLength;
+
+    private final BooleanSupplier released;
+
+    /**
+     * Constructor.
+     *
+     * @param data the buffer to read from, owned by this stream.
+     */
+    ByteBufferImageInputStream(final ByteBuffer data) {
+        this(new ByteBuffer[] {data});
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param data the buffers to read from, owned by this stream. There must be at least one buffer.
+     */
+    ByteBufferImageInputStream(final ByteBuffer[] data) {
+        this(data, () -> false);
+    }
+
+    /**
+     * Constructor for buffers that may be released while the stream is still open.
+     *
+     * @param data the buffers to read from, owned by this stream. There must be at least one buffer.
+     * @param releaseCheck reports whether the buffers have been released, after which reads fail.
+     */
+    ByteBufferImageInputStream(final ByteBuffer[] data, final BooleanSupplier releaseCheck) {
+        buffers = data;
+        released = releaseCheck;
+        bufferLength = Math.max(1, data[0].limit());
+        long length = 0;
+        for (ByteBuffer buffer : data) {
+            length += buffer.limit();
+        }
+        streamLength = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkReadable();
+        bitOffset = 0;
+        if (streamPos >= streamLength) {
+            return -1;
+        }
+        int b = buffers[(int) (streamPos / bufferLength)].get((int) (streamPos % bufferLength)) & UNSIGNED_BYTE_MASK;
+        streamPos++;
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        checkReadable();
+        if ((off < 0) || (len < 0) || (len > b.length - off)) {
+            throw new IndexOutOfBoundsException();
+        }
+        bitOffset = 0;
+        if (len == 0) {
+            return 0;
+        }
+        if (streamPos >= streamLength) {
+            return -1;
+        }
+        ByteBuffer buffer = buffers[(int) (streamPos / bufferLength)];
+        int bufferOffset = (int) (streamPos % bufferLength);
+        int count = Math.min(len, buffer.limit() - bufferOffset);
+        buffer.position(bufferOffset);
+        buffer.get(b, off, count);
+        streamPos += count;
+        return count;
+    }
+
+    @Override
+    public long length() {
+        return streamLength;
+    }
+
+    private void checkReadable() throws IOException {
+        checkClosed();
+        if (released.getAsBoolean()) {
+            throw new IOException("Segment data has been released.");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import java.nio.ByteBuffer;
+
+/**
+    NitfReader implementation using a ByteBuffer.
+    <p>
+    The reader is seekable, and reads from (and moves the position of) the buffer it is constructed with. The buffer
+    position at construction is treated as the start of the NITF file.
+*/
+public class ByteBufferReader extends SharedReader implements NitfReader {
+
+    private final ByteBuffer buffer;
+
+    private final int startPosition;
+
+    /**
+        Constructor.
+
+        @param nitfBuffer the buffer to read the NITF file contents from.
+    */
+    public ByteBufferReader(final ByteBuffer nitfBuffer) {
+        buffer = nitfBuffer;
+        startPosition = nitfBuffer.position();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final Boolean canSeek() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final long getCurrentOffset() {
+        return buffer.position() - startPosition;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void seekToEndOfFile() {
+        buffer.position(buffer.limit());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void seekBackwards(final long relativeOffset) throws NitfFormatException {
+        seekToAbsoluteOffset(getCurrentOffset() - relativeOffset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void seekToAbsoluteOffset(final long absoluteOffset) throws NitfFormatException {
+        if ((absoluteOffset < 0) || (absoluteOffset > buffer.limit() - startPosition)) {
+            throw new NitfFormatException("Unable to seek to absolute offset: " + absoluteOffset, getCurrentOffset());
+        }
+        buffer.position(startPosition + (int) absoluteOffset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final byte[] readBytesRaw(final int count) throws NitfFormatException {
+        if (count > buffer.remaining()) {
+            throw new NitfFormatException(String.format("Short read while reading from NITF buffer (%s/%s).", buffer.remaining(), count),
+                    getCurrentOffset());
+        }
+        byte[] bytes = new byte[count];
+        buffer.get(bytes);
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.READ, count);
+        return bytes;
+    }
+
+    /**
+     * Read bytes from the buffer without copying them.
+     *
+     * @param count the number of bytes to read.
+     * @return read-only buffer sharing the content of this reader's buffer, positioned at zero and limited to count.
+     * @throws NitfFormatException if there are not enough bytes remaining.
+     */
+    public final ByteBuffer readSlice(final int count) throws NitfFormatException {
+        if (count > buffer.remaining()) {
+            throw new NitfFormatException(String.format("Short read while reading from NITF buffer (%s/%s).", buffer.remaining(), count),
+                    getCurrentOffset());
+        }
+        ByteBuffer slice = buffer.slice();
+        slice.limit(count);
+        buffer.position(buffer.position() + count);
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.READ, count);
+        return slice.asReadOnlyBuffer();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final void skip(final long count) throws NitfFormatException {
+        if (count > buffer.remaining()) {
+            throw new NitfFormatException(String.format("Short skip while reading from NITF buffer (%s/%s).", buffer.remaining(), count),
+                    getCurrentOffset());
+        }
+        buffer.position(buffer.position() + (int) count);
+        NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.SKIPPED, count);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * SharedSegmentData held in one or more ByteBuffers.
+ * <p>
+ * The buffers may be heap buffers (e.g. wrapping an array), direct buffers or mapped files. The content from each
+ * buffer's position to its limit is used, and is not copied. Data longer than a single buffer can hold is split over
+ * several buffers.
+ * <p>
+ * An owner that frees or reuses the buffers calls release() first, after which reads from every cursor fail.
+ */
+public final class ByteBufferSegmentData extends SharedSegmentData {
+
+    private final ByteBuffer[] data;
+
+    private final long dataLength;
+
+    private volatile boolean released = false;
+
+    /**
+     * Constructor.
+     *
+     * @param buffer the buffer containing the segment data, which must not be modified after this call.
+     */
+    public ByteBufferSegmentData(final ByteBuffer buffer) {
+        this(Collections.singletonList(buffer));
+    }
+
+    /**
+     * Constructor for segment data split over several buffers.
+     *
+     * @param buffers the buffers containing the segment data, in order, which must not be modified after this call.
+     * There must be at least one buffer, and every buffer except the last must have the same number of bytes
+     * remaining.
+     */
+    public ByteBufferSegmentData(final List<ByteBuffer> buffers) {
+        if (buffers.isEmpty()) {
+            throw new IllegalArgumentException("ByteBufferSegmentData(): argument 'buffers' may not be empty.");
+        }
+        data = new ByteBuffer[buffers.size()];
+        long length = 0;
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = buffers.get(i).slice().asReadOnlyBuffer();
+            if ((i > 0) && (data[i - 1].limit() != data[0].limit())) {
+                throw new IllegalArgumentException("ByteBufferSegmentData(): all buffers except the last must be the same length.");
+            }
+            length += data[i].limit();
+        }
+        dataLength = length;
+    }
+
+    @Override
+    public long getLength() {
+        return dataLength;
+    }
+
+    @Override
+    public ImageInputStream newCursor() {
+        ByteBuffer[] cursorData = new ByteBuffer[data.length];
+        for (int i = 0; i < data.length; ++i) {
+            cursorData[i] = data[i].duplicate();
+        }
+        return new ByteBufferImageInputStream(cursorData, () -> released);
+    }
+
+    /**
+     * Mark the data as released.
+     * <p>
+     * Reads from any cursor, including those created before this call, fail with an IOException afterwards. The
+     * buffers themselves are not changed, so the caller is then free to reuse or free them. Cursors must not be in
+     * use by another thread at the time of the call.
+     */
+    public void release() {
+        released = true;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * ImageInputStream over a region of a FileChannel.
+ * <p>
+ * All reads are positional, so several streams can share a channel. Small reads are served from a read-ahead buffer
+ * owned by this stream. Closing the stream does not close the channel.
+ */
+final class FileChannelImageInputStream extends ImageInputStreamImpl {
+
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+
+    private final long regionOffset;
+
+    private final long regionLength;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private long bufferStart = 0;
+
+    private int bufferLength = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param fileChannel the channel to read from.
+     * @param offset the offset of the region in the file.
+     * @param length the length of the region.
+     */
+    FileChannelImageInputStream(final FileChannel fileChannel, final long offset, final long length) {
+        channel = fileChannel;
+        regionOffset = offset;
+        regionLength = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        if (!fillBuffer()) {
+            return -1;
+        }
+        int b = buffer[(int) (streamPos - bufferStart)] & UNSIGNED_BYTE_MASK;
+        streamPos++;
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        checkClosed();
+        if ((off < 0) || (len < 0) || (len > b.length - off)) {
+            throw new IndexOutOfBoundsException();
+        }
+        bitOffset = 0;
+        if (len == 0) {
+            return 0;
+        }
+        if (streamPos >= regionLength) {
+            return -1;
+        }
+        if (len >= BUFFER_SIZE) {
+            int count = readFromChannel(b, off, (int) Math.min(len, regionLength - streamPos), streamPos);
+            if (count <= 0) {
+                return -1;
+            }
+            streamPos += count;
+            return count;
+        }
+        if (!fillBuffer()) {
+            return -1;
+        }
+        int bufferOffset = (int) (streamPos - bufferStart);
+        int count = Math.min(len, bufferLength - bufferOffset);
+        System.arraycopy(buffer, bufferOffset, b, off, count);
+        streamPos += count;
+        return count;
+    }
+
+    @Override
+    public long length() {
+        return regionLength;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        if ((streamPos >= bufferStart) && (streamPos < bufferStart + bufferLength)) {
+            return true;
+        }
+        if (streamPos >= regionLength) {
+            return false;
+        }
+        bufferStart = streamPos;
+        bufferLength = Math.max(0, readFromChannel(buffer, 0, (int) Math.min(BUFFER_SIZE, regionLength - streamPos), streamPos));
+        return bufferLength > 0;
+    }
+
+    private int readFromChannel(final byte[] b, final int off, final int len, final long position) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(b, off, len);
+        int total = 0;
+        while (target.hasRemaining()) {
+            int count = channel.read(target, regionOffset + position + total);
+            if (count < 0) {
+                break;
+            }
+            total += count;
+        }
+        return total;
+    }
+}
@@ -141,6 +141,7 @@ public class FileReader extends SharedReader implements NitfReader {
             currentOffset = nitfFile.getFilePointer();
             byte[] bytes = new byte[count];
             nitfFile.readFully(bytes);
+            NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.READ, count);
             return bytes;
         } catch (IOException ex) {
             LOG.warn("IO Exception reading raw bytes", ex);
@@ -153,15 +154,15 @@ public class FileReader extends SharedReader implements NitfReader {
      */
     @Override
     public final void skip(final long count) throws NitfFormatException {
-        long bytesToRead = count;
         long currentOffset = 0;
         try {
             currentOffset = nitfFile.getFilePointer();
-            long thisRead = 0;
-            do {
-                thisRead = nitfFile.skipBytes((int) bytesToRead);
-                bytesToRead -= thisRead;
-            } while (bytesToRead > 0);
+            if (currentOffset + count > nitfFile.length()) {
+                throw new NitfFormatException(String.format("Short skip while reading from NITF file (%s/%s).",
+                        nitfFile.length() - currentOffset, count), currentOffset);
+            }
+            nitfFile.seek(currentOffset + count);
+            NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.SKIPPED, count);
         } catch (IOException ex) {
             LOG.warn("IO Exception skipping bytes", ex);
             throw new NitfFormatException(GENERIC_READ_ERROR_MESSAGE + ex.getMessage(), currentOffset);
@@ -187,7 +188,7 @@ public class FileReader extends SharedReader implements NitfReader {
         try {
             return Channels.newInputStream(nitfFile.getChannel().position(offset));
         } catch (IOException ex) {
-            throw new NitfFormatException("IOException while getting input stream: " + ex, (int) offset);
+            throw new NitfFormatException("IOException while getting input stream: " + ex, offset);
         }
     }
 
@@ -205,7 +206,7 @@ public class FileReader extends SharedReader implements NitfReader {
             return iis;
         } catch (IOException ex) {
             java.util.logging.Logger.getLogger(FileReader.class.getName()).log(Level.SEVERE, null, ex);
-            throw new NitfFormatException("Error seeking while creating image input stream: " + ex, (int) offset);
+            throw new NitfFormatException("Error seeking while creating image input stream: " + ex, offset);
         }
     }
 
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import java.nio.channels.FileChannel;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * SharedSegmentData held in a region of a file.
+ * <p>
+ * Cursors use positional reads on the channel, so they do not affect the channel position or each other. The channel
+ * is not closed by closing the cursors, and must remain open while any cursor is in use.
+ */
+public final class FileRegionSegmentData extends SharedSegmentData {
+
+    private final FileChannel fileChannel;
+
+    private final long regionOffset;
+
+    private final long regionLength;
+
+    /**
+     * Constructor.
+     *
+     * @param channel the channel to read from.
+     * @param offset the offset of the segment data in the file, in bytes.
+     * @param length the length of the segment data, in bytes.
+     */
+    public FileRegionSegmentData(final FileChannel channel, final long offset, final long length) {
+        fileChannel = channel;
+        regionOffset = offset;
+        regionLength = length;
+    }
+
+    @Override
+    public long getLength() {
+        return regionLength;
+    }
+
+    @Override
+    public ImageInputStream newCursor() {
+        return new FileChannelImageInputStream(fileChannel, regionOffset, regionLength);
+    }
+}
@@ -95,6 +95,7 @@ public class NitfInputStreamReader extends SharedReader implements NitfReader {
                                          numBytesRead + thisRead);
             }
             numBytesRead += thisRead;
+            NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.READ, thisRead);
             return bytes;
         } catch (IOException ex) {
             LOG.warn("IO Exception reading raw bytes", ex);
@@ -115,6 +116,7 @@ public class NitfInputStreamReader extends SharedReader implements NitfReader {
                 numBytesRead += thisRead;
                 bytesToRead -= thisRead;
             } while (bytesToRead > 0);
+            NitfMetricsRegistry.getMetrics().recordBytes(NitfMetrics.ByteCount.SKIPPED, count);
         } catch (IOException ex) {
             LOG.warn("IO Exception skipping bytes", ex);
             throw new NitfFormatException(GENERIC_READ_ERROR_MESSAGE + ex.getMessage(), numBytesRead);
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import org.codice.imaging.nitf.core.image.ImageCompression;
+
+/**
+ * Service provider interface for parse, render and write metrics.
+ * <p>
+ * An implementation is installed process-wide using NitfMetricsRegistry, and is typically an adapter to a metrics
+ * library. All of the recording methods default to doing nothing, so an adapter only needs to implement the
+ * measurements it is interested in.
+ * <p>
+ * Implementations will be called from any thread that is parsing, rendering or writing, and so must be thread safe.
+ * They are also called from the inner parts of the parser, so should be cheap.
+ */
+public interface NitfMetrics {
+
+    /**
+     * The phases of processing that are timed.
+     * <p>
+     * Phases can nest. For example, TRE parsing time is included in the time for the subheader that contains the TREs,
+     * and each subheader is included in the PARSE time.
+     */
+    enum Phase {
+        /**
+         * Parsing of a complete file, including storage of any segment data.
+         */
+        PARSE,
+        /**
+         * Parsing of the file header.
+         */
+        FILE_HEADER,
+        /**
+         * Parsing of an image segment subheader.
+         */
+        IMAGE_SUBHEADER,
+        /**
+         * Parsing of a graphic segment subheader.
+         */
+        GRAPHIC_SUBHEADER,
+        /**
+         * Parsing of a symbol segment subheader.
+         */
+        SYMBOL_SUBHEADER,
+        /**
+         * Parsing of a label segment subheader.
+         */
+        LABEL_SUBHEADER,
+        /**
+         * Parsing of a text segment subheader.
+         */
+        TEXT_SUBHEADER,
+        /**
+         * Parsing of a data extension segment subheader.
+         */
+        DES_SUBHEADER,
+        /**
+         * Parsing of a collection of TREs.
+         */
+        TRE,
+        /**
+         * Storage of segment data by a heap strategy.
+         */
+        SEGMENT_DATA,
+        /**
+         * Rendering of an image segment.
+         */
+        RENDER,
+        /**
+         * Writing of a complete file.
+         */
+        WRITE
+    }
+
+    /**
+     * The kinds of byte count that are recorded.
+     */
+    enum ByteCount {
+        /**
+         * Bytes read from the NITF source.
+         */
+        READ,
+        /**
+         * Bytes of the NITF source that were skipped over without being read.
+         */
+        SKIPPED,
+        /**
+         * Bytes of segment data copied into storage (e.g. by a heap strategy) or to the output (e.g. by a writer).
+         */
+        COPIED
+    }
+
+    /**
+     * Whether this implementation is recording anything.
+     * <p>
+     * When this returns false, the library skips the work needed to take measurements (such as reading the clock).
+     *
+     * @return true if measurements should be made, otherwise false.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Record the time spent in a processing phase.
+     *
+     * @param phase the phase that was timed.
+     * @param nanoseconds the elapsed time, in nanoseconds.
+     */
+    default void recordTime(final Phase phase, final long nanoseconds) {
+    }
+
+    /**
+     * Record a number of bytes.
+     *
+     * @param byteCount the kind of byte count.
+     * @param count the number of bytes.
+     */
+    default void recordBytes(final ByteCount byteCount, final long count) {
+    }
+
+    /**
+     * Record that a TRE was parsed.
+     *
+     * @param tag the TRE tag (e.g. "ACFTB").
+     */
+    default void recordTre(final String tag) {
+    }
+
+    /**
+     * Record that image blocks were decoded.
+     *
+     * @param compression the image compression of the blocks.
+     * @param count the number of blocks.
+     */
+    default void recordBlocksDecoded(final ImageCompression compression, final long count) {
+    }
+
+    /**
+     * Record a cache lookup.
+     *
+     * @param cacheName the name of the cache (e.g. "TreCache").
+     * @param hit true if the lookup was satisfied from the cache, false if it was a miss.
+     */
+    default void recordCacheLookup(final String cacheName, final boolean hit) {
+    }
+
+    /**
+     * Record a memory budget reservation that was granted.
+     *
+     * @param bytes the number of bytes reserved.
+     * @param waitNanoseconds the time spent waiting for the reservation, in nanoseconds (zero if it did not wait).
+     */
+    default void recordMemoryReservation(final long bytes, final long waitNanoseconds) {
+    }
+
+    /**
+     * Record a memory budget reservation that was refused, so the data was spilled to disk or skipped instead.
+     *
+     * @param bytes the number of bytes requested.
+     */
+    default void recordMemoryReservationRefused(final long bytes) {
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+/**
+ * Process-wide registration of the NitfMetrics implementation.
+ * <p>
+ * By default, a no-op implementation is installed, and the instrumented code does not read the clock or do any
+ * other measurement work.
+ */
+public final class NitfMetricsRegistry {
+
+    private static final NitfMetrics NO_OP_METRICS = new NitfMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    private static volatile NitfMetrics metrics = NO_OP_METRICS;
+
+    private NitfMetricsRegistry() {
+    }
+
+    /**
+     * Get the installed metrics implementation.
+     *
+     * @return the metrics implementation, which will be a no-op implementation if none has been installed.
+     */
+    public static NitfMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Install a metrics implementation.
+     *
+     * @param nitfMetrics the metrics implementation, or null to restore the no-op implementation.
+     */
+    public static void setMetrics(final NitfMetrics nitfMetrics) {
+        if (nitfMetrics == null) {
+            metrics = NO_OP_METRICS;
+        } else {
+            metrics = nitfMetrics;
+        }
+    }
+
+    /**
+     * Start timing a phase.
+     *
+     * @return the start time to pass to stopTimer(), or zero if metrics are not enabled.
+     */
+    public static long startTimer() {
+        if (metrics.isEnabled()) {
+            return System.nanoTime();
+        }
+        return 0;
+    }
+
+    /**
+     * Finish timing a phase, and record the elapsed time.
+     *
+     * @param phase the phase that was timed.
+     * @param startTime the value returned by startTimer() at the start of the phase.
+     */
+    public static void stopTimer(final NitfMetrics.Phase phase, final long startTime) {
+        if (startTime != 0) {
+            metrics.recordTime(phase, System.nanoTime() - startTime);
+        }
+    }
+}
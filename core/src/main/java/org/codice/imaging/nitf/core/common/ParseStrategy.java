@@ -49,6 +49,19 @@ public interface ParseStrategy {
      */
     TreCollection parseTREs(NitfReader reader, int length, TreSource source) throws NitfFormatException;
 
+    /**
+     * Determine whether the TREs in a segment subheader should be parsed.
+     *
+     * This is called by the segment parsers after the fixed length subheader fields have been read, and before the
+     * TRE data. If this returns false, the TRE data is skipped without being parsed.
+     *
+     * @param segment the partially parsed segment, which does not yet contain any TREs.
+     * @return true if the TREs should be parsed, otherwise false.
+     */
+    default boolean isTreParsingRequired(final CommonBasicSegment segment) {
+        return true;
+    }
+
     /**
      * Handle the text segment header and data.
      *
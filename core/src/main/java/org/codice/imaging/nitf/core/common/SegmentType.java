@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+/**
+ * The kinds of segment that can follow the file header in a NITF file.
+ * <p>
+ * The enumeration order is the order that segments appear in the file.
+ */
+public enum SegmentType {
+
+    /**
+     * Image segment.
+     */
+    IMAGE,
+    /**
+     * Graphic segment.
+     *
+     * (Not NITF 2.0).
+     */
+    GRAPHIC,
+    /**
+     * Symbol segment.
+     *
+     * (NITF 2.0 only).
+     */
+    SYMBOL,
+    /**
+     * Label segment.
+     *
+     * (NITF 2.0 only).
+     */
+    LABEL,
+    /**
+     * Text segment.
+     */
+    TEXT,
+    /**
+     * Data Extension Segment (DES).
+     */
+    DATA_EXTENSION
+}
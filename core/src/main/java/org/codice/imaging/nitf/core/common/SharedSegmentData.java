@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import java.io.IOException;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Segment data that can be shared between threads.
+ * <p>
+ * The underlying bytes (for example an in-memory array, a mapped buffer or a region of a file) are held once, and each
+ * user gets an independent cursor with its own position. Reading from one cursor does not affect any other cursor,
+ * so a parsed segment can be rendered or written from several threads at once.
+ * <p>
+ * Implementations must allow newCursor() to be called concurrently.
+ * <p>
+ * Threads that are reused after they have finished with the segment (for example, pool threads) should call
+ * releaseThreadCursor() so that their cursor does not keep the data reachable for the life of the thread.
+ */
+public abstract class SharedSegmentData {
+
+    private final ThreadLocal<ImageInputStream> threadCursor = new ThreadLocal<>();
+
+    /**
+     * Get the length of the segment data.
+     *
+     * @return the length of the data, in bytes.
+     */
+    public abstract long getLength();
+
+    /**
+     * Create a new cursor over the segment data.
+     * <p>
+     * The cursor is positioned at the start of the data, and is independent of any other cursor. It is not itself
+     * thread-safe, so should be used by a single thread. Closing the cursor does not affect the underlying data.
+     *
+     * @return new cursor over the data.
+     */
+    public abstract ImageInputStream newCursor();
+
+    /**
+     * Get the cursor over the segment data for the calling thread.
+     * <p>
+     * The same cursor is returned for each call from a given thread, so its position is retained between calls in the
+     * same way as for a single stream. Different threads always get different cursors.
+     *
+     * @return cursor for the calling thread.
+     */
+    public final ImageInputStream getThreadCursor() {
+        ImageInputStream cursor = threadCursor.get();
+        if (cursor == null) {
+            cursor = newCursor();
+            threadCursor.set(cursor);
+        }
+        return cursor;
+    }
+
+    /**
+     * Close and release the cursor for the calling thread, if it has one.
+     * <p>
+     * A later call to getThreadCursor() from the same thread creates a new cursor, positioned at the start of the data.
+     * Cursors held by other threads are not affected.
+     *
+     * @throws IOException if the cursor could not be closed.
+     */
+    public final void releaseThreadCursor() throws IOException {
+        ImageInputStream cursor = threadCursor.get();
+        threadCursor.remove();
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+}
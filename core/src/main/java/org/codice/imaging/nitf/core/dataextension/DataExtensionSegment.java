@@ -16,6 +16,7 @@ package org.codice.imaging.nitf.core.dataextension;
 
 import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.common.CommonSegment;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
 import org.codice.imaging.nitf.core.tre.TreCollection;
 
 /**
@@ -165,9 +166,35 @@ public interface DataExtensionSegment extends CommonSegment {
      */
     void setData(final ImageInputStream stream);
 
+    /**
+     * Get the shared data for this segment, if any.
+     *
+     * Shared data provides independent cursors over the segment data, so the segment can be read from several
+     * threads at once.
+     *
+     * @return the shared data, or null if the data was set as a single stream or the segment does not support shared
+     * data.
+     */
+    default SharedSegmentData getSharedData() {
+        return null;
+    }
+
+    /**
+     * Set the data for this segment as shared data.
+     *
+     * Once set, getData() returns a cursor specific to the calling thread. Setting data using setData() replaces the
+     * shared data. Segments that do not support shared data ignore it.
+     *
+     * @param data the shared data for this segment.
+     */
+    default void setSharedData(final SharedSegmentData data) {
+    }
+
     /**
      * Get the data for this DES.
      *
+     * If shared data has been set, this returns the cursor for the calling thread.
+     *
      * @return data for this DES.
      */
     ImageInputStream getData();
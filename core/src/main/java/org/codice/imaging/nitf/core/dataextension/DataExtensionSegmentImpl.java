@@ -19,6 +19,7 @@ import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.common.CommonSegmentImpl;
 import org.codice.imaging.nitf.core.common.FileType;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
 import static org.codice.imaging.nitf.core.dataextension.DataExtensionConstants.CONTROLLED_EXTENSIONS;
 import static org.codice.imaging.nitf.core.dataextension.DataExtensionConstants.DESITEM_LENGTH;
 import static org.codice.imaging.nitf.core.dataextension.DataExtensionConstants.DESOFLW_LENGTH;
@@ -37,6 +38,7 @@ class DataExtensionSegmentImpl extends CommonSegmentImpl implements DataExtensio
     private int desItemOverflowed = 0;
     private String userDefinedSubheaderField = null;
     private ImageInputStream desData = null;
+    private SharedSegmentData sharedData = null;
     private long dataLength = 0;
 
     /**
@@ -193,6 +195,7 @@ class DataExtensionSegmentImpl extends CommonSegmentImpl implements DataExtensio
     @Override
     public void setData(final ImageInputStream dataStream) {
         desData = dataStream;
+        sharedData = null;
     }
 
     /**
@@ -200,9 +203,29 @@ class DataExtensionSegmentImpl extends CommonSegmentImpl implements DataExtensio
      */
     @Override
     public ImageInputStream getData() {
+        if (sharedData != null) {
+            return sharedData.getThreadCursor();
+        }
         return desData;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SharedSegmentData getSharedData() {
+        return sharedData;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSharedData(final SharedSegmentData data) {
+        sharedData = data;
+        desData = null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -16,6 +16,8 @@ package org.codice.imaging.nitf.core.dataextension;
 
 import org.codice.imaging.nitf.core.common.AbstractSegmentParser;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import static org.codice.imaging.nitf.core.dataextension.DataExtensionConstants.DE;
 import static org.codice.imaging.nitf.core.dataextension.DataExtensionConstants.DESID_LENGTH;
@@ -48,6 +50,7 @@ public class DataExtensionSegmentParser extends AbstractSegmentParser {
      * @throws NitfFormatException when the parser encounters unexpected input from the reader.
      */
     public final DataExtensionSegment parse(final NitfReader nitfReader, final long dataLength) throws NitfFormatException {
+        long startTime = NitfMetricsRegistry.startTimer();
         reader = nitfReader;
         segment = new DataExtensionSegmentImpl(nitfReader.getFileType());
         segment.setDataLength(dataLength);
@@ -63,6 +66,7 @@ public class DataExtensionSegmentParser extends AbstractSegmentParser {
         }
         readDSSHL();
         readDSSHF();
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.DES_SUBHEADER, startTime);
         return segment;
     }
 
@@ -50,6 +50,19 @@ public class DataExtensionSegmentWriter extends AbstractSegmentWriter {
      * @throws NitfFormatException on TRE parse problems
      */
     public final void writeDESHeader(final DataExtensionSegment des) throws IOException, NitfFormatException {
+        writeDESSubheader(des);
+        writeDESData(des);
+    }
+
+    /**
+     * Write out the subheader for this data extension segment.
+     * <p>
+     * This does not write out the DES data (including any overflowed TREs).
+     *
+     * @param des the header to write
+     * @throws IOException on write failure
+     */
+    public final void writeDESSubheader(final DataExtensionSegment des) throws IOException {
         writeFixedLengthString(DE, DE.length());
         writeFixedLengthString(des.getIdentifier(), DESID_LENGTH);
         writeFixedLengthNumber(des.getDESVersion(), DESVER_LENGTH);
@@ -61,8 +74,21 @@ public class DataExtensionSegmentWriter extends AbstractSegmentWriter {
         writeFixedLengthNumber(des.getUserDefinedSubheaderField().length(), DESSHL_LENGTH);
         if (des.getUserDefinedSubheaderField().length() > 0) {
             mOutput.writeBytes(des.getUserDefinedSubheaderField());
-        } else {
-            byte[] treData = mTreParser.getTREs(des, TreSource.TreOverflowDES);
+        }
+    }
+
+    /**
+     * Write out the data for this data extension segment.
+     * <p>
+     * For a TRE overflow DES, this is the serialised TREs.
+     *
+     * @param des the segment to write the data for
+     * @throws IOException on write failure
+     * @throws NitfFormatException on TRE parse problems
+     */
+    public final void writeDESData(final DataExtensionSegment des) throws IOException, NitfFormatException {
+        if (des.getUserDefinedSubheaderField().length() == 0) {
+            byte[] treData = getTREs(des, TreSource.TreOverflowDES);
             mOutput.write(treData);
         }
         if (des.getData() != null) {
@@ -19,6 +19,7 @@ import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.common.CommonBasicSegmentImpl;
 import org.codice.imaging.nitf.core.common.CommonConstants;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
 import org.codice.imaging.nitf.core.tre.TreParser;
 import org.codice.imaging.nitf.core.tre.TreSource;
 
@@ -38,6 +39,7 @@ class GraphicSegmentImpl extends CommonBasicSegmentImpl
     private int boundingBox2Row = 0;
     private int boundingBox2Column = 0;
     private ImageInputStream dataStream = null;
+    private SharedSegmentData sharedData = null;
     private long dataLength = 0;
 
     /**
@@ -196,6 +198,7 @@ class GraphicSegmentImpl extends CommonBasicSegmentImpl
     @Override
     public void setData(final ImageInputStream data) {
         dataStream = data;
+        sharedData = null;
     }
 
     /**
@@ -203,9 +206,29 @@ class GraphicSegmentImpl extends CommonBasicSegmentImpl
      */
     @Override
     public ImageInputStream getData() {
+        if (sharedData != null) {
+            return sharedData.getThreadCursor();
+        }
         return dataStream;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SharedSegmentData getSharedData() {
+        return sharedData;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSharedData(final SharedSegmentData data) {
+        sharedData = data;
+        dataStream = null;
+    }
+
     /**
      * {@inheritDoc}
      */
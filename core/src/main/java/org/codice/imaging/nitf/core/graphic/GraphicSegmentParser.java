@@ -16,8 +16,10 @@ package org.codice.imaging.nitf.core.graphic;
 
 import org.codice.imaging.nitf.core.common.AbstractSegmentParser;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
-import org.codice.imaging.nitf.core.common.ParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
+import org.codice.imaging.nitf.core.common.ParseStrategy;
 import static org.codice.imaging.nitf.core.graphic.GraphicSegmentConstants.SALVL_LENGTH;
 import static org.codice.imaging.nitf.core.graphic.GraphicSegmentConstants.SBND1_HALF_LENGTH;
 import static org.codice.imaging.nitf.core.graphic.GraphicSegmentConstants.SBND2_HALF_LENGTH;
@@ -64,6 +66,7 @@ public class GraphicSegmentParser extends AbstractSegmentParser {
      */
     public final GraphicSegment parse(final NitfReader nitfReader, final ParseStrategy parseStrategy,
             final long dataLength) throws NitfFormatException {
+        long startTime = NitfMetricsRegistry.startTimer();
         reader = nitfReader;
         segment = new GraphicSegmentImpl();
         segment.setDataLength(dataLength);
@@ -85,9 +88,14 @@ public class GraphicSegmentParser extends AbstractSegmentParser {
         readSRES();
         readSXSHDL();
         if (graphicExtendedSubheaderLength > 0) {
-            readSXSOFL();
-            readSXSHD();
+            if (parsingStrategy.isTreParsingRequired(segment)) {
+                readSXSOFL();
+                readSXSHD();
+            } else {
+                reader.skip(graphicExtendedSubheaderLength);
+            }
         }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.GRAPHIC_SUBHEADER, startTime);
         return segment;
     }
 
@@ -59,6 +59,20 @@ public class GraphicSegmentWriter extends AbstractSegmentWriter {
      * @throws NitfFormatException on TRE parsing failure.
      */
     public final void writeGraphicSegment(final GraphicSegment graphicSegment) throws IOException, NitfFormatException {
+        writeGraphicSubheader(graphicSegment);
+        writeSegmentData(graphicSegment.getData());
+    }
+
+    /**
+     * Write out the subheader for the specified graphic segment.
+     * <p>
+     * This does not write out the graphic data.
+     *
+     * @param graphicSegment the segment content to write out
+     * @throws IOException on write failure.
+     * @throws NitfFormatException on TRE parsing failure.
+     */
+    public final void writeGraphicSubheader(final GraphicSegment graphicSegment) throws IOException, NitfFormatException {
         writeFixedLengthString(SY, SY.length());
         writeFixedLengthString(graphicSegment.getIdentifier(), SID_LENGTH);
         writeFixedLengthString(graphicSegment.getGraphicName(), SNAME_LENGTH);
@@ -76,7 +90,7 @@ public class GraphicSegmentWriter extends AbstractSegmentWriter {
         writeFixedLengthNumber(graphicSegment.getBoundingBox2Row(), SBND2_HALF_LENGTH);
         writeFixedLengthNumber(graphicSegment.getBoundingBox2Column(), SBND2_HALF_LENGTH);
         writeFixedLengthString(SRES, SRES.length()); // SRES2
-        byte[] graphicExtendedSubheaderData = mTreParser.getTREs(graphicSegment, TreSource.GraphicExtendedSubheaderData);
+        byte[] graphicExtendedSubheaderData = getTREs(graphicSegment, TreSource.GraphicExtendedSubheaderData);
         int graphicExtendedSubheaderDataLength = graphicExtendedSubheaderData.length;
         if ((graphicExtendedSubheaderDataLength > 0) || (graphicSegment.getExtendedHeaderDataOverflow() != 0)) {
             graphicExtendedSubheaderDataLength += SXSOFL_LENGTH;
@@ -86,7 +100,6 @@ public class GraphicSegmentWriter extends AbstractSegmentWriter {
             writeFixedLengthNumber(graphicSegment.getExtendedHeaderDataOverflow(), SXSOFL_LENGTH);
             writeBytes(graphicExtendedSubheaderData, graphicExtendedSubheaderDataLength - SXSOFL_LENGTH);
         }
-        writeSegmentData(graphicSegment.getData());
     }
 
 }
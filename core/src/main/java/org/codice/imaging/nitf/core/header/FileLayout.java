@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.header;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.codice.imaging.nitf.core.common.SegmentType;
+
+/**
+ * The location of the file header, and of each segment subheader and data, within a NITF file.
+ * <p>
+ * This is read from the length fields at the start of the file header, and allows parts of a large file to be read
+ * without reading the rest of the file. The segments are in the order they appear in the file.
+ */
+public final class FileLayout {
+
+    private final long fileLength;
+
+    private final long headerLength;
+
+    private final List<SegmentType> segmentTypes = new ArrayList<>();
+
+    private final List<Long> subheaderOffsets = new ArrayList<>();
+
+    private final List<Long> subheaderLengths = new ArrayList<>();
+
+    private final List<Long> dataLengths = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param nitfFileLength the file length (FL) from the file header.
+     * @param nitfHeaderLength the file header length (HL) from the file header.
+     */
+    FileLayout(final long nitfFileLength, final long nitfHeaderLength) {
+        fileLength = nitfFileLength;
+        headerLength = nitfHeaderLength;
+    }
+
+    /**
+     * Add the next segment in the file.
+     *
+     * @param segmentType the type of the segment.
+     * @param subheaderLength the length of the segment subheader, in bytes.
+     * @param dataLength the length of the segment data, in bytes.
+     */
+    void addSegment(final SegmentType segmentType, final long subheaderLength, final long dataLength) {
+        long offset = headerLength;
+        if (!subheaderOffsets.isEmpty()) {
+            int previous = subheaderOffsets.size() - 1;
+            offset = subheaderOffsets.get(previous) + subheaderLengths.get(previous) + dataLengths.get(previous);
+        }
+        segmentTypes.add(segmentType);
+        subheaderOffsets.add(offset);
+        subheaderLengths.add(subheaderLength);
+        dataLengths.add(dataLength);
+    }
+
+    /**
+     * Check whether the file was written in streaming mode.
+     * <p>
+     * The lengths in the file header of a streaming mode file are not final, so the segment locations are not known.
+     *
+     * @return true if the file is in streaming mode, otherwise false.
+     */
+    public boolean isStreamingMode() {
+        return fileLength == NitfHeaderConstants.STREAMING_FILE_MODE;
+    }
+
+    /**
+     * Get the length of the file header.
+     *
+     * @return the file header length in bytes, which is also the offset of the first segment subheader.
+     */
+    public long getHeaderLength() {
+        return headerLength;
+    }
+
+    /**
+     * Get the number of segments in the file, of all types.
+     *
+     * @return the number of segments.
+     */
+    public int getNumberOfSegments() {
+        return subheaderLengths.size();
+    }
+
+    /**
+     * Get the types of the segments.
+     *
+     * @return the segment types, in file order.
+     */
+    public List<SegmentType> getSegmentTypes() {
+        return Collections.unmodifiableList(segmentTypes);
+    }
+
+    /**
+     * Get the offsets of the segment subheaders from the start of the file.
+     *
+     * @return the subheader offsets in bytes, in file order.
+     */
+    public List<Long> getSubheaderOffsets() {
+        return Collections.unmodifiableList(subheaderOffsets);
+    }
+
+    /**
+     * Get the lengths of the segment subheaders.
+     *
+     * @return the subheader lengths in bytes, in file order.
+     */
+    public List<Long> getSubheaderLengths() {
+        return Collections.unmodifiableList(subheaderLengths);
+    }
+
+    /**
+     * Get the lengths of the segment data.
+     *
+     * @return the data lengths in bytes, in file order.
+     */
+    public List<Long> getDataLengths() {
+        return Collections.unmodifiableList(dataLengths);
+    }
+}
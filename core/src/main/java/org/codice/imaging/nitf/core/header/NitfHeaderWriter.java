@@ -22,6 +22,7 @@ import org.codice.imaging.nitf.core.common.AbstractSegmentWriter;
 import org.codice.imaging.nitf.core.common.CommonConstants;
 import org.codice.imaging.nitf.core.common.FileType;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.SegmentType;
 import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
 import org.codice.imaging.nitf.core.graphic.GraphicSegment;
 import org.codice.imaging.nitf.core.image.ImageSegment;
@@ -49,12 +50,52 @@ public class NitfHeaderWriter extends AbstractSegmentWriter {
 
     /**
      * Write out the file-level header.
+     * <p>
+     * The segment subheader lengths are determined by asking each segment for its header length, which requires
+     * serialising any TREs. If the lengths are already known, use writeFileHeader(DataSource, SegmentLengths) instead.
      *
      * @param dataSource the data source to take NITF structure from.
      * @throws IOException on read or write problems
      * @throws NitfFormatException on TRE parsing problems
      */
     public final void writeFileHeader(final DataSource dataSource) throws IOException, NitfFormatException {
+        SegmentLengths segmentLengths = new SegmentLengths();
+        for (ImageSegment imageSegment : dataSource.getImageSegments()) {
+            segmentLengths.add(SegmentType.IMAGE, imageSegment.getHeaderLength(), imageSegment.getDataLength());
+        }
+        for (GraphicSegment graphicSegment : dataSource.getGraphicSegments()) {
+            segmentLengths.add(SegmentType.GRAPHIC, graphicSegment.getHeaderLength(), graphicSegment.getDataLength());
+        }
+        for (SymbolSegment symbolSegment : dataSource.getSymbolSegments()) {
+            segmentLengths.add(SegmentType.SYMBOL, symbolSegment.getHeaderLength(), symbolSegment.getDataLength());
+        }
+        for (LabelSegment labelSegment : dataSource.getLabelSegments()) {
+            segmentLengths.add(SegmentType.LABEL, labelSegment.getHeaderLength(), labelSegment.getData().length());
+        }
+        for (TextSegment textSegment : dataSource.getTextSegments()) {
+            segmentLengths.add(SegmentType.TEXT, textSegment.getHeaderLength(), textSegment.getData().length());
+        }
+        for (DataExtensionSegment desHeader : dataSource.getDataExtensionSegments()) {
+            if (!desHeader.isStreamingMode()) {
+                segmentLengths.add(SegmentType.DATA_EXTENSION, desHeader.getHeaderLength(), desHeader.getDataLength());
+            }
+        }
+        writeFileHeader(dataSource, segmentLengths);
+    }
+
+    /**
+     * Write out the file-level header, using known segment lengths.
+     * <p>
+     * The number of segments of each type is taken from the segment lengths, so streaming mode DES should not be
+     * included in the segment lengths.
+     *
+     * @param dataSource the data source to take NITF structure from.
+     * @param segmentLengths the subheader and data lengths of each segment that follows the file header.
+     * @throws IOException on read or write problems
+     * @throws NitfFormatException on TRE parsing problems
+     */
+    public final void writeFileHeader(final DataSource dataSource, final SegmentLengths segmentLengths)
+            throws IOException, NitfFormatException {
         NitfHeader header = dataSource.getNitfHeader();
         writeBytes(header.getFileType().getTextEquivalent(), NitfHeaderConstants.FHDR_LENGTH + NitfHeaderConstants.FVER_LENGTH);
         writeFixedLengthNumber(header.getComplexityLevel(), NitfHeaderConstants.CLEVEL_LENGTH);
@@ -77,106 +118,52 @@ public class NitfHeaderWriter extends AbstractSegmentWriter {
 
         long headerLength = getBasicHeaderLength(header);
 
-        int numberOfImageSegments = dataSource.getImageSegments().size();
-        int numberOfGraphicSegments = dataSource.getGraphicSegments().size();
-        int numberOfSymbolSegments = dataSource.getSymbolSegments().size();
-        int numberOfLabelSegments = dataSource.getLabelSegments().size();
-        int numberOfTextSegments = dataSource.getTextSegments().size();
+        int numberOfImageSegments = segmentLengths.getNumberOfSegments(SegmentType.IMAGE);
+        int numberOfGraphicSegments = segmentLengths.getNumberOfSegments(SegmentType.GRAPHIC);
+        int numberOfSymbolSegments = segmentLengths.getNumberOfSegments(SegmentType.SYMBOL);
+        int numberOfLabelSegments = segmentLengths.getNumberOfSegments(SegmentType.LABEL);
+        int numberOfTextSegments = segmentLengths.getNumberOfSegments(SegmentType.TEXT);
+        int numberOfDataExtensionSegments = segmentLengths.getNumberOfSegments(SegmentType.DATA_EXTENSION);
         headerLength += numberOfImageSegments * (NitfHeaderConstants.LISH_LENGTH + NitfHeaderConstants.LI_LENGTH);
         headerLength += numberOfLabelSegments * (NitfHeaderConstants.LLSH_LENGTH + NitfHeaderConstants.LL_LENGTH);
         headerLength += numberOfGraphicSegments * (NitfHeaderConstants.LSSH_LENGTH + NitfHeaderConstants.LS_LENGTH);
         headerLength += numberOfSymbolSegments * (NitfHeaderConstants.LSSH_LENGTH + NitfHeaderConstants.LS_LENGTH);
         headerLength += numberOfTextSegments * (NitfHeaderConstants.LTSH_LENGTH + NitfHeaderConstants.LT_LENGTH);
+        headerLength += numberOfDataExtensionSegments * (NitfHeaderConstants.LDSH_LENGTH + NitfHeaderConstants.LD_LENGTH);
 
-        int numberOfDataExtensionSegments = 0;
-        for (DataExtensionSegment desHeader : dataSource.getDataExtensionSegments()) {
-            if (!desHeader.isStreamingMode()) {
-                headerLength += NitfHeaderConstants.LDSH_LENGTH + NitfHeaderConstants.LD_LENGTH;
-                numberOfDataExtensionSegments++;
-            }
-        }
-
-        byte[] userDefinedHeaderData = mTreParser.getTREs(header, TreSource.UserDefinedHeaderData);
+        byte[] userDefinedHeaderData = getTREs(header, TreSource.UserDefinedHeaderData);
         int userDefinedHeaderDataLength = userDefinedHeaderData.length;
         if ((userDefinedHeaderDataLength > 0) || (header.getUserDefinedHeaderOverflow() != 0)) {
             userDefinedHeaderDataLength += NitfHeaderConstants.UDHOFL_LENGTH;
         }
         headerLength += userDefinedHeaderDataLength;
 
-        byte[] extendedHeaderData = mTreParser.getTREs(header, TreSource.ExtendedHeaderData);
+        byte[] extendedHeaderData = getTREs(header, TreSource.ExtendedHeaderData);
         int extendedHeaderDataLength = extendedHeaderData.length;
         if ((extendedHeaderDataLength > 0) || (header.getExtendedHeaderDataOverflow() != 0)) {
             extendedHeaderDataLength += NitfHeaderConstants.XHDLOFL_LENGTH;
         }
         headerLength += extendedHeaderDataLength;
 
-        long fileLength = headerLength;
-        for (ImageSegment imageSegment : dataSource.getImageSegments()) {
-            fileLength += imageSegment.getHeaderLength();
-            fileLength += imageSegment.getDataLength();
-        }
-        for (GraphicSegment graphicSegment : dataSource.getGraphicSegments()) {
-            fileLength += graphicSegment.getHeaderLength();
-            fileLength += graphicSegment.getDataLength();
-        }
-        for (SymbolSegment symbolSegment : dataSource.getSymbolSegments()) {
-            fileLength += symbolSegment.getHeaderLength();
-            fileLength += symbolSegment.getDataLength();
-        }
-        for (LabelSegment labelSegment : dataSource.getLabelSegments()) {
-            fileLength += labelSegment.getHeaderLength();
-            fileLength += labelSegment.getData().length();
-        }
-        for (TextSegment textSegment : dataSource.getTextSegments()) {
-            fileLength += textSegment.getHeaderLength();
-            fileLength += textSegment.getData().length();
-        }
-        for (int i = 0; i < numberOfDataExtensionSegments; ++i) {
-            DataExtensionSegment desHeader = dataSource.getDataExtensionSegments().get(i);
-            if (!desHeader.isStreamingMode()) {
-                fileLength += dataSource.getDataExtensionSegments().get(i).getHeaderLength();
-                fileLength += dataSource.getDataExtensionSegments().get(i).getDataLength();
-            }
-        }
+        long fileLength = headerLength + segmentLengths.getTotalLength();
         writeFixedLengthNumber(fileLength, NitfHeaderConstants.FL_LENGTH);
         writeFixedLengthNumber(headerLength, NitfHeaderConstants.HL_LENGTH);
         writeFixedLengthNumber(numberOfImageSegments, NitfHeaderConstants.NUMI_LENGTH);
-        for (ImageSegment imageSegment : dataSource.getImageSegments()) {
-            writeFixedLengthNumber(imageSegment.getHeaderLength(), NitfHeaderConstants.LISH_LENGTH);
-            writeFixedLengthNumber(imageSegment.getDataLength(), NitfHeaderConstants.LI_LENGTH);
-        }
+        writeSegmentLengths(segmentLengths, SegmentType.IMAGE, NitfHeaderConstants.LISH_LENGTH, NitfHeaderConstants.LI_LENGTH);
         if ((header.getFileType() == FileType.NITF_TWO_ONE) || (header.getFileType() == FileType.NSIF_ONE_ZERO)) {
             writeFixedLengthNumber(numberOfGraphicSegments, NitfHeaderConstants.NUMS_LENGTH);
-            for (GraphicSegment graphicSegment : dataSource.getGraphicSegments()) {
-                writeFixedLengthNumber(graphicSegment.getHeaderLength(), NitfHeaderConstants.LSSH_LENGTH);
-                writeFixedLengthNumber(graphicSegment.getDataLength(), NitfHeaderConstants.LS_LENGTH);
-            }
+            writeSegmentLengths(segmentLengths, SegmentType.GRAPHIC, NitfHeaderConstants.LSSH_LENGTH, NitfHeaderConstants.LS_LENGTH);
             writeFixedLengthNumber(0, NitfHeaderConstants.NUMX_LENGTH);
         } else {
             writeFixedLengthNumber(numberOfSymbolSegments, NitfHeaderConstants.NUMS_LENGTH);
-            for (SymbolSegment symbolSegment : dataSource.getSymbolSegments()) {
-                writeFixedLengthNumber(symbolSegment.getHeaderLength(), NitfHeaderConstants.LSSH_LENGTH);
-                writeFixedLengthNumber(symbolSegment.getDataLength(), NitfHeaderConstants.LS_LENGTH);
-            }
+            writeSegmentLengths(segmentLengths, SegmentType.SYMBOL, NitfHeaderConstants.LSSH_LENGTH, NitfHeaderConstants.LS_LENGTH);
             writeFixedLengthNumber(numberOfLabelSegments, NitfHeaderConstants.NUML20_LENGTH);
-            for (LabelSegment labelSegment : dataSource.getLabelSegments()) {
-                writeFixedLengthNumber(labelSegment.getHeaderLength(), NitfHeaderConstants.LLSH_LENGTH);
-                writeFixedLengthNumber(labelSegment.getData().length(), NitfHeaderConstants.LL_LENGTH);
-            }
+            writeSegmentLengths(segmentLengths, SegmentType.LABEL, NitfHeaderConstants.LLSH_LENGTH, NitfHeaderConstants.LL_LENGTH);
         }
         writeFixedLengthNumber(numberOfTextSegments, NitfHeaderConstants.NUMT_LENGTH);
-        for (TextSegment textSegment : dataSource.getTextSegments()) {
-            writeFixedLengthNumber(textSegment.getHeaderLength(), NitfHeaderConstants.LTSH_LENGTH);
-            writeFixedLengthNumber(textSegment.getData().length(), NitfHeaderConstants.LT_LENGTH);
-        }
+        writeSegmentLengths(segmentLengths, SegmentType.TEXT, NitfHeaderConstants.LTSH_LENGTH, NitfHeaderConstants.LT_LENGTH);
         writeFixedLengthNumber(numberOfDataExtensionSegments, NitfHeaderConstants.NUMDES_LENGTH);
-        for (int i = 0; i < numberOfDataExtensionSegments; ++i) {
-            DataExtensionSegment desHeader = dataSource.getDataExtensionSegments().get(i);
-            if (!desHeader.isStreamingMode()) {
-                writeFixedLengthNumber(dataSource.getDataExtensionSegments().get(i).getHeaderLength(), NitfHeaderConstants.LDSH_LENGTH);
-                writeFixedLengthNumber(dataSource.getDataExtensionSegments().get(i).getDataLength(), NitfHeaderConstants.LD_LENGTH);
-            }
-        }
+        writeSegmentLengths(segmentLengths, SegmentType.DATA_EXTENSION, NitfHeaderConstants.LDSH_LENGTH, NitfHeaderConstants.LD_LENGTH);
         writeFixedLengthNumber(0, NitfHeaderConstants.NUMRES_LENGTH);
         writeFixedLengthNumber(userDefinedHeaderDataLength, NitfHeaderConstants.UDHDL_LENGTH);
         if (userDefinedHeaderDataLength > 0) {
@@ -190,6 +177,14 @@ public class NitfHeaderWriter extends AbstractSegmentWriter {
         }
     }
 
+    private void writeSegmentLengths(final SegmentLengths segmentLengths, final SegmentType segmentType,
+            final int subheaderLengthFieldLength, final int dataLengthFieldLength) throws IOException {
+        for (int i = 0; i < segmentLengths.getNumberOfSegments(segmentType); ++i) {
+            writeFixedLengthNumber(segmentLengths.getSubheaderLength(segmentType, i), subheaderLengthFieldLength);
+            writeFixedLengthNumber(segmentLengths.getDataLength(segmentType, i), dataLengthFieldLength);
+        }
+    }
+
     private long getBasicHeaderLength(final NitfHeader header) {
         long headerLength = NitfHeaderConstants.FHDR_LENGTH
                 + NitfHeaderConstants.FVER_LENGTH
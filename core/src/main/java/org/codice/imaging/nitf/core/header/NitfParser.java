@@ -22,8 +22,11 @@ import org.codice.imaging.nitf.core.RGBColour;
 import org.codice.imaging.nitf.core.common.AbstractSegmentParser;
 import org.codice.imaging.nitf.core.common.FileType;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import org.codice.imaging.nitf.core.common.ParseStrategy;
+import org.codice.imaging.nitf.core.common.SegmentType;
 import static org.codice.imaging.nitf.core.header.NitfHeaderConstants.UDHOFL_LENGTH;
 import static org.codice.imaging.nitf.core.header.NitfHeaderConstants.XHDLOFL_LENGTH;
 import org.codice.imaging.nitf.core.security.FileSecurityMetadataParser;
@@ -41,6 +44,8 @@ public final class NitfParser extends AbstractSegmentParser {
 
     private long nitfFileLength = -1;
 
+    private String nitfHeaderLength = null;
+
     private int numberImageSegments = 0;
     private int numberGraphicSegments = 0;
     private int numberTextSegments = 0;
@@ -63,6 +68,11 @@ public final class NitfParser extends AbstractSegmentParser {
     private final List<Integer> ldsh = new ArrayList<>();
     private final List<Long> ld = new ArrayList<>();
 
+    private NitfParser(final NitfReader nitfReader) {
+        nitfFileHeader = new NitfHeaderImpl();
+        reader = nitfReader;
+    }
+
     private NitfParser(final NitfReader nitfReader, final ParseStrategy parseStrategy) throws NitfFormatException {
         nitfFileHeader = new NitfHeaderImpl();
         reader = nitfReader;
@@ -80,12 +90,15 @@ public final class NitfParser extends AbstractSegmentParser {
      * @throws NitfFormatException if an error occurs during parsing
      */
     public static void parse(final NitfReader nitfReader, final ParseStrategy parseStrategy) throws NitfFormatException {
+        long parseStartTime = NitfMetricsRegistry.startTimer();
         NitfParser parser = new NitfParser(nitfReader, parseStrategy);
 
+        long headerStartTime = NitfMetricsRegistry.startTimer();
         parser.readBaseHeaders();
         if (parser.isStreamingMode()) {
             parser.handleStreamingMode();
         }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.FILE_HEADER, headerStartTime);
 
         NitfHeader nitfHeader = parser.nitfFileHeader;
 
@@ -114,10 +127,52 @@ public final class NitfParser extends AbstractSegmentParser {
         } catch (NitfFormatException ex) {
             LOGGER.error(ex.getMessage() + ex);
         }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.PARSE, parseStartTime);
     }
 
+    /**
+     * Read the location of the file header and segments from the start of a NITF file, without parsing the rest.
+     * <p>
+     * Only the fields of the file header up to and including the segment lengths are read, so the reader only needs
+     * to contain the start of the file. No TREs are parsed.
+     *
+     * @param nitfReader the reader to use, positioned at the start of the file
+     * @return the layout of the file
+     * @throws NitfFormatException if an error occurs during parsing
+     */
+    public static FileLayout readFileLayout(final NitfReader nitfReader) throws NitfFormatException {
+        NitfParser parser = new NitfParser(nitfReader);
+        parser.readBaseHeaderLengths();
+        FileLayout layout;
+        try {
+            layout = new FileLayout(parser.nitfFileLength, Long.parseLong(parser.nitfHeaderLength.trim()));
+        } catch (NumberFormatException ex) {
+            throw new NitfFormatException("Invalid HL value: " + parser.nitfHeaderLength, nitfReader.getCurrentOffset());
+        }
+        // The graphic segment lengths are the symbol segment lengths in NITF 2.0
+        SegmentType graphicType = SegmentType.GRAPHIC;
+        if (parser.nitfFileHeader.getFileType() == FileType.NITF_TWO_ZERO) {
+            graphicType = SegmentType.SYMBOL;
+        }
+        for (int i = 0; i < parser.li.size(); ++i) {
+            layout.addSegment(SegmentType.IMAGE, parser.lish.get(i), parser.li.get(i));
+        }
+        for (int i = 0; i < parser.ls.size(); ++i) {
+            layout.addSegment(graphicType, parser.lssh.get(i), parser.ls.get(i));
+        }
+        for (int i = 0; i < parser.ll.size(); ++i) {
+            layout.addSegment(SegmentType.LABEL, parser.llsh.get(i), parser.ll.get(i));
+        }
+        for (int i = 0; i < parser.lt.size(); ++i) {
+            layout.addSegment(SegmentType.TEXT, parser.ltsh.get(i), parser.lt.get(i));
+        }
+        for (int i = 0; i < parser.ld.size(); ++i) {
+            layout.addSegment(SegmentType.DATA_EXTENSION, parser.ldsh.get(i), parser.ld.get(i));
+        }
+        return layout;
+    }
 
-    private void readBaseHeaders() throws NitfFormatException {
+    private void readBaseHeaderLengths() throws NitfFormatException {
         readFHDRFVER();
         reader.setFileType(nitfFileHeader.getFileType());
         readCLEVEL();
@@ -136,6 +191,10 @@ public final class NitfParser extends AbstractSegmentParser {
         readBaseHeaderLabelParts();
         readBaseHeaderTextParts();
         readBaseHeaderDataExtensionSegmentParts();
+    }
+
+    private void readBaseHeaders() throws NitfFormatException {
+        readBaseHeaderLengths();
         readBaseHeaderReservedExtensionParts();
         readBaseHeaderUserDefinedHeaderData();
         readBaseHeaderExtendedHeader();
@@ -340,7 +399,8 @@ public final class NitfParser extends AbstractSegmentParser {
     }
 
     private void readHL() throws NitfFormatException {
-        reader.skip(NitfHeaderConstants.HL_LENGTH);
+        // Only interpreted by readFileLayout(), so that parsing is not affected by an invalid value
+        nitfHeaderLength = reader.readBytes(NitfHeaderConstants.HL_LENGTH);
     }
 
     private void readNUMI() throws NitfFormatException {
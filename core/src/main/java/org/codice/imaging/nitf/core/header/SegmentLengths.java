@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.header;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.codice.imaging.nitf.core.common.SegmentType;
+
+/**
+ * The subheader and data lengths for each segment that is to be written to a file.
+ * <p>
+ * These are the values that go into the LISH/LI, LSSH/LS, LLSH/LL, LTSH/LT and LDSH/LD fields of the file header, and
+ * are also used to calculate the file length (FL).
+ */
+public class SegmentLengths {
+
+    private final Map<SegmentType, List<Long>> subheaderLengths = new EnumMap<>(SegmentType.class);
+    private final Map<SegmentType, List<Long>> dataLengths = new EnumMap<>(SegmentType.class);
+
+    /**
+     * Constructor.
+     */
+    public SegmentLengths() {
+        for (SegmentType segmentType : SegmentType.values()) {
+            subheaderLengths.put(segmentType, new ArrayList<>());
+            dataLengths.put(segmentType, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Add the lengths for the next segment of the specified type.
+     *
+     * @param segmentType the type of segment
+     * @param subheaderLength the length of the segment subheader, in bytes
+     * @param dataLength the length of the segment data, in bytes
+     */
+    public final void add(final SegmentType segmentType, final long subheaderLength, final long dataLength) {
+        subheaderLengths.get(segmentType).add(subheaderLength);
+        dataLengths.get(segmentType).add(dataLength);
+    }
+
+    /**
+     * Update the data length for a segment that has already been added.
+     * <p>
+     * This is used when the data length is not known until after the data has been written.
+     *
+     * @param segmentType the type of segment
+     * @param index the index (zero base) of the segment within those of the same type
+     * @param dataLength the length of the segment data, in bytes
+     */
+    public final void setDataLength(final SegmentType segmentType, final int index, final long dataLength) {
+        dataLengths.get(segmentType).set(index, dataLength);
+    }
+
+    /**
+     * Get the number of segments of the specified type.
+     *
+     * @param segmentType the type of segment
+     * @return the number of segments of that type
+     */
+    public final int getNumberOfSegments(final SegmentType segmentType) {
+        return subheaderLengths.get(segmentType).size();
+    }
+
+    /**
+     * Get the subheader length for a segment.
+     *
+     * @param segmentType the type of segment
+     * @param index the index (zero base) of the segment within those of the same type
+     * @return the subheader length in bytes
+     */
+    public final long getSubheaderLength(final SegmentType segmentType, final int index) {
+        return subheaderLengths.get(segmentType).get(index);
+    }
+
+    /**
+     * Get the data length for a segment.
+     *
+     * @param segmentType the type of segment
+     * @param index the index (zero base) of the segment within those of the same type
+     * @return the data length in bytes
+     */
+    public final long getDataLength(final SegmentType segmentType, final int index) {
+        return dataLengths.get(segmentType).get(index);
+    }
+
+    /**
+     * Get the combined length of all segment subheaders and data.
+     *
+     * @return the total length in bytes
+     */
+    public final long getTotalLength() {
+        long totalLength = 0;
+        for (SegmentType segmentType : SegmentType.values()) {
+            for (Long length : subheaderLengths.get(segmentType)) {
+                totalLength += length;
+            }
+            for (Long length : dataLengths.get(segmentType)) {
+                totalLength += length;
+            }
+        }
+        return totalLength;
+    }
+
+    /**
+     * Check whether another set of segment lengths has the same segments, with the same lengths.
+     *
+     * @param obj the object to compare with
+     * @return true if the lengths are the same, otherwise false
+     */
+    @Override
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SegmentLengths)) {
+            return false;
+        }
+        SegmentLengths other = (SegmentLengths) obj;
+        return subheaderLengths.equals(other.subheaderLengths) && dataLengths.equals(other.dataLengths);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(subheaderLengths, dataLengths);
+    }
+}
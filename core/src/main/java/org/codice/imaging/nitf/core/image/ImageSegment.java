@@ -18,6 +18,7 @@ import java.util.List;
 import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.common.CommonBasicSegment;
 import org.codice.imaging.nitf.core.common.DateTime;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
 
 /**
  Image segment information.
@@ -950,6 +951,8 @@ public interface ImageSegment extends CommonBasicSegment {
      *
      * You may need to rewind this stream if it has been previously read.
      *
+     * If shared data has been set, this returns the cursor for the calling thread.
+     *
      * @return image input stream containing the data.
      */
     ImageInputStream getData();
@@ -961,6 +964,30 @@ public interface ImageSegment extends CommonBasicSegment {
      */
     void setData(ImageInputStream data);
 
+    /**
+     * Get the shared data for this segment, if any.
+     *
+     * Shared data provides independent cursors over the segment data, so the segment can be read from several
+     * threads at once.
+     *
+     * @return the shared data, or null if the data was set as a single stream or the segment does not support shared
+     * data.
+     */
+    default SharedSegmentData getSharedData() {
+        return null;
+    }
+
+    /**
+     * Set the data for this segment as shared data.
+     *
+     * Once set, getData() returns a cursor specific to the calling thread. Setting data using setData() replaces the
+     * shared data. Segments that do not support shared data ignore it.
+     *
+     * @param data the shared data for this segment.
+     */
+    default void setSharedData(final SharedSegmentData data) {
+    }
+
     /**
      * Get the length of the data for this segment.
      *
@@ -24,6 +24,7 @@ import org.codice.imaging.nitf.core.common.CommonBasicSegmentImpl;
 import org.codice.imaging.nitf.core.common.CommonConstants;
 import org.codice.imaging.nitf.core.common.DateTime;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
 import static org.codice.imaging.nitf.core.image.ImageConstants.IFC_LENGTH;
 import static org.codice.imaging.nitf.core.image.ImageConstants.IMFLT_LENGTH;
 import static org.codice.imaging.nitf.core.image.ImageConstants.IREPBAND_LENGTH;
@@ -73,6 +74,7 @@ class ImageSegmentImpl extends CommonBasicSegmentImpl implements ImageSegment {
     private int imageUserDefinedHeaderOverflow = 0;
     private String imageMagnification = "1.0 ";
     private ImageInputStream imageData = null;
+    private SharedSegmentData sharedData = null;
     private long dataLength = 0;
 
     private static final int BITS_PER_BYTE = 8;
@@ -598,15 +600,36 @@ class ImageSegmentImpl extends CommonBasicSegmentImpl implements ImageSegment {
      */
     @Override
     public ImageInputStream getData() {
+        if (sharedData != null) {
+            return sharedData.getThreadCursor();
+        }
         return imageData;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SharedSegmentData getSharedData() {
+        return sharedData;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSharedData(final SharedSegmentData data) {
+        sharedData = data;
+        imageData = null;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void setData(final ImageInputStream data) {
         imageData = data;
+        sharedData = null;
     }
 
     @Override
@@ -17,6 +17,8 @@ package org.codice.imaging.nitf.core.image;
 import org.codice.imaging.nitf.core.common.AbstractSegmentParser;
 import org.codice.imaging.nitf.core.common.FileType;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import org.codice.imaging.nitf.core.common.ParseStrategy;
 import static org.codice.imaging.nitf.core.image.ImageConstants.ABPP_LENGTH;
@@ -89,6 +91,7 @@ public class ImageSegmentParser extends AbstractSegmentParser {
      */
     public final ImageSegmentImpl parse(final NitfReader nitfReader, final ParseStrategy parseStrategy,
             final long dataLength) throws NitfFormatException {
+        long startTime = NitfMetricsRegistry.startTimer();
         reader = nitfReader;
         segment = new ImageSegmentImpl();
         segment.setDataLength(dataLength);
@@ -144,14 +147,23 @@ public class ImageSegmentParser extends AbstractSegmentParser {
         readIMAG();
         readUDIDL();
         if (userDefinedImageDataLength > 0) {
-            readUDOFL();
-            readUDID();
+            if (parsingStrategy.isTreParsingRequired(segment)) {
+                readUDOFL();
+                readUDID();
+            } else {
+                reader.skip(userDefinedImageDataLength);
+            }
         }
         readIXSHDL();
         if (imageExtendedSubheaderDataLength > 0) {
-            readIXSOFL();
-            readIXSHD();
+            if (parsingStrategy.isTreParsingRequired(segment)) {
+                readIXSOFL();
+                readIXSHD();
+            } else {
+                reader.skip(imageExtendedSubheaderDataLength);
+            }
         }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.IMAGE_SUBHEADER, startTime);
         return segment;
     }
 
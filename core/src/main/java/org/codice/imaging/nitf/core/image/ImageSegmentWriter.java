@@ -89,6 +89,21 @@ public class ImageSegmentWriter extends AbstractSegmentWriter {
      * @throws NitfFormatException on TRE parsing failure.
      */
     public final void writeImageSegment(final ImageSegment imageSegment, final FileType fileType) throws IOException, NitfFormatException {
+        writeImageSubheader(imageSegment, fileType);
+        writeSegmentData(imageSegment.getData());
+    }
+
+    /**
+     * Write out the subheader for the specified image segment.
+     * <p>
+     * This does not write out the image data.
+     *
+     * @param imageSegment the header content to write out
+     * @param fileType the type of file (NITF version) to write the image header out for.
+     * @throws IOException on write failure.
+     * @throws NitfFormatException on TRE parsing failure.
+     */
+    public final void writeImageSubheader(final ImageSegment imageSegment, final FileType fileType) throws IOException, NitfFormatException {
         writeFixedLengthString(IM, IM.length());
         writeFixedLengthString(imageSegment.getIdentifier(), IID1_LENGTH);
         writeDateTime(imageSegment.getImageDateTime());
@@ -159,7 +174,7 @@ public class ImageSegmentWriter extends AbstractSegmentWriter {
         writeFixedLengthNumber(imageSegment.getImageLocationRow(), ILOC_HALF_LENGTH);
         writeFixedLengthNumber(imageSegment.getImageLocationColumn(), ILOC_HALF_LENGTH);
         writeFixedLengthString(imageSegment.getImageMagnification(), IMAG_LENGTH);
-        byte[] userDefinedImageData = mTreParser.getTREs(imageSegment, TreSource.UserDefinedImageData);
+        byte[] userDefinedImageData = getTREs(imageSegment, TreSource.UserDefinedImageData);
         int userDefinedImageDataLength = userDefinedImageData.length;
         if ((userDefinedImageDataLength > 0) || (imageSegment.getUserDefinedHeaderOverflow() != 0)) {
             userDefinedImageDataLength += UDOFL_LENGTH;
@@ -169,7 +184,7 @@ public class ImageSegmentWriter extends AbstractSegmentWriter {
             writeFixedLengthNumber(imageSegment.getUserDefinedHeaderOverflow(), UDOFL_LENGTH);
             writeBytes(userDefinedImageData, userDefinedImageDataLength - UDOFL_LENGTH);
         }
-        byte[] imageExtendedSubheaderData = mTreParser.getTREs(imageSegment, TreSource.ImageExtendedSubheaderData);
+        byte[] imageExtendedSubheaderData = getTREs(imageSegment, TreSource.ImageExtendedSubheaderData);
         int imageExtendedSubheaderDataLength = imageExtendedSubheaderData.length;
         if ((imageExtendedSubheaderDataLength > 0) || (imageSegment.getExtendedHeaderDataOverflow() != 0)) {
             imageExtendedSubheaderDataLength += IXSOFL_LENGTH;
@@ -179,8 +194,6 @@ public class ImageSegmentWriter extends AbstractSegmentWriter {
             writeFixedLengthNumber(imageSegment.getExtendedHeaderDataOverflow(), IXSOFL_LENGTH);
             writeBytes(imageExtendedSubheaderData, imageExtendedSubheaderDataLength - IXSOFL_LENGTH);
         }
-
-        writeSegmentData(imageSegment.getData());
     }
 
 }
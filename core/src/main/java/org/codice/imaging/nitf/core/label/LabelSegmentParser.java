@@ -17,8 +17,10 @@ package org.codice.imaging.nitf.core.label;
 import org.codice.imaging.nitf.core.RGBColour;
 import org.codice.imaging.nitf.core.common.AbstractSegmentParser;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
-import org.codice.imaging.nitf.core.common.ParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
+import org.codice.imaging.nitf.core.common.ParseStrategy;
 import static org.codice.imaging.nitf.core.label.LabelConstants.LA;
 import static org.codice.imaging.nitf.core.label.LabelConstants.LALVL_LENGTH;
 import static org.codice.imaging.nitf.core.label.LabelConstants.LCH_LENGTH;
@@ -61,6 +63,7 @@ public class LabelSegmentParser extends AbstractSegmentParser {
      */
     public final LabelSegment parse(final NitfReader nitfReader, final ParseStrategy parseStrategy) throws NitfFormatException {
 
+        long startTime = NitfMetricsRegistry.startTimer();
         reader = nitfReader;
         parsingStrategy = parseStrategy;
         segment = new LabelSegmentImpl();
@@ -79,9 +82,14 @@ public class LabelSegmentParser extends AbstractSegmentParser {
         readLBC();
         readLXSHDL();
         if (labelExtendedSubheaderLength > 0) {
-            readLXSOFL();
-            readLXSHD();
+            if (parsingStrategy.isTreParsingRequired(segment)) {
+                readLXSOFL();
+                readLXSHD();
+            } else {
+                reader.skip(labelExtendedSubheaderLength);
+            }
         }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.LABEL_SUBHEADER, startTime);
         return segment;
     }
 
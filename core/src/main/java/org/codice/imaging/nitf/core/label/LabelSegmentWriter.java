@@ -55,6 +55,20 @@ public class LabelSegmentWriter extends AbstractSegmentWriter {
      * @throws NitfFormatException on TRE parsing failure.
      */
     public final void writeLabel(final LabelSegment labelSegment) throws IOException, NitfFormatException {
+        writeLabelSubheader(labelSegment);
+        mOutput.writeBytes(labelSegment.getData());
+    }
+
+    /**
+     * Write out the subheader for the specified label segment.
+     * <p>
+     * This does not write out the label text.
+     *
+     * @param labelSegment the content to write out
+     * @throws IOException on write failure.
+     * @throws NitfFormatException on TRE parsing failure.
+     */
+    public final void writeLabelSubheader(final LabelSegment labelSegment) throws IOException, NitfFormatException {
         writeFixedLengthString(LA, LA.length());
         writeFixedLengthString(labelSegment.getIdentifier(), LID_LENGTH);
         writeSecurityMetadata(labelSegment.getSecurityMetadata());
@@ -68,7 +82,7 @@ public class LabelSegmentWriter extends AbstractSegmentWriter {
         writeFixedLengthNumber(labelSegment.getLabelLocationColumn(), LLOC_HALF_LENGTH);
         writeBytes(labelSegment.getLabelTextColour().toByteArray(), RGBColour.RGB_COLOUR_LENGTH);
         writeBytes(labelSegment.getLabelBackgroundColour().toByteArray(), RGBColour.RGB_COLOUR_LENGTH);
-        byte[] labelExtendedSubheaderData = mTreParser.getTREs(labelSegment, TreSource.LabelExtendedSubheaderData);
+        byte[] labelExtendedSubheaderData = getTREs(labelSegment, TreSource.LabelExtendedSubheaderData);
         int labelExtendedSubheaderDataLength = labelExtendedSubheaderData.length;
         if ((labelExtendedSubheaderDataLength > 0) || (labelSegment.getExtendedHeaderDataOverflow() != 0)) {
             labelExtendedSubheaderDataLength += LXSOFL_LENGTH;
@@ -78,7 +92,6 @@ public class LabelSegmentWriter extends AbstractSegmentWriter {
             writeFixedLengthNumber(labelSegment.getExtendedHeaderDataOverflow(), LXSOFL_LENGTH);
             writeBytes(labelExtendedSubheaderData, labelExtendedSubheaderDataLength - LXSOFL_LENGTH);
         }
-        mOutput.writeBytes(labelSegment.getData());
     }
 }
 
@@ -19,6 +19,7 @@ import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.common.CommonBasicSegmentImpl;
 import org.codice.imaging.nitf.core.common.CommonConstants;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
 import org.codice.imaging.nitf.core.graphic.GraphicSegmentConstants;
 import org.codice.imaging.nitf.core.tre.TreParser;
 import org.codice.imaging.nitf.core.tre.TreSource;
@@ -43,6 +44,7 @@ class SymbolSegmentImpl extends CommonBasicSegmentImpl implements SymbolSegment
     private int symbolRotation = 0;
     private SymbolColour symbolColourFormat = SymbolColour.UNKNOWN;
     private ImageInputStream dataStream = null;
+    private SharedSegmentData sharedData = null;
     private long dataLength = 0;
 
     /**
@@ -280,15 +282,36 @@ class SymbolSegmentImpl extends CommonBasicSegmentImpl implements SymbolSegment
      */
     @Override
     public ImageInputStream getData() {
+        if (sharedData != null) {
+            return sharedData.getThreadCursor();
+        }
         return dataStream;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SharedSegmentData getSharedData() {
+        return sharedData;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setSharedData(final SharedSegmentData data) {
+        sharedData = data;
+        dataStream = null;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void setData(final ImageInputStream data) {
         dataStream = data;
+        sharedData = null;
     }
 
     /**
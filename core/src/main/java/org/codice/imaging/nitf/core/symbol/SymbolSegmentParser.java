@@ -16,8 +16,10 @@ package org.codice.imaging.nitf.core.symbol;
 
 import org.codice.imaging.nitf.core.common.AbstractSegmentParser;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
-import org.codice.imaging.nitf.core.common.ParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
+import org.codice.imaging.nitf.core.common.ParseStrategy;
 import static org.codice.imaging.nitf.core.graphic.GraphicSegmentConstants.SALVL_LENGTH;
 import static org.codice.imaging.nitf.core.graphic.GraphicSegmentConstants.SCOLOR_LENGTH;
 import static org.codice.imaging.nitf.core.graphic.GraphicSegmentConstants.SDLVL_LENGTH;
@@ -62,6 +64,7 @@ public class SymbolSegmentParser extends AbstractSegmentParser {
      */
     public final SymbolSegment parse(final NitfReader nitfReader, final ParseStrategy parseStrategy,
             final long dataLength) throws NitfFormatException {
+        long startTime = NitfMetricsRegistry.startTimer();
         reader = nitfReader;
         segment = new SymbolSegmentImpl();
         segment.setDataLength(dataLength);
@@ -90,9 +93,14 @@ public class SymbolSegmentParser extends AbstractSegmentParser {
         }
         readSXSHDL();
         if (symbolExtendedSubheaderLength > 0) {
-            readSXSOFL();
-            readSXSHD();
+            if (parsingStrategy.isTreParsingRequired(segment)) {
+                readSXSOFL();
+                readSXSHD();
+            } else {
+                reader.skip(symbolExtendedSubheaderLength);
+            }
         }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.SYMBOL_SUBHEADER, startTime);
         return segment;
     }
 
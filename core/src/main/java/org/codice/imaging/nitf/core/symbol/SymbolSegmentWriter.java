@@ -61,6 +61,20 @@ public class SymbolSegmentWriter extends AbstractSegmentWriter {
      * @throws NitfFormatException on TRE parsing failure.
      */
     public final void writeSymbolSegment(final SymbolSegment header) throws IOException, NitfFormatException {
+        writeSymbolSubheader(header);
+        writeSegmentData(header.getData());
+    }
+
+    /**
+     * Write out the subheader for the specified symbol segment.
+     * <p>
+     * This does not write out the symbol data.
+     *
+     * @param header the header content to write out
+     * @throws IOException on write failure.
+     * @throws NitfFormatException on TRE parsing failure.
+     */
+    public final void writeSymbolSubheader(final SymbolSegment header) throws IOException, NitfFormatException {
         writeFixedLengthString(SY, SY.length());
         writeFixedLengthString(header.getIdentifier(), SID_LENGTH);
         writeFixedLengthString(header.getSymbolName(), SNAME_LENGTH);
@@ -82,7 +96,7 @@ public class SymbolSegmentWriter extends AbstractSegmentWriter {
         writeFixedLengthNumber(header.getSymbolRotation(), SROT_LENGTH);
         // TODO: need to have a LUT list or similar in the symbol segment subheader
         writeFixedLengthNumber(0, SYNELUT_LENGTH);
-        byte[] symbolExtendedSubheaderData = mTreParser.getTREs(header, TreSource.SymbolExtendedSubheaderData);
+        byte[] symbolExtendedSubheaderData = getTREs(header, TreSource.SymbolExtendedSubheaderData);
         int symbolExtendedSubheaderDataLength = symbolExtendedSubheaderData.length;
         if ((symbolExtendedSubheaderDataLength > 0) || (header.getExtendedHeaderDataOverflow() != 0)) {
             symbolExtendedSubheaderDataLength += SXSOFL_LENGTH;
@@ -92,6 +106,5 @@ public class SymbolSegmentWriter extends AbstractSegmentWriter {
             writeFixedLengthNumber(header.getExtendedHeaderDataOverflow(), SXSOFL_LENGTH);
             writeBytes(symbolExtendedSubheaderData, symbolExtendedSubheaderDataLength - SXSOFL_LENGTH);
         }
-        writeSegmentData(header.getData());
     }
 }
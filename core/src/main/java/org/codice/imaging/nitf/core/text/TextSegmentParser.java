@@ -17,8 +17,10 @@ package org.codice.imaging.nitf.core.text;
 import org.codice.imaging.nitf.core.common.AbstractSegmentParser;
 import org.codice.imaging.nitf.core.common.FileType;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
-import org.codice.imaging.nitf.core.common.ParseStrategy;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
+import org.codice.imaging.nitf.core.common.ParseStrategy;
 import org.codice.imaging.nitf.core.security.SecurityMetadataParser;
 import static org.codice.imaging.nitf.core.text.TextConstants.TE;
 import static org.codice.imaging.nitf.core.text.TextConstants.TEXTID20_LENGTH;
@@ -56,6 +58,7 @@ public class TextSegmentParser extends AbstractSegmentParser {
      */
     public final TextSegment parse(final NitfReader nitfReader, final ParseStrategy parseStrategy)
             throws NitfFormatException {
+        long startTime = NitfMetricsRegistry.startTimer();
         reader = nitfReader;
         segment = new TextSegmentImpl();
         parsingStrategy = parseStrategy;
@@ -70,9 +73,14 @@ public class TextSegmentParser extends AbstractSegmentParser {
         readTXTFMT();
         readTXSHDL();
         if (textExtendedSubheaderLength > 0) {
-            readTXSOFL();
-            readTXSHD();
+            if (parsingStrategy.isTreParsingRequired(segment)) {
+                readTXSOFL();
+                readTXSHD();
+            } else {
+                reader.skip(textExtendedSubheaderLength);
+            }
         }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.TEXT_SUBHEADER, startTime);
         return segment;
     }
 
@@ -53,6 +53,21 @@ public class TextSegmentWriter extends AbstractSegmentWriter {
      * @throws NitfFormatException on TRE parsing failure.
      */
     public final void writeTextSegment(final TextSegment textSegment, final FileType fileType) throws IOException, NitfFormatException {
+        writeTextSubheader(textSegment, fileType);
+        mOutput.writeBytes(textSegment.getData());
+    }
+
+    /**
+     * Write out the subheader for the specified text segment.
+     * <p>
+     * This does not write out the text data.
+     *
+     * @param textSegment the content to write out
+     * @param fileType the type of file (NITF version) to write the text header out for.
+     * @throws IOException on write failure.
+     * @throws NitfFormatException on TRE parsing failure.
+     */
+    public final void writeTextSubheader(final TextSegment textSegment, final FileType fileType) throws IOException, NitfFormatException {
         writeFixedLengthString(TextConstants.TE, TextConstants.TE.length());
         if (fileType == FileType.NITF_TWO_ZERO) {
             writeFixedLengthString(textSegment.getIdentifier(), TEXTID20_LENGTH);
@@ -65,7 +80,7 @@ public class TextSegmentWriter extends AbstractSegmentWriter {
         writeSecurityMetadata(textSegment.getSecurityMetadata());
         writeENCRYP();
         writeFixedLengthString(textSegment.getTextFormat().getTextEquivalent(), TXTFMT_LENGTH);
-        byte[] textExtendedSubheaderData = mTreParser.getTREs(textSegment, TreSource.TextExtendedSubheaderData);
+        byte[] textExtendedSubheaderData = getTREs(textSegment, TreSource.TextExtendedSubheaderData);
         int textExtendedSubheaderDataLength = textExtendedSubheaderData.length;
         if ((textExtendedSubheaderDataLength > 0) || (textSegment.getExtendedHeaderDataOverflow() != 0)) {
             textExtendedSubheaderDataLength += TXSOFL_LENGTH;
@@ -75,6 +90,5 @@ public class TextSegmentWriter extends AbstractSegmentWriter {
             writeFixedLengthNumber(textSegment.getExtendedHeaderDataOverflow(), TXSOFL_LENGTH);
             writeBytes(textExtendedSubheaderData, textExtendedSubheaderDataLength - TXSOFL_LENGTH);
         }
-        mOutput.writeBytes(textSegment.getData());
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.tre;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
+import org.codice.imaging.nitf.core.common.TaggedRecordExtensionHandler;
+
+/**
+ * Cache of serialised TRE bytes.
+ * <p>
+ * Writing a NITF file needs the serialised TREs twice - once to work out the header lengths, and once to actually write
+ * out the TRE fields. Large TREs are expensive to serialise, so this cache holds the serialised bytes for each segment
+ * (or file header) and TRE source for the duration of a write.
+ * <p>
+ * A cached entry is discarded if the TREs for that source have been added, removed or replaced since the entry was
+ * created. Changes to the content of an existing TRE are not detected, so call invalidate() if a TRE is modified in
+ * place while the cache is in use. The cache is intended to be short-lived (one per write session), so this is not
+ * usually a concern.
+ * <p>
+ * This class is thread safe, although serialisation of the same source on multiple threads may be done more than once.
+ */
+public class TreCache {
+
+    private static final String CACHE_NAME = "TreCache";
+
+    private final TreParser treParser;
+
+    private final Map<TaggedRecordExtensionHandler, Map<TreSource, CacheEntry>> cache = new IdentityHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param parser the TRE parser to use to serialise TREs that are not in the cache.
+     */
+    public TreCache(final TreParser parser) {
+        treParser = parser;
+    }
+
+    /**
+     * Get the serialised TREs for the specified source.
+     * <p>
+     * This is equivalent to TreParser.getTREs(), except that the result will be reused if it is requested again.
+     * The returned array must not be modified.
+     *
+     * @param handler the TRE handler to read TREs from
+     * @param source the source (which has to match the header) of the TREs.
+     * @return byte array of serialised TREs - may be empty if there are no TREs.
+     * @throws NitfFormatException on TRE parsing problem.
+     * @throws IOException on reading or writing problems.
+     */
+    public final byte[] getTREs(final TaggedRecordExtensionHandler handler, final TreSource source) throws NitfFormatException, IOException {
+        List<Tre> tres = handler.getTREsRawStructure().getTREsForSource(source);
+        CacheEntry entry = lookup(handler, source);
+        if ((entry != null) && entry.isFor(tres)) {
+            NitfMetricsRegistry.getMetrics().recordCacheLookup(CACHE_NAME, true);
+            return entry.serialisedTREs;
+        }
+        NitfMetricsRegistry.getMetrics().recordCacheLookup(CACHE_NAME, false);
+        byte[] serialisedTREs = treParser.getTREs(handler, source);
+        store(handler, source, new CacheEntry(tres, serialisedTREs));
+        return serialisedTREs;
+    }
+
+    /**
+     * Discard any cached TREs for the specified segment or file header.
+     *
+     * @param handler the segment or header that has been modified.
+     */
+    public final synchronized void invalidate(final TaggedRecordExtensionHandler handler) {
+        cache.remove(handler);
+    }
+
+    /**
+     * Discard all cached TREs.
+     */
+    public final synchronized void clear() {
+        cache.clear();
+    }
+
+    private synchronized CacheEntry lookup(final TaggedRecordExtensionHandler handler, final TreSource source) {
+        Map<TreSource, CacheEntry> entriesForHandler = cache.get(handler);
+        if (entriesForHandler == null) {
+            return null;
+        }
+        return entriesForHandler.get(source);
+    }
+
+    private synchronized void store(final TaggedRecordExtensionHandler handler, final TreSource source, final CacheEntry entry) {
+        Map<TreSource, CacheEntry> entriesForHandler = cache.get(handler);
+        if (entriesForHandler == null) {
+            entriesForHandler = new EnumMap<>(TreSource.class);
+            cache.put(handler, entriesForHandler);
+        }
+        entriesForHandler.put(source, entry);
+    }
+
+    private static final class CacheEntry {
+
+        private final List<Tre> tres;
+
+        private final byte[] serialisedTREs;
+
+        CacheEntry(final List<Tre> sourceTREs, final byte[] serialised) {
+            tres = sourceTREs;
+            serialisedTREs = serialised;
+        }
+
+        boolean isFor(final List<Tre> currentTREs) {
+            if (currentTREs.size() != tres.size()) {
+                return false;
+            }
+            for (int i = 0; i < tres.size(); ++i) {
+                if (currentTREs.get(i) != tres.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -14,8 +14,11 @@
  **/
 package org.codice.imaging.nitf.core.tre;
 
+import java.util.function.Predicate;
 import javax.xml.transform.Source;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import static org.codice.imaging.nitf.core.tre.TreConstants.TAGLEN_LENGTH;
 import static org.codice.imaging.nitf.core.tre.TreConstants.TAG_LENGTH;
@@ -45,6 +48,25 @@ public class TreCollectionParser {
      * @throws NitfFormatException if the TRE parsing fails (e.g. end of file or TRE that is clearly incorrect).
      */
     public final TreCollection parse(final NitfReader reader, final int treLength, final TreSource sourceSegment) throws NitfFormatException {
+        return parse(reader, treLength, sourceSegment, tag -> true);
+    }
+
+    /**
+     * Parse the TREs from the current reader, skipping any TREs that are not required.
+     *
+     * TREs that do not match the filter are skipped using the TRE length, without being parsed.
+     *
+     * @param reader the reader to use.
+     * @param treLength the length of the TRE.
+     * @param sourceSegment the source segment (or segment part) for the TRE.
+     * @param treFilter predicate on the TRE tag (name), which returns true for the TREs that should be parsed.
+     * @return TRE collection, containing only the TREs matching the filter.
+     * @throws NitfFormatException if the TRE parsing fails (e.g. end of file or TRE that is clearly incorrect).
+     */
+    public final TreCollection parse(final NitfReader reader, final int treLength, final TreSource sourceSegment,
+            final Predicate<String> treFilter) throws NitfFormatException {
+        long startTime = NitfMetricsRegistry.startTimer();
+        NitfMetrics metrics = NitfMetricsRegistry.getMetrics();
         TreCollection treCollection = new TreCollection();
         int bytesRead = 0;
         while (bytesRead < treLength) {
@@ -52,9 +74,15 @@ public class TreCollectionParser {
             bytesRead += TAG_LENGTH;
             int fieldLength = reader.readBytesAsInteger(TAGLEN_LENGTH);
             bytesRead += TAGLEN_LENGTH;
-            treCollection.add(treParser.parseOneTre(reader, tag, fieldLength, sourceSegment));
+            if (treFilter.test(tag.trim())) {
+                treCollection.add(treParser.parseOneTre(reader, tag, fieldLength, sourceSegment));
+                metrics.recordTre(tag);
+            } else {
+                reader.skip(fieldLength);
+            }
             bytesRead += fieldLength;
         }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.TRE, startTime);
         return treCollection;
     }
 
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.tre;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Fixed width formatting of TRE field values.
+ * <p>
+ * The output is the same as the equivalent String.format() patterns, but avoids parsing a format string on every call.
+ */
+final class TreFieldFormatter {
+
+    private static final int DEFAULT_REAL_PRECISION = 6;
+
+    private static final int MIN_EXPONENT_DIGITS = 2;
+
+    private static final String EXPONENT_FORMAT = "UE";
+
+    private TreFieldFormatter() {
+    }
+
+    /**
+     * Equivalent to String.format("%0" + length + "d", number).
+     *
+     * @param number the number to format
+     * @param length the minimum length of the result
+     * @return the number, zero padded to the specified length
+     */
+    static String padIntegerToLength(final long number, final int length) {
+        String digits = Long.toString(number);
+        if (digits.length() >= length) {
+            return digits;
+        }
+        char[] chars = new char[length];
+        int signLength = 0;
+        if (number < 0) {
+            chars[0] = '-';
+            signLength = 1;
+        }
+        int padLength = length - digits.length();
+        Arrays.fill(chars, signLength, signLength + padLength, '0');
+        digits.getChars(signLength, digits.length(), chars, signLength + padLength);
+        return new String(chars);
+    }
+
+    /**
+     * Equivalent to String.format("%1$-" + length + "s", s).
+     *
+     * @param s the string to format
+     * @param length the minimum length of the result
+     * @return the string, padded on the right with spaces to the specified length
+     */
+    static String padStringToLength(final String s, final int length) {
+        String value = String.valueOf(s);
+        if (value.length() >= length) {
+            return value;
+        }
+        char[] chars = new char[length];
+        value.getChars(0, value.length(), chars, 0);
+        Arrays.fill(chars, value.length(), length, ' ');
+        return new String(chars);
+    }
+
+    /**
+     * Format a real value.
+     * <p>
+     * For the "UE" format, this is equivalent to String.format("%0" + length + "." + (length - 6) + "E", number), and
+     * NaN is written as a padded string. Otherwise, this is equivalent to String.format("%" + length + "f", number).
+     *
+     * @param number the number to format
+     * @param format the TRE field format, may be null
+     * @param length the minimum length of the result
+     * @return the formatted number
+     */
+    static String padRealToLength(final double number, final String format, final int length) {
+        if (EXPONENT_FORMAT.equals(format)) {
+            if (Double.isNaN(number)) {
+                return padStringToLength("NaN", length);
+            }
+            int precision = length - "X.".length() - "E+ZZ".length();
+            if (Double.isInfinite(number) || (precision < 0)) {
+                return String.format("%0" + length + "." + precision + "E", number);
+            }
+            return formatScientific(number, precision, length);
+        }
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            return String.format("%" + length + "f", number);
+        }
+        return formatDecimal(number, length);
+    }
+
+    private static String formatDecimal(final double number, final int length) {
+        StringBuilder builder = new StringBuilder(length);
+        if (Double.compare(number, 0.0) < 0) {
+            builder.append('-');
+        }
+        // Rounds the shortest decimal representation (as the Formatter does), not the exact binary value
+        BigDecimal value = new BigDecimal(Double.toString(Math.abs(number)));
+        builder.append(value.setScale(DEFAULT_REAL_PRECISION, RoundingMode.HALF_UP).toPlainString());
+        if (builder.length() >= length) {
+            return builder.toString();
+        }
+        char[] chars = new char[length];
+        int padLength = length - builder.length();
+        Arrays.fill(chars, 0, padLength, ' ');
+        builder.getChars(0, builder.length(), chars, padLength);
+        return new String(chars);
+    }
+
+    private static String formatScientific(final double number, final int precision, final int length) {
+        String digits;
+        int exponent;
+        double magnitude = Math.abs(number);
+        if (magnitude == 0.0) {
+            digits = "0";
+            exponent = 0;
+        } else {
+            BigDecimal value = new BigDecimal(Double.toString(magnitude)).round(new MathContext(precision + 1, RoundingMode.HALF_UP));
+            digits = value.unscaledValue().toString();
+            exponent = digits.length() - 1 - value.scale();
+        }
+        StringBuilder mantissa = new StringBuilder(length);
+        mantissa.append(digits.charAt(0));
+        if (precision > 0) {
+            mantissa.append('.');
+            int fractionDigits = Math.min(precision, digits.length() - 1);
+            mantissa.append(digits, 1, 1 + fractionDigits);
+            for (int i = fractionDigits; i < precision; ++i) {
+                mantissa.append('0');
+            }
+        }
+        mantissa.append('E');
+        if (exponent < 0) {
+            mantissa.append('-');
+        } else {
+            mantissa.append('+');
+        }
+        String exponentDigits = Integer.toString(Math.abs(exponent));
+        for (int i = exponentDigits.length(); i < MIN_EXPONENT_DIGITS; ++i) {
+            mantissa.append('0');
+        }
+        mantissa.append(exponentDigits);
+
+        int signLength = 0;
+        if (Double.compare(number, 0.0) < 0) {
+            signLength = 1;
+        }
+        int padLength = Math.max(0, length - signLength - mantissa.length());
+        char[] chars = new char[signLength + padLength + mantissa.length()];
+        if (signLength > 0) {
+            chars[0] = '-';
+        }
+        Arrays.fill(chars, signLength, signLength + padLength, '0');
+        mantissa.getChars(0, mantissa.length(), chars, signLength + padLength);
+        return new String(chars);
+    }
+}
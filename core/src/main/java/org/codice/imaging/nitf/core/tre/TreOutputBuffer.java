@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.tre;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+
+/**
+ * Growable output buffer for serialised TREs.
+ * <p>
+ * This is similar to a ByteArrayOutputStream, but is not synchronised, and allows the TRE length to be filled in after
+ * the TRE has been serialised. A buffer can be reused (see reset()) to avoid allocation when serialising many TREs.
+ */
+public final class TreOutputBuffer {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private static final int MAX_ISO_8859_1_CHAR = 0xFF;
+
+    private static final int DECIMAL_BASE = 10;
+
+    private byte[] buffer;
+
+    private int count = 0;
+
+    /**
+     * Constructor, using a default initial capacity.
+     */
+    public TreOutputBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param initialCapacity the initial capacity of the buffer, in bytes.
+     */
+    public TreOutputBuffer(final int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Get the number of bytes written to the buffer.
+     *
+     * @return the number of bytes written.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Discard the contents of the buffer, retaining the allocated capacity.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Get a copy of the contents of the buffer.
+     *
+     * @return the bytes written to the buffer.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Write the contents of the buffer to an output.
+     *
+     * @param output the output to write to.
+     * @throws IOException on write failure.
+     */
+    public void writeTo(final DataOutput output) throws IOException {
+        output.write(buffer, 0, count);
+    }
+
+    void write(final byte[] bytes) {
+        ensureCapacity(count + bytes.length);
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    void writeString(final String s) {
+        int length = s.length();
+        ensureCapacity(count + length);
+        for (int i = 0; i < length; ++i) {
+            char c = s.charAt(i);
+            if (c > MAX_ISO_8859_1_CHAR) {
+                // Same replacement as String.getBytes() for unmappable characters
+                c = '?';
+            }
+            buffer[count++] = (byte) c;
+        }
+    }
+
+    void writeSpaces(final int length) {
+        ensureCapacity(count + length);
+        Arrays.fill(buffer, count, count + length, (byte) ' ');
+        count += length;
+    }
+
+    void setZeroPaddedNumber(final int position, final long number, final int length) throws NitfFormatException {
+        long remaining = number;
+        for (int i = position + length - 1; i >= position; --i) {
+            buffer[i] = (byte) ('0' + (remaining % DECIMAL_BASE));
+            remaining /= DECIMAL_BASE;
+        }
+        if ((number < 0) || (remaining != 0)) {
+            throw new NitfFormatException(String.format("Value %d cannot fit into length %d", number, length));
+        }
+    }
+
+    private void ensureCapacity(final int requiredCapacity) {
+        if (requiredCapacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(requiredCapacity, buffer.length * 2));
+        }
+    }
+}
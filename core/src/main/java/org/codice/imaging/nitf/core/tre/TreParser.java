@@ -14,7 +14,6 @@
  **/
 package org.codice.imaging.nitf.core.tre;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
@@ -313,39 +312,46 @@ public class TreParser {
      * @throws IOException on reading or writing problems.
      */
     public final byte[] getTREs(final TaggedRecordExtensionHandler handler, final TreSource source) throws NitfFormatException, IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        TreOutputBuffer output = new TreOutputBuffer();
+        writeTREs(handler, source, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Serialise out the TREs for the specified source into a buffer.
+     * <p>
+     * Each TRE is written as the tag, the length and the TRE data, in the same way as getTREs().
+     *
+     * @param handler the TRE handler to read TREs from
+     * @param source the source (which has to match the header) of the TREs.
+     * @param output the buffer to append the serialised TREs to.
+     * @throws NitfFormatException on TRE parsing problem.
+     */
+    public final void writeTREs(final TaggedRecordExtensionHandler handler, final TreSource source, final TreOutputBuffer output)
+            throws NitfFormatException {
         for (Tre tre : handler.getTREsRawStructure().getTREsForSource(source)) {
-            String name = padStringToLength(tre.getName(), TAG_LENGTH);
-            baos.write(name.getBytes(StandardCharsets.ISO_8859_1));
+            output.writeString(padStringToLength(tre.getName(), TAG_LENGTH));
+            int lengthPosition = output.size();
+            output.writeSpaces(TAGLEN_LENGTH);
             if (tre.getRawData() != null) {
-                String tagLen = padIntegerToLength(tre.getRawData().length, TAGLEN_LENGTH);
-                baos.write(tagLen.getBytes(StandardCharsets.ISO_8859_1));
-                baos.write(tre.getRawData());
+                output.write(tre.getRawData());
             } else {
-                byte[] treData = serializeTRE(tre);
-                baos.write(padIntegerToLength(treData.length, TAGLEN_LENGTH).getBytes(StandardCharsets.ISO_8859_1));
-                baos.write(treData);
+                serializeTRE(tre, output);
             }
+            output.setZeroPaddedNumber(lengthPosition, output.size() - lengthPosition - TAGLEN_LENGTH, TAGLEN_LENGTH);
         }
-        return baos.toByteArray();
     }
 
     private String padIntegerToLength(final long number, final int length) {
-        return String.format("%0" + length + "d", number);
+        return TreFieldFormatter.padIntegerToLength(number, length);
     }
 
     private String padStringToLength(final String s, final int length) {
-        return String.format("%1$-" + length + "s", s);
+        return TreFieldFormatter.padStringToLength(s, length);
     }
 
     private String padRealToLength(final double number, final String format, final int length) {
-        if ((format != null) && (format.equals("UE"))) {
-            if (Double.isNaN(number)) {
-                return padStringToLength("NaN", length);
-            }
-            return String.format("%0" + length + "." + (length - "X.".length() - "E+ZZ".length()) + "E", number);
-        }
-        return String.format("%" + length + "f", number);
+        return TreFieldFormatter.padRealToLength(number, format, length);
     }
 
     /**
@@ -356,55 +362,64 @@ public class TreParser {
      * @throws NitfFormatException if TRE serialisation fails.
      */
     public final byte[] serializeTRE(final Tre tre) throws NitfFormatException {
+        TreOutputBuffer output = new TreOutputBuffer();
+        serializeTRE(tre, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Write out one TRE into a buffer.
+     * <p>
+     * This writes only the TRE data, not the tag or length.
+     *
+     * @param tre the TRE to write out
+     * @param output the buffer to append the serialised TRE to.
+     * @throws NitfFormatException if TRE serialisation fails.
+     */
+    public final void serializeTRE(final Tre tre, final TreOutputBuffer output) throws NitfFormatException {
         TreType treType = getTreTypeForTag(tre.getName());
         checkTreLocationMatchesTreSource(treType.getLocation(), tre.getSource());
         TreParams parameters = new TreParams();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
         serializeFieldOrLoopOrIf(treType.getFieldOrLoopOrIf(), tre, output, parameters);
-        return output.toByteArray();
     }
 
     private void serializeFieldOrLoopOrIf(final List<Object> fieldOrLoopOrIf,
             final TreGroup treGroup,
-            final ByteArrayOutputStream baos,
+            final TreOutputBuffer output,
             final TreParams params) throws NitfFormatException {
-        try {
-            for (Object fieldLoopIf : fieldOrLoopOrIf) {
-                if (fieldLoopIf instanceof FieldType) {
-                    byte[] field = getFieldValue((FieldType) fieldLoopIf, treGroup, params);
-                    baos.write(field);
-                } else if (fieldLoopIf instanceof LoopType) {
-                    LoopType loopType = (LoopType) fieldLoopIf;
-                    TreEntry loopDataEntry = treGroup.getEntry(loopType.getName());
-                    for (TreGroup subGroup : loopDataEntry.getGroups()) {
-                        serializeFieldOrLoopOrIf(loopType.getFieldOrLoopOrIf(), subGroup, baos, params);
-                    }
-                } else if (fieldLoopIf instanceof IfType) {
-                    IfType ifType = (IfType) fieldLoopIf;
-                    if (evaluateCondition(ifType.getCond(), params)) {
-                        serializeFieldOrLoopOrIf(ifType.getFieldOrLoopOrIf(), treGroup, baos, params);
-                    }
-                } else {
-                    throw new NitfFormatException("Unexpected TRE structure type");
+        for (Object fieldLoopIf : fieldOrLoopOrIf) {
+            if (fieldLoopIf instanceof FieldType) {
+                writeFieldValue((FieldType) fieldLoopIf, treGroup, params, output);
+            } else if (fieldLoopIf instanceof LoopType) {
+                LoopType loopType = (LoopType) fieldLoopIf;
+                TreEntry loopDataEntry = treGroup.getEntry(loopType.getName());
+                for (TreGroup subGroup : loopDataEntry.getGroups()) {
+                    serializeFieldOrLoopOrIf(loopType.getFieldOrLoopOrIf(), subGroup, output, params);
+                }
+            } else if (fieldLoopIf instanceof IfType) {
+                IfType ifType = (IfType) fieldLoopIf;
+                if (evaluateCondition(ifType.getCond(), params)) {
+                    serializeFieldOrLoopOrIf(ifType.getFieldOrLoopOrIf(), treGroup, output, params);
                 }
+            } else {
+                throw new NitfFormatException("Unexpected TRE structure type");
             }
-        } catch (IOException ex) {
-            throw new NitfFormatException("Failed to write TRE:" + ex.getMessage());
         }
     }
 
-    private byte[] getFieldValue(final FieldType fieldType, final TreGroup treGroup, final TreParams params) throws NitfFormatException {
+    private void writeFieldValue(final FieldType fieldType, final TreGroup treGroup, final TreParams params, final TreOutputBuffer output)
+            throws NitfFormatException {
         String fieldTypeName = getFieldTypeName(fieldType);
         if (fieldTypeName != null) {
             TreEntry entry = treGroup.getEntry(fieldTypeName);
-            return getValueForEntry(params, fieldType, entry);
+            writeValueForEntry(params, fieldType, entry, output);
         } else {
             // This is a pad field
             String value = fieldType.getFixedValue();
             if ((value != null) && (!value.isEmpty())) {
-                return value.getBytes(StandardCharsets.ISO_8859_1);
+                output.writeString(value);
             } else {
-                return padStringToLength("", fieldType.getLength().intValueExact()).getBytes(StandardCharsets.ISO_8859_1);
+                output.writeSpaces(fieldType.getLength().intValueExact());
             }
         }
     }
@@ -417,7 +432,7 @@ public class TreParser {
         return fieldTypeName;
     }
 
-    private byte[] getValueForEntry(final TreParams params, final FieldType fieldType, final TreEntry entry)
+    private void writeValueForEntry(final TreParams params, final FieldType fieldType, final TreEntry entry, final TreOutputBuffer output)
             throws NitfFormatException {
         String value = entry.getFieldValue();
         if (value == null) {
@@ -434,7 +449,8 @@ public class TreParser {
         }
         if ((fieldType.getLength() == null) || (fieldType.getLength().intValueExact() == value.length())) {
             params.addParameter(getFieldTypeName(fieldType), value, entry.getDataType());
-            return value.getBytes(StandardCharsets.ISO_8859_1);
+            output.writeString(value);
+            return;
         }
         // Try to pad out to the required length.
         if (fieldType.getType() == null) {
@@ -445,7 +461,8 @@ public class TreParser {
         if (fieldType.getType().equals("integer")) {
             value = getValidatedIntegerValue(value, fieldType);
             params.addParameter(getFieldTypeName(fieldType), value, entry.getDataType());
-            return value.getBytes(StandardCharsets.ISO_8859_1);
+            output.writeString(value);
+            return;
         }
 
         if (fieldType.getType().equals("string")) {
@@ -454,19 +471,22 @@ public class TreParser {
                throw new NitfFormatException("Incorrect length serialising out: " + fieldType.getName());
             }
             params.addParameter(getFieldTypeName(fieldType), value, entry.getDataType());
-            return value.getBytes(StandardCharsets.ISO_8859_1);
+            output.writeString(value);
+            return;
         }
 
         if (fieldType.getType().equals("real")) {
             value = getValidatedRealValue(value, fieldType);
             params.addParameter(getFieldTypeName(fieldType), value, entry.getDataType());
-            return value.getBytes(StandardCharsets.ISO_8859_1);
+            output.writeString(value);
+            return;
         }
         if (fieldType.getType().equals("UINT")) {
             byte[] result = getValidatedUINTValue(entry.getFieldValue().getBytes(StandardCharsets.ISO_8859_1), fieldType);
             params.addParameter(getFieldTypeName(fieldType), value, entry.getDataType());
             // params.addUintParameter(getFieldTypeName(fieldType), result);
-            return result;
+            output.write(result);
+            return;
         }
         throw new UnsupportedOperationException("Unsupported field type for serialisation:" + fieldType.getType());
     }
@@ -21,7 +21,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URISyntaxException;
-import javax.imageio.stream.FileImageInputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.MemoryCacheImageInputStream;
 import org.apache.commons.io.FileUtils;
@@ -40,6 +41,8 @@ class AbstractWriterTest {
 
     private static final int ABOUT_100K = 100000;
 
+    private static final int THREAD_POOL_SIZE = 4;
+
     protected InputStream getInputStream(String testfile) {
         assertNotNull("Test file missing", getClass().getResource(testfile));
         return getClass().getResourceAsStream(testfile);
@@ -50,8 +53,8 @@ class AbstractWriterTest {
         NitfReader reader = new NitfInputStreamReader(new BufferedInputStream(getInputStream(sourceFileName)));
         SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
         HeapStrategyConfiguration heapStrategyConfiguration = new HeapStrategyConfiguration(length -> length > ABOUT_100K);
-        HeapStrategy<ImageInputStream> imageDataStrategy = new ConfigurableHeapStrategy<>(heapStrategyConfiguration,
-                file -> new FileImageInputStream(file), is -> new MemoryCacheImageInputStream(is));
+        HeapStrategy<ImageInputStream> imageDataStrategy = new ConfigurableHeapStrategy<>(heapStrategyConfiguration, SpillStore.getDefault(),
+                stream -> stream, is -> new MemoryCacheImageInputStream(is));
         parseStrategy.setImageHeapStrategy(imageDataStrategy);
 
         NitfParser.parse(reader, parseStrategy);
@@ -60,6 +63,13 @@ class AbstractWriterTest {
         assertTrue(FileUtils.contentEquals(new File(getClass().getResource(sourceFileName).toURI()), new File(outputFile)));
         assertTrue(new File(outputFile).delete());
 
+        // Do the same again, but with back-patched lengths
+        NitfFileWriter streamingWriter = new NitfFileWriter(parseStrategy.getDataSource(), outputFile);
+        streamingWriter.setStreamingMode(true);
+        streamingWriter.write();
+        assertTrue(FileUtils.contentEquals(new File(getClass().getResource(sourceFileName).toURI()), new File(outputFile)));
+        assertTrue(new File(outputFile).delete());
+
         // Do the same again, but with stream writing
         try (
             OutputStream outputStream = new FileOutputStream(outputFile)) {
@@ -68,5 +78,18 @@ class AbstractWriterTest {
             assertTrue(FileUtils.contentEquals(new File(getClass().getResource(sourceFileName).toURI()), new File(outputFile)));
         }
         assertTrue(new File(outputFile).delete());
+
+        // Do the same again, but with subheaders serialised on a thread pool
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        try (
+            OutputStream outputStream = new FileOutputStream(outputFile)) {
+            NitfOutputStreamWriter concurrentWriter = new NitfOutputStreamWriter(parseStrategy.getDataSource(), outputStream);
+            concurrentWriter.setSubheaderExecutor(executor);
+            concurrentWriter.write();
+            assertTrue(FileUtils.contentEquals(new File(getClass().getResource(sourceFileName).toURI()), new File(outputFile)));
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(new File(outputFile).delete());
     }
 }
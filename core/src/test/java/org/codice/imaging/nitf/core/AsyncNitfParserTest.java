@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import static org.codice.imaging.nitf.core.TestUtils.readData;
+import org.codice.imaging.nitf.core.common.AsyncFileChannelReader;
+import org.codice.imaging.nitf.core.common.ByteBufferReader;
+import org.codice.imaging.nitf.core.common.FileReader;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.header.FileLayout;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.junit.After;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for AsyncNitfParser.
+ */
+public class AsyncNitfParserTest {
+
+    private static final String[] TEST_FILES = {
+        "/JitcNitf20Samples/U_1130F.NTF",
+        "/JitcNitf21Samples/i_3001a.ntf",
+        "/JitcNitf21Samples/ns3321a.nsf",
+        "/WithBE.ntf"
+    };
+
+    private static final long LARGE_FILE_EXTRA_LENGTH = 3L * 1024 * 1024 * 1024;
+
+    private ExecutorService executor;
+
+    @Before
+    public void createExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void matchesSynchronousParse() throws URISyntaxException, NitfFormatException, InterruptedException, ExecutionException,
+            IOException {
+        List<CompletableFuture<DataSource>> futures = new ArrayList<>();
+        for (String testFile : TEST_FILES) {
+            futures.add(AsyncNitfParser.parse(getPath(testFile), makeParseStrategy(), executor));
+        }
+        for (int i = 0; i < TEST_FILES.length; ++i) {
+            SlottedParseStrategy parseStrategy = makeParseStrategy();
+            NitfParser.parse(new FileReader(getPath(TEST_FILES[i]).toFile()), parseStrategy);
+            DataSource expected = parseStrategy.getDataSource();
+            DataSource actual = futures.get(i).get();
+
+            assertEquals(expected.getNitfHeader().getFileTitle(), actual.getNitfHeader().getFileTitle());
+            assertEquals(expected.getNitfHeader().getTREsRawStructure().getTREs().size(),
+                    actual.getNitfHeader().getTREsRawStructure().getTREs().size());
+            assertEquals(expected.getImageSegments().size(), actual.getImageSegments().size());
+            assertEquals(expected.getDataExtensionSegments().size(), actual.getDataExtensionSegments().size());
+            for (int j = 0; j < expected.getImageSegments().size(); ++j) {
+                assertArrayEquals(readData(expected.getImageSegments().get(j)), readData(actual.getImageSegments().get(j)));
+            }
+        }
+    }
+
+    @Test
+    public void headersOnly() throws URISyntaxException, NitfFormatException, InterruptedException, ExecutionException {
+        for (String testFile : TEST_FILES) {
+            SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.HEADERS_ONLY);
+            NitfParser.parse(new FileReader(getPath(testFile).toFile()), parseStrategy);
+            DataSource expected = parseStrategy.getDataSource();
+            DataSource actual = AsyncNitfParser.parse(getPath(testFile),
+                    new SlottedParseStrategy(SlottedParseStrategy.HEADERS_ONLY), executor).get();
+
+            assertEquals(expected.getImageSegments().size(), actual.getImageSegments().size());
+            for (int i = 0; i < expected.getImageSegments().size(); ++i) {
+                assertEquals(expected.getImageSegments().get(i).getIdentifier(), actual.getImageSegments().get(i).getIdentifier());
+                assertEquals(expected.getImageSegments().get(i).getDataLength(), actual.getImageSegments().get(i).getDataLength());
+            }
+            assertEquals(expected.getTextSegments().size(), actual.getTextSegments().size());
+            assertEquals(expected.getDataExtensionSegments().size(), actual.getDataExtensionSegments().size());
+        }
+    }
+
+    @Test
+    public void largerThan2GB() throws URISyntaxException, IOException, NitfFormatException, InterruptedException,
+            ExecutionException {
+        byte[] original = Files.readAllBytes(getPath("/JitcNitf21Samples/i_3001a.ntf"));
+        FileLayout layout = NitfParser.readFileLayout(new ByteBufferReader(ByteBuffer.wrap(original)));
+        assertEquals(1, layout.getNumberOfSegments());
+        long dataLength = layout.getDataLengths().get(0);
+        String header = new String(original, 0, (int) layout.getHeaderLength(), StandardCharsets.ISO_8859_1);
+        int fileLengthOffset = header.indexOf(String.format("%012d%06d", original.length, layout.getHeaderLength()));
+        int dataLengthOffset = header.indexOf(String.format("%06d%010d", layout.getSubheaderLengths().get(0), dataLength)) + 6;
+        assertTrue(fileLengthOffset > 0);
+        assertTrue(dataLengthOffset > fileLengthOffset);
+
+        // Extend the image data with a sparse region, so the file is larger than 2GB without using the disk space
+        File largeFile = File.createTempFile("large", ".ntf");
+        try {
+            try (RandomAccessFile output = new RandomAccessFile(largeFile, "rw")) {
+                output.write(original);
+                output.seek(fileLengthOffset);
+                output.write(String.format("%012d", original.length + LARGE_FILE_EXTRA_LENGTH).getBytes(StandardCharsets.US_ASCII));
+                output.seek(dataLengthOffset);
+                output.write(String.format("%010d", dataLength + LARGE_FILE_EXTRA_LENGTH).getBytes(StandardCharsets.US_ASCII));
+                output.setLength(original.length + LARGE_FILE_EXTRA_LENGTH);
+            }
+            SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.HEADERS_ONLY);
+            DataSource dataSource = AsyncNitfParser.parse(largeFile.toPath(), parseStrategy, executor).get();
+            assertEquals(1, dataSource.getImageSegments().size());
+            assertEquals(dataLength + LARGE_FILE_EXTRA_LENGTH, dataSource.getImageSegments().get(0).getDataLength());
+        } finally {
+            assertTrue(largeFile.delete());
+        }
+    }
+
+    @Test
+    public void dataRegionsDiscardedAfterRead() throws URISyntaxException, IOException, NitfFormatException, InterruptedException,
+            ExecutionException {
+        Path path = getPath("/JitcNitf21Samples/i_3001a.ntf");
+        byte[] original = Files.readAllBytes(path);
+        try (AsyncFileChannelReader reader = new AsyncFileChannelReader(path, executor)) {
+            reader.loadRegion(0, 100).get();
+            reader.loadDataRegion(100, 50).get();
+            reader.loadDataRegion(150, 50).get();
+            assertTrue(reader.isLoaded(100, 50));
+            assertTrue(reader.isLoaded(150, 50));
+
+            reader.seekToAbsoluteOffset(80);
+            byte[] bytes = reader.readBytesRaw(100);
+            byte[] expected = new byte[100];
+            System.arraycopy(original, 80, expected, 0, expected.length);
+            assertArrayEquals(expected, bytes);
+            assertTrue(reader.isLoaded(0, 100));
+            assertFalse(reader.isLoaded(100, 50));
+            assertTrue(reader.isLoaded(150, 50));
+
+            // Reads from discarded data still work, by falling back to the file
+            reader.seekToAbsoluteOffset(120);
+            bytes = reader.readBytesRaw(80);
+            expected = new byte[80];
+            System.arraycopy(original, 120, expected, 0, expected.length);
+            assertArrayEquals(expected, bytes);
+            assertFalse(reader.isLoaded(150, 50));
+        }
+    }
+
+    @Test
+    public void missingFile() throws InterruptedException {
+        CompletableFuture<DataSource> future = AsyncNitfParser.parse(Paths.get("no such file"), makeParseStrategy(), executor);
+        try {
+            future.get();
+            fail("Expected exception");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof NoSuchFileException);
+        }
+    }
+
+    @Test
+    public void notNitf() throws IOException, InterruptedException {
+        File notNitf = File.createTempFile("notnitf", ".ntf");
+        try {
+            Files.write(notNitf.toPath(), "This is not a NITF file".getBytes(StandardCharsets.US_ASCII));
+            CompletableFuture<DataSource> future = AsyncNitfParser.parse(notNitf.toPath(), makeParseStrategy(), executor);
+            future.get();
+            fail("Expected exception");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof NitfFormatException);
+        } finally {
+            assertTrue(notNitf.delete());
+        }
+    }
+
+    private Path getPath(final String testFile) throws URISyntaxException {
+        assertNotNull("Test file missing: " + testFile, getClass().getResource(testFile));
+        return Paths.get(getClass().getResource(testFile).toURI());
+    }
+
+    private static SlottedParseStrategy makeParseStrategy() {
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        parseStrategy.setImageHeapStrategy(new InMemoryHeapStrategy<ImageInputStream>(is -> new MemoryCacheImageInputStream(is)));
+        return parseStrategy;
+    }
+}
@@ -14,9 +14,12 @@
  **/
 package org.codice.imaging.nitf.core;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.net.URISyntaxException;
 
 import org.codice.imaging.nitf.core.common.FileReader;
@@ -24,6 +27,7 @@ import org.codice.imaging.nitf.core.common.NitfFormatException;
 import org.junit.rules.ExpectedException;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class FileReaderTest {
 
@@ -32,6 +36,9 @@ public class FileReaderTest {
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testBadFilenameConstructorArgument() throws NitfFormatException, URISyntaxException {
         assertNotNull("Test file missing", getClass().getResource(testfile));
@@ -55,4 +62,22 @@ public class FileReaderTest {
         exception.expectMessage("no such file not found: no such file");
         FileReader badReader = new FileReader(new File("no such file"));
     }
+
+    @Test
+    public void testSkipBeyondTwoGigabytes() throws NitfFormatException, IOException {
+        File largeFile = temporaryFolder.newFile();
+        long fileLength = 3L * 1024 * 1024 * 1024;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(largeFile, "rw")) {
+            randomAccessFile.setLength(fileLength);
+        }
+
+        FileReader reader = new FileReader(largeFile);
+        reader.skip(fileLength - 10);
+        assertEquals(fileLength - 10, reader.getCurrentOffset());
+        assertEquals(10, reader.readBytesRaw(10).length);
+
+        exception.expect(NitfFormatException.class);
+        exception.expectMessage("Short skip");
+        reader.skip(1);
+    }
 }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import static org.codice.imaging.nitf.core.TestUtils.parseImageSegments;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfInputStreamReader;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for MemoryBudget, and its use by the heap strategies.
+ */
+public class MemoryBudgetTest {
+
+    private static final String TEST_FILE = "/JitcNitf21Samples/i_3001a.ntf";
+
+    private static final String MULTIPLE_SEGMENT_FILE = "/JitcNitf20Samples/U_1122A.NTF";
+
+    private static final long LIMIT = 1000;
+
+    @Test
+    public void tryReserve() {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        assertTrue(budget.tryReserve(600));
+        assertTrue(budget.tryReserve(400));
+        assertFalse(budget.tryReserve(1));
+        assertEquals(LIMIT, budget.getReserved());
+        budget.release(500);
+        assertEquals(500, budget.getReserved());
+        assertTrue(budget.tryReserve(500));
+        assertEquals(LIMIT, budget.getPeakReserved());
+        assertEquals(3, budget.getReservationCount());
+        assertEquals(1, budget.getRefusedCount());
+    }
+
+    @Test
+    public void oversizeReservationWhenEmpty() {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        assertTrue(budget.tryReserve(LIMIT * 2));
+        assertFalse(budget.tryReserve(1));
+        budget.release(LIMIT * 2);
+        assertEquals(0, budget.getReserved());
+    }
+
+    @Test
+    public void blockingReserve() throws InterruptedException {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        budget.reserve(LIMIT);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch reserved = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                started.countDown();
+                budget.reserve(LIMIT / 2);
+                reserved.countDown();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        started.await();
+        // Only start timing once the waiter is actually waiting for the reservation
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        assertFalse(reserved.await(100, TimeUnit.MILLISECONDS));
+        budget.release(LIMIT);
+        assertTrue(reserved.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(LIMIT / 2, budget.getReserved());
+        assertTrue(budget.getTotalWaitTime(TimeUnit.MILLISECONDS) >= 100);
+    }
+
+    @Test
+    public void timedReserve() throws InterruptedException {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        budget.reserve(LIMIT);
+        assertFalse(budget.reserve(1, 10, TimeUnit.MILLISECONDS));
+        assertEquals(1, budget.getRefusedCount());
+        budget.release(LIMIT);
+        assertTrue(budget.reserve(1, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void configurableHeapStrategyReservesAndReleases() throws NitfFormatException {
+        MemoryBudget budget = new MemoryBudget(LIMIT * LIMIT);
+        HeapStrategy<ImageInputStream> heapStrategy = makeConfigurableHeapStrategy(budget, MemoryBudget.Policy.BLOCK);
+        ImageSegment imageSegment = parse(heapStrategy);
+        assertNotNull(imageSegment.getData());
+        assertEquals(imageSegment.getDataLength(), budget.getReserved());
+        heapStrategy.cleanUp();
+        assertEquals(0, budget.getReserved());
+    }
+
+    @Test
+    public void configurableHeapStrategySkipsWhenExhausted() throws NitfFormatException {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        assertTrue(budget.tryReserve(LIMIT));
+        HeapStrategy<ImageInputStream> heapStrategy = makeConfigurableHeapStrategy(budget, MemoryBudget.Policy.SKIP);
+        assertNull(parse(heapStrategy).getData());
+        heapStrategy.cleanUp();
+        assertEquals(LIMIT, budget.getReserved());
+        assertEquals(1, budget.getRefusedCount());
+    }
+
+    @Test
+    public void configurableHeapStrategySpillsWhenExhausted() throws NitfFormatException {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        assertTrue(budget.tryReserve(LIMIT));
+        HeapStrategy<ImageInputStream> heapStrategy = makeConfigurableHeapStrategy(budget, MemoryBudget.Policy.SPILL);
+        assertNotNull(parse(heapStrategy).getData());
+        heapStrategy.cleanUp();
+        assertEquals(LIMIT, budget.getReserved());
+    }
+
+    @Test(timeout = 30000)
+    public void blockingParseLargerThanBudget() throws NitfFormatException {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        HeapStrategy<ImageInputStream> heapStrategy = makeConfigurableHeapStrategy(budget, MemoryBudget.Policy.BLOCK);
+        List<ImageSegment> imageSegments = parseImageSegments(MULTIPLE_SEGMENT_FILE, heapStrategy);
+        assertEquals(5, imageSegments.size());
+        long totalLength = 0;
+        for (ImageSegment imageSegment : imageSegments) {
+            assertNotNull(imageSegment.getData());
+            totalLength += imageSegment.getDataLength();
+        }
+        assertTrue(totalLength > LIMIT);
+        assertEquals(imageSegments.get(0).getDataLength(), budget.getReserved());
+        heapStrategy.cleanUp();
+        assertEquals(0, budget.getReserved());
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentBlockingParsesLargerThanBudget() throws InterruptedException {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 2; ++i) {
+                results.add(executor.submit(() -> {
+                    SharedDataHeapStrategy heapStrategy = makeSharedDataHeapStrategy(budget, MemoryBudget.Policy.BLOCK);
+                    SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+                    parseStrategy.setSharedDataHeapStrategy(heapStrategy);
+                    NitfParser.parse(new NitfInputStreamReader(getClass().getResourceAsStream(MULTIPLE_SEGMENT_FILE)),
+                            parseStrategy);
+                    int segmentsWithData = 0;
+                    for (ImageSegment imageSegment : parseStrategy.getDataSource().getImageSegments()) {
+                        if (imageSegment.getSharedData() != null) {
+                            segmentsWithData++;
+                        }
+                    }
+                    heapStrategy.cleanUp();
+                    return segmentsWithData;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(5, (int) result.get());
+            }
+        } catch (ExecutionException ex) {
+            throw new AssertionError(ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, budget.getReserved());
+    }
+
+    @Test
+    public void sharedDataHeapStrategy() throws NitfFormatException {
+        MemoryBudget budget = new MemoryBudget(LIMIT);
+        assertTrue(budget.tryReserve(LIMIT));
+        HeapStrategyConfiguration configuration = new HeapStrategyConfiguration(length -> false);
+        configuration.setMemoryBudget(budget, MemoryBudget.Policy.SPILL);
+        SharedDataHeapStrategy heapStrategy = new SharedDataHeapStrategy(configuration);
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        parseStrategy.setSharedDataHeapStrategy(heapStrategy);
+        NitfParser.parse(new NitfInputStreamReader(getClass().getResourceAsStream(TEST_FILE)), parseStrategy);
+        assertNotNull(parseStrategy.getDataSource().getImageSegments().get(0).getSharedData());
+        assertEquals(LIMIT, budget.getReserved());
+        heapStrategy.cleanUp();
+        budget.release(LIMIT);
+
+        configuration.setMemoryBudget(budget, MemoryBudget.Policy.BLOCK);
+        heapStrategy = new SharedDataHeapStrategy(configuration);
+        parseStrategy.setSharedDataHeapStrategy(heapStrategy);
+        NitfParser.parse(new NitfInputStreamReader(getClass().getResourceAsStream(TEST_FILE)), parseStrategy);
+        assertTrue(budget.getReserved() > 0);
+        heapStrategy.cleanUp();
+        assertEquals(0, budget.getReserved());
+    }
+
+    private static HeapStrategy<ImageInputStream> makeConfigurableHeapStrategy(final MemoryBudget budget,
+            final MemoryBudget.Policy policy) {
+        HeapStrategyConfiguration configuration = new HeapStrategyConfiguration(length -> false);
+        configuration.setMemoryBudget(budget, policy);
+        return new ConfigurableHeapStrategy<>(configuration, SpillStore.getDefault(),
+                stream -> stream, is -> new MemoryCacheImageInputStream(is));
+    }
+
+    private static SharedDataHeapStrategy makeSharedDataHeapStrategy(final MemoryBudget budget,
+            final MemoryBudget.Policy policy) {
+        HeapStrategyConfiguration configuration = new HeapStrategyConfiguration(length -> false);
+        configuration.setMemoryBudget(budget, policy);
+        return new SharedDataHeapStrategy(configuration, SpillStore.getDefault());
+    }
+
+    private ImageSegment parse(final HeapStrategy<ImageInputStream> heapStrategy) throws NitfFormatException {
+        return parseImageSegments(TEST_FILE, heapStrategy).get(0);
+    }
+}
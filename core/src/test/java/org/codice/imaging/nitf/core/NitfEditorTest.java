@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.FileUtils;
+import org.codice.imaging.nitf.core.common.FileReader;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.tre.Tre;
+import org.codice.imaging.nitf.core.tre.TreFactory;
+import org.codice.imaging.nitf.core.tre.TreSource;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for NitfEditor.
+ */
+public class NitfEditorTest {
+
+    private static final String OUTFILE_NAME = "nitf_editor.ntf";
+
+    private static final String PATCHFILE_NAME = "nitf_editor_patch.ntf";
+
+    @Test
+    public void copyUnmodified() throws NitfFormatException, IOException, URISyntaxException {
+        for (String sourceFileName : new String[] {"/WithBE.ntf", "/JitcNitf21Samples/i_3034c.ntf", "/JitcNitf21Samples/i_3201c.ntf",
+                "/JitcNitf21Samples/ns3004f.nsf", "/JitcNitf20Samples/U_1001A.NTF"}) {
+            File sourceFile = getSourceFile(sourceFileName);
+            NitfEditor editor = new NitfEditor(sourceFile);
+            File outputFile = new File(OUTFILE_NAME);
+            editor.write(outputFile);
+            assertTrue(sourceFileName, FileUtils.contentEquals(sourceFile, outputFile));
+            assertTrue(outputFile.delete());
+        }
+    }
+
+    @Test
+    public void patchTitleInPlace() throws NitfFormatException, IOException, URISyntaxException {
+        File sourceFile = getSourceFile("/JitcNitf21Samples/i_3034c.ntf");
+        File patchFile = new File(PATCHFILE_NAME);
+        FileUtils.copyFile(sourceFile, patchFile);
+
+        NitfEditor editor = new NitfEditor(patchFile);
+        editor.getDataSource().getNitfHeader().setFileTitle("Patched title");
+        editor.getDataSource().getImageSegments().get(0).setIdentifier("PATCHED");
+        assertTrue(editor.patchInPlace());
+
+        assertEquals(sourceFile.length(), patchFile.length());
+        DataSource patched = parse(patchFile);
+        assertEquals("Patched title", patched.getNitfHeader().getFileTitle().trim());
+        DataSource original = parse(sourceFile);
+        assertEquals("PATCHED", patched.getImageSegments().get(0).getIdentifier().trim());
+        assertEquals(original.getImageSegments().size(), patched.getImageSegments().size());
+        assertEquals(original.getImageSegments().get(0).getDataLength(), patched.getImageSegments().get(0).getDataLength());
+        assertArrayEquals(readImageData(original), readImageData(patched));
+        assertTrue(patchFile.delete());
+    }
+
+    @Test
+    public void addTreRequiresRewrite() throws NitfFormatException, IOException, URISyntaxException {
+        File sourceFile = getSourceFile("/JitcNitf21Samples/i_3034c.ntf");
+        File patchFile = new File(PATCHFILE_NAME);
+        FileUtils.copyFile(sourceFile, patchFile);
+
+        NitfEditor editor = new NitfEditor(patchFile);
+        Tre tre = TreFactory.getDefault("TSTAAA", TreSource.UserDefinedHeaderData);
+        tre.setRawData("Some test data".getBytes(StandardCharsets.ISO_8859_1));
+        editor.getDataSource().getNitfHeader().getTREsRawStructure().add(tre);
+        assertFalse(editor.patchInPlace());
+        assertTrue(FileUtils.contentEquals(sourceFile, patchFile));
+
+        File outputFile = new File(OUTFILE_NAME);
+        editor.write(outputFile);
+        assertEquals(sourceFile.length() + "TSTAAA00014Some test data".length() + "000".length(), outputFile.length());
+        DataSource updated = parse(outputFile);
+        assertEquals(1, updated.getNitfHeader().getTREsRawStructure().getTREsWithName("TSTAAA").size());
+        DataSource original = parse(sourceFile);
+        assertEquals(original.getImageSegments().get(0).getDataLength(), updated.getImageSegments().get(0).getDataLength());
+        assertArrayEquals(readImageData(original), readImageData(updated));
+        assertTrue(outputFile.delete());
+        assertTrue(patchFile.delete());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotWriteToSourceFile() throws NitfFormatException, IOException, URISyntaxException {
+        File sourceFile = getSourceFile("/WithBE.ntf");
+        NitfEditor editor = new NitfEditor(sourceFile);
+        editor.write(sourceFile);
+    }
+
+    private File getSourceFile(final String sourceFileName) throws URISyntaxException {
+        return new File(getClass().getResource(sourceFileName).toURI());
+    }
+
+    private DataSource parse(final File file) throws NitfFormatException {
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        NitfParser.parse(new FileReader(file), parseStrategy);
+        return parseStrategy.getDataSource();
+    }
+
+    private byte[] readImageData(final DataSource dataSource) throws IOException {
+        return TestUtils.readData(dataSource.getImageSegments().get(0));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import static org.codice.imaging.nitf.core.TestUtils.parseImageSegments;
+import static org.codice.imaging.nitf.core.TestUtils.readData;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests for OffHeapHeapStrategy and DirectBufferPool.
+ */
+public class OffHeapHeapStrategyTest {
+
+    private static final String TEST_FILE = "/JitcNitf20Samples/U_1122A.NTF";
+
+    @Test
+    public void offHeap() throws NitfFormatException, IOException {
+        OffHeapHeapStrategy<ImageInputStream> heapStrategy = new OffHeapHeapStrategy<>(stream -> stream);
+        checkData(parseImageSegments(TEST_FILE, heapStrategy));
+        heapStrategy.cleanUp();
+    }
+
+    @Test
+    public void readAfterCleanUpFails() throws NitfFormatException, IOException {
+        OffHeapHeapStrategy<ImageInputStream> heapStrategy = new OffHeapHeapStrategy<>(stream -> stream);
+        List<ImageSegment> imageSegments = parseImageSegments(TEST_FILE, heapStrategy);
+        heapStrategy.cleanUp();
+        checkReleased(imageSegments);
+    }
+
+    @Test
+    public void pooledReadAfterCleanUpFails() throws NitfFormatException, IOException {
+        DirectBufferPool pool = new DirectBufferPool(Long.MAX_VALUE);
+        OffHeapHeapStrategy<ImageInputStream> heapStrategy = new OffHeapHeapStrategy<>(pool, stream -> stream);
+        List<ImageSegment> imageSegments = parseImageSegments(TEST_FILE, heapStrategy);
+        heapStrategy.cleanUp();
+        checkData(parseImageSegments(TEST_FILE, heapStrategy));
+        checkReleased(imageSegments);
+        heapStrategy.cleanUp();
+    }
+
+    @Test
+    public void pooledBuffers() throws NitfFormatException, IOException {
+        DirectBufferPool pool = new DirectBufferPool(Long.MAX_VALUE);
+        OffHeapHeapStrategy<ImageInputStream> heapStrategy = new OffHeapHeapStrategy<>(pool, stream -> stream);
+        checkData(parseImageSegments(TEST_FILE, heapStrategy));
+        assertEquals(0, pool.getPooledBufferCount());
+        heapStrategy.cleanUp();
+        assertEquals(5, pool.getPooledBufferCount());
+        long pooledBytes = pool.getPooledBytes();
+        assertTrue(pooledBytes > 0);
+
+        checkData(parseImageSegments(TEST_FILE, heapStrategy));
+        assertEquals(0, pool.getPooledBufferCount());
+        heapStrategy.cleanUp();
+        assertEquals(pooledBytes, pool.getPooledBytes());
+    }
+
+    @Test
+    public void poolReuse() {
+        DirectBufferPool pool = new DirectBufferPool(1000);
+        ByteBuffer buffer = pool.acquire(400);
+        assertTrue(buffer.isDirect());
+        assertEquals(400, buffer.remaining());
+        pool.release(buffer);
+        assertEquals(400, pool.getPooledBytes());
+
+        ByteBuffer tooSmall = pool.acquire(100);
+        assertNotSame(buffer, tooSmall);
+        assertEquals(1, pool.getPooledBufferCount());
+
+        ByteBuffer reused = pool.acquire(300);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(300, reused.limit());
+        assertEquals(0, pool.getPooledBytes());
+
+        pool.release(reused);
+        pool.release(pool.acquire(700));
+        assertEquals(1, pool.getPooledBufferCount());
+        pool.release(ByteBuffer.allocate(10));
+        assertEquals(1, pool.getPooledBufferCount());
+        pool.release(ByteBuffer.allocateDirect(700));
+        assertEquals(1, pool.getPooledBufferCount());
+        assertEquals(400, pool.getPooledBytes());
+    }
+
+    private void checkReleased(final List<ImageSegment> imageSegments) {
+        for (ImageSegment imageSegment : imageSegments) {
+            try {
+                readData(imageSegment);
+                fail("Segment data should not be readable after cleanUp()");
+            } catch (IOException e) {
+                assertEquals("Segment data has been released.", e.getMessage());
+            }
+        }
+    }
+
+    private void checkData(final List<ImageSegment> imageSegments) throws NitfFormatException, IOException {
+        List<ImageSegment> expected = parseImageSegments(TEST_FILE, new InMemoryHeapStrategy<>(is -> new MemoryCacheImageInputStream(is)));
+        assertEquals(expected.size(), imageSegments.size());
+        for (int i = 0; i < imageSegments.size(); ++i) {
+            assertArrayEquals(readData(expected.get(i)), readData(imageSegments.get(i)));
+        }
+    }
+}
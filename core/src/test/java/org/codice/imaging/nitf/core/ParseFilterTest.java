@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import static org.codice.imaging.nitf.core.TestUtils.readData;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfInputStreamReader;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.image.ImageCategory;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.tre.Tre;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for ParseFilter, as applied by SlottedParseStrategy.
+ */
+public class ParseFilterTest {
+
+    private static final String AUTZEN = "/autzen-utm10.ntf";
+    private static final String U_1130F = "/JitcNitf20Samples/U_1130F.NTF";
+
+    @Test
+    public void noFilter() throws NitfFormatException, IOException {
+        DataSource expected = parse(AUTZEN, new ParseFilter());
+        DataSource actual = parse(AUTZEN, null);
+        assertEquals(expected.getImageSegments().size(), actual.getImageSegments().size());
+        assertEquals(getTreNames(expected.getImageSegments().get(0)), getTreNames(actual.getImageSegments().get(0)));
+        assertEquals(expected.getDataExtensionSegments().size(), actual.getDataExtensionSegments().size());
+    }
+
+    @Test
+    public void filterTresByName() throws NitfFormatException, IOException {
+        DataSource unfiltered = parse(AUTZEN, null);
+        assertTrue(getTreNames(unfiltered.getImageSegments().get(0)).size() > 2);
+
+        DataSource filtered = parse(AUTZEN, new ParseFilter().treNames("ACFTB", "AIMIDB"));
+        assertEquals(1, filtered.getImageSegments().size());
+        List<String> treNames = getTreNames(filtered.getImageSegments().get(0));
+        assertEquals(2, treNames.size());
+        assertTrue(treNames.contains("ACFTB"));
+        assertTrue(treNames.contains("AIMIDB"));
+        assertArrayEquals(readData(unfiltered.getImageSegments().get(0)), readData(filtered.getImageSegments().get(0)));
+        assertEquals(1, filtered.getDataExtensionSegments().size());
+    }
+
+    @Test
+    public void filterImageSegments() throws NitfFormatException, IOException {
+        DataSource visual = parse(AUTZEN, new ParseFilter().imageSegments(segment -> segment.getImageCategory() == ImageCategory.VISUAL));
+        assertEquals(1, visual.getImageSegments().size());
+
+        DataSource thermal = parse(AUTZEN, new ParseFilter().imageSegments(segment -> segment.getImageCategory() == ImageCategory.THERMALINFRARED));
+        assertEquals(0, thermal.getImageSegments().size());
+        assertEquals(1, thermal.getDataExtensionSegments().size());
+        DataExtensionSegment des = thermal.getDataExtensionSegments().get(0);
+        assertEquals("LIDARA DES", des.getIdentifier().trim());
+        assertNotNull(des.getData());
+    }
+
+    @Test
+    public void filterDataExtensionSegments() throws NitfFormatException, IOException {
+        DataSource unfiltered = parse(U_1130F, null);
+        DataSource filtered = parse(U_1130F, new ParseFilter()
+                .dataExtensionSegments(segment -> "Controlled Extensions".equals(segment.getIdentifier().trim())));
+        long expectedCount = unfiltered.getDataExtensionSegments().stream()
+                .filter(segment -> "Controlled Extensions".equals(segment.getIdentifier().trim()))
+                .count();
+        assertTrue(expectedCount > 0);
+        assertTrue(expectedCount < unfiltered.getDataExtensionSegments().size());
+        assertEquals(expectedCount, filtered.getDataExtensionSegments().size());
+        assertEquals(unfiltered.getImageSegments().size(), filtered.getImageSegments().size());
+    }
+
+    private DataSource parse(final String testFile, final ParseFilter parseFilter) throws NitfFormatException {
+        assertNotNull("Test file missing: " + testFile, getClass().getResource(testFile));
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        parseStrategy.setImageHeapStrategy(new InMemoryHeapStrategy<ImageInputStream>(is -> new MemoryCacheImageInputStream(is)));
+        parseStrategy.setParseFilter(parseFilter);
+        NitfParser.parse(new NitfInputStreamReader(getClass().getResourceAsStream(testFile)), parseStrategy);
+        return parseStrategy.getDataSource();
+    }
+
+    private static List<String> getTreNames(final ImageSegment imageSegment) {
+        List<String> names = new ArrayList<>();
+        for (Tre tre : imageSegment.getTREsRawStructure().getTREs()) {
+            names.add(tre.getName().trim());
+        }
+        return names;
+    }
+}
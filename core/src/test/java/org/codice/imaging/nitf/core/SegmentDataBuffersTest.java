@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.common.ByteBufferReader;
+import org.codice.imaging.nitf.core.common.ByteBufferSegmentData;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for reading segment data that is split over several buffers.
+ */
+public class SegmentDataBuffersTest {
+
+    private static final int DATA_LENGTH = 1000;
+
+    private static final int BUFFER_LENGTH = 300;
+
+    private final byte[] data = makeData();
+
+    @Test
+    public void readToInputStream() throws NitfFormatException, IOException {
+        InputStream inputStream = SegmentDataBuffers.readToInputStream(makeReader(), DATA_LENGTH, BUFFER_LENGTH);
+        byte[] result = new byte[DATA_LENGTH];
+        int offset = 0;
+        int count;
+        while ((count = inputStream.read(result, offset, DATA_LENGTH - offset)) > 0) {
+            offset += count;
+        }
+        assertEquals(DATA_LENGTH, offset);
+        assertEquals(-1, inputStream.read());
+        assertArrayEquals(data, result);
+    }
+
+    @Test
+    public void readToHeap() throws NitfFormatException, IOException {
+        List<ByteBuffer> buffers = SegmentDataBuffers.readToHeap(makeReader(), DATA_LENGTH, BUFFER_LENGTH);
+        assertEquals(4, buffers.size());
+        assertEquals(BUFFER_LENGTH, buffers.get(0).remaining());
+        assertEquals(DATA_LENGTH - 3 * BUFFER_LENGTH, buffers.get(3).remaining());
+        checkSegmentData(new ByteBufferSegmentData(buffers));
+    }
+
+    @Test
+    public void readToDirectBuffers() throws NitfFormatException, IOException {
+        List<ByteBuffer> buffers = new ArrayList<>();
+        SegmentDataBuffers.readToBuffers(makeReader(), DATA_LENGTH, BUFFER_LENGTH, ByteBuffer::allocateDirect, buffers);
+        assertEquals(4, buffers.size());
+        assertTrue(buffers.get(0).isDirect());
+        checkSegmentData(new ByteBufferSegmentData(buffers));
+    }
+
+    @Test
+    public void singleBuffer() throws NitfFormatException, IOException {
+        List<ByteBuffer> buffers = SegmentDataBuffers.readToHeap(makeReader(), DATA_LENGTH, DATA_LENGTH);
+        assertEquals(1, buffers.size());
+        checkSegmentData(new ByteBufferSegmentData(buffers));
+    }
+
+    private void checkSegmentData(final ByteBufferSegmentData segmentData) throws IOException {
+        assertEquals(DATA_LENGTH, segmentData.getLength());
+        ImageInputStream cursor = segmentData.newCursor();
+        assertEquals(DATA_LENGTH, cursor.length());
+        byte[] result = new byte[DATA_LENGTH];
+        cursor.readFully(result);
+        assertArrayEquals(data, result);
+        assertEquals(-1, cursor.read());
+
+        Random random = new Random(1);
+        for (int i = 0; i < 100; ++i) {
+            int position = random.nextInt(DATA_LENGTH);
+            cursor.seek(position);
+            assertEquals(data[position] & 0xFF, cursor.read());
+        }
+        cursor.seek(BUFFER_LENGTH - 2);
+        byte[] spanning = new byte[4];
+        cursor.readFully(spanning);
+        for (int i = 0; i < spanning.length; ++i) {
+            assertEquals(data[BUFFER_LENGTH - 2 + i], spanning[i]);
+        }
+    }
+
+    private ByteBufferReader makeReader() {
+        return new ByteBufferReader(ByteBuffer.wrap(data));
+    }
+
+    private static byte[] makeData() {
+        byte[] bytes = new byte[DATA_LENGTH];
+        new Random(2).nextBytes(bytes);
+        return bytes;
+    }
+}
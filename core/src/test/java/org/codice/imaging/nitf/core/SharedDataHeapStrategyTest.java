@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import static org.codice.imaging.nitf.core.TestUtils.readData;
+import org.codice.imaging.nitf.core.common.ByteBufferReader;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfInputStreamReader;
+import org.codice.imaging.nitf.core.common.NitfReader;
+import org.codice.imaging.nitf.core.common.SharedSegmentData;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests for SharedDataHeapStrategy and shared segment data.
+ */
+public class SharedDataHeapStrategyTest {
+
+    private static final String TEST_FILE = "/JitcNitf21Samples/i_3001a.ntf";
+
+    private static final int NUM_THREADS = 8;
+
+    @Test
+    public void inMemory() throws NitfFormatException, IOException, InterruptedException, ExecutionException {
+        SharedDataHeapStrategy heapStrategy = new SharedDataHeapStrategy();
+        ImageSegment imageSegment = parse(new NitfInputStreamReader(getInputStream()), heapStrategy);
+        checkConcurrentReads(imageSegment, readExpectedData());
+        heapStrategy.cleanUp();
+    }
+
+    @Test
+    public void temporaryFile() throws NitfFormatException, IOException, InterruptedException, ExecutionException {
+        SharedDataHeapStrategy heapStrategy = new SharedDataHeapStrategy(new HeapStrategyConfiguration(length -> true));
+        ImageSegment imageSegment = parse(new NitfInputStreamReader(getInputStream()), heapStrategy);
+        byte[] expected = readExpectedData();
+        checkConcurrentReads(imageSegment, expected);
+        checkRandomAccess(imageSegment.getSharedData(), expected);
+        heapStrategy.cleanUp();
+        try {
+            imageSegment.getSharedData().newCursor().read();
+            fail("Expected exception after clean up");
+        } catch (IOException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void byteBufferReader() throws Exception {
+        byte[] file = Files.readAllBytes(Paths.get(getClass().getResource(TEST_FILE).toURI()));
+        ImageSegment imageSegment = parse(new ByteBufferReader(ByteBuffer.wrap(file)), new SharedDataHeapStrategy());
+        byte[] expected = readExpectedData();
+        checkConcurrentReads(imageSegment, expected);
+        checkRandomAccess(imageSegment.getSharedData(), expected);
+    }
+
+    @Test
+    public void maximumSize() throws NitfFormatException {
+        SharedDataHeapStrategy heapStrategy = new SharedDataHeapStrategy(new HeapStrategyConfiguration(1));
+        ImageSegment imageSegment = parse(new NitfInputStreamReader(getInputStream()), heapStrategy);
+        assertNull(imageSegment.getSharedData());
+        assertNull(imageSegment.getData());
+    }
+
+    @Test
+    public void threadCursor() throws NitfFormatException, IOException {
+        ImageSegment imageSegment = parse(new NitfInputStreamReader(getInputStream()), new SharedDataHeapStrategy());
+        assertSame(imageSegment.getData(), imageSegment.getData());
+        imageSegment.getData().seek(2);
+        assertEquals(2, imageSegment.getData().getStreamPosition());
+        assertNotSame(imageSegment.getData(), imageSegment.getSharedData().newCursor());
+        assertEquals(0, imageSegment.getSharedData().newCursor().getStreamPosition());
+
+        ImageInputStream replacement = new MemoryCacheImageInputStream(getInputStream());
+        imageSegment.setData(replacement);
+        assertNull(imageSegment.getSharedData());
+        assertSame(replacement, imageSegment.getData());
+    }
+
+    @Test
+    public void releaseThreadCursor() throws NitfFormatException, IOException {
+        ImageSegment imageSegment = parse(new NitfInputStreamReader(getInputStream()), new SharedDataHeapStrategy());
+        ImageInputStream cursor = imageSegment.getData();
+        cursor.seek(2);
+        imageSegment.getSharedData().releaseThreadCursor();
+        assertNotSame(cursor, imageSegment.getData());
+        assertEquals(0, imageSegment.getData().getStreamPosition());
+
+        imageSegment.getSharedData().releaseThreadCursor();
+        imageSegment.getSharedData().releaseThreadCursor();
+    }
+
+    private ImageSegment parse(final NitfReader reader, final SharedDataHeapStrategy heapStrategy) throws NitfFormatException {
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        parseStrategy.setSharedDataHeapStrategy(heapStrategy);
+        NitfParser.parse(reader, parseStrategy);
+        assertEquals(1, parseStrategy.getDataSource().getImageSegments().size());
+        return parseStrategy.getDataSource().getImageSegments().get(0);
+    }
+
+    private byte[] readExpectedData() throws NitfFormatException, IOException {
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        NitfParser.parse(new NitfInputStreamReader(getInputStream()), parseStrategy);
+        return readData(parseStrategy.getDataSource().getImageSegments().get(0));
+    }
+
+    private static void checkConcurrentReads(final ImageSegment imageSegment, final byte[] expected)
+            throws InterruptedException, ExecutionException {
+        assertNotNull(imageSegment.getSharedData());
+        assertEquals(expected.length, imageSegment.getSharedData().getLength());
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < NUM_THREADS * 4; ++i) {
+                results.add(executor.submit((Callable<byte[]>) () -> {
+                    ImageInputStream data = imageSegment.getData();
+                    data.seek(0);
+                    byte[] bytes = new byte[expected.length];
+                    for (int offset = 0; offset < bytes.length; offset += 100) {
+                        data.readFully(bytes, offset, Math.min(100, bytes.length - offset));
+                        Thread.yield();
+                    }
+                    return bytes;
+                }));
+            }
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void checkRandomAccess(final SharedSegmentData sharedData, final byte[] expected) throws IOException {
+        ImageInputStream cursor = sharedData.newCursor();
+        assertEquals(expected.length, cursor.length());
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; ++i) {
+            int position = random.nextInt(expected.length);
+            cursor.seek(position);
+            assertEquals(expected[position] & 0xFF, cursor.read());
+        }
+        cursor.seek(expected.length);
+        assertEquals(-1, cursor.read());
+        cursor.close();
+        assertEquals(expected[0] & 0xFF, sharedData.newCursor().read());
+    }
+
+    private InputStream getInputStream() {
+        assertNotNull("Test file missing: " + TEST_FILE, getClass().getResource(TEST_FILE));
+        return getClass().getResourceAsStream(TEST_FILE);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import static org.codice.imaging.nitf.core.TestUtils.parseImageSegments;
+import static org.codice.imaging.nitf.core.TestUtils.readData;
+import org.codice.imaging.nitf.core.common.ByteBufferReader;
+import org.codice.imaging.nitf.core.common.FileRegionSegmentData;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for SpillStore, and its use by FileBackedHeapStrategy and ConfigurableHeapStrategy.
+ */
+public class SpillStoreTest {
+
+    private static final String TEST_FILE = "/JitcNitf20Samples/U_1122A.NTF";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void pooledRegions() throws NitfFormatException, IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        SpillStore store = new SpillStore(directory, 1000);
+        FileRegionSegmentData first = store.store(makeReader(400, 1), 400);
+        FileRegionSegmentData second = store.store(makeReader(400, 2), 400);
+        assertEquals(1, countFiles(directory));
+        FileRegionSegmentData third = store.store(makeReader(400, 3), 400);
+        assertEquals(2, countFiles(directory));
+        assertEquals(2, store.getSpillFileCount());
+        assertEquals(3, store.getRegionCount());
+        assertEquals(1200, store.getStoredBytes());
+
+        checkRegion(first, 400, 1);
+        checkRegion(second, 400, 2);
+        checkRegion(third, 400, 3);
+
+        assertTrue(store.release(first));
+        assertFalse(store.release(first));
+        assertEquals(2, countFiles(directory));
+        checkRegion(second, 400, 2);
+        assertTrue(store.release(second));
+        assertEquals(1, countFiles(directory));
+        assertEquals(400, store.getStoredBytes());
+        try {
+            second.newCursor().read();
+            fail("Expected exception after release");
+        } catch (IOException ex) {
+            // expected
+        }
+        store.close();
+        assertEquals(0, countFiles(directory));
+        assertEquals(0, store.getRegionCount());
+    }
+
+    @Test
+    public void oversizeRegion() throws NitfFormatException, IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        SpillStore store = new SpillStore(directory, 100);
+        FileRegionSegmentData region = store.store(makeReader(1000, 4), 1000);
+        assertEquals(1, store.getSpillFileCount());
+        checkRegion(region, 1000, 4);
+        store.close();
+        assertEquals(0, countFiles(directory));
+    }
+
+    @Test
+    public void fileBackedHeapStrategy() throws NitfFormatException, IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        SpillStore store = new SpillStore(directory);
+        FileBackedHeapStrategy<ImageInputStream> heapStrategy = new FileBackedHeapStrategy<>(store, stream -> stream);
+        List<ImageSegment> spilled = parseImageSegments(TEST_FILE, heapStrategy);
+        List<ImageSegment> expected = parseImageSegments(TEST_FILE, new InMemoryHeapStrategy<>(is -> new MemoryCacheImageInputStream(is)));
+        assertEquals(5, spilled.size());
+        assertEquals(1, countFiles(directory));
+        assertEquals(5, store.getRegionCount());
+        for (int i = 0; i < spilled.size(); ++i) {
+            assertArrayEquals(readData(expected.get(i)), readData(spilled.get(i)));
+        }
+        heapStrategy.cleanUp();
+        assertEquals(0, store.getRegionCount());
+        assertEquals(0, countFiles(directory));
+    }
+
+    @Test
+    public void configurableHeapStrategy() throws NitfFormatException, IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        SpillStore store = new SpillStore(directory);
+        ConfigurableHeapStrategy<ImageInputStream> heapStrategy = new ConfigurableHeapStrategy<>(
+                new HeapStrategyConfiguration(length -> true), store, stream -> stream, is -> new MemoryCacheImageInputStream(is));
+        List<ImageSegment> spilled = parseImageSegments(TEST_FILE, heapStrategy);
+        List<ImageSegment> expected = parseImageSegments(TEST_FILE, new InMemoryHeapStrategy<>(is -> new MemoryCacheImageInputStream(is)));
+        assertEquals(1, countFiles(directory));
+        assertEquals(5, store.getRegionCount());
+        for (int i = 0; i < spilled.size(); ++i) {
+            assertArrayEquals(readData(expected.get(i)), readData(spilled.get(i)));
+        }
+        heapStrategy.cleanUp();
+        assertEquals(0, countFiles(directory));
+    }
+
+    @Test
+    public void separateFiles() throws NitfFormatException, IOException {
+        FileBackedHeapStrategy<ImageInputStream> heapStrategy
+                = new FileBackedHeapStrategy<>(file -> new FileImageInputStream(file));
+        List<ImageSegment> imageSegments = parseImageSegments(TEST_FILE, heapStrategy);
+        List<ImageSegment> expected = parseImageSegments(TEST_FILE, new InMemoryHeapStrategy<>(is -> new MemoryCacheImageInputStream(is)));
+        for (int i = 0; i < imageSegments.size(); ++i) {
+            assertArrayEquals(readData(expected.get(i)), readData(imageSegments.get(i)));
+        }
+        heapStrategy.cleanUp();
+        try {
+            imageSegments.get(0).getData().read();
+            fail("Expected exception after clean up");
+        } catch (IOException ex) {
+            // expected
+        }
+    }
+
+    private static ByteBufferReader makeReader(final int length, final int seed) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            data[i] = (byte) (i * seed);
+        }
+        return new ByteBufferReader(ByteBuffer.wrap(data));
+    }
+
+    private static void checkRegion(final FileRegionSegmentData region, final int length, final int seed) throws IOException {
+        assertEquals(length, region.getLength());
+        ImageInputStream cursor = region.newCursor();
+        assertEquals(length, cursor.length());
+        byte[] data = new byte[length];
+        cursor.readFully(data);
+        for (int i = 0; i < length; ++i) {
+            assertEquals((byte) (i * seed), data[i]);
+        }
+        assertEquals(-1, cursor.read());
+    }
+
+    private static long countFiles(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import static org.codice.imaging.nitf.core.TestUtils.readData;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfInputStreamReader;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
+import org.codice.imaging.nitf.core.graphic.GraphicSegment;
+import org.codice.imaging.nitf.core.header.NitfHeader;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.label.LabelSegment;
+import org.codice.imaging.nitf.core.symbol.SymbolSegment;
+import org.codice.imaging.nitf.core.text.TextSegment;
+import org.codice.imaging.nitf.core.tre.Tre;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Tests for StreamingParseStrategy.
+ */
+public class StreamingParseStrategyTest {
+
+    private static final String[] TEST_FILES = {
+        "/JitcNitf20Samples/U_1130F.NTF",
+        "/JitcNitf21Samples/i_3001a.ntf",
+        "/JitcNitf21Samples/i_3201c.ntf",
+        "/WithBE.ntf"
+    };
+
+    private static class RecordingListener implements StreamingParseListener {
+
+        private final boolean readData;
+        private final List<String> events = new ArrayList<>();
+        private final List<byte[]> imageData = new ArrayList<>();
+        private final List<String> textData = new ArrayList<>();
+        private int treCount = 0;
+        private InputStream lastStream = null;
+
+        RecordingListener(final boolean readSegmentData) {
+            readData = readSegmentData;
+        }
+
+        @Override
+        public void onFileHeader(final NitfHeader nitfHeader) {
+            assertNotNull(nitfHeader);
+            events.add("header");
+        }
+
+        @Override
+        public void onTre(final Tre tre) {
+            treCount++;
+        }
+
+        @Override
+        public void onImageSegment(final ImageSegment imageSegment, final InputStream data) throws IOException {
+            events.add("image");
+            lastStream = data;
+            if (readData) {
+                imageData.add(readFully(data));
+            }
+        }
+
+        @Override
+        public void onGraphicSegment(final GraphicSegment graphicSegment, final InputStream data) {
+            events.add("graphic");
+        }
+
+        @Override
+        public void onSymbolSegment(final SymbolSegment symbolSegment, final InputStream data) {
+            events.add("symbol");
+        }
+
+        @Override
+        public void onLabelSegment(final LabelSegment labelSegment, final InputStream data) {
+            events.add("label");
+        }
+
+        @Override
+        public void onTextSegment(final TextSegment textSegment, final InputStream data) throws IOException {
+            events.add("text");
+            lastStream = data;
+            if (readData) {
+                textData.add(new String(readFully(data), "ISO-8859-1"));
+            }
+        }
+
+        @Override
+        public void onDataExtensionSegment(final DataExtensionSegment dataExtensionSegment, final InputStream data) {
+            events.add("des");
+            lastStream = data;
+        }
+
+        @Override
+        public void onEnd() {
+            events.add("end");
+        }
+    }
+
+    @Test
+    public void matchesSlottedParse() throws NitfFormatException, IOException {
+        for (String testFile : TEST_FILES) {
+            DataSource expected = parseSlotted(testFile);
+            RecordingListener listener = new RecordingListener(true);
+            parseStreaming(testFile, listener);
+
+            assertEquals(testFile, "header", listener.events.get(0));
+            assertEquals(testFile, "end", listener.events.get(listener.events.size() - 1));
+            assertEquals(testFile, expected.getImageSegments().size(), listener.imageData.size());
+            assertEquals(testFile, expected.getTextSegments().size(), listener.textData.size());
+            assertEquals(testFile, countTres(expected), listener.treCount);
+            for (int i = 0; i < listener.imageData.size(); ++i) {
+                assertArrayEquals(testFile, readData(expected.getImageSegments().get(i)), listener.imageData.get(i));
+            }
+            for (int i = 0; i < listener.textData.size(); ++i) {
+                assertEquals(testFile, expected.getTextSegments().get(i).getData(), listener.textData.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void unreadDataIsSkipped() throws NitfFormatException, IOException {
+        for (String testFile : TEST_FILES) {
+            DataSource expected = parseSlotted(testFile);
+            RecordingListener listener = new RecordingListener(false);
+            parseStreaming(testFile, listener);
+
+            int expectedEvents = 2 + expected.getImageSegments().size() + expected.getGraphicSegments().size()
+                    + expected.getSymbolSegments().size() + expected.getLabelSegments().size()
+                    + expected.getTextSegments().size() + expected.getDataExtensionSegments().size();
+            assertEquals(testFile, expectedEvents, listener.events.size());
+            assertEquals(testFile, countTres(expected), listener.treCount);
+        }
+    }
+
+    @Test
+    public void partiallyReadDataIsSkipped() throws NitfFormatException, IOException {
+        List<Integer> firstBytes = new ArrayList<>();
+        StreamingParseListener listener = new StreamingParseListener() {
+            @Override
+            public void onImageSegment(final ImageSegment imageSegment, final InputStream data) throws IOException {
+                firstBytes.add(data.read());
+                assertEquals(2, data.skip(2));
+            }
+        };
+        parseStreaming("/JitcNitf21Samples/i_3201c.ntf", listener);
+        DataSource expected = parseSlotted("/JitcNitf21Samples/i_3201c.ntf");
+        assertEquals(expected.getImageSegments().size(), firstBytes.size());
+        for (int i = 0; i < firstBytes.size(); ++i) {
+            assertEquals(readData(expected.getImageSegments().get(i))[0] & 0xFF, (int) firstBytes.get(i));
+        }
+    }
+
+    @Test
+    public void dataStreamInvalidAfterCallback() throws NitfFormatException, IOException {
+        RecordingListener listener = new RecordingListener(false);
+        parseStreaming("/JitcNitf21Samples/i_3001a.ntf", listener);
+        assertNotNull(listener.lastStream);
+        try {
+            listener.lastStream.read();
+            fail("Expected exception");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("only available during the segment callback"));
+        }
+    }
+
+    @Test
+    public void listenerFailureReachesCaller() throws NitfFormatException {
+        IOException listenerException = new IOException("Listener could not store image");
+        List<String> events = new ArrayList<>();
+        StreamingParseListener listener = new StreamingParseListener() {
+            @Override
+            public void onImageSegment(final ImageSegment imageSegment, final InputStream data) throws IOException {
+                events.add("image");
+                throw listenerException;
+            }
+
+            @Override
+            public void onEnd() {
+                events.add("end");
+            }
+        };
+        try {
+            parseStreaming("/JitcNitf21Samples/i_3201c.ntf", listener);
+            fail("Expected exception");
+        } catch (NitfFormatException ex) {
+            assertSame(listenerException, ex.getCause());
+        }
+        assertEquals(Collections.singletonList("image"), events);
+    }
+
+    private DataSource parseSlotted(final String testFile) throws NitfFormatException {
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        parseStrategy.setImageHeapStrategy(new InMemoryHeapStrategy<ImageInputStream>(is -> new MemoryCacheImageInputStream(is)));
+        NitfParser.parse(new NitfInputStreamReader(getInputStream(testFile)), parseStrategy);
+        return parseStrategy.getDataSource();
+    }
+
+    private void parseStreaming(final String testFile, final StreamingParseListener listener) throws NitfFormatException {
+        StreamingParseStrategy parseStrategy = new StreamingParseStrategy(listener);
+        parseStrategy.parse(new NitfInputStreamReader(getInputStream(testFile)));
+    }
+
+    private InputStream getInputStream(final String testFile) {
+        assertNotNull("Test file missing: " + testFile, getClass().getResource(testFile));
+        return getClass().getResourceAsStream(testFile);
+    }
+
+    private static int countTres(final DataSource dataSource) {
+        int count = dataSource.getNitfHeader().getTREsRawStructure().getTREs().size();
+        for (ImageSegment imageSegment : dataSource.getImageSegments()) {
+            count += imageSegment.getTREsRawStructure().getTREs().size();
+        }
+        for (GraphicSegment graphicSegment : dataSource.getGraphicSegments()) {
+            count += graphicSegment.getTREsRawStructure().getTREs().size();
+        }
+        for (SymbolSegment symbolSegment : dataSource.getSymbolSegments()) {
+            count += symbolSegment.getTREsRawStructure().getTREs().size();
+        }
+        for (LabelSegment labelSegment : dataSource.getLabelSegments()) {
+            count += labelSegment.getTREsRawStructure().getTREs().size();
+        }
+        for (TextSegment textSegment : dataSource.getTextSegments()) {
+            count += textSegment.getTREsRawStructure().getTREs().size();
+        }
+        for (DataExtensionSegment des : dataSource.getDataExtensionSegments()) {
+            count += des.getTREsRawStructure().getTREs().size();
+        }
+        return count;
+    }
+
+    private static byte[] readFully(final InputStream data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = data.read(buffer)) != -1) {
+            bytes.write(buffer, 0, count);
+        }
+        return bytes.toByteArray();
+    }
+}
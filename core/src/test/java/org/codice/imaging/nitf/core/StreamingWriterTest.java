@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.common.FileReader;
+import org.codice.imaging.nitf.core.common.FileType;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfInputStreamReader;
+import org.codice.imaging.nitf.core.header.NitfHeaderFactory;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.image.ImageBand;
+import org.codice.imaging.nitf.core.image.ImageCategory;
+import org.codice.imaging.nitf.core.image.ImageMode;
+import org.codice.imaging.nitf.core.image.ImageRepresentation;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.ImageSegmentFactory;
+import org.codice.imaging.nitf.core.image.PixelJustification;
+import org.codice.imaging.nitf.core.image.PixelValueType;
+import org.codice.imaging.nitf.core.text.TextSegment;
+import org.codice.imaging.nitf.core.text.TextSegmentFactory;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for writing with back-patched segment lengths and incrementally produced segment data.
+ */
+public class StreamingWriterTest {
+
+    private static final String OUTFILE_NAME = "streaming_writer.ntf";
+
+    private static final int IMAGE_SIZE = 64;
+
+    @Test
+    public void writeProducedImageData() throws NitfFormatException, IOException {
+        SlottedStorage store = new SlottedStorage();
+        store.setNitfHeader(NitfHeaderFactory.getDefault(FileType.NITF_TWO_ONE));
+        ImageSegment imageSegment = createImageSegment();
+        // Deliberately leave the data length unset - streaming mode has to measure it.
+        store.getImageSegments().add(imageSegment);
+        TextSegment textSegment = TextSegmentFactory.getDefault(FileType.NITF_TWO_ONE);
+        textSegment.setData("Trailing text segment");
+        store.getTextSegments().add(textSegment);
+
+        byte[] expectedPixels = new byte[IMAGE_SIZE * IMAGE_SIZE];
+        for (int i = 0; i < expectedPixels.length; ++i) {
+            expectedPixels[i] = (byte) i;
+        }
+
+        NitfFileWriter writer = new NitfFileWriter(store, OUTFILE_NAME);
+        writer.setStreamingMode(true);
+        writer.setImageDataProducer(imageSegment, output -> {
+            for (int row = 0; row < IMAGE_SIZE; ++row) {
+                output.write(expectedPixels, row * IMAGE_SIZE, IMAGE_SIZE);
+            }
+        });
+        writer.write();
+
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        NitfParser.parse(new FileReader(OUTFILE_NAME), parseStrategy);
+        DataSource dataSource = parseStrategy.getDataSource();
+        assertEquals(1, dataSource.getImageSegments().size());
+        ImageSegment parsedImage = dataSource.getImageSegments().get(0);
+        assertEquals(expectedPixels.length, parsedImage.getDataLength());
+        assertArrayEquals(expectedPixels, readAll(parsedImage.getData()));
+        assertEquals(1, dataSource.getTextSegments().size());
+        assertEquals("Trailing text segment", dataSource.getTextSegments().get(0).getData());
+        assertEquals(new File(OUTFILE_NAME).length(), getFileLengthField());
+        assertTrue(new File(OUTFILE_NAME).delete());
+    }
+
+    @Test
+    public void writeAfterFailedWrite() throws NitfFormatException, IOException {
+        SlottedStorage store = new SlottedStorage();
+        store.setNitfHeader(NitfHeaderFactory.getDefault(FileType.NITF_TWO_ONE));
+        ImageSegment imageSegment = createImageSegment();
+        store.getImageSegments().add(imageSegment);
+
+        NitfFileWriter writer = new NitfFileWriter(store, OUTFILE_NAME);
+        writer.setStreamingMode(true);
+        writer.setImageDataProducer(imageSegment, output -> {
+            output.write(new byte[IMAGE_SIZE]);
+            throw new IOException("Producer failed part way through the image");
+        });
+        writer.write();
+
+        writer.setImageDataProducer(imageSegment, output -> output.write(new byte[IMAGE_SIZE * IMAGE_SIZE]));
+        writer.write();
+
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        NitfParser.parse(new FileReader(OUTFILE_NAME), parseStrategy);
+        assertEquals(IMAGE_SIZE * IMAGE_SIZE, parseStrategy.getDataSource().getImageSegments().get(0).getDataLength());
+        assertEquals(new File(OUTFILE_NAME).length(), getFileLengthField());
+        assertTrue(new File(OUTFILE_NAME).delete());
+    }
+
+    @Test
+    public void writeProducedImageDataToStream() throws NitfFormatException, IOException {
+        SlottedStorage store = new SlottedStorage();
+        store.setNitfHeader(NitfHeaderFactory.getDefault(FileType.NITF_TWO_ONE));
+        ImageSegment imageSegment = createImageSegment();
+        imageSegment.setDataLength(IMAGE_SIZE * IMAGE_SIZE);
+        store.getImageSegments().add(imageSegment);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        NitfOutputStreamWriter writer = new NitfOutputStreamWriter(store, outputStream);
+        writer.setImageDataProducer(imageSegment, output -> output.write(new byte[IMAGE_SIZE * IMAGE_SIZE]));
+        writer.write();
+
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        NitfParser.parse(new NitfInputStreamReader(new ByteArrayInputStream(outputStream.toByteArray())), parseStrategy);
+        assertEquals(IMAGE_SIZE * IMAGE_SIZE, parseStrategy.getDataSource().getImageSegments().get(0).getDataLength());
+    }
+
+    private ImageSegment createImageSegment() {
+        ImageSegment imageSegment = ImageSegmentFactory.getDefault(FileType.NITF_TWO_ONE);
+        imageSegment.setIdentifier("Produced");
+        imageSegment.setNumberOfRows(IMAGE_SIZE);
+        imageSegment.setNumberOfColumns(IMAGE_SIZE);
+        imageSegment.setPixelValueType(PixelValueType.INTEGER);
+        imageSegment.setImageRepresentation(ImageRepresentation.MONOCHROME);
+        imageSegment.setImageCategory(ImageCategory.VISUAL);
+        imageSegment.setActualBitsPerPixelPerBand(8);
+        imageSegment.setPixelJustification(PixelJustification.RIGHT);
+        ImageBand band = new ImageBand();
+        band.setImageRepresentation("M");
+        imageSegment.addImageBand(band);
+        imageSegment.setImageMode(ImageMode.BLOCKINTERLEVE);
+        imageSegment.setNumberOfBlocksPerRow(1);
+        imageSegment.setNumberOfBlocksPerColumn(1);
+        imageSegment.setNumberOfPixelsPerBlockHorizontalRaw(IMAGE_SIZE);
+        imageSegment.setNumberOfPixelsPerBlockVerticalRaw(IMAGE_SIZE);
+        imageSegment.setNumberOfBitsPerPixelPerBand(8);
+        return imageSegment;
+    }
+
+    private byte[] readAll(final ImageInputStream data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        data.seek(0);
+        int b;
+        while ((b = data.read()) != -1) {
+            baos.write(b);
+        }
+        return baos.toByteArray();
+    }
+
+    private long getFileLengthField() throws NitfFormatException {
+        FileReader reader = new FileReader(OUTFILE_NAME);
+        // FL follows FHDR/FVER, CLEVEL, STYPE, OSTAID, FDT, FTITLE, security, FSCOP/FSCPYS, ENCRYP, FBKGC, ONAME and OPHONE
+        reader.skip(9 + 2 + 4 + 10 + 14 + 80 + 167 + 10 + 1 + 3 + 24 + 18);
+        return reader.readBytesAsLong(12);
+    }
+}
@@ -14,8 +14,15 @@
  */
 package org.codice.imaging.nitf.core;
 
+import java.io.IOException;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.List;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.NitfInputStreamReader;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.image.ImageSegment;
 import org.codice.imaging.nitf.core.security.SecurityClassification;
 import org.codice.imaging.nitf.core.security.SecurityMetadata;
 import org.junit.Assert;
@@ -76,4 +83,25 @@ public class TestUtils {
         assertEquals("", securityMetadata.getSecurityControlNumber());
     }
 
+    /**
+     * Read all of the data of an image segment, from the start.
+     */
+    public static byte[] readData(final ImageSegment imageSegment) throws IOException {
+        byte[] data = new byte[(int) imageSegment.getDataLength()];
+        imageSegment.getData().seek(0);
+        imageSegment.getData().readFully(data);
+        return data;
+    }
+
+    /**
+     * Parse the image segments of a test file, with their data stored by a heap strategy.
+     */
+    public static List<ImageSegment> parseImageSegments(final String testFile, final HeapStrategy<ImageInputStream> heapStrategy)
+            throws NitfFormatException {
+        assertNotNull("Test file missing: " + testFile, TestUtils.class.getResource(testFile));
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        parseStrategy.setImageHeapStrategy(heapStrategy);
+        NitfParser.parse(new NitfInputStreamReader(TestUtils.class.getResourceAsStream(testFile)), parseStrategy);
+        return parseStrategy.getDataSource().getImageSegments();
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.apache.commons.io.IOUtils;
+import org.codice.imaging.nitf.core.InMemoryHeapStrategy;
+import org.codice.imaging.nitf.core.NitfOutputStreamWriter;
+import org.codice.imaging.nitf.core.SlottedParseStrategy;
+import org.codice.imaging.nitf.core.header.NitfParser;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for NitfMetrics and NitfMetricsRegistry.
+ */
+public class NitfMetricsTest {
+
+    private static final String TEST_FILE = "/JitcNitf20Samples/U_1130F.NTF";
+
+    @After
+    public void restoreNoOpMetrics() {
+        NitfMetricsRegistry.setMetrics(null);
+    }
+
+    @Test
+    public void defaultIsDisabled() {
+        assertFalse(NitfMetricsRegistry.getMetrics().isEnabled());
+        assertEquals(0, NitfMetricsRegistry.startTimer());
+    }
+
+    @Test
+    public void installAndRemove() {
+        RecordingMetrics metrics = new RecordingMetrics();
+        NitfMetricsRegistry.setMetrics(metrics);
+        assertSame(metrics, NitfMetricsRegistry.getMetrics());
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.RENDER, NitfMetricsRegistry.startTimer());
+        assertTrue(metrics.times.containsKey(NitfMetrics.Phase.RENDER));
+
+        NitfMetricsRegistry.setMetrics(null);
+        assertFalse(NitfMetricsRegistry.getMetrics().isEnabled());
+    }
+
+    @Test
+    public void parseAndWrite() throws IOException, NitfFormatException {
+        assertNotNull("Test file missing", getClass().getResource(TEST_FILE));
+        byte[] content;
+        try (InputStream inputStream = getClass().getResourceAsStream(TEST_FILE)) {
+            content = IOUtils.toByteArray(inputStream);
+        }
+        RecordingMetrics metrics = new RecordingMetrics();
+        NitfMetricsRegistry.setMetrics(metrics);
+
+        SlottedParseStrategy parseStrategy = new SlottedParseStrategy(SlottedParseStrategy.ALL_SEGMENT_DATA);
+        parseStrategy.setImageHeapStrategy(new InMemoryHeapStrategy<ImageInputStream>(is -> new MemoryCacheImageInputStream(is)));
+        NitfParser.parse(new NitfInputStreamReader(new ByteArrayInputStream(content)), parseStrategy);
+
+        assertTrue(metrics.times.containsKey(NitfMetrics.Phase.PARSE));
+        assertTrue(metrics.times.containsKey(NitfMetrics.Phase.FILE_HEADER));
+        assertTrue(metrics.times.containsKey(NitfMetrics.Phase.IMAGE_SUBHEADER));
+        assertTrue(metrics.times.containsKey(NitfMetrics.Phase.DES_SUBHEADER));
+        assertTrue(metrics.times.containsKey(NitfMetrics.Phase.TRE));
+        assertTrue(metrics.times.containsKey(NitfMetrics.Phase.SEGMENT_DATA));
+        assertFalse(metrics.tres.isEmpty());
+        long imageDataLength = parseStrategy.getDataSource().getImageSegments().get(0).getDataLength();
+        assertTrue(metrics.bytes.get(NitfMetrics.ByteCount.COPIED) >= imageDataLength);
+        assertEquals(content.length, metrics.bytes.get(NitfMetrics.ByteCount.READ) + metrics.bytes.get(NitfMetrics.ByteCount.SKIPPED));
+
+        metrics.bytes.clear();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new NitfOutputStreamWriter(parseStrategy.getDataSource(), outputStream).write();
+        assertTrue(metrics.times.containsKey(NitfMetrics.Phase.WRITE));
+        assertTrue(metrics.bytes.get(NitfMetrics.ByteCount.COPIED) >= imageDataLength);
+        assertTrue(metrics.cacheLookups.containsKey("TreCache"));
+        assertFalse(metrics.blocks.containsKey(ImageCompression.NOTCOMPRESSED));
+    }
+
+    @Test
+    public void disabledMetricsDoNotRecord() throws IOException, NitfFormatException {
+        RecordingMetrics metrics = new RecordingMetrics() {
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        };
+        NitfMetricsRegistry.setMetrics(metrics);
+        try (InputStream inputStream = getClass().getResourceAsStream(TEST_FILE)) {
+            NitfParser.parse(new NitfInputStreamReader(inputStream), new SlottedParseStrategy(SlottedParseStrategy.HEADERS_ONLY));
+        }
+        assertTrue(metrics.times.isEmpty());
+        assertFalse(metrics.tres.isEmpty());
+    }
+
+    private static class RecordingMetrics implements NitfMetrics {
+        private final Map<Phase, Long> times = new EnumMap<>(Phase.class);
+        private final Map<ByteCount, Long> bytes = new EnumMap<>(ByteCount.class);
+        private final Map<String, Integer> tres = new HashMap<>();
+        private final Map<ImageCompression, Long> blocks = new EnumMap<>(ImageCompression.class);
+        private final Map<String, Integer> cacheLookups = new HashMap<>();
+
+        @Override
+        public synchronized void recordTime(final Phase phase, final long nanoseconds) {
+            assertTrue(nanoseconds >= 0);
+            times.merge(phase, nanoseconds, Long::sum);
+        }
+
+        @Override
+        public synchronized void recordBytes(final ByteCount byteCount, final long count) {
+            bytes.merge(byteCount, count, Long::sum);
+        }
+
+        @Override
+        public synchronized void recordTre(final String tag) {
+            tres.merge(tag, 1, Integer::sum);
+        }
+
+        @Override
+        public synchronized void recordBlocksDecoded(final ImageCompression compression, final long count) {
+            blocks.merge(compression, count, Long::sum);
+        }
+
+        @Override
+        public synchronized void recordCacheLookup(final String cacheName, final boolean hit) {
+            cacheLookups.merge(cacheName, 1, Integer::sum);
+        }
+    }
+}
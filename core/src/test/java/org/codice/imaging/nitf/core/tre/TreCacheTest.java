@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.tre;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.codice.imaging.nitf.core.common.FileType;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.text.TextSegment;
+import org.codice.imaging.nitf.core.text.TextSegmentFactory;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+/**
+ * Tests for TreCache class.
+ */
+public class TreCacheTest {
+
+    public TreCacheTest() {
+    }
+
+    @Test
+    public void reuseSerialisedTREs() throws NitfFormatException, IOException {
+        TreParser treParser = new TreParser();
+        TreCache treCache = new TreCache(treParser);
+        TextSegment textSegment = TextSegmentFactory.getDefault(FileType.NITF_TWO_ONE);
+        textSegment.getTREsRawStructure().add(makeRawTre("TSTAAA", "ABC"));
+
+        byte[] serialised = treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData);
+        assertArrayEquals("TSTAAA00003ABC".getBytes(StandardCharsets.ISO_8859_1), serialised);
+        assertSame(serialised, treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData));
+        assertArrayEquals(treParser.getTREs(textSegment, TreSource.TextExtendedSubheaderData), serialised);
+        assertEquals(0, treCache.getTREs(textSegment, TreSource.TreOverflowDES).length);
+    }
+
+    @Test
+    public void addingTreInvalidates() throws NitfFormatException, IOException {
+        TreCache treCache = new TreCache(new TreParser());
+        TextSegment textSegment = TextSegmentFactory.getDefault(FileType.NITF_TWO_ONE);
+        textSegment.getTREsRawStructure().add(makeRawTre("TSTAAA", "ABC"));
+        byte[] serialised = treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData);
+
+        textSegment.getTREsRawStructure().add(makeRawTre("TSTAAB", "DE"));
+        byte[] updated = treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData);
+        assertNotSame(serialised, updated);
+        assertArrayEquals("TSTAAA00003ABCTSTAAB00002DE".getBytes(StandardCharsets.ISO_8859_1), updated);
+    }
+
+    @Test
+    public void removingTreInvalidates() throws NitfFormatException, IOException {
+        TreCache treCache = new TreCache(new TreParser());
+        TextSegment textSegment = TextSegmentFactory.getDefault(FileType.NITF_TWO_ONE);
+        Tre tre = makeRawTre("TSTAAA", "ABC");
+        textSegment.getTREsRawStructure().add(tre);
+        assertEquals(14, treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData).length);
+
+        textSegment.getTREsRawStructure().remove(tre);
+        assertEquals(0, treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData).length);
+    }
+
+    @Test
+    public void explicitInvalidate() throws NitfFormatException, IOException {
+        TreCache treCache = new TreCache(new TreParser());
+        TextSegment textSegment = TextSegmentFactory.getDefault(FileType.NITF_TWO_ONE);
+        Tre tre = makeRawTre("TSTAAA", "ABC");
+        textSegment.getTREsRawStructure().add(tre);
+        byte[] serialised = treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData);
+
+        // In-place modification isn't detected until the cache is told about it
+        tre.setRawData("XYZW".getBytes(StandardCharsets.ISO_8859_1));
+        assertSame(serialised, treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData));
+        treCache.invalidate(textSegment);
+        assertArrayEquals("TSTAAA00004XYZW".getBytes(StandardCharsets.ISO_8859_1),
+                treCache.getTREs(textSegment, TreSource.TextExtendedSubheaderData));
+    }
+
+    private Tre makeRawTre(final String tag, final String content) {
+        Tre tre = TreFactory.getDefault(tag, TreSource.TextExtendedSubheaderData);
+        tre.setRawData(content.getBytes(StandardCharsets.ISO_8859_1));
+        return tre;
+    }
+}
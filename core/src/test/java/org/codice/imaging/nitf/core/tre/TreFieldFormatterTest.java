@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.core.tre;
+
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Tests for TreFieldFormatter, checking it matches String.format() behaviour.
+ */
+public class TreFieldFormatterTest {
+
+    private static final long SEED = 20161019L;
+
+    private static final double[] SPECIAL_VALUES = {0.0, -0.0, 1.0, -1.0, 0.5, 0.125, 0.0000005, -0.0000004, 9.9999995, 99999.9999995,
+        1.0E20, 1.0E-20, 123.456, -123.456, 9.99999999E10, Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN,
+        Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+    public TreFieldFormatterTest() {
+    }
+
+    @Test
+    public void integers() {
+        long[] values = {0, 1, -1, 7, -7, 12345, -12345, 99999, 100000, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long value : values) {
+            for (int length = 1; length < 12; ++length) {
+                assertEquals(String.format("%0" + length + "d", value), TreFieldFormatter.padIntegerToLength(value, length));
+            }
+        }
+    }
+
+    @Test
+    public void strings() {
+        String[] values = {"", "A", "ABCDEF", "ABC DEF ", null};
+        for (String value : values) {
+            for (int length = 1; length < 10; ++length) {
+                assertEquals(String.format("%1$-" + length + "s", value), TreFieldFormatter.padStringToLength(value, length));
+            }
+        }
+    }
+
+    @Test
+    public void decimalReals() {
+        for (double value : SPECIAL_VALUES) {
+            checkDecimal(value);
+        }
+        Random random = new Random(SEED);
+        for (int i = 0; i < 10000; ++i) {
+            checkDecimal((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10));
+        }
+    }
+
+    @Test
+    public void exponentReals() {
+        for (double value : SPECIAL_VALUES) {
+            checkExponent(value);
+        }
+        Random random = new Random(SEED);
+        for (int i = 0; i < 10000; ++i) {
+            checkExponent((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(200) - 100));
+        }
+    }
+
+    private void checkDecimal(final double value) {
+        for (int length = 1; length < 16; ++length) {
+            assertEquals(String.format("%" + length + "f", value), TreFieldFormatter.padRealToLength(value, null, length));
+        }
+    }
+
+    private void checkExponent(final double value) {
+        for (int length = 6; length < 16; ++length) {
+            String expected;
+            if (Double.isNaN(value)) {
+                expected = String.format("%1$-" + length + "s", "NaN");
+            } else {
+                expected = String.format("%0" + length + "." + (length - 6) + "E", value);
+            }
+            assertEquals(expected, TreFieldFormatter.padRealToLength(value, "UE", length));
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package org.codice.imaging.nitf.fluent;
 
 import java.util.function.Supplier;
-import javax.imageio.stream.FileImageInputStream;
 import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.MemoryCacheImageInputStream;
 import org.codice.imaging.nitf.core.ConfigurableHeapStrategy;
@@ -9,6 +8,8 @@ import org.codice.imaging.nitf.core.FileBackedHeapStrategy;
 import org.codice.imaging.nitf.core.HeapStrategy;
 import org.codice.imaging.nitf.core.HeapStrategyConfiguration;
 import org.codice.imaging.nitf.core.InMemoryHeapStrategy;
+import org.codice.imaging.nitf.core.OffHeapHeapStrategy;
+import org.codice.imaging.nitf.core.SpillStore;
 
 /**
  * Supplies an ImageDataStrategy to the SlottedNitfParsingStrategy.
@@ -36,21 +37,21 @@ public class ImageDataStrategySupplier implements Supplier<HeapStrategy<ImageInp
      */
     public final ImageDataStrategySupplier configure(final long maximumSize) {
         HeapStrategyConfiguration config = new HeapStrategyConfiguration(maximumSize);
-        this.imageDataStrategy = new ConfigurableHeapStrategy<>(config, null, null);
+        this.imageDataStrategy = new ConfigurableHeapStrategy<>(config, SpillStore.getDefault(), stream -> stream,
+                is -> new MemoryCacheImageInputStream(is));
         return this;
     }
 
     /**
      * Creates an instance of FileBackedHeapStrategy.
      *
-     * Segment data is stored in temporary files until required. This method decreases heap usage, but increases
-     * rendering time.
+     * Segment data is stored in pooled spill files in the temporary file directory until required. This method
+     * decreases heap usage, but increases rendering time.
      *
      * @return this ImageDataStrategySupplier.
      */
     public final ImageDataStrategySupplier file() {
-        this.imageDataStrategy = new FileBackedHeapStrategy<>(
-                file -> new FileImageInputStream(file));
+        this.imageDataStrategy = new FileBackedHeapStrategy<>(SpillStore.getDefault(), stream -> stream);
         return this;
     }
 
@@ -66,6 +67,17 @@ public class ImageDataStrategySupplier implements Supplier<HeapStrategy<ImageInp
         return this;
     }
 
+    /**
+     * Creates an instance of OffHeapHeapStrategy.  Images are stored in direct buffers, outside the Java heap, so
+     * they do not add to garbage collection pressure.
+     *
+     * @return this ImageDataStrategySupplier.
+     */
+    public final ImageDataStrategySupplier offHeap() {
+        this.imageDataStrategy = new OffHeapHeapStrategy<>(stream -> stream);
+        return this;
+    }
+
     @Override
     public final HeapStrategy<ImageInputStream> get() {
         return this.imageDataStrategy;
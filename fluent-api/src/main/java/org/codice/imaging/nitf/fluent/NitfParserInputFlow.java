@@ -18,6 +18,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import org.codice.imaging.nitf.core.AsyncNitfParser;
+import org.codice.imaging.nitf.core.DataSource;
+import org.codice.imaging.nitf.core.SlottedParseStrategy;
 import org.codice.imaging.nitf.core.common.NitfInputStreamReader;
 
 /**
@@ -54,4 +59,19 @@ public class NitfParserInputFlow {
         NitfInputStreamReader nitfReader = new NitfInputStreamReader(inputStream);
         return new NitfParserParsingFlow(nitfReader);
     }
+
+    /**
+     * Parses a NITF file asynchronously.
+     * <p>
+     * The file is read without blocking the calling thread, and parsed on the supplied executor.
+     *
+     * @param inputFile the NITF file to read from.
+     * @param parseStrategy the parse strategy to use, which must not be shared with any other parse.
+     * @param executor the executor to use for I/O completion and parsing.
+     * @return a future for the parsed DataSource.
+     */
+    public final CompletableFuture<DataSource> fileAsync(final File inputFile, final SlottedParseStrategy parseStrategy,
+            final ExecutorService executor) {
+        return AsyncNitfParser.parse(inputFile.toPath(), parseStrategy, executor);
+    }
 }
@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 
-import javax.imageio.stream.FileImageInputStream;
 import javax.imageio.stream.ImageInputStream;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
@@ -29,6 +28,7 @@ import javax.xml.transform.stream.StreamSource;
 import org.codice.imaging.nitf.core.FileBackedHeapStrategy;
 import org.codice.imaging.nitf.core.HeapStrategy;
 import org.codice.imaging.nitf.core.SlottedParseStrategy;
+import org.codice.imaging.nitf.core.SpillStore;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
 import org.codice.imaging.nitf.core.common.NitfReader;
 import org.codice.imaging.nitf.core.header.NitfParser;
@@ -40,7 +40,7 @@ public class NitfParserParsingFlow {
     private final NitfReader reader;
 
     private HeapStrategy<ImageInputStream> imageDataStrategy =
-            new FileBackedHeapStrategy<>(file -> new FileImageInputStream(file));
+            new FileBackedHeapStrategy<>(SpillStore.getDefault(), stream -> stream);
 
     private final List<Source> treDescriptors = new ArrayList<>();
 
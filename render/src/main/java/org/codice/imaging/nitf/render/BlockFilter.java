@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+/**
+ * Selects the blocks of an image segment to render.
+ */
+@FunctionalInterface
+public interface BlockFilter {
+
+    /**
+     * Whether a block should be rendered.
+     *
+     * @param rowIndex the zero-based row of the block in the image.
+     * @param columnIndex the zero-based column of the block in the image.
+     * @return true if the block should be rendered, or false if it can be skipped.
+     */
+    boolean isBlockRendered(int rowIndex, int columnIndex);
+}
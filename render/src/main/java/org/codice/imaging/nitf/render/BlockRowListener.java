@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.io.IOException;
+
+/**
+ * Notified as each row of blocks of an image segment is rendered.
+ */
+@FunctionalInterface
+public interface BlockRowListener {
+
+    /**
+     * Called after every selected block of a row has been drawn to the target.
+     *
+     * Rows are reported in order, and the listener may change the transform of the target to move where the following
+     * rows are drawn.
+     *
+     * @param rowIndex the zero-based row of blocks in the image.
+     * @throws IOException if the listener could not handle the row, which stops rendering.
+     */
+    void blockRowRendered(int rowIndex) throws IOException;
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.io.IOException;
+
+/**
+ * A displayable segment, placed in the common coordinate system for NitfCompositor.
+ */
+abstract class CompositeElement {
+
+    private final int displayLevel;
+    private final int attachmentLevel;
+    private final Point location;
+    private Point parentOrigin = new Point(0, 0);
+
+    /**
+     * Constructor.
+     *
+     * @param segmentDisplayLevel the display level of the segment.
+     * @param segmentAttachmentLevel the display level of the segment that this segment is attached to, or zero.
+     * @param row the row location of the segment, relative to the segment it is attached to.
+     * @param column the column location of the segment, relative to the segment it is attached to.
+     */
+    CompositeElement(final int segmentDisplayLevel, final int segmentAttachmentLevel, final int row, final int column) {
+        displayLevel = segmentDisplayLevel;
+        attachmentLevel = segmentAttachmentLevel;
+        location = new Point(column, row);
+    }
+
+    /**
+     * @return the display level of the segment.
+     */
+    int getDisplayLevel() {
+        return displayLevel;
+    }
+
+    /**
+     * @return the display level of the segment that this segment is attached to, or zero if it is not attached.
+     */
+    int getAttachmentLevel() {
+        return attachmentLevel;
+    }
+
+    /**
+     * Set the origin of the segment that this segment is attached to.
+     *
+     * @param origin the origin in the common coordinate system, which is (0, 0) for unattached segments.
+     */
+    void setParentOrigin(final Point origin) {
+        parentOrigin = new Point(origin);
+    }
+
+    /**
+     * @return the origin of the segment that this segment is attached to, in the common coordinate system.
+     */
+    Point getParentOrigin() {
+        return new Point(parentOrigin);
+    }
+
+    /**
+     * @return the location of this segment in the common coordinate system, which is the origin for segments attached
+     * to it.
+     */
+    Point getOrigin() {
+        return new Point(parentOrigin.x + location.x, parentOrigin.y + location.y);
+    }
+
+    /**
+     * @return the area covered by this segment in the common coordinate system.
+     */
+    abstract Rectangle getBounds();
+
+    /**
+     * @return true if the segment completely covers its bounds, hiding anything below it.
+     */
+    abstract boolean isOpaque();
+
+    /**
+     * Render the segment.
+     *
+     * @param target the target, in the common coordinate system.
+     * @param viewport the part of the common coordinate system being rendered.
+     * @param occluded the area covered by opaque segments above this segment, which does not need to be rendered.
+     * @throws IOException if the segment data could not be read.
+     */
+    abstract void render(Graphics2D target, Rectangle viewport, Area occluded) throws IOException;
+}
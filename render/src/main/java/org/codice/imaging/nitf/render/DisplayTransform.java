@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import org.codice.imaging.nitf.core.image.ImageBandLUT;
+
+/**
+ * A display transform that maps sample values to 8 bit display values.
+ *
+ * The transform is held as a precomputed lookup table with an entry for every 16 bit sample value, so applying it
+ * while decoding costs a single array access per pixel. Sample values are the actual pixel values, right aligned
+ * (i.e. without any scaling to the nominal bits per pixel).
+ *
+ * Display transforms are immutable, and can be shared between renderers.
+ */
+public final class DisplayTransform {
+
+    /**
+     * The number of entries in the lookup table.
+     */
+    public static final int LOOKUP_TABLE_SIZE = 65536;
+
+    private static final int MAX_DISPLAY_VALUE = 0xFF;
+    private static final double PERCENT = 100.0;
+
+    private final byte[] lookupTable;
+
+    private DisplayTransform(final byte[] table) {
+        lookupTable = table;
+    }
+
+    /**
+     * Create a linear stretch.
+     *
+     * Values at or below the minimum are displayed as black, and values at or above the maximum are displayed as
+     * white.
+     *
+     * @param minimum the sample value to display as black.
+     * @param maximum the sample value to display as white.
+     * @return the display transform.
+     */
+    public static DisplayTransform linear(final int minimum, final int maximum) {
+        return gamma(minimum, maximum, 1.0);
+    }
+
+    /**
+     * Create a linear stretch with gamma correction.
+     *
+     * Values between the minimum and maximum are scaled to the range 0.0 to 1.0, raised to the power 1 / gamma, and
+     * then scaled to the display range, so a gamma greater than 1 brightens the mid tones.
+     *
+     * @param minimum the sample value to display as black.
+     * @param maximum the sample value to display as white.
+     * @param gamma the gamma value, which must be positive.
+     * @return the display transform.
+     */
+    public static DisplayTransform gamma(final int minimum, final int maximum, final double gamma) {
+        if (maximum <= minimum) {
+            throw new IllegalArgumentException("DisplayTransform: maximum must be greater than minimum");
+        }
+        if (gamma <= 0.0) {
+            throw new IllegalArgumentException("DisplayTransform: gamma must be positive");
+        }
+        byte[] table = new byte[LOOKUP_TABLE_SIZE];
+        double range = maximum - minimum;
+        double exponent = 1.0 / gamma;
+        for (int value = 0; value < LOOKUP_TABLE_SIZE; ++value) {
+            if (value <= minimum) {
+                table[value] = 0;
+            } else if (value >= maximum) {
+                table[value] = (byte) MAX_DISPLAY_VALUE;
+            } else {
+                double scaled = Math.pow((value - minimum) / range, exponent);
+                table[value] = (byte) Math.round(scaled * MAX_DISPLAY_VALUE);
+            }
+        }
+        return new DisplayTransform(table);
+    }
+
+    /**
+     * Create a linear stretch between two percentiles of a histogram.
+     *
+     * This is the usual way to stretch imagery with a few very dark or very bright outliers, for example clipping
+     * the darkest and brightest 2%.
+     *
+     * @param histogram the number of samples with each value, indexed by sample value.
+     * @param lowPercentile the percentile (0 to 100) to display as black.
+     * @param highPercentile the percentile (0 to 100) to display as white.
+     * @return the display transform.
+     */
+    public static DisplayTransform percentile(final long[] histogram, final double lowPercentile, final double highPercentile) {
+        if ((lowPercentile < 0.0) || (highPercentile > PERCENT) || (lowPercentile >= highPercentile)) {
+            throw new IllegalArgumentException("DisplayTransform: percentiles must be increasing, from 0 to 100");
+        }
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("DisplayTransform: histogram is empty");
+        }
+        int minimum = findPercentile(histogram, total, lowPercentile);
+        int maximum = findPercentile(histogram, total, highPercentile);
+        if (maximum <= minimum) {
+            maximum = minimum + 1;
+        }
+        return linear(minimum, maximum);
+    }
+
+    private static int findPercentile(final long[] histogram, final long total, final double percentile) {
+        double threshold = total * percentile / PERCENT;
+        long cumulative = 0;
+        for (int value = 0; value < histogram.length; ++value) {
+            cumulative += histogram[value];
+            if (cumulative >= threshold) {
+                return value;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    /**
+     * Create a transform from an image band lookup table.
+     *
+     * Sample values beyond the end of the lookup table use the last entry.
+     *
+     * @param lut the lookup table, which is typically the single LUT for a monochrome band.
+     * @return the display transform.
+     */
+    public static DisplayTransform lookupTable(final ImageBandLUT lut) {
+        if (lut.getNumberOfEntries() == 0) {
+            throw new IllegalArgumentException("DisplayTransform: lookup table is empty");
+        }
+        byte[] table = new byte[LOOKUP_TABLE_SIZE];
+        int lastEntry = lut.getNumberOfEntries() - 1;
+        for (int value = 0; value < LOOKUP_TABLE_SIZE; ++value) {
+            table[value] = lut.getEntry(Math.min(value, lastEntry));
+        }
+        return new DisplayTransform(table);
+    }
+
+    /**
+     * Apply the transform to a sample value.
+     *
+     * @param value the sample value, of which the low 16 bits are used.
+     * @return the display value, from 0 to 255.
+     */
+    public int apply(final int value) {
+        return lookupTable[value & (LOOKUP_TABLE_SIZE - 1)] & MAX_DISPLAY_VALUE;
+    }
+}
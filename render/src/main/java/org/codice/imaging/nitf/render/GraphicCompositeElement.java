@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.io.IOException;
+import org.codice.imaging.cgm.CgmParser;
+import org.codice.imaging.cgm.CgmRenderer;
+import org.codice.imaging.nitf.core.graphic.GraphicSegment;
+
+/**
+ * A CGM graphic segment in a composite.
+ */
+class GraphicCompositeElement extends CompositeElement {
+
+    private final GraphicSegment graphicSegment;
+
+    GraphicCompositeElement(final GraphicSegment segment) {
+        super(segment.getGraphicDisplayLevel(), segment.getAttachmentLevel(), segment.getGraphicLocationRow(),
+                segment.getGraphicLocationColumn());
+        graphicSegment = segment;
+    }
+
+    @Override
+    Rectangle getBounds() {
+        // The bounding box is relative to the segment that the graphic is attached to, like the graphic location
+        Point parentOrigin = getParentOrigin();
+        return new Rectangle(parentOrigin.x + graphicSegment.getBoundingBox1Column(),
+                parentOrigin.y + graphicSegment.getBoundingBox1Row(),
+                graphicSegment.getBoundingBox2Column() - graphicSegment.getBoundingBox1Column(),
+                graphicSegment.getBoundingBox2Row() - graphicSegment.getBoundingBox1Row());
+    }
+
+    @Override
+    boolean isOpaque() {
+        return false;
+    }
+
+    @Override
+    void render(final Graphics2D target, final Rectangle viewport, final Area occluded) throws IOException {
+        if (graphicSegment.getData() == null) {
+            return;
+        }
+        graphicSegment.getData().seek(0);
+        CgmParser parser = new CgmParser(graphicSegment.getData());
+        parser.buildCommandList();
+        Point origin = getOrigin();
+        Graphics2D graphicGraphics = (Graphics2D) target.create();
+        try {
+            graphicGraphics.translate(origin.x, origin.y);
+            CgmRenderer cgmRenderer = new CgmRenderer();
+            cgmRenderer.setTargetImageGraphics(graphicGraphics, graphicSegment.getBoundingBox2Column(),
+                    graphicSegment.getBoundingBox2Row());
+            cgmRenderer.render(parser.getCommandList());
+        } finally {
+            graphicGraphics.dispose();
+        }
+    }
+}
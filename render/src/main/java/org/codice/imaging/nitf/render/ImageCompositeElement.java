@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.io.IOException;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.codice.imaging.nitf.core.image.ImageRepresentation;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+
+/**
+ * An image segment in a composite, rendered a block at a time so that hidden blocks can be skipped.
+ */
+class ImageCompositeElement extends CompositeElement {
+
+    private final ImageSegment imageSegment;
+    private final NitfRenderer renderer;
+
+    ImageCompositeElement(final ImageSegment segment, final NitfRenderer nitfRenderer) {
+        super(segment.getImageDisplayLevel(), segment.getAttachmentLevel(), segment.getImageLocationRow(),
+                segment.getImageLocationColumn());
+        imageSegment = segment;
+        renderer = nitfRenderer;
+    }
+
+    @Override
+    Rectangle getBounds() {
+        Point origin = getOrigin();
+        return new Rectangle(origin.x, origin.y, (int) imageSegment.getNumberOfColumns(), (int) imageSegment.getNumberOfRows());
+    }
+
+    @Override
+    boolean isOpaque() {
+        // Masked images may leave blocks undrawn
+        return !isMasked() && (imageSegment.getImageRepresentation() != ImageRepresentation.NOTFORDISPLAY);
+    }
+
+    private boolean isMasked() {
+        return (imageSegment.getImageCompression() == ImageCompression.NOTCOMPRESSEDMASK)
+                || imageSegment.getImageCompression().getTextEquivalent().startsWith("M");
+    }
+
+    @Override
+    void render(final Graphics2D target, final Rectangle viewport, final Area occluded) throws IOException {
+        if (imageSegment.getImageRepresentation() == ImageRepresentation.NOTFORDISPLAY) {
+            return;
+        }
+        final Rectangle bounds = getBounds();
+        final BlockFilter blockFilter = (rowIndex, columnIndex) -> isBlockVisible(bounds, rowIndex, columnIndex, viewport, occluded);
+        if (!hasVisibleBlock(blockFilter)) {
+            return;
+        }
+        imageSegment.getData().seek(0);
+        Graphics2D imageGraphics = (Graphics2D) target.create();
+        try {
+            imageGraphics.translate(bounds.x, bounds.y);
+            renderer.renderBlocks(imageSegment, imageGraphics, blockFilter);
+        } finally {
+            imageGraphics.dispose();
+        }
+    }
+
+    private boolean hasVisibleBlock(final BlockFilter blockFilter) {
+        for (int rowIndex = 0; rowIndex < imageSegment.getNumberOfBlocksPerColumn(); ++rowIndex) {
+            for (int columnIndex = 0; columnIndex < imageSegment.getNumberOfBlocksPerRow(); ++columnIndex) {
+                if (blockFilter.isBlockRendered(rowIndex, columnIndex)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isBlockVisible(final Rectangle bounds, final int rowIndex, final int columnIndex, final Rectangle viewport,
+            final Area occluded) {
+        int blockWidth = (int) imageSegment.getNumberOfPixelsPerBlockHorizontal();
+        int blockHeight = (int) imageSegment.getNumberOfPixelsPerBlockVertical();
+        Rectangle block = new Rectangle(bounds.x + columnIndex * blockWidth, bounds.y + rowIndex * blockHeight, blockWidth, blockHeight);
+        Rectangle visible = block.intersection(bounds).intersection(viewport);
+        return !visible.isEmpty() && !occluded.contains(visible);
+    }
+}
@@ -15,8 +15,6 @@
 package org.codice.imaging.nitf.render;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.image.ImageMode;
 import org.codice.imaging.nitf.core.image.ImageSegment;
@@ -38,11 +36,16 @@ public final class ImageMask {
 
     private ImageSegment mImageSegment = null;
 
-    private int[][] bmrnbndm = null;
-    private final List<Integer> tmrnbndm = new ArrayList<>();
+    private long[][] bmrnbndm = null;
+    private long[][] tmrnbndm = null;
     private int tpxcd = -1;
+    private long imageDataOffset = 0;
+    private boolean blockMaskRecorded = false;
 
-    private static final int BLOCK_NOT_RECORDED = 0xFFFFFFFF;
+    private static final long BLOCK_NOT_RECORDED = 0xFFFFFFFFL;
+    private static final long NO_PAD_PIXELS = 0xFFFFFFFFL;
+
+    private static final long UNSIGNED_INT_MASK = 0xFFFFFFFFL;
 
     /**
      * Create an image mask based on reading from an image segment and associated stream.
@@ -66,16 +69,16 @@ public final class ImageMask {
      */
     public ImageMask(final ImageSegment imageSegment) {
         mImageSegment = imageSegment;
-        bmrnbndm = new int[mImageSegment.getNumberOfBlocksPerRow() * mImageSegment.getNumberOfBlocksPerColumn()][mImageSegment.getNumBands()];
+        bmrnbndm = new long[mImageSegment.getNumberOfBlocksPerRow() * mImageSegment.getNumberOfBlocksPerColumn()][mImageSegment.getNumBands()];
         int numBandsToRead = 1;
         if (mImageSegment.getImageMode() == ImageMode.BANDSEQUENTIAL) {
             numBandsToRead = mImageSegment.getNumBands();
         }
-        int bytesPerPixel = (int) mImageSegment.getNumberOfBytesPerBlock();
-        int blockCounter = 0;
+        long bytesPerBlock = mImageSegment.getNumberOfBytesPerBlock();
+        long blockCounter = 0;
         for (int m = 0; m < numBandsToRead; ++m) {
             for (int n = 0; n < mImageSegment.getNumberOfBlocksPerRow() * mImageSegment.getNumberOfBlocksPerColumn(); ++n) {
-                bmrnbndm[n][m] = bytesPerPixel * blockCounter;
+                bmrnbndm[n][m] = bytesPerBlock * blockCounter;
                 blockCounter++;
             }
         }
@@ -83,6 +86,7 @@ public final class ImageMask {
 
     private void readImageMask(final ImageInputStream imageInputStream) throws IOException {
         int imdatoff = imageInputStream.readInt();
+        imageDataOffset = imdatoff & UNSIGNED_INT_MASK;
         int bmrlnth = imageInputStream.readShort();
         int tmrlnth = imageInputStream.readShort();
         int tpxcdlnth = imageInputStream.readShort();
@@ -105,20 +109,21 @@ public final class ImageMask {
             numBandsToRead = mImageSegment.getNumBands();
         }
         if (bmrlnth > 0) {
-            bmrnbndm = new int[mImageSegment.getNumberOfBlocksPerRow() * mImageSegment.getNumberOfBlocksPerColumn()][mImageSegment.getNumBands()];
+            blockMaskRecorded = true;
+            bmrnbndm = new long[mImageSegment.getNumberOfBlocksPerRow() * mImageSegment.getNumberOfBlocksPerColumn()][mImageSegment.getNumBands()];
             for (int m = 0; m < numBandsToRead; ++m) {
                 for (int n = 0; n < mImageSegment.getNumberOfBlocksPerRow() * mImageSegment.getNumberOfBlocksPerColumn(); ++n) {
-                    bmrnbndm[n][m] = imageInputStream.readInt();
+                    bmrnbndm[n][m] = imageInputStream.readInt() & UNSIGNED_INT_MASK;
                     LOGGER.debug(String.format("mask blocks (band %d) %d: 0x%08x", m, n, bmrnbndm[n][m]));
                 }
             }
         }
         if (tmrlnth > 0) {
+            tmrnbndm = new long[mImageSegment.getNumberOfBlocksPerRow() * mImageSegment.getNumberOfBlocksPerColumn()][mImageSegment.getNumBands()];
             for (int m = 0; m < numBandsToRead; ++m) {
                 for (int n = 0; n < mImageSegment.getNumberOfBlocksPerRow() * mImageSegment.getNumberOfBlocksPerColumn(); ++n) {
-                    int val = imageInputStream.readInt();
-                    tmrnbndm.add(val);
-                    LOGGER.debug(String.format("mask pixel (band %d) %d: 0x%08x", m, n, val));
+                    tmrnbndm[n][m] = imageInputStream.readInt() & UNSIGNED_INT_MASK;
+                    LOGGER.debug(String.format("mask pixel (band %d) %d: 0x%08x", m, n, tmrnbndm[n][m]));
                 }
             }
         }
@@ -151,6 +156,42 @@ public final class ImageMask {
         return (BLOCK_NOT_RECORDED == bmrnbndm[blockNumber][bandNumber]);
     }
 
+    /**
+     * Check whether the block offsets were read from a block mask table.
+     *
+     * This is false for an image mask built from the image characteristics, and for a mask that only records pad
+     * pixels. In the latter case, getBlockOffset() cannot be used.
+     *
+     * @return true if the image has a block mask table, otherwise false.
+     */
+    public boolean hasBlockMask() {
+        return blockMaskRecorded;
+    }
+
+    /**
+     * Get the offset of the specified block, relative to the start of the blocked image data.
+     *
+     * Blocks are numbered as for isMaskedBlock().
+     *
+     * @param blockNumber the block number to get the offset for.
+     * @param bandNumber the band to get the offset for (only used for Band Sequential).
+     * @return the offset in bytes, which is 0xFFFFFFFF if the block is not recorded in the file.
+     */
+    public long getBlockOffset(final int blockNumber, final int bandNumber) {
+        return bmrnbndm[blockNumber][bandNumber];
+    }
+
+    /**
+     * Get the offset of the blocked image data, relative to the start of the image segment data.
+     *
+     * This is the length of the mask tables that precede the image data, and is zero if there is no mask.
+     *
+     * @return the offset in bytes.
+     */
+    public long getImageDataOffset() {
+        return imageDataOffset;
+    }
+
     /**
      * Test if the specified pixel value indicates "no data".
      *
@@ -167,6 +208,26 @@ public final class ImageMask {
         return (tpxcd == value);
     }
 
+    /**
+     * Check whether a block may contain pad pixels.
+     *
+     * If the image has a pad pixel mask table, blocks that the table records as having no pad pixels can be rendered
+     * without checking each pixel. Blocks are numbered as for isMaskedBlock().
+     *
+     * @param blockNumber the block number to check.
+     * @param bandNumber the band to check (only used for Band Sequential).
+     * @return false if the block has no pad pixels, or true if it does or might have.
+     */
+    public boolean hasPadPixels(final int blockNumber, final int bandNumber) {
+        if (!hasPixelMasks()) {
+            return false;
+        }
+        if (tmrnbndm == null) {
+            return true;
+        }
+        return (NO_PAD_PIXELS != tmrnbndm[blockNumber][bandNumber]);
+    }
+
     /**
      * Check whether this image mask has valid per-pixel masking.
      *
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.io.IOException;
+import org.codice.imaging.nitf.core.RGBColour;
+import org.codice.imaging.nitf.core.label.LabelSegment;
+
+/**
+ * A text label segment (NITF 2.0) in a composite.
+ */
+class LabelCompositeElement extends CompositeElement {
+
+    private static final int DEFAULT_CELL_SIZE = 12;
+    private static final int COLOUR_MASK = 0xFF;
+
+    private final LabelSegment labelSegment;
+
+    LabelCompositeElement(final LabelSegment segment) {
+        super(segment.getLabelDisplayLevel(), segment.getAttachmentLevel(), segment.getLabelLocationRow(),
+                segment.getLabelLocationColumn());
+        labelSegment = segment;
+    }
+
+    @Override
+    Rectangle getBounds() {
+        Point origin = getOrigin();
+        return new Rectangle(origin.x, origin.y, getText().length() * getCellWidth(), getCellHeight());
+    }
+
+    @Override
+    boolean isOpaque() {
+        return false;
+    }
+
+    @Override
+    void render(final Graphics2D target, final Rectangle viewport, final Area occluded) throws IOException {
+        Rectangle bounds = getBounds();
+        if (labelSegment.getLabelBackgroundColour() != null) {
+            target.setColor(toColor(labelSegment.getLabelBackgroundColour()));
+            target.fill(bounds);
+        }
+        if (labelSegment.getLabelTextColour() != null) {
+            target.setColor(toColor(labelSegment.getLabelTextColour()));
+        } else {
+            target.setColor(Color.BLACK);
+        }
+        target.setFont(new Font(Font.MONOSPACED, Font.PLAIN, getCellHeight()));
+        target.drawString(getText(), bounds.x, bounds.y + target.getFontMetrics().getAscent());
+    }
+
+    private String getText() {
+        if (labelSegment.getData() == null) {
+            return "";
+        }
+        return labelSegment.getData();
+    }
+
+    private int getCellWidth() {
+        if (labelSegment.getLabelCellWidth() > 0) {
+            return labelSegment.getLabelCellWidth();
+        }
+        return DEFAULT_CELL_SIZE;
+    }
+
+    private int getCellHeight() {
+        if (labelSegment.getLabelCellHeight() > 0) {
+            return labelSegment.getLabelCellHeight();
+        }
+        return DEFAULT_CELL_SIZE;
+    }
+
+    private static Color toColor(final RGBColour colour) {
+        return new Color(colour.getRed() & COLOUR_MASK, colour.getGreen() & COLOUR_MASK, colour.getBlue() & COLOUR_MASK);
+    }
+}
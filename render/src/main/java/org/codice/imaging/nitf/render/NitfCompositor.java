@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.codice.imaging.nitf.core.DataSource;
+import org.codice.imaging.nitf.core.graphic.GraphicSegment;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.label.LabelSegment;
+
+/**
+ * Composite the displayable segments of a NITF file into a single view.
+ *
+ * Image, graphic (CGM) and label segments are placed in the common coordinate system using their locations and
+ * attachment levels, and drawn in display level order. Only the requested viewport is rendered, and image blocks that
+ * are completely hidden by opaque segments at a higher display level are not decoded.
+ */
+public final class NitfCompositor {
+
+    private final List<CompositeElement> elements = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource the parsed NITF file, including segment data.
+     */
+    public NitfCompositor(final DataSource dataSource) {
+        this(dataSource, new NitfRenderer());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource the parsed NITF file, including segment data.
+     * @param renderer the renderer to use for the image segments.
+     */
+    public NitfCompositor(final DataSource dataSource, final NitfRenderer renderer) {
+        for (ImageSegment imageSegment : dataSource.getImageSegments()) {
+            elements.add(new ImageCompositeElement(imageSegment, renderer));
+        }
+        for (GraphicSegment graphicSegment : dataSource.getGraphicSegments()) {
+            elements.add(new GraphicCompositeElement(graphicSegment));
+        }
+        for (LabelSegment labelSegment : dataSource.getLabelSegments()) {
+            elements.add(new LabelCompositeElement(labelSegment));
+        }
+        resolveAttachments();
+        elements.sort(Comparator.comparingInt(CompositeElement::getDisplayLevel));
+    }
+
+    private void resolveAttachments() {
+        Map<Integer, CompositeElement> elementsByDisplayLevel = new HashMap<>();
+        for (CompositeElement element : elements) {
+            elementsByDisplayLevel.put(element.getDisplayLevel(), element);
+        }
+        for (CompositeElement element : elements) {
+            element.setParentOrigin(getAttachmentOrigin(element, elementsByDisplayLevel, new HashSet<>()));
+        }
+    }
+
+    private static Point getAttachmentOrigin(final CompositeElement element, final Map<Integer, CompositeElement> elementsByDisplayLevel,
+            final Set<Integer> visited) {
+        // Unattached segments, and those attached to a missing segment or in a loop, are relative to the CCS origin
+        CompositeElement parent = elementsByDisplayLevel.get(element.getAttachmentLevel());
+        if ((element.getAttachmentLevel() == 0) || (parent == null) || (parent == element)
+                || !visited.add(element.getDisplayLevel())) {
+            return new Point(0, 0);
+        }
+        Point parentOrigin = getAttachmentOrigin(parent, elementsByDisplayLevel, visited);
+        parent.setParentOrigin(parentOrigin);
+        return parent.getOrigin();
+    }
+
+    /**
+     * Get the area covered by the displayable segments.
+     *
+     * @return the union of the segment bounds in the common coordinate system, or an empty rectangle if there are no
+     * displayable segments.
+     */
+    public Rectangle getBounds() {
+        Rectangle bounds = null;
+        for (CompositeElement element : elements) {
+            if (bounds == null) {
+                bounds = element.getBounds();
+            } else {
+                bounds = bounds.union(element.getBounds());
+            }
+        }
+        if (bounds == null) {
+            return new Rectangle();
+        }
+        return bounds;
+    }
+
+    /**
+     * Render a viewport to a new image.
+     *
+     * @param viewport the area of the common coordinate system to render.
+     * @return an image the size of the viewport, transparent where no segment is drawn.
+     * @throws IOException if segment data could not be read.
+     */
+    public BufferedImage render(final Rectangle viewport) throws IOException {
+        BufferedImage image = new BufferedImage(viewport.width, viewport.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D target = image.createGraphics();
+        try {
+            render(target, viewport);
+        } finally {
+            target.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Render a viewport to the specified Graphics2D target.
+     *
+     * The top left corner of the viewport is drawn at the origin of the target.
+     *
+     * @param targetGraphic the target to render to.
+     * @param viewport the area of the common coordinate system to render.
+     * @throws IOException if segment data could not be read.
+     */
+    public void render(final Graphics2D targetGraphic, final Rectangle viewport) throws IOException {
+        List<Area> occludedAreas = getOccludedAreas();
+        Graphics2D target = (Graphics2D) targetGraphic.create();
+        try {
+            target.translate(-viewport.x, -viewport.y);
+            target.clip(viewport);
+            for (int i = 0; i < elements.size(); ++i) {
+                CompositeElement element = elements.get(i);
+                Rectangle visible = element.getBounds().intersection(viewport);
+                if (visible.isEmpty() || occludedAreas.get(i).contains(visible)) {
+                    continue;
+                }
+                element.render(target, viewport, occludedAreas.get(i));
+            }
+        } finally {
+            target.dispose();
+        }
+    }
+
+    private List<Area> getOccludedAreas() {
+        // Working down from the top, each element is hidden by the opaque elements above it
+        List<Area> occludedAreas = new ArrayList<>(elements.size());
+        Area occluded = new Area();
+        for (int i = elements.size() - 1; i >= 0; --i) {
+            occludedAreas.add(0, new Area(occluded));
+            CompositeElement element = elements.get(i);
+            if (element.isOpaque()) {
+                occluded.add(new Area(element.getBounds()));
+            }
+        }
+        return occludedAreas;
+    }
+}
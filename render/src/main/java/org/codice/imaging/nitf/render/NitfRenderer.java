@@ -16,6 +16,7 @@ package org.codice.imaging.nitf.render;
 
 import java.awt.Rectangle;
 import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -27,11 +28,14 @@ import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
 
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.image.ImageBand;
 import org.codice.imaging.nitf.core.image.ImageRepresentation;
 import org.codice.imaging.nitf.core.image.ImageSegment;
 import org.codice.imaging.nitf.render.imagemode.ImageModeHandler;
 import org.codice.imaging.nitf.render.imagemode.ImageModeHandlerFactory;
+import org.codice.imaging.nitf.render.overview.OverviewPyramid;
 
 /**
  * Renderer for NITF files.
@@ -39,6 +43,10 @@ import org.codice.imaging.nitf.render.imagemode.ImageModeHandlerFactory;
 public class NitfRenderer {
 
     private static final int BYTE_MASK = 0xFF;
+    private static final BlockFilter ALL_BLOCKS = (rowIndex, columnIndex) -> true;
+    private static final BlockRowListener NO_ROW_LISTENER = (rowIndex) -> { };
+
+    private DisplayTransform displayTransform = null;
 
     /**
      * Constructor.
@@ -46,6 +54,18 @@ public class NitfRenderer {
     public NitfRenderer() {
     }
 
+    /**
+     * Set the display transform for rendering high bit depth images.
+     *
+     * The transform is applied while decoding uncompressed integer mono images of up to 16 bits per pixel, which are
+     * then rendered as 8 bit greyscale.
+     *
+     * @param transform the display transform, or null to render with the default scaling.
+     */
+    public final void setDisplayTransform(final DisplayTransform transform) {
+        displayTransform = transform;
+    }
+
     /**
      * Render to the specified Graphics2D target.
      *
@@ -54,16 +74,63 @@ public class NitfRenderer {
      * @throws IOException if the source data could not be read from
      */
     public final void render(final ImageSegment imageSegment, final Graphics2D targetGraphic) throws IOException {
+        renderSegment(imageSegment, targetGraphic, ALL_BLOCKS, NO_ROW_LISTENER, true);
+    }
+
+    /**
+     * Render selected blocks to the specified Graphics2D target.
+     *
+     * The first pixel of the image is drawn at the origin of the target, regardless of the image location. Blocks
+     * that are not selected are not drawn, and are not decoded unless the compression requires the blocks to be
+     * decoded in sequence.
+     *
+     * @param imageSegment the segment to be rendered
+     * @param targetGraphic the target to render to
+     * @param blockFilter the filter that selects the blocks to render
+     * @throws IOException if the source data could not be read from
+     */
+    public final void renderBlocks(final ImageSegment imageSegment, final Graphics2D targetGraphic, final BlockFilter blockFilter)
+            throws IOException {
+        renderSegment(imageSegment, targetGraphic, blockFilter, NO_ROW_LISTENER, false);
+    }
+
+    /**
+     * Render selected blocks to the specified Graphics2D target, reporting each row of blocks as it is completed.
+     *
+     * This is the same as renderBlocks(imageSegment, targetGraphic, blockFilter), except that the listener is called
+     * after each row of blocks has been drawn. Rows are drawn in order, and the listener can change the transform of
+     * the target, so an image can be rendered in a single pass into a buffer that only holds a few rows of blocks.
+     *
+     * @param imageSegment the segment to be rendered
+     * @param targetGraphic the target to render to
+     * @param blockFilter the filter that selects the blocks to render
+     * @param rowListener the listener to call after each row of blocks has been drawn
+     * @throws IOException if the source data could not be read from, or the listener failed
+     */
+    public final void renderBlocks(final ImageSegment imageSegment, final Graphics2D targetGraphic, final BlockFilter blockFilter,
+            final BlockRowListener rowListener) throws IOException {
+        renderSegment(imageSegment, targetGraphic, blockFilter, rowListener, false);
+    }
+
+    private void renderSegment(final ImageSegment imageSegment, final Graphics2D targetGraphic, final BlockFilter blockFilter,
+            final BlockRowListener rowListener, final boolean applyImageLocation) throws IOException {
+        int originColumn = 0;
+        int originRow = 0;
+        if (applyImageLocation) {
+            originColumn = imageSegment.getImageLocationColumn();
+            originRow = imageSegment.getImageLocationRow();
+        }
+        long startTime = NitfMetricsRegistry.startTimer();
         switch (imageSegment.getImageCompression()) {
         case BILEVEL:
-            render(new BilevelBlockRenderer(), imageSegment, targetGraphic);
+            render(new BilevelBlockRenderer(), imageSegment, targetGraphic, blockFilter, rowListener, originColumn, originRow);
             break;
         case NOTCOMPRESSED:
         case NOTCOMPRESSEDMASK:
-            ImageModeHandler modeHandler = ImageModeHandlerFactory.forImageSegment(imageSegment);
+            ImageModeHandler modeHandler = ImageModeHandlerFactory.forImageSegment(imageSegment, displayTransform);
 
             if (modeHandler != null) {
-                modeHandler.handleImage(imageSegment, targetGraphic);
+                modeHandler.handleImage(imageSegment, targetGraphic, blockFilter, rowListener);
             } else {
                 throw new UnsupportedOperationException("Unhandled NC/NM format");
             }
@@ -72,25 +139,34 @@ public class NitfRenderer {
         case DOWNSAMPLEDJPEG:
         case JPEG:
             skipToMarker(imageSegment.getData(), JpegMarkerCode.START_OF_IMAGE);
-            renderJPEG(imageSegment, targetGraphic, null);
+            renderJPEG(imageSegment, targetGraphic, null, blockFilter, rowListener);
             break;
         case VECTORQUANTIZATION:
         case VECTORQUANTIZATIONMASK:
             render(new VectorQuantizationBlockRenderer(),
                     imageSegment,
-                    targetGraphic);
+                    targetGraphic,
+                    blockFilter,
+                    rowListener,
+                    originColumn,
+                    originRow);
             break;
         case JPEGMASK:
             ImageMask imageMask = new ImageMask(imageSegment, imageSegment.getData());
-            renderJPEG(imageSegment, targetGraphic, imageMask);
+            renderJPEG(imageSegment, targetGraphic, imageMask, blockFilter, rowListener);
             break;
         case JPEG2000:
-            renderJPEG2k(imageSegment, targetGraphic);
+            renderJPEG2k(imageSegment, targetGraphic, blockFilter, rowListener);
             break;
         default:
             throw new UnsupportedOperationException("Unhandled image compression format: "
                     + imageSegment.getImageCompression());
         }
+        if (NitfMetricsRegistry.getMetrics().isEnabled()) {
+            NitfMetricsRegistry.getMetrics().recordBlocksDecoded(imageSegment.getImageCompression(),
+                    countRenderedBlocks(imageSegment, blockFilter));
+        }
+        NitfMetricsRegistry.stopTimer(NitfMetrics.Phase.RENDER, startTime);
     }
 
     /**
@@ -112,31 +188,99 @@ public class NitfRenderer {
         return img;
     }
 
-    private void render(final BlockRenderer renderer, final ImageSegment imageSegment, final Graphics2D target) throws IOException {
+    /**
+     * Render the segment as a BufferedImage at a reduced scale.
+     *
+     * The image is reduced from the nearest overview level that has at least the requested resolution, so zoomed out
+     * views do not need the full resolution image to be decoded. If there is no suitable level, the full resolution
+     * image is rendered and then reduced. The overview levels cover the segment itself, and are drawn at the image
+     * location.
+     *
+     * @param imageSegment the image segment header for the segment to be rendered
+     * @param overviews the overview pyramid for the segment, or null if there is none. It must be the size of the
+     * segment.
+     * @param scale the scale to render at, where 1.0 is full resolution
+     * @return rendered image, covering the same area as render(imageSegment)
+     * @throws IOException if the source data could not be read from
+     */
+    public final BufferedImage render(final ImageSegment imageSegment, final OverviewPyramid overviews, final double scale)
+            throws IOException {
+        if ((scale <= 0.0) || (scale > 1.0)) {
+            throw new IllegalArgumentException("NitfRenderer.render(): scale must be greater than 0.0 and no more than 1.0");
+        }
+        if ((overviews != null) && !overviews.matches(imageSegment)) {
+            throw new IllegalArgumentException("NitfRenderer.render(): overviews must be the size of the image segment");
+        }
+        int level = 0;
+        if (overviews != null) {
+            level = overviews.getLevelForScale(scale);
+        }
+        int width = imageSegment.getImageLocationColumn() + (int) imageSegment.getNumberOfColumns();
+        int height = imageSegment.getImageLocationRow() + (int) imageSegment.getNumberOfRows();
+        BufferedImage source;
+        int originColumn = 0;
+        int originRow = 0;
+        int sourceWidth = width;
+        int sourceHeight = height;
+        if (level == 0) {
+            source = render(imageSegment);
+            if (scale >= 1.0) {
+                return source;
+            }
+        } else {
+            source = overviews.getLevel(level);
+            originColumn = imageSegment.getImageLocationColumn();
+            originRow = imageSegment.getImageLocationRow();
+            sourceWidth = overviews.getImageWidth();
+            sourceHeight = overviews.getImageHeight();
+        }
+        BufferedImage img = new BufferedImage(Math.max(1, (int) Math.ceil(width * scale)),
+                Math.max(1, (int) Math.ceil(height * scale)), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D targetGraphic = img.createGraphics();
+        targetGraphic.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        targetGraphic.scale(scale, scale);
+        targetGraphic.translate(originColumn, originRow);
+        targetGraphic.scale((double) sourceWidth / source.getWidth(), (double) sourceHeight / source.getHeight());
+        targetGraphic.drawImage(source, 0, 0, null);
+        targetGraphic.dispose();
+        return img;
+    }
+
+    private void render(final BlockRenderer renderer, final ImageSegment imageSegment, final Graphics2D target,
+            final BlockFilter blockFilter, final BlockRowListener rowListener, final int originColumn, final int originRow)
+            throws IOException {
         renderer.setImageSegment(imageSegment, imageSegment.getData());
 
-        processBlocks(imageSegment, (rowIndex, columnIndex) -> {
+        processBlocks(imageSegment, rowListener, (rowIndex, columnIndex) -> {
+            // The blocks are decoded in sequence, so even the blocks that are not drawn have to be decoded
             BufferedImage img = renderer.getImageBlock(rowIndex, columnIndex);
+            if (!blockFilter.isBlockRendered(rowIndex, columnIndex)) {
+                return;
+            }
             target.drawImage(img,
-                    imageSegment.getImageLocationColumn() + columnIndex
+                    originColumn + columnIndex
                             * (int) imageSegment.getNumberOfPixelsPerBlockHorizontal(),
-                    imageSegment.getImageLocationRow()
+                    originRow
                             + rowIndex * (int) imageSegment.getNumberOfPixelsPerBlockVertical(),
                     null);
         });
     }
 
-    private void renderJPEG(final ImageSegment imageSegment, final Graphics2D targetGraphic, final ImageMask imageMask) throws IOException {
+    private void renderJPEG(final ImageSegment imageSegment, final Graphics2D targetGraphic, final ImageMask imageMask,
+            final BlockFilter blockFilter, final BlockRowListener rowListener) throws IOException {
         ImageReader reader = getImageReader("image/jpeg");
         reader.setInput(imageSegment.getData());
         ThreadLocal<Integer> maskedBlocks = new ThreadLocal<Integer>();
         maskedBlocks.set(0);
 
-        processBlocks(imageSegment, (rowIndex, columnIndex) -> {
+        processBlocks(imageSegment, rowListener, (rowIndex, columnIndex) -> {
             if (imageMask != null && imageMask.isMaskedBlock((rowIndex * imageSegment.getNumberOfBlocksPerRow() + columnIndex), 0)) {
                 maskedBlocks.set(maskedBlocks.get() + 1);
                 return;
             }
+            if (!blockFilter.isBlockRendered(rowIndex, columnIndex)) {
+                return;
+            }
 
             BufferedImage img = reader.read(
                     (columnIndex + rowIndex * imageSegment.getNumberOfBlocksPerColumn()) - maskedBlocks.get());
@@ -148,7 +292,8 @@ public class NitfRenderer {
         });
     }
 
-    private void renderJPEG2k(final ImageSegment imageSegment, final Graphics2D targetGraphic) throws IOException {
+    private void renderJPEG2k(final ImageSegment imageSegment, final Graphics2D targetGraphic, final BlockFilter blockFilter,
+            final BlockRowListener rowListener) throws IOException {
         final ImageReader reader = getImageReader("image/jp2");
         reader.setInput(imageSegment.getData(), true, true);
         final ImageReadParam param = reader.getDefaultReadParam();
@@ -158,7 +303,10 @@ public class NitfRenderer {
             param.setSourceBands(sourceBands);
         }
 
-        processBlocks(imageSegment, (r, c) -> {
+        processBlocks(imageSegment, rowListener, (r, c) -> {
+                    if (!blockFilter.isBlockRendered(r, c)) {
+                        return;
+                    }
                     Rectangle rect = new Rectangle((int) (c * imageSegment.getNumberOfPixelsPerBlockHorizontal()),
                             (int) (r * imageSegment.getNumberOfPixelsPerBlockVertical()),
                             (int) imageSegment.getNumberOfPixelsPerBlockHorizontal(),
@@ -203,13 +351,26 @@ public class NitfRenderer {
         return imageBandAry;
     }
 
-    private void processBlocks(final ImageSegment imageSegment, final BlockConsumer consumer)
+    private void processBlocks(final ImageSegment imageSegment, final BlockRowListener rowListener, final BlockConsumer consumer)
             throws IOException {
         for (int rowIndex = 0; rowIndex < imageSegment.getNumberOfBlocksPerColumn(); ++rowIndex) {
             for (int columnIndex = 0; columnIndex < imageSegment.getNumberOfBlocksPerRow(); ++columnIndex) {
                 consumer.acccept(rowIndex, columnIndex);
             }
+            rowListener.blockRowRendered(rowIndex);
+        }
+    }
+
+    private long countRenderedBlocks(final ImageSegment imageSegment, final BlockFilter blockFilter) {
+        long count = 0;
+        for (int rowIndex = 0; rowIndex < imageSegment.getNumberOfBlocksPerColumn(); ++rowIndex) {
+            for (int columnIndex = 0; columnIndex < imageSegment.getNumberOfBlocksPerRow(); ++columnIndex) {
+                if (blockFilter.isBlockRendered(rowIndex, columnIndex)) {
+                    count++;
+                }
+            }
         }
+        return count;
     }
 
     private void skipToMarker(final ImageInputStream imageInputStream, final JpegMarkerCode markerCode) throws IOException {
@@ -58,6 +58,65 @@ public final class DataReaderFactory {
         }
     }
 
+    /**
+     * Get an appropriate bulk data reader for the specified image segment.
+     *
+     * The reader returns the same values as the reader from forImageSegment(), but reads runs of samples for a single
+     * band at a time, using a SampleUnpacker. Nominal bits per pixel that forImageSegment() does not handle are
+     * scaled in the same way as those that it does, up to 16 bits, and returned unchanged from 17 to 32 bits.
+     *
+     * @param segment the image segment specifying the image characteristics to
+     * be read.
+     * @return a reader for runs of samples, or null if the nominal bits per pixel is not between 1 and 32.
+     */
+    public static SampleArrayReader arrayReaderForImageSegment(final ImageSegment segment) {
+        final int bitsPerPixel = segment.getNumberOfBitsPerPixelPerBand();
+        if ((bitsPerPixel < 1) || (bitsPerPixel > Integer.SIZE)) {
+            return null;
+        }
+        final int bitShift = getSampleShift(segment);
+        final SampleUnpacker unpacker = new SampleUnpacker(bitsPerPixel);
+        if (bitShift == 0) {
+            return unpacker::unpack;
+        }
+        return (imageInputStream, samples, offset, count) -> {
+            unpacker.unpack(imageInputStream, samples, offset, count);
+            for (int i = offset; i < offset + count; ++i) {
+                samples[i] <<= bitShift;
+            }
+        };
+    }
+
+    /**
+     * Get the number of bits that the data readers shift each sample value left by.
+     *
+     * Sample values are scaled up to the full range of 8 or 16 bits, so shifting the values returned by the readers
+     * right by this amount recovers the value stored in the file.
+     *
+     * @param segment the image segment specifying the image characteristics to
+     * be read.
+     * @return the left shift applied to each sample value.
+     */
+    public static int getSampleShift(final ImageSegment segment) {
+        final int bitsPerPixel = segment.getNumberOfBitsPerPixelPerBand();
+        int significantBits = bitsPerPixel;
+        if ((segment.getActualBitsPerPixelPerBand() != bitsPerPixel)
+                && (segment.getActualBitsPerPixelPerBand() > 0)
+                && (segment.getActualBitsPerPixelPerBand() < bitsPerPixel)
+                && (segment.getPixelJustification() == PixelJustification.RIGHT)) {
+            significantBits = segment.getActualBitsPerPixelPerBand();
+        }
+        final int bitShift;
+        if ((bitsPerPixel == 1) || (bitsPerPixel > Short.SIZE)) {
+            bitShift = 0;
+        } else if (bitsPerPixel <= Byte.SIZE) {
+            bitShift = Byte.SIZE - significantBits;
+        } else {
+            bitShift = Short.SIZE - significantBits;
+        }
+        return bitShift;
+    }
+
     private static IOReaderFunction getBitshiftReader(final ImageSegment segment) {
         if (segment.getNumberOfBitsPerPixelPerBand() <= Byte.SIZE) {
             return new Bitshift8IOReaderFunction(segment);
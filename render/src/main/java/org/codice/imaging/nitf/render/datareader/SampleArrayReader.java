@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.datareader;
+
+import java.io.IOException;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Interface for reading runs of band samples from an ImageInputStream.
+ *
+ * This is the bulk equivalent of IOReaderFunction, and implementations return the same values for each sample.
+ */
+@FunctionalInterface
+public interface SampleArrayReader {
+
+    /**
+     * Read consecutive samples.
+     *
+     * @param imageInputStream the stream to read from, which is left positioned (including the bit offset) after the
+     * last sample read.
+     * @param samples the array to read the sample values into.
+     * @param offset the index in the array of the first sample.
+     * @param count the number of samples to read.
+     * @throws IOException if reading fails.
+     */
+    void read(ImageInputStream imageInputStream, int[] samples, int offset, int count) throws IOException;
+}
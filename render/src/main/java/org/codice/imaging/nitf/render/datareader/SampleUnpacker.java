@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.datareader;
+
+import java.io.IOException;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Unpacks runs of samples of 1 to 32 bits from an ImageInputStream.
+ *
+ * Samples are packed with no padding, most significant bit first, and need not start on a byte boundary. The bytes
+ * for the whole run are read with a single readFully() call and unpacked in one pass, with dedicated loops for 8, 12
+ * (two samples in three bytes) and 16 bit samples.
+ *
+ * The read buffer is reused between calls, so an unpacker should not be shared between threads.
+ */
+public final class SampleUnpacker {
+
+    private static final int MAX_BITS_PER_SAMPLE = 32;
+    private static final int TWELVE_BITS = 12;
+    private static final int TWELVE_BIT_PAIR_BYTES = 3;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int NIBBLE_MASK = 0x0F;
+    private static final int NIBBLE_SIZE = 4;
+    private static final int INITIAL_BUFFER_LENGTH = 4096;
+
+    private final int bitsPerSample;
+    private final long sampleMask;
+    private byte[] buffer = new byte[INITIAL_BUFFER_LENGTH];
+
+    /**
+     * Constructor.
+     *
+     * @param bits the number of bits in each sample, from 1 to 32.
+     */
+    public SampleUnpacker(final int bits) {
+        if ((bits < 1) || (bits > MAX_BITS_PER_SAMPLE)) {
+            throw new IllegalArgumentException("SampleUnpacker: unsupported number of bits per sample: " + bits);
+        }
+        bitsPerSample = bits;
+        sampleMask = (1L << bits) - 1;
+    }
+
+    /**
+     * Read and unpack consecutive samples.
+     *
+     * @param imageInputStream the stream to read from, which is left positioned (including the bit offset) after the
+     * last sample read.
+     * @param samples the array to unpack into, with each sample as an unsigned value.
+     * @param offset the index in the array of the first sample.
+     * @param count the number of samples to read.
+     * @throws IOException if reading fails.
+     */
+    public void unpack(final ImageInputStream imageInputStream, final int[] samples, final int offset, final int count)
+            throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        int startBit = imageInputStream.getBitOffset();
+        long startPosition = imageInputStream.getStreamPosition();
+        long totalBits = startBit + (long) count * bitsPerSample;
+        int numBytes = (int) ((totalBits + Byte.SIZE - 1) / Byte.SIZE);
+        if (buffer.length < numBytes) {
+            buffer = new byte[numBytes];
+        }
+        imageInputStream.readFully(buffer, 0, numBytes);
+
+        if ((startBit == 0) && (bitsPerSample == Byte.SIZE)) {
+            unpack8(samples, offset, count);
+        } else if ((startBit == 0) && (bitsPerSample == TWELVE_BITS)) {
+            unpack12(samples, offset, count);
+        } else if ((startBit == 0) && (bitsPerSample == Short.SIZE)) {
+            unpack16(samples, offset, count);
+        } else {
+            unpackBits(samples, offset, count, startBit);
+        }
+
+        if (totalBits % Byte.SIZE != 0) {
+            imageInputStream.seek(startPosition + totalBits / Byte.SIZE);
+            imageInputStream.setBitOffset((int) (totalBits % Byte.SIZE));
+        }
+    }
+
+    private void unpack8(final int[] samples, final int offset, final int count) {
+        for (int i = 0; i < count; ++i) {
+            samples[offset + i] = buffer[i] & BYTE_MASK;
+        }
+    }
+
+    private void unpack12(final int[] samples, final int offset, final int count) {
+        int b = 0;
+        int i = offset;
+        int end = offset + count;
+        while (i + 1 < end) {
+            int b0 = buffer[b] & BYTE_MASK;
+            int b1 = buffer[b + 1] & BYTE_MASK;
+            int b2 = buffer[b + 2] & BYTE_MASK;
+            samples[i] = (b0 << NIBBLE_SIZE) | (b1 >>> NIBBLE_SIZE);
+            samples[i + 1] = ((b1 & NIBBLE_MASK) << Byte.SIZE) | b2;
+            b += TWELVE_BIT_PAIR_BYTES;
+            i += 2;
+        }
+        if (i < end) {
+            samples[i] = ((buffer[b] & BYTE_MASK) << NIBBLE_SIZE) | ((buffer[b + 1] & BYTE_MASK) >>> NIBBLE_SIZE);
+        }
+    }
+
+    private void unpack16(final int[] samples, final int offset, final int count) {
+        for (int i = 0, b = 0; i < count; ++i, b += 2) {
+            samples[offset + i] = ((buffer[b] & BYTE_MASK) << Byte.SIZE) | (buffer[b + 1] & BYTE_MASK);
+        }
+    }
+
+    private void unpackBits(final int[] samples, final int offset, final int count, final int startBit) {
+        long accumulator = buffer[0] & (BYTE_MASK >>> startBit);
+        int accumulatorBits = Byte.SIZE - startBit;
+        int b = 1;
+        for (int i = 0; i < count; ++i) {
+            while (accumulatorBits < bitsPerSample) {
+                accumulator = (accumulator << Byte.SIZE) | (buffer[b++] & BYTE_MASK);
+                accumulatorBits += Byte.SIZE;
+            }
+            accumulatorBits -= bitsPerSample;
+            samples[offset + i] = (int) ((accumulator >>> accumulatorBits) & sampleMask);
+            accumulator &= (1L << accumulatorBits) - 1;
+        }
+    }
+}
@@ -22,6 +22,9 @@
  * and actual) and pixel justification (whether valid bits are left or right
  * justified within nominal bits).
  *
+ * SampleArrayReader is the equivalent for runs of samples, reading the packed
+ * bytes in bulk and unpacking them with a SampleUnpacker.
+ *
  */
 
 package org.codice.imaging.nitf.render.datareader;
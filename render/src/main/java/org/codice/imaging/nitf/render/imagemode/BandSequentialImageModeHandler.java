@@ -16,12 +16,16 @@
 package org.codice.imaging.nitf.render.imagemode;
 
 import java.awt.Graphics2D;
-import java.awt.image.DataBuffer;
 import java.io.IOException;
+import java.util.stream.IntStream;
 import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.image.ImageMode;
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.BlockFilter;
+import org.codice.imaging.nitf.render.BlockRowListener;
 import org.codice.imaging.nitf.render.ImageMask;
+import org.codice.imaging.nitf.render.datareader.DataReaderFactory;
+import org.codice.imaging.nitf.render.datareader.SampleArrayReader;
 import org.codice.imaging.nitf.render.imagerep.ImageRepresentationHandler;
 
 class BandSequentialImageModeHandler extends BaseImageModeHandler implements ImageModeHandler {
@@ -36,43 +40,65 @@ class BandSequentialImageModeHandler extends BaseImageModeHandler implements Ima
      * {@inheritDoc}
      */
     @Override
-    public void handleImage(final ImageSegment imageSegment, final Graphics2D targetImage) throws IOException {
+    public void handleImage(final ImageSegment imageSegment, final Graphics2D targetImage, final BlockFilter blockFilter,
+            final BlockRowListener rowListener) throws IOException {
 
         checkNull(imageSegment, "imageSegment");
         checkNull(targetImage, "targetImage");
         checkImageMode(imageSegment);
 
+        final ImageInputStream imageInputStream = imageSegment.getData();
+        final long dataStart = imageInputStream.getStreamPosition();
         final ImageMask imageMask = getImageMask(imageSegment);
 
         ImageBlockMatrix matrix = new ImageBlockMatrix(imageSegment, ()
                 -> imageRepresentationHandler.createBufferedImage((int) imageSegment.getNumberOfPixelsPerBlockHorizontal(),
                         (int) imageSegment.getNumberOfPixelsPerBlockVertical()));
 
-        for (int bandIndex = 0; bandIndex < imageSegment.getNumBands(); bandIndex++) {
-            final int index = bandIndex;
-
-            matrix.forEachBlock(block -> {
-                if (!imageMask.isMaskedBlock(block.getBlockIndex(), index)) {
-                    readBlock(block, imageSegment.getData(), index);
-                    applyMask(block, imageMask);
+        final SampleArrayReader sampleReader = DataReaderFactory.arrayReaderForImageSegment(imageSegment);
+        final long bitsPerBlock = imageSegment.getNumberOfPixelsPerBlockHorizontal() * imageSegment.getNumberOfPixelsPerBlockVertical()
+                * imageSegment.getNumberOfBitsPerPixelPerBand();
+        final long numBlocks = (long) imageSegment.getNumberOfBlocksPerRow() * imageSegment.getNumberOfBlocksPerColumn();
+        final long blockedDataBitStart = (dataStart + imageMask.getImageDataOffset()) * Byte.SIZE;
+        final int[] renderedBands = IntStream.range(0, imageSegment.getNumBands()).filter(imageRepresentationHandler::isBandRendered).toArray();
+        final int lastRenderedBand = getLastRenderedBand(imageSegment);
+        final int[] samples = new int[(int) (imageSegment.getNumberOfPixelsPerBlockHorizontal()
+                * imageSegment.getNumberOfPixelsPerBlockVertical())];
+
+        // Each band of a block is read from its own offset, so a block is complete, and can be drawn, as soon as its
+        // last rendered band has been read. Only one block image is held at a time.
+        matrix.forEachBlock(block -> {
+            if (!blockFilter.isBlockRendered(block.getRowIndex(), block.getColumnIndex())) {
+                return;
+            }
+            for (int bandIndex : renderedBands) {
+                if (imageMask.isMaskedBlock(block.getBlockIndex(), bandIndex)) {
+                    continue;
                 }
-            });
-        }
-
-        matrix.forEachBlock((block) -> block.render(targetImage, true));
+                long bitPosition = blockedDataBitStart;
+                if (imageMask.hasBlockMask()) {
+                    bitPosition += imageMask.getBlockOffset(block.getBlockIndex(), bandIndex) * Byte.SIZE;
+                } else {
+                    bitPosition += (bandIndex * numBlocks + block.getBlockIndex()) * bitsPerBlock;
+                }
+                ImageMask padPixelMask = null;
+                if (bandIndex == lastRenderedBand) {
+                    padPixelMask = getPadPixelMask(imageMask, block.getBlockIndex(), bandIndex);
+                }
+                readBlock(block, imageInputStream, sampleReader, samples, bitPosition, bandIndex, padPixelMask);
+            }
+            block.render(targetImage, true);
+        }, rowListener);
     }
 
-    private void readBlock(final ImageBlock block, final ImageInputStream imageInputStream, final int bandIndex) {
-
-        final DataBuffer data = block.getDataBuffer();
+    private void readBlock(final ImageBlock block, final ImageInputStream imageInputStream, final SampleArrayReader sampleReader,
+            final int[] samples, final long bitPosition, final int bandIndex, final ImageMask padPixelMask) {
 
         try {
-            for (int row = 0; row < block.getHeight(); row++) {
-                for (int column = 0; column < block.getWidth(); column++) {
-                    int i = row * block.getWidth() + column;
-                    imageRepresentationHandler.renderPixelBand(data, i, imageInputStream, bandIndex);
-                }
-            }
+            imageInputStream.seek(bitPosition / Byte.SIZE);
+            imageInputStream.setBitOffset((int) (bitPosition % Byte.SIZE));
+            sampleReader.read(imageInputStream, samples, 0, samples.length);
+            imageRepresentationHandler.renderSamples(block.getDataBuffer(), 0, samples, 0, 1, bandIndex, padPixelMask);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -15,6 +15,7 @@
 package org.codice.imaging.nitf.render.imagemode;
 
 import java.io.IOException;
+import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.image.ImageCompression;
 import org.codice.imaging.nitf.core.image.ImageMode;
 import org.codice.imaging.nitf.core.image.ImageSegment;
@@ -53,13 +54,66 @@ abstract class BaseImageModeHandler implements ImageModeHandler {
         }
     }
 
-    protected void applyMask(final ImageBlock block, final ImageMask imageMask) {
-        if ((imageMask != null) && (imageMask.hasPixelMasks())) {
-            final int dataSize = block.getWidth() * block.getHeight();
+    /**
+     * Skip over samples in the image data without reading them.
+     *
+     * Samples are not necessarily byte aligned, so this moves the stream by a number of bits, leaving the bit offset
+     * where reading the samples would have left it.
+     *
+     * @param imageInputStream the stream to skip within.
+     * @param numBits the number of bits to skip.
+     * @throws IOException if the stream could not be repositioned.
+     */
+    protected void skipBits(final ImageInputStream imageInputStream, final long numBits) throws IOException {
+        long bitPosition = imageInputStream.getStreamPosition() * Byte.SIZE + imageInputStream.getBitOffset() + numBits;
+        imageInputStream.seek(bitPosition / Byte.SIZE);
+        imageInputStream.setBitOffset((int) (bitPosition % Byte.SIZE));
+    }
+
+    /**
+     * Skip over a block that is not rendered.
+     *
+     * This is for use within block iteration, so any failure to reposition the stream is rethrown unchecked, in the
+     * same way as for reading a block.
+     *
+     * @param imageInputStream the stream to skip within.
+     * @param bitsPerBlock the number of bits in the block.
+     */
+    protected void skipBlock(final ImageInputStream imageInputStream, final long bitsPerBlock) {
+        try {
+            skipBits(imageInputStream, bitsPerBlock);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get the image mask to use for pad pixel replacement in a block.
+     *
+     * @param imageMask the image mask for the image.
+     * @param blockIndex the index of the block.
+     * @param bandIndex the band being rendered (only used for Band Sequential).
+     * @return the image mask if the block may contain pad pixels, otherwise null.
+     */
+    protected ImageMask getPadPixelMask(final ImageMask imageMask, final int blockIndex, final int bandIndex) {
+        if (imageMask.hasPadPixels(blockIndex, bandIndex)) {
+            return imageMask;
+        }
+        return null;
+    }
 
-            for (int pixelIndex = 0; pixelIndex < dataSize; ++pixelIndex) {
-                imageRepresentationHandler.renderPadPixel(imageMask, block.getDataBuffer(), pixelIndex);
+    /**
+     * Get the last band that is rendered, which is where pad pixel replacement is done.
+     *
+     * @param imageSegment the image segment being rendered.
+     * @return the zero-based index of the last rendered band, or -1 if no band is rendered.
+     */
+    protected int getLastRenderedBand(final ImageSegment imageSegment) {
+        for (int bandIndex = imageSegment.getNumBands() - 1; bandIndex >= 0; bandIndex--) {
+            if (imageRepresentationHandler.isBandRendered(bandIndex)) {
+                return bandIndex;
             }
         }
+        return -1;
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.imagemode;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.codice.imaging.nitf.core.image.ImageMode;
+import org.codice.imaging.nitf.core.image.ImageRepresentation;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.PixelValueType;
+import org.codice.imaging.nitf.render.BlockFilter;
+import org.codice.imaging.nitf.render.BlockRowListener;
+import org.codice.imaging.nitf.render.ImageMask;
+import org.codice.imaging.nitf.render.datareader.DataReaderFactory;
+
+/**
+ * ImageModeHandler for uncompressed images where the block layout in the file is already a Java raster layout.
+ *
+ * This covers 8 and 16 bit mono images, and pixel interleaved 8 bit RGB images. Each block is read with a single
+ * readFully() into the backing array of a pixel interleaved raster, without decoding individual samples.
+ */
+class DirectRasterImageModeHandler extends BaseImageModeHandler implements ImageModeHandler {
+
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+    private static final int UNSIGNED_SHORT_MASK = 0xFFFF;
+    private static final int NUM_RGB_BANDS = 3;
+    private static final String[] RGB_BAND_REPRESENTATIONS = {"R", "G", "B"};
+
+    private final ImageMode imageMode;
+    private final int numBands;
+    private final int[] bandOffsets;
+    private final int dataType;
+    private final ColorModel colourModel;
+
+    /**
+     * Constructor.
+     *
+     * @param imageSegment the image segment to be rendered, which must be supported.
+     */
+    DirectRasterImageModeHandler(final ImageSegment imageSegment) {
+        imageMode = imageSegment.getImageMode();
+        numBands = imageSegment.getNumBands();
+        if (imageSegment.getNumberOfBitsPerPixelPerBand() == Short.SIZE) {
+            dataType = DataBuffer.TYPE_USHORT;
+        } else {
+            dataType = DataBuffer.TYPE_BYTE;
+        }
+        if (numBands == NUM_RGB_BANDS) {
+            bandOffsets = getRgbBandOffsets(imageSegment);
+            colourModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), false, false, Transparency.OPAQUE, dataType);
+        } else {
+            bandOffsets = new int[] {0};
+            colourModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY), false, false, Transparency.OPAQUE, dataType);
+        }
+    }
+
+    /**
+     * Check whether an image segment can be rendered directly from the file layout.
+     *
+     * @param imageSegment the image segment to check.
+     * @return true if the samples in each block are already in raster order, and need no shifting or masking.
+     */
+    static boolean isSupported(final ImageSegment imageSegment) {
+        if ((imageSegment.getPixelValueType() != PixelValueType.INTEGER) || (DataReaderFactory.getSampleShift(imageSegment) != 0)) {
+            return false;
+        }
+        int bitsPerPixel = imageSegment.getNumberOfBitsPerPixelPerBand();
+        if (isSingleBandMono(imageSegment)) {
+            return ((imageSegment.getImageCompression() == ImageCompression.NOTCOMPRESSED)
+                    || (imageSegment.getImageCompression() == ImageCompression.NOTCOMPRESSEDMASK))
+                    && ((bitsPerPixel == Byte.SIZE) || (bitsPerPixel == Short.SIZE));
+        }
+        // RGB pad pixels are rendered transparent, so masked RGB images are left to the sample decoding handlers
+        return (imageSegment.getImageRepresentation() == ImageRepresentation.RGBTRUECOLOUR)
+                && (imageSegment.getImageCompression() == ImageCompression.NOTCOMPRESSED)
+                && (imageSegment.getImageMode() == ImageMode.PIXELINTERLEVE)
+                && (imageSegment.getNumBands() == NUM_RGB_BANDS)
+                && (bitsPerPixel == Byte.SIZE)
+                && (getRgbBandOffsets(imageSegment) != null);
+    }
+
+    private static boolean isSingleBandMono(final ImageSegment imageSegment) {
+        if (imageSegment.getNumBands() != 1) {
+            return false;
+        }
+        // A single multiband band is rendered as mono unless it is mapped through a lookup table
+        return (imageSegment.getImageRepresentation() == ImageRepresentation.MONOCHROME)
+                || ((imageSegment.getImageRepresentation() == ImageRepresentation.MULTIBAND)
+                        && !"LU".equals(imageSegment.getImageBandZeroBase(0).getImageRepresentation()));
+    }
+
+    private static int[] getRgbBandOffsets(final ImageSegment imageSegment) {
+        int[] offsets = new int[NUM_RGB_BANDS];
+        for (int i = 0; i < NUM_RGB_BANDS; i++) {
+            offsets[i] = -1;
+            for (int bandIndex = 0; bandIndex < NUM_RGB_BANDS; bandIndex++) {
+                if (RGB_BAND_REPRESENTATIONS[i].equals(imageSegment.getImageBandZeroBase(bandIndex).getImageRepresentation())) {
+                    offsets[i] = bandIndex;
+                }
+            }
+            if (offsets[i] < 0) {
+                return null;
+            }
+        }
+        return offsets;
+    }
+
+    @Override
+    protected String getHandlerName() {
+        return "DirectRasterImageModeHandler";
+    }
+
+    @Override
+    protected ImageMode getSupportedImageMode() {
+        return imageMode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handleImage(final ImageSegment imageSegment, final Graphics2D targetImage, final BlockFilter blockFilter,
+            final BlockRowListener rowListener) throws IOException {
+        checkNull(imageSegment, "imageSegment");
+        checkNull(targetImage, "targetImage");
+        checkImageMode(imageSegment);
+
+        final ImageMask imageMask = getImageMask(imageSegment);
+        final ImageInputStream imageInputStream = imageSegment.getData();
+        final int blockWidth = (int) imageSegment.getNumberOfPixelsPerBlockHorizontal();
+        final int blockHeight = (int) imageSegment.getNumberOfPixelsPerBlockVertical();
+
+        ImageBlockMatrix matrix = new ImageBlockMatrix(imageSegment, () -> createBufferedImage(blockWidth, blockHeight));
+
+        final long bitsPerBlock = (long) blockWidth * blockHeight * numBands * imageSegment.getNumberOfBitsPerPixelPerBand();
+
+        // NITF data is big endian, which readFully() converts to native 16 bit samples
+        final ByteOrder byteOrder = imageInputStream.getByteOrder();
+        imageInputStream.setByteOrder(ByteOrder.BIG_ENDIAN);
+        try {
+            matrix.forEachBlock(block -> {
+                if (imageMask.isMaskedBlock(block.getBlockIndex(), 0)) {
+                    return;
+                }
+                if (blockFilter.isBlockRendered(block.getRowIndex(), block.getColumnIndex())) {
+                    readBlock(block.getDataBuffer(), imageInputStream, getPadPixelMask(imageMask, block.getBlockIndex(), 0));
+                    block.render(targetImage, true);
+                } else {
+                    skipBlock(imageInputStream, bitsPerBlock);
+                }
+            }, rowListener);
+        } finally {
+            imageInputStream.setByteOrder(byteOrder);
+        }
+    }
+
+    private BufferedImage createBufferedImage(final int width, final int height) {
+        return new BufferedImage(colourModel,
+                Raster.createInterleavedRaster(dataType, width, height, width * numBands, numBands, bandOffsets, null),
+                false,
+                null);
+    }
+
+    /**
+     * Read one block into the backing array of the block raster.
+     *
+     * @param dataBuffer the data buffer of the block raster.
+     * @param imageInputStream the image data, positioned at the start of the block.
+     * @param padPixelMask the image mask to apply, or null if the block has no pad pixels.
+     */
+    private void readBlock(final DataBuffer dataBuffer, final ImageInputStream imageInputStream, final ImageMask padPixelMask) {
+        try {
+            if (dataType == DataBuffer.TYPE_USHORT) {
+                final short[] samples = ((DataBufferUShort) dataBuffer).getData();
+                imageInputStream.readFully(samples, 0, samples.length);
+                if (padPixelMask != null) {
+                    for (int i = 0; i < samples.length; ++i) {
+                        if (padPixelMask.isPadPixel(samples[i] & UNSIGNED_SHORT_MASK)) {
+                            samples[i] = 0;
+                        }
+                    }
+                }
+            } else {
+                final byte[] samples = ((DataBufferByte) dataBuffer).getData();
+                imageInputStream.readFully(samples);
+                if (padPixelMask != null) {
+                    for (int i = 0; i < samples.length; ++i) {
+                        if (padPixelMask.isPadPixel(samples[i] & UNSIGNED_BYTE_MASK)) {
+                            samples[i] = 0;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -104,6 +104,24 @@ class ImageBlock {
         return blockHeight;
     }
 
+    /**
+     * Get the row of this image block in the larger image.
+     *
+     * @return the zero-based row index, in blocks.
+     */
+    public int getRowIndex() {
+        return blockRowIndex;
+    }
+
+    /**
+     * Get the column of this image block in the larger image.
+     *
+     * @return the zero-based column index, in blocks.
+     */
+    public int getColumnIndex() {
+        return blockColumnIndex;
+    }
+
     /**
      * Get the block index in standard rendering order.
      *
@@ -16,9 +16,11 @@
 package org.codice.imaging.nitf.render.imagemode;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.BlockRowListener;
 
 /**
  * The ImageMatrix represents image data stored in a rowcount x columncount matrix.
@@ -87,4 +89,20 @@ class ImageBlockMatrix {
             }
         }
     }
+
+    /**
+     * Process each block in turn, a row at a time.
+     *
+     * @param blockConsumer the consumer for each block.
+     * @param rowListener the listener to call after the last block of each row has been processed.
+     * @throws IOException if the listener fails.
+     */
+    public void forEachBlock(final Consumer<ImageBlock> blockConsumer, final BlockRowListener rowListener) throws IOException {
+        for (int i = 0; i < this.getMatrixWidth(); i++) {
+            for (int j = 0; j < this.getMatrixHeight(); j++) {
+                blockConsumer.accept(this.getImageBlock(i, j));
+            }
+            rowListener.blockRowRendered(i);
+        }
+    }
 }
@@ -17,6 +17,8 @@ package org.codice.imaging.nitf.render.imagemode;
 import java.awt.Graphics2D;
 import java.io.IOException;
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.BlockFilter;
+import org.codice.imaging.nitf.render.BlockRowListener;
 
 /**
  * An ImageModeHandler abstracts the processing of an ImageSegment based on the NITF Image Mode.
@@ -32,6 +34,38 @@ public interface ImageModeHandler {
      * @param targetImage the Graphics2D that the image will be rendered to.
      * @throws IOException propagated from the ImageInputStream.
      */
-    void handleImage(ImageSegment imageSegment, Graphics2D targetImage)
+    default void handleImage(ImageSegment imageSegment, Graphics2D targetImage)
+            throws IOException {
+        handleImage(imageSegment, targetImage, (rowIndex, columnIndex) -> true);
+    }
+
+    /**
+     * Handle rendering of selected blocks of this image segment to the specified target.
+     *
+     * Blocks that are not selected are skipped in the image data without being decoded, and are not drawn.
+     *
+     * @param imageSegment the ImageSegment for the image being rendered.
+     * @param targetImage the Graphics2D that the image will be rendered to.
+     * @param blockFilter the filter that selects the blocks to render.
+     * @throws IOException propagated from the ImageInputStream.
+     */
+    default void handleImage(ImageSegment imageSegment, Graphics2D targetImage, BlockFilter blockFilter)
+            throws IOException {
+        handleImage(imageSegment, targetImage, blockFilter, (rowIndex) -> { });
+    }
+
+    /**
+     * Handle rendering of selected blocks of this image segment to the specified target, reporting each row of blocks
+     * once it has been drawn.
+     *
+     * Blocks that are not selected are skipped in the image data without being decoded, and are not drawn.
+     *
+     * @param imageSegment the ImageSegment for the image being rendered.
+     * @param targetImage the Graphics2D that the image will be rendered to.
+     * @param blockFilter the filter that selects the blocks to render.
+     * @param rowListener the listener to call after each row of blocks has been drawn.
+     * @throws IOException propagated from the ImageInputStream, or from the listener.
+     */
+    void handleImage(ImageSegment imageSegment, Graphics2D targetImage, BlockFilter blockFilter, BlockRowListener rowListener)
             throws IOException;
 }
@@ -1,6 +1,7 @@
 package org.codice.imaging.nitf.render.imagemode;
 
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.DisplayTransform;
 import org.codice.imaging.nitf.render.imagerep.ImageRepresentationHandler;
 import org.codice.imaging.nitf.render.imagerep.ImageRepresentationHandlerFactory;
 
@@ -21,8 +22,25 @@ public final class ImageModeHandlerFactory {
      * could not be found.
      */
     public static ImageModeHandler forImageSegment(final ImageSegment imageSegment) {
+        return forImageSegment(imageSegment, null);
+    }
+
+    /**
+     * Get an appropriate image mode handler for the specified image segment, applying a display transform.
+     *
+     * @param imageSegment the image segment specifying the image
+     * characteristics.
+     * @param displayTransform the display transform, or null for none.
+     * @return a handler for the image mode, or null if an appropriate reader
+     * could not be found.
+     */
+    public static ImageModeHandler forImageSegment(final ImageSegment imageSegment, final DisplayTransform displayTransform) {
+        if ((displayTransform == null) && DirectRasterImageModeHandler.isSupported(imageSegment)) {
+            return new DirectRasterImageModeHandler(imageSegment);
+        }
+
         ImageRepresentationHandler imageRepresentationHandler =
-                ImageRepresentationHandlerFactory.forImageSegment(imageSegment);
+                ImageRepresentationHandlerFactory.forImageSegment(imageSegment, displayTransform);
 
         if (imageRepresentationHandler == null) {
             return null;
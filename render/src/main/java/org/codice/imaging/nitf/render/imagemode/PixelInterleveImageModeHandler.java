@@ -16,8 +16,11 @@ package org.codice.imaging.nitf.render.imagemode;
 
 import java.awt.image.DataBuffer;
 import java.io.IOException;
+import java.util.stream.IntStream;
 import org.codice.imaging.nitf.core.image.ImageMode;
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.ImageMask;
+import org.codice.imaging.nitf.render.datareader.SampleArrayReader;
 import org.codice.imaging.nitf.render.imagerep.ImageRepresentationHandler;
 
 /**
@@ -40,17 +43,35 @@ class PixelInterleveImageModeHandler extends SharedImageModeHandler implements I
     }
 
     @Override
-    protected void readBlock(final ImageBlock block, final ImageSegment imageSegment) {
+    protected int[] createSampleArray(final ImageSegment imageSegment) {
+        return new int[(int) imageSegment.getNumberOfPixelsPerBlockHorizontal() * imageSegment.getNumBands()];
+    }
+
+    /**
+     * Read a whole row of pixels at a time, and render each band from the row with a strided index.
+     */
+    @Override
+    protected void readBlock(final ImageBlock block, final ImageSegment imageSegment, final SampleArrayReader sampleReader,
+            final int[] samples, final ImageMask padPixelMask) {
 
         final DataBuffer data = block.getDataBuffer();
+        final int numBands = imageSegment.getNumBands();
+        final int[] renderedBands = IntStream.range(0, numBands).filter(imageRepresentationHandler::isBandRendered).toArray();
 
         try {
+            if (renderedBands.length == 0) {
+                skipBits(imageSegment.getData(), (long) samples.length * block.getHeight() * imageSegment.getNumberOfBitsPerPixelPerBand());
+                return;
+            }
+            final int lastRenderedBand = renderedBands[renderedBands.length - 1];
             for (int row = 0; row < block.getHeight(); row++) {
-                for (int column = 0; column < block.getWidth(); column++) {
-                    for (int bandIndex = 0; bandIndex < imageSegment.getNumBands(); bandIndex++) {
-                        int i = row * block.getWidth() + column;
-                        imageRepresentationHandler.renderPixelBand(data, i, imageSegment.getData(), bandIndex);
+                sampleReader.read(imageSegment.getData(), samples, 0, samples.length);
+                for (int bandIndex : renderedBands) {
+                    ImageMask mask = null;
+                    if (bandIndex == lastRenderedBand) {
+                        mask = padPixelMask;
                     }
+                    imageRepresentationHandler.renderSamples(data, row * block.getWidth(), samples, bandIndex, numBands, bandIndex, mask);
                 }
             }
         } catch (IOException e) {
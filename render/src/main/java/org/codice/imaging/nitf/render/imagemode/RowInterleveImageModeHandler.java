@@ -16,8 +16,11 @@ package org.codice.imaging.nitf.render.imagemode;
 
 import java.awt.image.DataBuffer;
 import java.io.IOException;
+import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.image.ImageMode;
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.ImageMask;
+import org.codice.imaging.nitf.render.datareader.SampleArrayReader;
 import org.codice.imaging.nitf.render.imagerep.ImageRepresentationHandler;
 
 /**
@@ -41,17 +44,32 @@ class RowInterleveImageModeHandler extends SharedImageModeHandler implements Ima
     }
 
     @Override
-    protected void readBlock(final ImageBlock block, final ImageSegment imageSegment) {
+    protected int[] createSampleArray(final ImageSegment imageSegment) {
+        return new int[(int) imageSegment.getNumberOfPixelsPerBlockHorizontal()];
+    }
+
+    @Override
+    protected void readBlock(final ImageBlock block, final ImageSegment imageSegment, final SampleArrayReader sampleReader,
+            final int[] samples, final ImageMask padPixelMask) {
 
         final DataBuffer data = block.getDataBuffer();
+        final ImageInputStream imageInputStream = imageSegment.getData();
+        final long bitsPerRow = (long) block.getWidth() * imageSegment.getNumberOfBitsPerPixelPerBand();
+        final int lastRenderedBand = getLastRenderedBand(imageSegment);
 
         try {
             for (int row = 0; row < block.getHeight(); row++) {
                 for (int bandIndex = 0; bandIndex < imageSegment.getNumBands(); bandIndex++) {
-                    for (int column = 0; column < block.getWidth(); column++) {
-                        int i = row * block.getWidth() + column;
-                        imageRepresentationHandler.renderPixelBand(data, i, imageSegment.getData(), bandIndex);
+                    if (!imageRepresentationHandler.isBandRendered(bandIndex)) {
+                        skipBits(imageInputStream, bitsPerRow);
+                        continue;
+                    }
+                    sampleReader.read(imageInputStream, samples, 0, block.getWidth());
+                    ImageMask mask = null;
+                    if (bandIndex == lastRenderedBand) {
+                        mask = padPixelMask;
                     }
+                    imageRepresentationHandler.renderSamples(data, row * block.getWidth(), samples, 0, 1, bandIndex, mask);
                 }
             }
         } catch (IOException e) {
@@ -17,7 +17,11 @@ package org.codice.imaging.nitf.render.imagemode;
 import java.awt.Graphics2D;
 import java.io.IOException;
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.BlockFilter;
+import org.codice.imaging.nitf.render.BlockRowListener;
 import org.codice.imaging.nitf.render.ImageMask;
+import org.codice.imaging.nitf.render.datareader.DataReaderFactory;
+import org.codice.imaging.nitf.render.datareader.SampleArrayReader;
 import org.codice.imaging.nitf.render.imagerep.ImageRepresentationHandler;
 
 /**
@@ -34,27 +38,57 @@ abstract class SharedImageModeHandler extends BaseImageModeHandler implements Im
      * {@inheritDoc}
      */
     @Override
-    public void handleImage(final ImageSegment imageSegment, final Graphics2D targetImage) throws IOException {
+    public void handleImage(final ImageSegment imageSegment, final Graphics2D targetImage, final BlockFilter blockFilter,
+            final BlockRowListener rowListener) throws IOException {
         checkNull(imageSegment, "imageSegment");
         checkNull(targetImage, "targetImage");
         checkImageMode(imageSegment);
 
         final ImageMask imageMask = getImageMask(imageSegment);
+        final SampleArrayReader sampleReader = DataReaderFactory.arrayReaderForImageSegment(imageSegment);
+        final int[] samples = createSampleArray(imageSegment);
 
         ImageBlockMatrix matrix = new ImageBlockMatrix(imageSegment,
                 () -> imageRepresentationHandler.createBufferedImage((int) imageSegment.getNumberOfPixelsPerBlockHorizontal(),
                         (int) imageSegment.getNumberOfPixelsPerBlockVertical()));
 
+        final long bitsPerBlock = (long) imageSegment.getNumberOfPixelsPerBlockHorizontal()
+                * imageSegment.getNumberOfPixelsPerBlockVertical() * imageSegment.getNumBands()
+                * imageSegment.getNumberOfBitsPerPixelPerBand();
+
         matrix.forEachBlock(block -> {
-            if (!imageMask.isMaskedBlock(block.getBlockIndex(), 0)) {
-                readBlock(block, imageSegment);
-                applyMask(block, imageMask);
+            if (imageMask.isMaskedBlock(block.getBlockIndex(), 0)) {
+                return;
             }
-        });
-
-        matrix.forEachBlock((block) -> block.render(targetImage, true));
+            if (blockFilter.isBlockRendered(block.getRowIndex(), block.getColumnIndex())) {
+                readBlock(block, imageSegment, sampleReader, samples, getPadPixelMask(imageMask, block.getBlockIndex(), 0));
+                block.render(targetImage, true);
+            } else {
+                skipBlock(imageSegment.getData(), bitsPerBlock);
+            }
+        }, rowListener);
     }
 
-    protected abstract void readBlock(final ImageBlock block, final ImageSegment imageSegment);
+    /**
+     * Create the array that readBlock() reads samples into.
+     *
+     * The array is created once for each image and reused for every block.
+     *
+     * @param imageSegment the image segment being rendered.
+     * @return an array of the length that readBlock() reads at a time.
+     */
+    protected abstract int[] createSampleArray(final ImageSegment imageSegment);
+
+    /**
+     * Read and render one block.
+     *
+     * @param block the block to render into.
+     * @param imageSegment the image segment being rendered.
+     * @param sampleReader the reader for runs of samples.
+     * @param samples the array from createSampleArray() to read samples into.
+     * @param padPixelMask the image mask to apply with the last rendered band, or null if the block has no pad pixels.
+     */
+    protected abstract void readBlock(final ImageBlock block, final ImageSegment imageSegment, final SampleArrayReader sampleReader,
+            final int[] samples, final ImageMask padPixelMask);
 
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.imagerep;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.PixelJustification;
+import org.codice.imaging.nitf.render.DisplayTransform;
+import org.codice.imaging.nitf.render.ImageMask;
+import org.codice.imaging.nitf.render.datareader.DataReaderFactory;
+
+/**
+ * Image representation handler for mono (greyscale) images of up to 16 bits, with a display transform.
+ *
+ * The display transform is combined with the scaling applied by the data readers into a single lookup table when the
+ * handler is created, so each sample is converted to its 8 bit display value with one lookup as it is decoded.
+ */
+class DisplayTransformImageRepresentationHandler extends SharedMonoImageRepresentationHandler implements ImageRepresentationHandler {
+
+    private final byte[] displayValues = new byte[DisplayTransform.LOOKUP_TABLE_SIZE];
+
+    DisplayTransformImageRepresentationHandler(final int selectedBandZeroBase, final ImageSegment segment,
+            final DisplayTransform displayTransform) {
+        super(selectedBandZeroBase);
+        final int sampleShift = DataReaderFactory.getSampleShift(segment) + getJustificationShift(segment);
+        for (int sample = 0; sample < displayValues.length; ++sample) {
+            displayValues[sample] = (byte) displayTransform.apply(sample >>> sampleShift);
+        }
+    }
+
+    private static int getJustificationShift(final ImageSegment segment) {
+        final int actualBits = segment.getActualBitsPerPixelPerBand();
+        final int bitsPerPixel = segment.getNumberOfBitsPerPixelPerBand();
+        if ((segment.getPixelJustification() == PixelJustification.LEFT) && (actualBits > 0) && (actualBits < bitsPerPixel)) {
+            return bitsPerPixel - actualBits;
+        }
+        return 0;
+    }
+
+    @Override
+    public void renderSamples(final DataBuffer dataBuffer, final int pixelIndex, final int[] samples, final int sampleIndex,
+            final int sampleStride, final int bandIndex, final ImageMask imageMask) {
+        if (bandIndex != selectedBandZeroBase) {
+            return;
+        }
+        final byte[] pixels = ((DataBufferByte) dataBuffer).getData();
+        for (int i = 0, s = sampleIndex; s < samples.length; ++i, s += sampleStride) {
+            int value = samples[s] & UNSIGNED_SHORT_MASK;
+            if ((imageMask != null) && imageMask.isPadPixel(value)) {
+                pixels[pixelIndex + i] = 0x00;
+            } else {
+                pixels[pixelIndex + i] = displayValues[value];
+            }
+        }
+    }
+
+    @Override
+    public BufferedImage createBufferedImage(final int width, final int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+    }
+}
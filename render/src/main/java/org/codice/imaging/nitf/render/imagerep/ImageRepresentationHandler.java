@@ -16,8 +16,6 @@ package org.codice.imaging.nitf.render.imagerep;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
-import java.io.IOException;
-import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.render.ImageMask;
 
 /**
@@ -31,17 +29,37 @@ import org.codice.imaging.nitf.render.ImageMask;
 public interface ImageRepresentationHandler {
 
     /**
-     * Applies the bandValue to currentValue based on bandIndex.
+     * Applies band values that have already been read to a run of consecutive pixels.
+     *
+     * The values must be as returned by the reader from DataReaderFactory for the image segment. This is used by the
+     * image mode handlers, which read runs of samples at a time. Implementations write directly to the array backing
+     * the data buffer.
+     *
+     * If an image mask is provided, pad pixels are set to zero (transparent, for images with alpha) as each pixel is
+     * written, unless the colour model already handles them. The image mode handlers only provide the mask with the
+     * last rendered band, and only for blocks that may have pad pixels.
      *
      * @param dataBuffer the buffer that contains the pixel data.
-     * @param pixelIndex the index of the pixel being rendered.
-     * @param imageInputStream the stream that contains the image data.
+     * @param pixelIndex the index of the first pixel being rendered.
+     * @param samples the array holding the band values, which are taken from sampleIndex to the end of the array.
+     * @param sampleIndex the index in the array of the band value for the first pixel.
+     * @param sampleStride the distance in the array between the band values for consecutive pixels.
      * @param bandIndex the index of the band being applied, zero-based.
+     * @param imageMask the image mask for pad pixel replacement, or null if pad pixels are not to be replaced.
+     */
+    void renderSamples(DataBuffer dataBuffer, int pixelIndex, int[] samples, int sampleIndex, int sampleStride, int bandIndex,
+            ImageMask imageMask);
+
+    /**
+     * Check whether a band contributes to the rendered image.
      *
-     * @throws java.io.IOException if there is a problem reading from the imageInputStream
+     * Bands that do not contribute are skipped by the image mode handlers without being read, so renderSamples()
+     * is only called for bands where this returns true.
+     *
+     * @param bandIndex the index of the band, zero-based.
+     * @return true if the band is used to render the image, otherwise false.
      */
-    void renderPixelBand(DataBuffer dataBuffer, int pixelIndex, ImageInputStream imageInputStream, int bandIndex)
-            throws IOException;
+    boolean isBandRendered(int bandIndex);
 
     /**
      * Create a new image of the right type for this image handler.
@@ -52,13 +70,4 @@ public interface ImageRepresentationHandler {
      * the same object that was returned in a previous call.
      */
     BufferedImage createBufferedImage(int width, int height);
-
-    /**
-     * Apply image mask to one pixel within a block.
-     *
-     * @param imageMask the image mask information
-     * @param data the data buffer (corresponding the BufferedImage) to mask
-     * @param pixelIndex the pixel index within the block to operate on
-     */
-    void renderPadPixel(ImageMask imageMask, DataBuffer data, int pixelIndex);
 }
@@ -18,8 +18,8 @@ import java.util.HashMap;
 import java.util.Map;
 import org.codice.imaging.nitf.core.image.ImageBand;
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.DisplayTransform;
 import org.codice.imaging.nitf.render.datareader.DataReaderFactory;
-import org.codice.imaging.nitf.render.datareader.IOReaderFunction;
 
 /**
  * Factory class for creating image representation handlers.
@@ -42,14 +42,32 @@ public final class ImageRepresentationHandlerFactory {
      * appropriate handler could not be found.
      */
     public static ImageRepresentationHandler forImageSegment(final ImageSegment segment) {
+        return forImageSegment(segment, null);
+    }
+
+    /**
+     * Get an appropriate ImageRepresentationHandler for the specified image
+     * segment, applying a display transform.
+     *
+     * The display transform is applied to integer mono images of up to 16 bits
+     * per pixel, which are then rendered as 8 bit greyscale. Other images are
+     * rendered as for forImageSegment(segment).
+     *
+     * @param segment the image segment specifying the image characteristics to
+     * be read.
+     * @param displayTransform the display transform, or null for none.
+     * @return a handler for the segment, or a "no render" handler if an
+     * appropriate handler could not be found.
+     */
+    public static ImageRepresentationHandler forImageSegment(final ImageSegment segment, final DisplayTransform displayTransform) {
 
         switch (segment.getImageRepresentation()) {
             case MONOCHROME:
-                return getMonoImageRepresentationHandler(segment, 0);
+                return getMonoImageRepresentationHandler(segment, 0, displayTransform);
             case RGBTRUECOLOUR:
                 return getRgbImageRepresentationHandler(segment);
             case MULTIBAND:
-                return getHandlerForMultiband(segment);
+                return getHandlerForMultiband(segment, displayTransform);
             case RGBLUT:
                 return getRgbLUTImageRepresentationHandler(segment, 0);
             //add other (more complex) cases here
@@ -92,7 +110,7 @@ public final class ImageRepresentationHandlerFactory {
         return mapping;
     }
 
-    private static ImageRepresentationHandler getHandlerForMultiband(final ImageSegment segment) {
+    private static ImageRepresentationHandler getHandlerForMultiband(final ImageSegment segment, final DisplayTransform displayTransform) {
         if (irepbandsHasRgb(segment)) {
             return getRgbImageRepresentationHandler(segment);
         }
@@ -102,10 +120,10 @@ public final class ImageRepresentationHandlerFactory {
         }
         int firstMonoBandZeroBase = getFirstMonoBandZeroBase(segment);
         if (firstMonoBandZeroBase != BAND_NOT_FOUND) {
-            return getMonoImageRepresentationHandler(segment, firstMonoBandZeroBase);
+            return getMonoImageRepresentationHandler(segment, firstMonoBandZeroBase, displayTransform);
         }
         // No representation, try showing first band
-        return getMonoImageRepresentationHandler(segment, 0);
+        return getMonoImageRepresentationHandler(segment, 0, displayTransform);
     }
 
     private static boolean irepbandsHasRgb(final ImageSegment segment) {
@@ -153,12 +171,13 @@ public final class ImageRepresentationHandlerFactory {
         return BAND_NOT_FOUND;
     }
 
-    private static ImageRepresentationHandler getMonoImageRepresentationHandler(final ImageSegment segment, final int selectedBandZeroBase) {
+    private static ImageRepresentationHandler getMonoImageRepresentationHandler(final ImageSegment segment, final int selectedBandZeroBase,
+            final DisplayTransform displayTransform) {
         switch (segment.getPixelValueType()) {
             case BILEVEL:
                 return getMonoBilevelImageRepresentationHandler(segment, selectedBandZeroBase);
             case INTEGER:
-                return getMonoIntegerImageRepresentationHandler(segment, selectedBandZeroBase);
+                return getMonoIntegerImageRepresentationHandler(segment, selectedBandZeroBase, displayTransform);
             case SIGNEDINTEGER:
                 // TODO: [IMG-108] implement this
                 return null;
@@ -177,14 +196,18 @@ public final class ImageRepresentationHandlerFactory {
         if (segment.getNumberOfBitsPerPixelPerBand() != 1) {
             throw new UnsupportedOperationException("Pixel Value of bilevel (B) must be 1 bit per pixel (NBPP = 1)");
         }
-        return new Mono1ImageRepresentationHandler(selectedBandZeroBase, DataReaderFactory.forImageSegment(segment));
+        return new Mono1ImageRepresentationHandler(selectedBandZeroBase);
     }
 
-    private static ImageRepresentationHandler getMonoIntegerImageRepresentationHandler(final ImageSegment segment, final int selectedBandZeroBase) {
-        if (segment.getNumberOfBitsPerPixelPerBand() == Byte.SIZE) {
-            return new Mono8IntegerImageRepresentationHandler(selectedBandZeroBase, DataReaderFactory.forImageSegment(segment));
+    private static ImageRepresentationHandler getMonoIntegerImageRepresentationHandler(final ImageSegment segment, final int selectedBandZeroBase,
+            final DisplayTransform displayTransform) {
+        if ((displayTransform != null) && (segment.getNumberOfBitsPerPixelPerBand() > 1)
+                && (segment.getNumberOfBitsPerPixelPerBand() <= Short.SIZE)) {
+            return new DisplayTransformImageRepresentationHandler(selectedBandZeroBase, segment, displayTransform);
+        } else if (segment.getNumberOfBitsPerPixelPerBand() == Byte.SIZE) {
+            return new Mono8IntegerImageRepresentationHandler(selectedBandZeroBase);
         } else if (segment.getNumberOfBitsPerPixelPerBand() <= Short.SIZE) {
-            return new Mono16IntegerImageRepresentationHandler(selectedBandZeroBase, DataReaderFactory.forImageSegment(segment));
+            return new Mono16IntegerImageRepresentationHandler(selectedBandZeroBase);
         } else {
             // TODO: add 32 [IMG-110] and 64 [IMG-111] NBPP cases
             return null;
@@ -192,9 +215,8 @@ public final class ImageRepresentationHandlerFactory {
     }
 
     private static ImageRepresentationHandler getRgbLUTImageRepresentationHandler(final ImageSegment segment, final int selectedBandZeroBase) {
-        IOReaderFunction readerFunc = DataReaderFactory.forImageSegment(segment);
-        if (readerFunc != null) {
-            return new RGBLUTImageRepresentationHandler(selectedBandZeroBase, segment, readerFunc);
+        if (DataReaderFactory.forImageSegment(segment) != null) {
+            return new RGBLUTImageRepresentationHandler(selectedBandZeroBase, segment);
         } else {
             return null;
         }
@@ -16,26 +16,31 @@ package org.codice.imaging.nitf.render.imagerep;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
-import java.io.IOException;
-import javax.imageio.stream.ImageInputStream;
-import org.codice.imaging.nitf.render.datareader.IOReaderFunction;
+import java.awt.image.DataBufferUShort;
+import org.codice.imaging.nitf.render.ImageMask;
 
 /**
  * Image representation handler for 12 and 16 bit mono (greyscale) images.
  */
 class Mono16IntegerImageRepresentationHandler extends SharedMonoImageRepresentationHandler implements ImageRepresentationHandler {
 
-    Mono16IntegerImageRepresentationHandler(final int selectedBandZeroBase, final IOReaderFunction readerFunc) {
-        super(selectedBandZeroBase, readerFunc);
+    Mono16IntegerImageRepresentationHandler(final int selectedBandZeroBase) {
+        super(selectedBandZeroBase);
     }
 
     @Override
-    public void renderPixelBand(final DataBuffer dataBuffer, final int pixelIndex,
-            final ImageInputStream imageInputStream, final int bandIndex) throws IOException {
-        if (bandIndex == selectedBandZeroBase) {
-            dataBuffer.setElem(pixelIndex, (Integer) reader.apply(imageInputStream));
-        } else {
-            reader.apply(imageInputStream);
+    public void renderSamples(final DataBuffer dataBuffer, final int pixelIndex, final int[] samples, final int sampleIndex,
+            final int sampleStride, final int bandIndex, final ImageMask imageMask) {
+        if (bandIndex != selectedBandZeroBase) {
+            return;
+        }
+        final short[] pixels = ((DataBufferUShort) dataBuffer).getData();
+        for (int i = 0, s = sampleIndex; s < samples.length; ++i, s += sampleStride) {
+            int value = samples[s] & UNSIGNED_SHORT_MASK;
+            if ((imageMask != null) && imageMask.isPadPixel(value)) {
+                value = 0x00;
+            }
+            pixels[pixelIndex + i] = (short) value;
         }
     }
 
@@ -16,9 +16,8 @@ package org.codice.imaging.nitf.render.imagerep;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
-import java.io.IOException;
-import javax.imageio.stream.ImageInputStream;
-import org.codice.imaging.nitf.render.datareader.IOReaderFunction;
+import java.awt.image.DataBufferByte;
+import org.codice.imaging.nitf.render.ImageMask;
 
 /**
  * Image representation handler for 1 bit mono (greyscale) images.
@@ -27,21 +26,26 @@ class Mono1ImageRepresentationHandler extends SharedMonoImageRepresentationHandl
 
     private static final int MAX_WHITE_BYTE_VALUE = 0xFF;
 
-    Mono1ImageRepresentationHandler(final int selectedBandZeroBase, final IOReaderFunction readerFunc) {
-        super(selectedBandZeroBase, readerFunc);
+    Mono1ImageRepresentationHandler(final int selectedBandZeroBase) {
+        super(selectedBandZeroBase);
     }
 
     @Override
-    public void renderPixelBand(final DataBuffer dataBuffer, final int pixelIndex,
-            final ImageInputStream imageInputStream, final int bandIndex) throws IOException {
-        if (bandIndex == selectedBandZeroBase) {
-            if ((Integer) reader.apply(imageInputStream) == 1) {
-                dataBuffer.setElem(pixelIndex, MAX_WHITE_BYTE_VALUE);
-            } else {
-                dataBuffer.setElem(pixelIndex, 0x00);
+    public void renderSamples(final DataBuffer dataBuffer, final int pixelIndex, final int[] samples, final int sampleIndex,
+            final int sampleStride, final int bandIndex, final ImageMask imageMask) {
+        if (bandIndex != selectedBandZeroBase) {
+            return;
+        }
+        final byte[] pixels = ((DataBufferByte) dataBuffer).getData();
+        for (int i = 0, s = sampleIndex; s < samples.length; ++i, s += sampleStride) {
+            int value = 0x00;
+            if (samples[s] == 1) {
+                value = MAX_WHITE_BYTE_VALUE;
+            }
+            if ((imageMask != null) && imageMask.isPadPixel(value)) {
+                value = 0x00;
             }
-        } else {
-            reader.apply(imageInputStream);
+            pixels[pixelIndex + i] = (byte) value;
         }
     }
 
@@ -16,26 +16,31 @@ package org.codice.imaging.nitf.render.imagerep;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
-import java.io.IOException;
-import javax.imageio.stream.ImageInputStream;
-import org.codice.imaging.nitf.render.datareader.IOReaderFunction;
+import java.awt.image.DataBufferByte;
+import org.codice.imaging.nitf.render.ImageMask;
 
 /**
  * Image representation handler for 8 bit mono (greyscale) images.
  */
 class Mono8IntegerImageRepresentationHandler extends SharedMonoImageRepresentationHandler implements ImageRepresentationHandler {
 
-    Mono8IntegerImageRepresentationHandler(final int selectedBandZeroBase, final IOReaderFunction readerFunc) {
-        super(selectedBandZeroBase, readerFunc);
+    Mono8IntegerImageRepresentationHandler(final int selectedBandZeroBase) {
+        super(selectedBandZeroBase);
     }
 
     @Override
-    public void renderPixelBand(final DataBuffer dataBuffer, final int pixelIndex,
-            final ImageInputStream imageInputStream, final int bandIndex) throws IOException {
-        if (bandIndex == selectedBandZeroBase) {
-            dataBuffer.setElem(pixelIndex, (Integer) reader.apply(imageInputStream));
-        } else {
-            reader.apply(imageInputStream);
+    public void renderSamples(final DataBuffer dataBuffer, final int pixelIndex, final int[] samples, final int sampleIndex,
+            final int sampleStride, final int bandIndex, final ImageMask imageMask) {
+        if (bandIndex != selectedBandZeroBase) {
+            return;
+        }
+        final byte[] pixels = ((DataBufferByte) dataBuffer).getData();
+        for (int i = 0, s = sampleIndex; s < samples.length; ++i, s += sampleStride) {
+            int value = samples[s] & UNSIGNED_BYTE_MASK;
+            if ((imageMask != null) && imageMask.isPadPixel(value)) {
+                value = 0x00;
+            }
+            pixels[pixelIndex + i] = (byte) value;
         }
     }
 
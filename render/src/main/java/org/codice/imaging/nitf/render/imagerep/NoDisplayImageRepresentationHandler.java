@@ -16,23 +16,21 @@ package org.codice.imaging.nitf.render.imagerep;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
-import java.io.IOException;
-import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.render.ImageMask;
 
 class NoDisplayImageRepresentationHandler implements ImageRepresentationHandler {
     @Override
-    public void renderPixelBand(final DataBuffer dataBuffer, final int pixelIndex,
-            final ImageInputStream imageInputStream, final int bandIndex) throws IOException {
+    public final void renderSamples(final DataBuffer dataBuffer, final int pixelIndex, final int[] samples, final int sampleIndex,
+            final int sampleStride, final int bandIndex, final ImageMask imageMask) {
     }
 
     @Override
-    public final BufferedImage createBufferedImage(final int width, final int height) {
-        return new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+    public final boolean isBandRendered(final int bandIndex) {
+        return false;
     }
 
     @Override
-    public final void renderPadPixel(final ImageMask imageMask, final DataBuffer data, final int pixelIndex) {
-        return;
+    public final BufferedImage createBufferedImage(final int width, final int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
     }
 }
@@ -16,13 +16,11 @@ package org.codice.imaging.nitf.render.imagerep;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
 import java.awt.image.IndexColorModel;
-import java.io.IOException;
-import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.core.image.ImageCompression;
 import org.codice.imaging.nitf.core.image.ImageSegment;
 import org.codice.imaging.nitf.render.ImageMask;
-import org.codice.imaging.nitf.render.datareader.IOReaderFunction;
 
 /**
  * Image representation handler for LUT (RGB) images.
@@ -30,10 +28,9 @@ import org.codice.imaging.nitf.render.datareader.IOReaderFunction;
 class RGBLUTImageRepresentationHandler implements ImageRepresentationHandler {
 
     private final int selectedBand;
-    private final IOReaderFunction reader;
     private final IndexColorModel colourModel;
 
-    RGBLUTImageRepresentationHandler(final int selectedBandZeroBase, final ImageSegment segment, final IOReaderFunction readerFunc) {
+    RGBLUTImageRepresentationHandler(final int selectedBandZeroBase, final ImageSegment segment) {
         selectedBand = selectedBandZeroBase;
         if (segment.getImageCompression().equals(ImageCompression.NOTCOMPRESSEDMASK)) {
             colourModel = new IndexColorModel(segment.getActualBitsPerPixelPerBand(),
@@ -49,22 +46,24 @@ class RGBLUTImageRepresentationHandler implements ImageRepresentationHandler {
                     segment.getImageBandZeroBase(selectedBandZeroBase).getLUTZeroBase(1).getEntries(),
                     segment.getImageBandZeroBase(selectedBandZeroBase).getLUTZeroBase(2).getEntries());
         }
-        reader = readerFunc;
     }
 
     @Override
-    public void renderPixelBand(final DataBuffer dataBuffer, final int pixelIndex,
-            final ImageInputStream imageInputStream, final int bandIndex) throws IOException {
-        if (bandIndex == selectedBand) {
-            dataBuffer.setElem(pixelIndex, (Integer) reader.apply(imageInputStream));
-        } else {
-            reader.apply(imageInputStream);
+    public void renderSamples(final DataBuffer dataBuffer, final int pixelIndex, final int[] samples, final int sampleIndex,
+            final int sampleStride, final int bandIndex, final ImageMask imageMask) {
+        if (bandIndex != selectedBand) {
+            return;
+        }
+        // Pad pixels are handled by the colour model.
+        final byte[] pixels = ((DataBufferByte) dataBuffer).getData();
+        for (int i = 0, s = sampleIndex; s < samples.length; ++i, s += sampleStride) {
+            pixels[pixelIndex + i] = (byte) samples[s];
         }
     }
 
     @Override
-    public void renderPadPixel(final ImageMask imageMask, final DataBuffer data, final int pixelIndex) {
-        // Handled by the colour model.
+    public boolean isBandRendered(final int bandIndex) {
+        return bandIndex == selectedBand;
     }
 
     @Override
@@ -16,36 +16,44 @@ package org.codice.imaging.nitf.render.imagerep;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
-import java.io.IOException;
+import java.awt.image.DataBufferInt;
 import java.util.Map;
-import javax.imageio.stream.ImageInputStream;
 import org.codice.imaging.nitf.render.ImageMask;
 
 class Rgb24ImageRepresentationHandler implements ImageRepresentationHandler {
     private final Map<Integer, Integer> bandMapping;
 
     private static final int ALPHA_MASK = 0xFF000000;
+    private static final int NOT_MAPPED = -1;
 
     Rgb24ImageRepresentationHandler(final Map<Integer, Integer> bandMap) {
         this.bandMapping = bandMap;
     }
 
     @Override
-    public void renderPixelBand(final DataBuffer data, final int pixelIndex, final ImageInputStream imageInputStream, final int bandIndex)
-            throws IOException {
-        data.setElem(pixelIndex,
-                ALPHA_MASK | data.getElem(pixelIndex) | (imageInputStream.read() << bandMapping.get(bandIndex)));
+    public void renderSamples(final DataBuffer data, final int pixelIndex, final int[] samples, final int sampleIndex,
+            final int sampleStride, final int bandIndex, final ImageMask imageMask) {
+        final int leftShift = bandMapping.getOrDefault(bandIndex, NOT_MAPPED);
+        if (leftShift < 0) {
+            return;
+        }
+        final int[] pixels = ((DataBufferInt) data).getData();
+        for (int i = 0, s = sampleIndex; s < samples.length; ++i, s += sampleStride) {
+            int value = ALPHA_MASK | pixels[pixelIndex + i] | (samples[s] << leftShift);
+            if ((imageMask != null) && imageMask.isPadPixel(value)) {
+                value = 0x00000000;
+            }
+            pixels[pixelIndex + i] = value;
+        }
     }
 
     @Override
-    public BufferedImage createBufferedImage(final int blockWidth, final int blockHeight) {
-        return new BufferedImage(blockWidth, blockHeight, BufferedImage.TYPE_INT_ARGB);
+    public boolean isBandRendered(final int bandIndex) {
+        return bandMapping.getOrDefault(bandIndex, NOT_MAPPED) >= 0;
     }
 
     @Override
-    public void renderPadPixel(final ImageMask imageMask, final DataBuffer data, final int pixelIndex) {
-        if (imageMask.isPadPixel(data.getElem(pixelIndex))) {
-            data.setElem(pixelIndex, 0x00000000);
-        }
+    public BufferedImage createBufferedImage(final int blockWidth, final int blockHeight) {
+        return new BufferedImage(blockWidth, blockHeight, BufferedImage.TYPE_INT_ARGB);
     }
 }
@@ -14,27 +14,22 @@
  */
 package org.codice.imaging.nitf.render.imagerep;
 
-import java.awt.image.DataBuffer;
-import org.codice.imaging.nitf.render.ImageMask;
-import org.codice.imaging.nitf.render.datareader.IOReaderFunction;
-
 /**
  * Shared implementation details for the MONO image handler implementations.
  */
 abstract class SharedMonoImageRepresentationHandler implements ImageRepresentationHandler {
+    protected static final int UNSIGNED_BYTE_MASK = 0xFF;
+    protected static final int UNSIGNED_SHORT_MASK = 0xFFFF;
+
     protected final int selectedBandZeroBase;
-    protected final IOReaderFunction reader;
 
-    SharedMonoImageRepresentationHandler(final int selectedBand, final IOReaderFunction readerFunc) {
+    SharedMonoImageRepresentationHandler(final int selectedBand) {
         this.selectedBandZeroBase = selectedBand;
-        this.reader = readerFunc;
     }
 
     @Override
-    public void renderPadPixel(final ImageMask imageMask, final DataBuffer data, final int pixelIndex) {
-        if (imageMask.isPadPixel(data.getElem(pixelIndex))) {
-            data.setElem(pixelIndex, 0x00);
-        }
+    public boolean isBandRendered(final int bandIndex) {
+        return bandIndex == selectedBandZeroBase;
     }
 
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.overview;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.NitfRenderer;
+
+/**
+ * Builds reduced resolution overview pyramids for image segments.
+ *
+ * The image segment is rendered once, with each block drawn directly into the first overview level as it is decoded,
+ * so the full resolution image is never held as a single image. Each following level is then reduced from the level
+ * above.
+ *
+ * The pyramid covers the image segment itself. The image location is applied when rendering from the pyramid, so an
+ * image placed far from the origin does not produce levels that are mostly empty.
+ */
+public final class OverviewBuilder {
+
+    private static final int DEFAULT_MINIMUM_SIZE = 256;
+    private static final double HALF = 0.5;
+
+    private final NitfRenderer renderer;
+    private OverviewResampling resampling = OverviewResampling.AVERAGE;
+    private int minimumSize = DEFAULT_MINIMUM_SIZE;
+
+    /**
+     * Constructor, using a default NitfRenderer.
+     */
+    public OverviewBuilder() {
+        this(new NitfRenderer());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param nitfRenderer the renderer for the full resolution image, for example with a display transform.
+     */
+    public OverviewBuilder(final NitfRenderer nitfRenderer) {
+        renderer = nitfRenderer;
+    }
+
+    /**
+     * Set the resampling used to reduce each level.
+     *
+     * The default is OverviewResampling.AVERAGE.
+     *
+     * @param overviewResampling the resampling.
+     */
+    public void setResampling(final OverviewResampling overviewResampling) {
+        resampling = overviewResampling;
+    }
+
+    /**
+     * Set the size at which to stop adding levels.
+     *
+     * Levels are added until the width and height of the last level are both no more than this size. The default is
+     * 256.
+     *
+     * @param size the minimum size, in pixels.
+     */
+    public void setMinimumSize(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("OverviewBuilder: minimum size must be at least 1.");
+        }
+        minimumSize = size;
+    }
+
+    /**
+     * Build the overview pyramid for an image segment.
+     *
+     * The full resolution image is the segment as drawn by NitfRenderer.renderBlocks(), without the image location
+     * offset.
+     *
+     * @param imageSegment the image segment, which must have its data available.
+     * @return the overview pyramid, which has no levels if the image is no larger than the minimum size.
+     * @throws IOException if the image data could not be read.
+     */
+    public OverviewPyramid build(final ImageSegment imageSegment) throws IOException {
+        int width = (int) imageSegment.getNumberOfColumns();
+        int height = (int) imageSegment.getNumberOfRows();
+        List<BufferedImage> levels = new ArrayList<>();
+        if ((width > minimumSize) || (height > minimumSize)) {
+            BufferedImage level = createLevel(width, height);
+            Graphics2D graphics = createGraphics(level);
+            renderer.renderBlocks(imageSegment, graphics, (rowIndex, columnIndex) -> true);
+            graphics.dispose();
+            levels.add(level);
+            while ((level.getWidth() > minimumSize) || (level.getHeight() > minimumSize)) {
+                level = reduce(level);
+                levels.add(level);
+            }
+        }
+        return new OverviewPyramid(width, height, levels);
+    }
+
+    private BufferedImage reduce(final BufferedImage source) {
+        BufferedImage level = createLevel(source.getWidth(), source.getHeight());
+        Graphics2D graphics = createGraphics(level);
+        graphics.drawImage(source, 0, 0, null);
+        graphics.dispose();
+        return level;
+    }
+
+    private BufferedImage createLevel(final int sourceWidth, final int sourceHeight) {
+        return new BufferedImage((sourceWidth + 1) / 2, (sourceHeight + 1) / 2, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private Graphics2D createGraphics(final BufferedImage level) {
+        Graphics2D graphics = level.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, resampling.getInterpolation());
+        graphics.scale(HALF, HALF);
+        return graphics;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.overview;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import javax.imageio.ImageIO;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+
+/**
+ * A directory of sidecar files holding overview pyramids.
+ *
+ * Each pyramid is stored in its own file, named from the size and modification time of the NITF file, a checksum of
+ * the start of the file (which holds the file header and usually the subheaders) and the index of the image segment.
+ * A modified file does not use stale overviews, and a renamed file (or a copy that keeps the modification time) reuses
+ * them. Only the start of the file is read, so looking up the cache is cheap however large the file is. Each level is
+ * stored as a PNG image.
+ *
+ * Files are written to a temporary file and then moved into place, so a cache directory can be shared between
+ * processes.
+ */
+public final class OverviewCache {
+
+    private static final int MAGIC = 0x4E4F5652;
+    private static final short VERSION = 2;
+    private static final int CHECKSUM_LENGTH = 64 * 1024;
+    private static final String SIDECAR_EXTENSION = ".ovr";
+    private static final String IMAGE_FORMAT = "png";
+
+    private final Path cacheDirectory;
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory to hold the sidecar files, which is created if necessary.
+     * @throws IOException if the directory could not be created.
+     */
+    public OverviewCache(final Path directory) throws IOException {
+        cacheDirectory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Get the cached overview pyramid for an image segment.
+     *
+     * @param nitfFile the NITF file.
+     * @param segmentIndex the zero-based index of the image segment in the file.
+     * @return the overview pyramid, or null if it is not in the cache, or was stored by a different version.
+     * @throws IOException if the NITF file or the sidecar file could not be read.
+     */
+    public OverviewPyramid get(final Path nitfFile, final int segmentIndex) throws IOException {
+        return read(getSidecarFile(nitfFile, segmentIndex));
+    }
+
+    /**
+     * Store the overview pyramid for an image segment.
+     *
+     * @param nitfFile the NITF file.
+     * @param segmentIndex the zero-based index of the image segment in the file.
+     * @param pyramid the overview pyramid.
+     * @throws IOException if the NITF file could not be read, or the sidecar file could not be written.
+     */
+    public void put(final Path nitfFile, final int segmentIndex, final OverviewPyramid pyramid) throws IOException {
+        write(getSidecarFile(nitfFile, segmentIndex), pyramid);
+    }
+
+    /**
+     * Get the cached overview pyramid for an image segment, building and storing it if it is not in the cache.
+     *
+     * A cached pyramid that does not match the size of the segment is replaced.
+     *
+     * @param nitfFile the NITF file.
+     * @param segmentIndex the zero-based index of the image segment in the file.
+     * @param imageSegment the image segment, with its data available.
+     * @param builder the builder to use if the pyramid is not in the cache.
+     * @return the overview pyramid.
+     * @throws IOException if the files could not be read or written, or the image could not be rendered.
+     */
+    public OverviewPyramid getOrBuild(final Path nitfFile, final int segmentIndex, final ImageSegment imageSegment,
+            final OverviewBuilder builder) throws IOException {
+        Path sidecarFile = getSidecarFile(nitfFile, segmentIndex);
+        OverviewPyramid pyramid = read(sidecarFile);
+        if ((pyramid == null) || !pyramid.matches(imageSegment)) {
+            pyramid = builder.build(imageSegment);
+            write(sidecarFile, pyramid);
+        }
+        return pyramid;
+    }
+
+    private Path getSidecarFile(final Path nitfFile, final int segmentIndex) throws IOException {
+        CRC32 checksum = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKSUM_LENGTH);
+        try (FileChannel channel = FileChannel.open(nitfFile, StandardOpenOption.READ)) {
+            int bytesRead = 0;
+            while (buffer.hasRemaining() && (bytesRead != -1)) {
+                bytesRead = channel.read(buffer);
+            }
+            buffer.flip();
+            checksum.update(buffer);
+            long modified = Files.getLastModifiedTime(nitfFile).toMillis();
+            return cacheDirectory.resolve(String.format("%08x-%x-%x-%d%s", checksum.getValue(), channel.size(), modified,
+                    segmentIndex, SIDECAR_EXTENSION));
+        }
+    }
+
+    private OverviewPyramid read(final Path sidecarFile) throws IOException {
+        if (!Files.exists(sidecarFile)) {
+            return null;
+        }
+        try (InputStream fileStream = Files.newInputStream(sidecarFile);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(fileStream))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("OverviewCache: not an overview file: " + sidecarFile);
+            }
+            if (in.readShort() != VERSION) {
+                return null;
+            }
+            int width = in.readInt();
+            int height = in.readInt();
+            int numLevels = in.readInt();
+            List<BufferedImage> levels = new ArrayList<>();
+            for (int i = 0; i < numLevels; ++i) {
+                byte[] encoded = new byte[in.readInt()];
+                in.readFully(encoded);
+                BufferedImage level = ImageIO.read(new ByteArrayInputStream(encoded));
+                if (level == null) {
+                    throw new IOException("OverviewCache: could not decode overview level in " + sidecarFile);
+                }
+                levels.add(level);
+            }
+            return new OverviewPyramid(width, height, levels);
+        }
+    }
+
+    private void write(final Path sidecarFile, final OverviewPyramid pyramid) throws IOException {
+        Path temporaryFile = Files.createTempFile(cacheDirectory, "overview", SIDECAR_EXTENSION);
+        try {
+            try (OutputStream fileStream = Files.newOutputStream(temporaryFile);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileStream))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeInt(pyramid.getImageWidth());
+                out.writeInt(pyramid.getImageHeight());
+                out.writeInt(pyramid.getNumLevels());
+                for (int level = 1; level <= pyramid.getNumLevels(); ++level) {
+                    ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                    ImageIO.write(pyramid.getLevel(level), IMAGE_FORMAT, encoded);
+                    out.writeInt(encoded.size());
+                    encoded.writeTo(out);
+                }
+            }
+            Files.move(temporaryFile, sidecarFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+}
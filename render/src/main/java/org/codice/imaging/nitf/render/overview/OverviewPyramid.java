@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.overview;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+
+/**
+ * A reduced resolution pyramid for an image segment.
+ *
+ * Level 0 is the full resolution image, which is not held. Each following level has half the width and height of
+ * the level above, rounded up, so level n has a scale of 1 / 2^n. The pyramid covers the image segment itself, without
+ * the image location offset.
+ */
+public final class OverviewPyramid {
+
+    private final int imageWidth;
+    private final int imageHeight;
+    private final List<BufferedImage> levels;
+
+    /**
+     * Constructor.
+     *
+     * @param width the width of the full resolution image.
+     * @param height the height of the full resolution image.
+     * @param overviewLevels the overview images, starting with level 1.
+     */
+    OverviewPyramid(final int width, final int height, final List<BufferedImage> overviewLevels) {
+        imageWidth = width;
+        imageHeight = height;
+        levels = Collections.unmodifiableList(new ArrayList<>(overviewLevels));
+    }
+
+    /**
+     * @return the width of the full resolution image.
+     */
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    /**
+     * @return the height of the full resolution image.
+     */
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    /**
+     * Check whether this pyramid is the size of an image segment.
+     *
+     * A pyramid built for a different segment, or by an older version that included the image location, does not
+     * match.
+     *
+     * @param imageSegment the image segment.
+     * @return true if the full resolution size of the pyramid is the size of the segment, otherwise false.
+     */
+    public boolean matches(final ImageSegment imageSegment) {
+        return (imageWidth == imageSegment.getNumberOfColumns()) && (imageHeight == imageSegment.getNumberOfRows());
+    }
+
+    /**
+     * @return the number of overview levels, not counting the full resolution image.
+     */
+    public int getNumLevels() {
+        return levels.size();
+    }
+
+    /**
+     * Get an overview level.
+     *
+     * @param level the level, from 1 to getNumLevels().
+     * @return the overview image for the level.
+     */
+    public BufferedImage getLevel(final int level) {
+        if ((level < 1) || (level > levels.size())) {
+            throw new IllegalArgumentException(String.format("OverviewPyramid: level %d is not in the pyramid.", level));
+        }
+        return levels.get(level - 1);
+    }
+
+    /**
+     * Get the level to use for rendering at a scale.
+     *
+     * This is the smallest level that still has at least the requested resolution, so it only ever needs to be
+     * reduced further.
+     *
+     * @param scale the scale, where 1.0 is full resolution.
+     * @return the level, or 0 if the full resolution image is needed.
+     */
+    public int getLevelForScale(final double scale) {
+        int level = 0;
+        while ((level < levels.size()) && (scale <= 1.0 / (1L << (level + 1)))) {
+            level++;
+        }
+        return level;
+    }
+}
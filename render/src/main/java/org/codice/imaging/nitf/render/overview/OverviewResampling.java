@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.overview;
+
+import java.awt.RenderingHints;
+
+/**
+ * The resampling used to reduce the resolution of each overview level.
+ */
+public enum OverviewResampling {
+
+    /**
+     * Each overview pixel is the average of the 2x2 pixels it covers in the level above.
+     */
+    AVERAGE(RenderingHints.VALUE_INTERPOLATION_BILINEAR),
+
+    /**
+     * Each overview pixel is one of the pixels it covers in the level above.
+     *
+     * This is faster, and preserves the original values, which suits classified or thematic images.
+     */
+    NEAREST(RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+
+    private final Object interpolation;
+
+    OverviewResampling(final Object interpolationHint) {
+        interpolation = interpolationHint;
+    }
+
+    /**
+     * @return the value for RenderingHints.KEY_INTERPOLATION.
+     */
+    Object getInterpolation() {
+        return interpolation;
+    }
+}
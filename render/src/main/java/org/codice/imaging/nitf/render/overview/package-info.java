@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+
+/**
+ * The classes in this package provide reduced resolution overviews of image segments.
+ *
+ * OverviewBuilder renders an image segment once into a power-of-two pyramid of overview images, and OverviewCache
+ * stores pyramids in sidecar files so they are only built once for each file. NitfRenderer can then render zoomed out
+ * views from the nearest overview level instead of decoding the full resolution image.
+ */
+
+package org.codice.imaging.nitf.render.overview;
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.raster;
+
+import org.codice.imaging.nitf.render.ImageMask;
+
+/**
+ * Statistics for the sample values of one band of an image.
+ *
+ * Statistics are accumulated a block at a time, and the statistics for different parts of an image can be combined
+ * with merge(), so the blocks can be read in parallel. Pad pixels in integer images, and pixels in blocks that are not
+ * recorded in the file, are counted separately and do not contribute to the other statistics.
+ *
+ * A histogram is kept for integer samples of up to 16 bits, with one bin for each possible sample value.
+ */
+public final class BandStatistics {
+
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+    private static final int UNSIGNED_SHORT_MASK = 0xFFFF;
+    private static final long UNSIGNED_INT_MASK = 0xFFFFFFFFL;
+
+    private final int bandNumber;
+    private final int histogramOffset;
+    private final long[] histogram;
+    private long count = 0;
+    private long padPixelCount = 0;
+    private double minimum = Double.NaN;
+    private double maximum = Double.NaN;
+    private double mean = 0.0;
+    private double sumOfSquaredDeviations = 0.0;
+    private double[] values = new double[0];
+
+    /**
+     * Constructor.
+     *
+     * @param band the zero-based image band number.
+     * @param firstHistogramValue the sample value counted in the first histogram bin.
+     * @param histogramSize the number of histogram bins, or zero for no histogram.
+     */
+    BandStatistics(final int band, final int firstHistogramValue, final int histogramSize) {
+        bandNumber = band;
+        histogramOffset = firstHistogramValue;
+        if (histogramSize > 0) {
+            histogram = new long[histogramSize];
+        } else {
+            histogram = null;
+        }
+    }
+
+    /**
+     * @return the zero-based image band number.
+     */
+    public int getBandNumber() {
+        return bandNumber;
+    }
+
+    /**
+     * @return the number of samples that contributed to the statistics.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of pad pixels, including pixels in blocks that are not recorded in the file.
+     */
+    public long getPadPixelCount() {
+        return padPixelCount;
+    }
+
+    /**
+     * @return the smallest sample value, or NaN if there were no samples.
+     */
+    public double getMinimum() {
+        return minimum;
+    }
+
+    /**
+     * @return the largest sample value, or NaN if there were no samples.
+     */
+    public double getMaximum() {
+        return maximum;
+    }
+
+    /**
+     * @return the mean sample value, or NaN if there were no samples.
+     */
+    public double getMean() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return mean;
+    }
+
+    /**
+     * @return the population variance of the sample values, or NaN if there were no samples.
+     */
+    public double getVariance() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return sumOfSquaredDeviations / count;
+    }
+
+    /**
+     * @return the population standard deviation of the sample values, or NaN if there were no samples.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Get the histogram of sample values.
+     *
+     * Each bin counts a single sample value, starting from getHistogramOffset(). For unsigned samples the offset is
+     * zero, so the histogram is indexed by sample value, as DisplayTransform.percentile() expects.
+     *
+     * @return a copy of the histogram, or null if the samples are wider than 16 bits or are not integers.
+     */
+    public long[] getHistogram() {
+        if (histogram == null) {
+            return null;
+        }
+        return histogram.clone();
+    }
+
+    /**
+     * @return the sample value counted in the first histogram bin.
+     */
+    public int getHistogramOffset() {
+        return histogramOffset;
+    }
+
+    /**
+     * Add the statistics for another part of the same band.
+     *
+     * @param other the statistics to add, which are not changed.
+     */
+    public void merge(final BandStatistics other) {
+        if ((other.bandNumber != bandNumber) || (other.histogramOffset != histogramOffset)
+                || ((histogram == null) != (other.histogram == null))
+                || ((histogram != null) && (histogram.length != other.histogram.length))) {
+            throw new IllegalArgumentException("BandStatistics: cannot merge statistics for different bands");
+        }
+        padPixelCount += other.padPixelCount;
+        if (histogram != null) {
+            for (int i = 0; i < histogram.length; ++i) {
+                histogram[i] += other.histogram[i];
+            }
+        }
+        add(other.count, other.minimum, other.maximum, other.mean, other.sumOfSquaredDeviations);
+    }
+
+    /**
+     * Count pixels that do not contribute to the statistics.
+     *
+     * @param pixels the number of pad pixels.
+     */
+    void addPadPixels(final long pixels) {
+        padPixelCount += pixels;
+    }
+
+    /**
+     * Accumulate the samples for one band of a block.
+     *
+     * @param raster the block samples.
+     * @param bandIndex the index of the band in the raster.
+     * @param width the number of samples in each row that are within the image.
+     * @param height the number of rows that are within the image.
+     * @param imageMask the image mask to identify pad pixels, or null if the block has no pad pixels.
+     */
+    void accumulate(final RasterData raster, final int bandIndex, final int width, final int height, final ImageMask imageMask) {
+        if (values.length < width * height) {
+            values = new double[width * height];
+        }
+        int numValues = extractValues(raster, bandIndex, width, height, imageMask);
+        padPixelCount += (long) width * height - numValues;
+        if (numValues == 0) {
+            return;
+        }
+        double blockMinimum = values[0];
+        double blockMaximum = values[0];
+        double sum = 0.0;
+        for (int i = 0; i < numValues; ++i) {
+            double value = values[i];
+            blockMinimum = Math.min(blockMinimum, value);
+            blockMaximum = Math.max(blockMaximum, value);
+            sum += value;
+        }
+        double blockMean = sum / numValues;
+        double blockSumOfSquaredDeviations = 0.0;
+        for (int i = 0; i < numValues; ++i) {
+            double deviation = values[i] - blockMean;
+            blockSumOfSquaredDeviations += deviation * deviation;
+        }
+        if (histogram != null) {
+            for (int i = 0; i < numValues; ++i) {
+                histogram[(int) values[i] - histogramOffset]++;
+            }
+        }
+        add(numValues, blockMinimum, blockMaximum, blockMean, blockSumOfSquaredDeviations);
+    }
+
+    private void add(final long otherCount, final double otherMinimum, final double otherMaximum, final double otherMean,
+            final double otherSumOfSquaredDeviations) {
+        if (otherCount == 0) {
+            return;
+        }
+        if (count == 0) {
+            minimum = otherMinimum;
+            maximum = otherMaximum;
+        } else {
+            minimum = Math.min(minimum, otherMinimum);
+            maximum = Math.max(maximum, otherMaximum);
+        }
+        long total = count + otherCount;
+        double delta = otherMean - mean;
+        mean += delta * otherCount / total;
+        sumOfSquaredDeviations += otherSumOfSquaredDeviations + delta * delta * ((double) count * otherCount / total);
+        count = total;
+    }
+
+    private int extractValues(final RasterData raster, final int bandIndex, final int width, final int height,
+            final ImageMask imageMask) {
+        int numValues = 0;
+        final int rowStride = raster.getWidth();
+        final long valueMask = getValueMask(raster);
+        switch (raster.getDataType()) {
+            case BYTE:
+                final byte[] bytes = raster.getByteData(bandIndex);
+                for (int row = 0; row < height; ++row) {
+                    for (int index = row * rowStride; index < row * rowStride + width; ++index) {
+                        numValues = addSample(bytes[index] & valueMask, imageMask, numValues);
+                    }
+                }
+                break;
+            case SHORT:
+                final short[] shorts = raster.getShortData(bandIndex);
+                for (int row = 0; row < height; ++row) {
+                    for (int index = row * rowStride; index < row * rowStride + width; ++index) {
+                        numValues = addSample(shorts[index] & valueMask, imageMask, numValues);
+                    }
+                }
+                break;
+            case INT:
+                final int[] ints = raster.getIntData(bandIndex);
+                for (int row = 0; row < height; ++row) {
+                    for (int index = row * rowStride; index < row * rowStride + width; ++index) {
+                        numValues = addSample(ints[index] & valueMask, imageMask, numValues);
+                    }
+                }
+                break;
+            case FLOAT:
+                final float[] floats = raster.getFloatData(bandIndex);
+                for (int row = 0; row < height; ++row) {
+                    for (int index = row * rowStride; index < row * rowStride + width; ++index) {
+                        values[numValues++] = floats[index];
+                    }
+                }
+                break;
+            default:
+                final double[] doubles = raster.getDoubleData(bandIndex);
+                for (int row = 0; row < height; ++row) {
+                    System.arraycopy(doubles, row * rowStride, values, numValues, width);
+                    numValues += width;
+                }
+                break;
+        }
+        return numValues;
+    }
+
+    private static long getValueMask(final RasterData raster) {
+        if (raster.isSigned()) {
+            return -1L;
+        }
+        switch (raster.getDataType()) {
+            case BYTE:
+                return UNSIGNED_BYTE_MASK;
+            case SHORT:
+                return UNSIGNED_SHORT_MASK;
+            default:
+                return UNSIGNED_INT_MASK;
+        }
+    }
+
+    private int addSample(final long value, final ImageMask imageMask, final int numValues) {
+        if ((imageMask != null) && imageMask.isPadPixel((int) value)) {
+            return numValues;
+        }
+        values[numValues] = value;
+        return numValues + 1;
+    }
+}
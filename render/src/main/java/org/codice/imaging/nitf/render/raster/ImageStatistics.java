@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.raster;
+
+/**
+ * Statistics for the sample values of the bands of an image, as read by RasterReader.readStatistics() or
+ * RasterReader.readBlockRowStatistics().
+ *
+ * The statistics may have been accumulated from a sample of the image blocks, in which case getBlockCount() is less
+ * than the number of blocks in the image. Statistics for different parts of the same image can be combined with
+ * merge().
+ */
+public final class ImageStatistics {
+
+    private final BandStatistics[] bandStatistics;
+    private long blockCount = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param bands the statistics for each band, in order.
+     */
+    ImageStatistics(final BandStatistics[] bands) {
+        bandStatistics = bands.clone();
+    }
+
+    /**
+     * @return the number of bands.
+     */
+    public int getNumBands() {
+        return bandStatistics.length;
+    }
+
+    /**
+     * Get the statistics for a band.
+     *
+     * @param bandIndex the index of the band in these statistics (not the image band number).
+     * @return the statistics for the band.
+     */
+    public BandStatistics getBand(final int bandIndex) {
+        return bandStatistics[bandIndex];
+    }
+
+    /**
+     * @return the number of blocks that the statistics were accumulated from.
+     */
+    public long getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Add the statistics for another part of the same image.
+     *
+     * @param other the statistics to add, which must be for the same bands, and are not changed.
+     */
+    public void merge(final ImageStatistics other) {
+        if (other.bandStatistics.length != bandStatistics.length) {
+            throw new IllegalArgumentException("ImageStatistics: cannot merge statistics for different bands");
+        }
+        for (int i = 0; i < bandStatistics.length; ++i) {
+            bandStatistics[i].merge(other.bandStatistics[i]);
+        }
+        blockCount += other.blockCount;
+    }
+
+    /**
+     * Count a block that has been accumulated.
+     */
+    void addBlock() {
+        blockCount++;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.raster;
+
+/**
+ * Sample values for a rectangular area of an image, held as one primitive array per band.
+ *
+ * Each array holds width * height samples in row-major order. The type of the arrays is given by getDataType(), and
+ * the typed accessors throw IllegalStateException if a different type is requested.
+ */
+public final class RasterData {
+
+    private final RasterDataType dataType;
+    private final boolean signed;
+    private final int originX;
+    private final int originY;
+    private final int rasterWidth;
+    private final int rasterHeight;
+    private final int[] bandNumbers;
+    private final Object[] bandData;
+
+    /**
+     * Constructor.
+     *
+     * @param type the type of the sample arrays.
+     * @param signedSamples true if integer samples are signed.
+     * @param x the column of the first sample in the image.
+     * @param y the row of the first sample in the image.
+     * @param width the number of samples in each row.
+     * @param height the number of rows.
+     * @param bands the zero-based image band numbers held, in order.
+     */
+    RasterData(final RasterDataType type, final boolean signedSamples, final int x, final int y, final int width,
+            final int height, final int[] bands) {
+        dataType = type;
+        signed = signedSamples;
+        originX = x;
+        originY = y;
+        rasterWidth = width;
+        rasterHeight = height;
+        bandNumbers = bands.clone();
+        bandData = new Object[bands.length];
+        for (int i = 0; i < bands.length; ++i) {
+            bandData[i] = type.allocate(width * height);
+        }
+    }
+
+    /**
+     * @return the type of the sample arrays.
+     */
+    public RasterDataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Whether integer samples are signed.
+     *
+     * Unsigned samples need to be masked before use, as described for RasterDataType.
+     *
+     * @return true if the samples are signed integers, otherwise false.
+     */
+    public boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * @return the column in the image of the first sample in each row.
+     */
+    public int getX() {
+        return originX;
+    }
+
+    /**
+     * @return the row in the image of the first row of samples.
+     */
+    public int getY() {
+        return originY;
+    }
+
+    /**
+     * @return the number of samples in each row.
+     */
+    public int getWidth() {
+        return rasterWidth;
+    }
+
+    /**
+     * @return the number of rows.
+     */
+    public int getHeight() {
+        return rasterHeight;
+    }
+
+    /**
+     * @return the number of bands held.
+     */
+    public int getNumBands() {
+        return bandNumbers.length;
+    }
+
+    /**
+     * Get the image band number for a band held in this raster.
+     *
+     * @param bandIndex the index of the band in this raster.
+     * @return the zero-based band number in the image segment.
+     */
+    public int getBandNumber(final int bandIndex) {
+        return bandNumbers[bandIndex];
+    }
+
+    /**
+     * Get the sample array for a band.
+     *
+     * @param bandIndex the index of the band in this raster (not the image band number).
+     * @return the sample array, of the type given by getDataType().
+     */
+    public Object getData(final int bandIndex) {
+        return bandData[bandIndex];
+    }
+
+    /**
+     * Get the sample array for a band of BYTE data.
+     *
+     * @param bandIndex the index of the band in this raster.
+     * @return the sample array.
+     */
+    public byte[] getByteData(final int bandIndex) {
+        checkDataType(RasterDataType.BYTE);
+        return (byte[]) bandData[bandIndex];
+    }
+
+    /**
+     * Get the sample array for a band of SHORT data.
+     *
+     * @param bandIndex the index of the band in this raster.
+     * @return the sample array.
+     */
+    public short[] getShortData(final int bandIndex) {
+        checkDataType(RasterDataType.SHORT);
+        return (short[]) bandData[bandIndex];
+    }
+
+    /**
+     * Get the sample array for a band of INT data.
+     *
+     * @param bandIndex the index of the band in this raster.
+     * @return the sample array.
+     */
+    public int[] getIntData(final int bandIndex) {
+        checkDataType(RasterDataType.INT);
+        return (int[]) bandData[bandIndex];
+    }
+
+    /**
+     * Get the sample array for a band of FLOAT data.
+     *
+     * @param bandIndex the index of the band in this raster.
+     * @return the sample array.
+     */
+    public float[] getFloatData(final int bandIndex) {
+        checkDataType(RasterDataType.FLOAT);
+        return (float[]) bandData[bandIndex];
+    }
+
+    /**
+     * Get the sample array for a band of DOUBLE data.
+     *
+     * @param bandIndex the index of the band in this raster.
+     * @return the sample array.
+     */
+    public double[] getDoubleData(final int bandIndex) {
+        checkDataType(RasterDataType.DOUBLE);
+        return (double[]) bandData[bandIndex];
+    }
+
+    private void checkDataType(final RasterDataType requestedType) {
+        if (dataType != requestedType) {
+            throw new IllegalStateException(String.format("Raster data is %s, not %s", dataType, requestedType));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.raster;
+
+import org.codice.imaging.nitf.core.image.ImageSegment;
+
+/**
+ * The type of primitive array used to hold the sample values for an image.
+ *
+ * Integer samples are held in the smallest type that has at least the nominal number of bits per pixel. Unsigned
+ * samples use the same bits as the corresponding unsigned value, so a 16 bit sample of 65535 is held as (short) -1,
+ * and should be masked (e.g. with 0xFFFF) before use.
+ */
+public enum RasterDataType {
+
+    /**
+     * Samples of up to 8 bits, held in a byte[].
+     */
+    BYTE,
+
+    /**
+     * Samples of 9 to 16 bits, held in a short[].
+     */
+    SHORT,
+
+    /**
+     * Samples of 17 to 32 bits, held in an int[].
+     */
+    INT,
+
+    /**
+     * 32 bit real samples, held in a float[].
+     */
+    FLOAT,
+
+    /**
+     * 64 bit real samples, held in a double[].
+     */
+    DOUBLE;
+
+    private static final int DOUBLE_BITS = 64;
+
+    /**
+     * Get the data type used for an image segment's samples.
+     *
+     * @param imageSegment the image segment.
+     * @return the data type.
+     * @throws UnsupportedOperationException if the pixel value type and number of bits per pixel are not supported.
+     */
+    public static RasterDataType forImageSegment(final ImageSegment imageSegment) {
+        int bitsPerPixel = imageSegment.getNumberOfBitsPerPixelPerBand();
+        switch (imageSegment.getPixelValueType()) {
+            case INTEGER:
+            case SIGNEDINTEGER:
+            case BILEVEL:
+                if (bitsPerPixel <= Byte.SIZE) {
+                    return BYTE;
+                } else if (bitsPerPixel <= Short.SIZE) {
+                    return SHORT;
+                } else if (bitsPerPixel <= Integer.SIZE) {
+                    return INT;
+                }
+                break;
+            case REAL:
+                if (bitsPerPixel == Float.SIZE) {
+                    return FLOAT;
+                } else if (bitsPerPixel == DOUBLE_BITS) {
+                    return DOUBLE;
+                }
+                break;
+            default:
+                break;
+        }
+        throw new UnsupportedOperationException(String.format("Unsupported pixel value type %s with %d bits per pixel",
+                imageSegment.getPixelValueType().getTextEquivalent(), bitsPerPixel));
+    }
+
+    /**
+     * Allocate an array of this type.
+     *
+     * @param length the number of samples.
+     * @return the new array.
+     */
+    Object allocate(final int length) {
+        switch (this) {
+            case BYTE:
+                return new byte[length];
+            case SHORT:
+                return new short[length];
+            case INT:
+                return new int[length];
+            case FLOAT:
+                return new float[length];
+            default:
+                return new double[length];
+        }
+    }
+}
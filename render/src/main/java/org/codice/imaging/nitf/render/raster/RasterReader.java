@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.raster;
+
+import java.io.IOException;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.codice.imaging.nitf.core.image.ImageMode;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.ImageMask;
+
+/**
+ * Reads image sample values as primitive arrays, without conversion for display.
+ *
+ * This is an alternative to NitfRenderer for analysis, where the sample values are needed rather than an image. Each
+ * band is returned as an array of the type given by RasterDataType.forImageSegment(), with the actual bits per pixel
+ * extracted according to the pixel justification. Pad pixels are not substituted, and blocks that are not recorded in
+ * the file are returned as zero.
+ *
+ * Only uncompressed images (NC and NM) are supported, in any of the B, P, R and S image modes.
+ *
+ * Statistics for the sample values can be accumulated as the blocks are read with readStatistics(), without holding
+ * the whole image in memory.
+ *
+ * A RasterReader reads from the image segment data stream, and is not thread safe.
+ */
+public final class RasterReader {
+
+    private final ImageSegment imageSegment;
+    private final ImageInputStream imageData;
+    private final RasterDataType dataType;
+    private final SampleReader sampleReader;
+    private final ImageMask imageMask;
+    private final long imageDataOffset;
+    private final ImageMode imageMode;
+    private final int numBands;
+    private final int blockWidth;
+    private final int blockHeight;
+    private final int samplesPerBlock;
+    private final long bandBlockLength;
+    private final long blockLength;
+    private Object interleavedSamples = null;
+
+    /**
+     * Constructor.
+     *
+     * @param segment the image segment to read from, which must have its data available.
+     * @throws IOException if the image mask could not be read.
+     */
+    public RasterReader(final ImageSegment segment) throws IOException {
+        imageSegment = segment;
+        imageData = segment.getData();
+        if (imageData == null) {
+            throw new IllegalArgumentException("RasterReader: image segment data is not available.");
+        }
+        if ((segment.getImageCompression() != ImageCompression.NOTCOMPRESSED)
+                && (segment.getImageCompression() != ImageCompression.NOTCOMPRESSEDMASK)) {
+            throw new UnsupportedOperationException("RasterReader: unsupported image compression: "
+                    + segment.getImageCompression().getTextEquivalent());
+        }
+        imageMode = segment.getImageMode();
+        if ((imageMode != ImageMode.BLOCKINTERLEVE) && (imageMode != ImageMode.PIXELINTERLEVE)
+                && (imageMode != ImageMode.ROWINTERLEVE) && (imageMode != ImageMode.BANDSEQUENTIAL)) {
+            throw new UnsupportedOperationException("RasterReader: unsupported image mode: " + imageMode.getTextEquivalent());
+        }
+        dataType = RasterDataType.forImageSegment(segment);
+        sampleReader = new SampleReader(segment, dataType);
+        if (segment.getImageCompression() == ImageCompression.NOTCOMPRESSEDMASK) {
+            imageData.seek(0);
+            imageMask = new ImageMask(segment, imageData);
+            imageDataOffset = imageMask.getImageDataOffset();
+        } else {
+            imageMask = null;
+            imageDataOffset = 0;
+        }
+        numBands = segment.getNumBands();
+        blockWidth = (int) segment.getNumberOfPixelsPerBlockHorizontal();
+        blockHeight = (int) segment.getNumberOfPixelsPerBlockVertical();
+        samplesPerBlock = blockWidth * blockHeight;
+        long bitsPerBandBlock = (long) samplesPerBlock * sampleReader.getBitsPerSample();
+        bandBlockLength = (bitsPerBandBlock + Byte.SIZE - 1) / Byte.SIZE;
+        blockLength = (bitsPerBandBlock * numBands + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    /**
+     * @return the type of the arrays returned by this reader.
+     */
+    public RasterDataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * @return true if the samples are signed integers, otherwise false.
+     */
+    public boolean isSigned() {
+        return sampleReader.isSigned();
+    }
+
+    /**
+     * Read a single block.
+     *
+     * @param blockRow the zero-based row of the block in the image.
+     * @param blockColumn the zero-based column of the block in the image.
+     * @param bands the zero-based band numbers to read, or none to read all bands.
+     * @return the samples for the whole block, including any fill beyond the image edges.
+     * @throws IOException if the image data could not be read.
+     */
+    public RasterData readBlock(final int blockRow, final int blockColumn, final int... bands) throws IOException {
+        if ((blockRow < 0) || (blockRow >= imageSegment.getNumberOfBlocksPerColumn())
+                || (blockColumn < 0) || (blockColumn >= imageSegment.getNumberOfBlocksPerRow())) {
+            throw new IllegalArgumentException(String.format("RasterReader: block (%d, %d) is outside the image.",
+                    blockRow, blockColumn));
+        }
+        int[] bandNumbers = resolveBands(bands);
+        RasterData raster = new RasterData(dataType, isSigned(), blockColumn * blockWidth, blockRow * blockHeight,
+                blockWidth, blockHeight, bandNumbers);
+        readBlock(blockRow * imageSegment.getNumberOfBlocksPerRow() + blockColumn, raster);
+        return raster;
+    }
+
+    /**
+     * Read a rectangular region of the image.
+     *
+     * @param x the column of the first sample to read.
+     * @param y the row of the first sample to read.
+     * @param width the number of samples to read in each row.
+     * @param height the number of rows to read.
+     * @param bands the zero-based band numbers to read, or none to read all bands.
+     * @return the samples for the region.
+     * @throws IOException if the image data could not be read.
+     */
+    public RasterData readRegion(final int x, final int y, final int width, final int height, final int... bands)
+            throws IOException {
+        if ((x < 0) || (y < 0) || (width <= 0) || (height <= 0)
+                || ((long) x + width > imageSegment.getNumberOfColumns()) || ((long) y + height > imageSegment.getNumberOfRows())) {
+            throw new IllegalArgumentException(String.format("RasterReader: region (%d, %d, %d, %d) is outside the image.",
+                    x, y, width, height));
+        }
+        int[] bandNumbers = resolveBands(bands);
+        RasterData region = new RasterData(dataType, isSigned(), x, y, width, height, bandNumbers);
+        RasterData block = new RasterData(dataType, isSigned(), 0, 0, blockWidth, blockHeight, bandNumbers);
+        int firstBlockRow = y / blockHeight;
+        int lastBlockRow = (y + height - 1) / blockHeight;
+        int firstBlockColumn = x / blockWidth;
+        int lastBlockColumn = (x + width - 1) / blockWidth;
+        for (int blockRow = firstBlockRow; blockRow <= lastBlockRow; ++blockRow) {
+            for (int blockColumn = firstBlockColumn; blockColumn <= lastBlockColumn; ++blockColumn) {
+                readBlock(blockRow * imageSegment.getNumberOfBlocksPerRow() + blockColumn, block);
+                int blockX = blockColumn * blockWidth;
+                int blockY = blockRow * blockHeight;
+                int startColumn = Math.max(x, blockX);
+                int endColumn = Math.min(x + width, blockX + blockWidth);
+                int startRow = Math.max(y, blockY);
+                int endRow = Math.min(y + height, blockY + blockHeight);
+                for (int i = 0; i < bandNumbers.length; ++i) {
+                    for (int row = startRow; row < endRow; ++row) {
+                        System.arraycopy(block.getData(i), (row - blockY) * blockWidth + (startColumn - blockX),
+                                region.getData(i), (row - y) * width + (startColumn - x), endColumn - startColumn);
+                    }
+                }
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Read the statistics for the whole image.
+     *
+     * For a fast estimate on large images, a block stride greater than 1 reads only every blockStride'th block in
+     * every blockStride'th row of blocks.
+     *
+     * @param blockStride the spacing of the blocks to read, in each direction.
+     * @param bands the zero-based band numbers to read, or none to read all bands.
+     * @return the statistics.
+     * @throws IOException if the image data could not be read.
+     */
+    public ImageStatistics readStatistics(final int blockStride, final int... bands) throws IOException {
+        return readBlockRowStatistics(0, imageSegment.getNumberOfBlocksPerColumn(), blockStride, bands);
+    }
+
+    /**
+     * Read the statistics for some rows of blocks.
+     *
+     * To accumulate statistics in parallel, each thread can read a different range of block rows with its own
+     * RasterReader (over its own copy of the segment data stream), and the results combined with
+     * ImageStatistics.merge(). Block rows are sampled according to their position in the image, so the result does
+     * not depend on how the rows are divided.
+     *
+     * @param firstBlockRow the zero-based row of the first block row to read.
+     * @param numBlockRows the number of block rows to read.
+     * @param blockStride the spacing of the blocks to read, in each direction.
+     * @param bands the zero-based band numbers to read, or none to read all bands.
+     * @return the statistics.
+     * @throws IOException if the image data could not be read.
+     */
+    public ImageStatistics readBlockRowStatistics(final int firstBlockRow, final int numBlockRows, final int blockStride,
+            final int... bands) throws IOException {
+        if ((firstBlockRow < 0) || (numBlockRows < 0) || (firstBlockRow + numBlockRows > imageSegment.getNumberOfBlocksPerColumn())) {
+            throw new IllegalArgumentException(String.format("RasterReader: block rows %d to %d are outside the image.",
+                    firstBlockRow, firstBlockRow + numBlockRows - 1));
+        }
+        if (blockStride < 1) {
+            throw new IllegalArgumentException("RasterReader: block stride must be at least 1.");
+        }
+        int[] bandNumbers = resolveBands(bands);
+        ImageStatistics statistics = new ImageStatistics(createBandStatistics(bandNumbers));
+        RasterData block = new RasterData(dataType, isSigned(), 0, 0, blockWidth, blockHeight, bandNumbers);
+        for (int blockRow = firstBlockRow; blockRow < firstBlockRow + numBlockRows; ++blockRow) {
+            if (blockRow % blockStride != 0) {
+                continue;
+            }
+            int height = (int) Math.min(blockHeight, imageSegment.getNumberOfRows() - (long) blockRow * blockHeight);
+            for (int blockColumn = 0; blockColumn < imageSegment.getNumberOfBlocksPerRow(); blockColumn += blockStride) {
+                int width = (int) Math.min(blockWidth, imageSegment.getNumberOfColumns() - (long) blockColumn * blockWidth);
+                int blockNumber = blockRow * imageSegment.getNumberOfBlocksPerRow() + blockColumn;
+                readBlock(blockNumber, block);
+                for (int i = 0; i < bandNumbers.length; ++i) {
+                    BandStatistics bandStatistics = statistics.getBand(i);
+                    if (isMaskedBlock(blockNumber, bandNumbers[i])) {
+                        bandStatistics.addPadPixels((long) width * height);
+                    } else {
+                        bandStatistics.accumulate(block, i, width, height, getPadPixelMask(blockNumber, bandNumbers[i]));
+                    }
+                }
+                statistics.addBlock();
+            }
+        }
+        return statistics;
+    }
+
+    private BandStatistics[] createBandStatistics(final int[] bandNumbers) {
+        int histogramOffset = 0;
+        int histogramSize = 0;
+        if ((dataType == RasterDataType.BYTE) || (dataType == RasterDataType.SHORT)) {
+            histogramSize = 1 << sampleReader.getActualBitsPerSample();
+            if (isSigned()) {
+                histogramOffset = -(histogramSize / 2);
+            }
+        }
+        BandStatistics[] bandStatistics = new BandStatistics[bandNumbers.length];
+        for (int i = 0; i < bandNumbers.length; ++i) {
+            bandStatistics[i] = new BandStatistics(bandNumbers[i], histogramOffset, histogramSize);
+        }
+        return bandStatistics;
+    }
+
+    private ImageMask getPadPixelMask(final int blockNumber, final int band) {
+        if ((imageMask != null) && imageMask.hasPadPixels(blockNumber, getMaskBand(band))) {
+            return imageMask;
+        }
+        return null;
+    }
+
+    private int[] resolveBands(final int[] bands) {
+        if ((bands == null) || (bands.length == 0)) {
+            int[] allBands = new int[numBands];
+            for (int i = 0; i < numBands; ++i) {
+                allBands[i] = i;
+            }
+            return allBands;
+        }
+        for (int band : bands) {
+            if ((band < 0) || (band >= numBands)) {
+                throw new IllegalArgumentException(String.format("RasterReader: band %d is not in the image.", band));
+            }
+        }
+        return bands.clone();
+    }
+
+    private void readBlock(final int blockNumber, final RasterData raster) throws IOException {
+        switch (imageMode) {
+            case BANDSEQUENTIAL:
+                readBandSequentialBlock(blockNumber, raster);
+                break;
+            case BLOCKINTERLEVE:
+                readBlockInterleavedBlock(blockNumber, raster);
+                break;
+            case PIXELINTERLEVE:
+                readPixelInterleavedBlock(blockNumber, raster);
+                break;
+            default:
+                readRowInterleavedBlock(blockNumber, raster);
+                break;
+        }
+    }
+
+    private void readBandSequentialBlock(final int blockNumber, final RasterData raster) throws IOException {
+        for (int i = 0; i < raster.getNumBands(); ++i) {
+            int band = raster.getBandNumber(i);
+            if (isMaskedBlock(blockNumber, band)) {
+                sampleReader.clear(raster.getData(i), 0, samplesPerBlock);
+            } else {
+                imageData.seek(getBlockOffset(blockNumber, band));
+                sampleReader.read(imageData, raster.getData(i), 0, samplesPerBlock);
+            }
+        }
+    }
+
+    private void readBlockInterleavedBlock(final int blockNumber, final RasterData raster) throws IOException {
+        boolean masked = isMaskedBlock(blockNumber, 0);
+        long blockOffset = getBlockOffset(blockNumber, 0);
+        for (int i = 0; i < raster.getNumBands(); ++i) {
+            if (masked) {
+                sampleReader.clear(raster.getData(i), 0, samplesPerBlock);
+            } else {
+                long bitPosition = (long) raster.getBandNumber(i) * samplesPerBlock * sampleReader.getBitsPerSample();
+                imageData.seek(blockOffset + bitPosition / Byte.SIZE);
+                imageData.setBitOffset((int) (bitPosition % Byte.SIZE));
+                sampleReader.read(imageData, raster.getData(i), 0, samplesPerBlock);
+            }
+        }
+    }
+
+    private void readPixelInterleavedBlock(final int blockNumber, final RasterData raster) throws IOException {
+        if (!readInterleavedSamples(blockNumber, raster)) {
+            return;
+        }
+        for (int i = 0; i < raster.getNumBands(); ++i) {
+            copyBandSamples(raster.getBandNumber(i), raster.getData(i));
+        }
+    }
+
+    private void readRowInterleavedBlock(final int blockNumber, final RasterData raster) throws IOException {
+        if (!readInterleavedSamples(blockNumber, raster)) {
+            return;
+        }
+        for (int i = 0; i < raster.getNumBands(); ++i) {
+            for (int row = 0; row < blockHeight; ++row) {
+                System.arraycopy(interleavedSamples, (row * numBands + raster.getBandNumber(i)) * blockWidth,
+                        raster.getData(i), row * blockWidth, blockWidth);
+            }
+        }
+    }
+
+    private boolean readInterleavedSamples(final int blockNumber, final RasterData raster) throws IOException {
+        if (isMaskedBlock(blockNumber, 0)) {
+            for (int i = 0; i < raster.getNumBands(); ++i) {
+                sampleReader.clear(raster.getData(i), 0, samplesPerBlock);
+            }
+            return false;
+        }
+        if (interleavedSamples == null) {
+            interleavedSamples = dataType.allocate(samplesPerBlock * numBands);
+        }
+        imageData.seek(getBlockOffset(blockNumber, 0));
+        sampleReader.read(imageData, interleavedSamples, 0, samplesPerBlock * numBands);
+        return true;
+    }
+
+    private void copyBandSamples(final int band, final Object target) {
+        switch (dataType) {
+            case BYTE:
+                byte[] bytes = (byte[]) interleavedSamples;
+                byte[] targetBytes = (byte[]) target;
+                for (int i = 0, j = band; i < samplesPerBlock; ++i, j += numBands) {
+                    targetBytes[i] = bytes[j];
+                }
+                break;
+            case SHORT:
+                short[] shorts = (short[]) interleavedSamples;
+                short[] targetShorts = (short[]) target;
+                for (int i = 0, j = band; i < samplesPerBlock; ++i, j += numBands) {
+                    targetShorts[i] = shorts[j];
+                }
+                break;
+            case INT:
+                int[] ints = (int[]) interleavedSamples;
+                int[] targetInts = (int[]) target;
+                for (int i = 0, j = band; i < samplesPerBlock; ++i, j += numBands) {
+                    targetInts[i] = ints[j];
+                }
+                break;
+            case FLOAT:
+                float[] floats = (float[]) interleavedSamples;
+                float[] targetFloats = (float[]) target;
+                for (int i = 0, j = band; i < samplesPerBlock; ++i, j += numBands) {
+                    targetFloats[i] = floats[j];
+                }
+                break;
+            default:
+                double[] doubles = (double[]) interleavedSamples;
+                double[] targetDoubles = (double[]) target;
+                for (int i = 0, j = band; i < samplesPerBlock; ++i, j += numBands) {
+                    targetDoubles[i] = doubles[j];
+                }
+                break;
+        }
+    }
+
+    private boolean isMaskedBlock(final int blockNumber, final int band) {
+        if (imageMask == null) {
+            return false;
+        }
+        return imageMask.isMaskedBlock(blockNumber, getMaskBand(band));
+    }
+
+    private long getBlockOffset(final int blockNumber, final int band) {
+        if ((imageMask != null) && imageMask.hasBlockMask()) {
+            return imageDataOffset + imageMask.getBlockOffset(blockNumber, getMaskBand(band));
+        }
+        if (imageMode == ImageMode.BANDSEQUENTIAL) {
+            long numBlocks = (long) imageSegment.getNumberOfBlocksPerRow() * imageSegment.getNumberOfBlocksPerColumn();
+            return imageDataOffset + (band * numBlocks + blockNumber) * bandBlockLength;
+        }
+        return imageDataOffset + blockNumber * blockLength;
+    }
+
+    private int getMaskBand(final int band) {
+        if (imageMode == ImageMode.BANDSEQUENTIAL) {
+            return band;
+        }
+        return 0;
+    }
+}
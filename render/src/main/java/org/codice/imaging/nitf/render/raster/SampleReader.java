@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.raster;
+
+import java.io.IOException;
+import java.util.Arrays;
+import javax.imageio.stream.ImageInputStream;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.PixelJustification;
+import org.codice.imaging.nitf.core.image.PixelValueType;
+import org.codice.imaging.nitf.render.datareader.SampleUnpacker;
+
+/**
+ * Reads runs of samples from an image stream into primitive arrays.
+ *
+ * Samples that fill their array element exactly are read in bulk. Other bit depths are unpacked with a SampleUnpacker.
+ * Integer samples are then converted from the nominal bits per pixel (NBPP) to the actual bits per pixel (ABPP)
+ * according to the pixel justification, and signed samples are sign extended.
+ */
+final class SampleReader {
+
+    private static final long UNSIGNED_INT_MASK = 0xFFFFFFFFL;
+
+    private final RasterDataType dataType;
+    private final int bitsPerSample;
+    private final int actualBitsPerSample;
+    private final boolean leftJustified;
+    private final boolean signed;
+    private final boolean conversionRequired;
+    private SampleUnpacker unpacker = null;
+    private int[] unpacked = new int[0];
+
+    SampleReader(final ImageSegment imageSegment, final RasterDataType type) {
+        dataType = type;
+        bitsPerSample = imageSegment.getNumberOfBitsPerPixelPerBand();
+        int actualBits = imageSegment.getActualBitsPerPixelPerBand();
+        if ((actualBits <= 0) || (actualBits > bitsPerSample) || (type == RasterDataType.FLOAT) || (type == RasterDataType.DOUBLE)) {
+            actualBits = bitsPerSample;
+        }
+        actualBitsPerSample = actualBits;
+        leftJustified = (imageSegment.getPixelJustification() == PixelJustification.LEFT);
+        signed = (imageSegment.getPixelValueType() == PixelValueType.SIGNEDINTEGER);
+        conversionRequired = (actualBitsPerSample < bitsPerSample) || (signed && (bitsPerSample < getElementBits()));
+    }
+
+    /**
+     * @return true if the samples are signed integers.
+     */
+    boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * @return the number of significant bits in each sample returned.
+     */
+    int getActualBitsPerSample() {
+        return actualBitsPerSample;
+    }
+
+    /**
+     * @return the nominal number of bits per sample in the stream.
+     */
+    int getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    /**
+     * Read a run of consecutive samples.
+     *
+     * @param stream the stream to read from, positioned at the first sample (including the bit offset).
+     * @param array the array to read into, of the type for this reader.
+     * @param offset the index of the first sample in the array.
+     * @param count the number of samples to read.
+     * @throws IOException if reading fails.
+     */
+    void read(final ImageInputStream stream, final Object array, final int offset, final int count) throws IOException {
+        if ((bitsPerSample == getElementBits()) && (stream.getBitOffset() == 0)) {
+            readBulk(stream, array, offset, count);
+            if (conversionRequired) {
+                convert(array, offset, count);
+            }
+        } else {
+            readPacked(stream, array, offset, count);
+        }
+    }
+
+    /**
+     * Clear a run of samples, for blocks that are not recorded in the file.
+     *
+     * @param array the array to clear.
+     * @param offset the index of the first sample.
+     * @param count the number of samples.
+     */
+    void clear(final Object array, final int offset, final int count) {
+        switch (dataType) {
+            case BYTE:
+                Arrays.fill((byte[]) array, offset, offset + count, (byte) 0);
+                break;
+            case SHORT:
+                Arrays.fill((short[]) array, offset, offset + count, (short) 0);
+                break;
+            case INT:
+                Arrays.fill((int[]) array, offset, offset + count, 0);
+                break;
+            case FLOAT:
+                Arrays.fill((float[]) array, offset, offset + count, 0.0f);
+                break;
+            default:
+                Arrays.fill((double[]) array, offset, offset + count, 0.0);
+                break;
+        }
+    }
+
+    private int getElementBits() {
+        switch (dataType) {
+            case BYTE:
+                return Byte.SIZE;
+            case SHORT:
+                return Short.SIZE;
+            case INT:
+            case FLOAT:
+                return Integer.SIZE;
+            default:
+                return Long.SIZE;
+        }
+    }
+
+    private void readBulk(final ImageInputStream stream, final Object array, final int offset, final int count) throws IOException {
+        switch (dataType) {
+            case BYTE:
+                stream.readFully((byte[]) array, offset, count);
+                break;
+            case SHORT:
+                stream.readFully((short[]) array, offset, count);
+                break;
+            case INT:
+                stream.readFully((int[]) array, offset, count);
+                break;
+            case FLOAT:
+                stream.readFully((float[]) array, offset, count);
+                break;
+            default:
+                stream.readFully((double[]) array, offset, count);
+                break;
+        }
+    }
+
+    private void readPacked(final ImageInputStream stream, final Object array, final int offset, final int count) throws IOException {
+        if (unpacker == null) {
+            unpacker = new SampleUnpacker(bitsPerSample);
+        }
+        if (unpacked.length < count) {
+            unpacked = new int[count];
+        }
+        unpacker.unpack(stream, unpacked, 0, count);
+        switch (dataType) {
+            case BYTE:
+                byte[] bytes = (byte[]) array;
+                for (int i = 0; i < count; ++i) {
+                    bytes[offset + i] = (byte) convert(unpacked[i]);
+                }
+                break;
+            case SHORT:
+                short[] shorts = (short[]) array;
+                for (int i = 0; i < count; ++i) {
+                    shorts[offset + i] = (short) convert(unpacked[i]);
+                }
+                break;
+            default:
+                int[] ints = (int[]) array;
+                for (int i = 0; i < count; ++i) {
+                    ints[offset + i] = (int) convert(unpacked[i] & UNSIGNED_INT_MASK);
+                }
+                break;
+        }
+    }
+
+    private void convert(final Object array, final int offset, final int count) {
+        long mask = (1L << bitsPerSample) - 1;
+        switch (dataType) {
+            case BYTE:
+                byte[] bytes = (byte[]) array;
+                for (int i = offset; i < offset + count; ++i) {
+                    bytes[i] = (byte) convert(bytes[i] & mask);
+                }
+                break;
+            case SHORT:
+                short[] shorts = (short[]) array;
+                for (int i = offset; i < offset + count; ++i) {
+                    shorts[i] = (short) convert(shorts[i] & mask);
+                }
+                break;
+            default:
+                int[] ints = (int[]) array;
+                for (int i = offset; i < offset + count; ++i) {
+                    ints[i] = (int) convert(ints[i] & mask);
+                }
+                break;
+        }
+    }
+
+    private long convert(final long rawValue) {
+        long value = rawValue;
+        if (actualBitsPerSample < bitsPerSample) {
+            if (leftJustified) {
+                value = value >>> (bitsPerSample - actualBitsPerSample);
+            } else {
+                value = value & ((1L << actualBitsPerSample) - 1);
+            }
+        }
+        if (signed) {
+            value = (value << (Long.SIZE - actualBitsPerSample)) >> (Long.SIZE - actualBitsPerSample);
+        }
+        return value;
+    }
+}
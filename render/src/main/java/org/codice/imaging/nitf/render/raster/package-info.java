@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+
+/**
+ * The classes in this package provide access to the sample values of uncompressed images, without conversion for
+ * display.
+ *
+ * RasterReader reads blocks or regions of an image segment into primitive arrays, one array per band, taking into
+ * account the pixel value type, the nominal and actual bits per pixel, and pixel justification. This is intended for
+ * analysis of the image data, where the BufferedImage produced by NitfRenderer would lose precision and use more
+ * memory.
+ *
+ * RasterReader can also accumulate ImageStatistics (per band histograms, range, mean and standard deviation) as the
+ * blocks are read, for choosing display transforms without rendering the image first.
+ */
+
+package org.codice.imaging.nitf.render.raster;
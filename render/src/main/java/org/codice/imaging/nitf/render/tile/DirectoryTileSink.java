@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Write tiles to a directory tree, as zoom/column/row files.
+ */
+public final class DirectoryTileSink implements TileSink {
+
+    private final Path rootDirectory;
+    private final String fileExtension;
+
+    /**
+     * Constructor.
+     *
+     * @param directory the root of the tile tree, which is created if it does not exist.
+     * @param format the format of the tiles, which determines the file extension.
+     */
+    public DirectoryTileSink(final Path directory, final TileFormat format) {
+        rootDirectory = directory;
+        fileExtension = format.getFileExtension();
+    }
+
+    @Override
+    public void writeTile(final int zoom, final int column, final int row, final byte[] encodedTile) throws IOException {
+        Path columnDirectory = rootDirectory.resolve(Integer.toString(zoom)).resolve(Integer.toString(column));
+        Files.createDirectories(columnDirectory);
+        Files.write(columnDirectory.resolve(row + "." + fileExtension), encodedTile);
+    }
+
+    @Override
+    public void close() {
+        // Each tile file is closed once it has been written
+    }
+}
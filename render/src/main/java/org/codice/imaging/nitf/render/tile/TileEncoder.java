@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.imageio.ImageIO;
+
+/**
+ * Encode tiles and write them to a sink on an executor.
+ *
+ * The number of tiles waiting to be encoded is limited, so tile images do not accumulate when the executor is slower
+ * than rendering.
+ */
+final class TileEncoder {
+
+    private final Executor executor;
+    private final TileSink tileSink;
+    private final TileFormat tileFormat;
+    private final int tileSize;
+    private final int maxPendingTiles;
+    private final Semaphore pendingTiles;
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    TileEncoder(final Executor encodingExecutor, final TileSink sink, final TileFormat format, final int size, final int maxPending) {
+        executor = encodingExecutor;
+        tileSink = sink;
+        tileFormat = format;
+        tileSize = size;
+        maxPendingTiles = maxPending;
+        pendingTiles = new Semaphore(maxPending);
+    }
+
+    /**
+     * Copy a tile from a strip of image rows, and queue it for encoding.
+     *
+     * @param zoom the zoom level.
+     * @param column the tile column.
+     * @param row the tile row number.
+     * @param strip the image rows containing the tile.
+     * @param x the left edge of the tile in the strip.
+     * @param width the width of the image within the tile.
+     * @param height the height of the image within the tile.
+     * @throws IOException if a previous tile could not be written, or the thread was interrupted.
+     */
+    void writeTile(final int zoom, final int column, final int row, final BufferedImage strip, final int x, final int width,
+            final int height) throws IOException {
+        checkFailure();
+        BufferedImage tile = new BufferedImage(tileSize, tileSize, tileFormat.getImageType());
+        Graphics2D tileGraphics = tile.createGraphics();
+        try {
+            tileGraphics.setComposite(AlphaComposite.Src);
+            tileGraphics.drawImage(strip.getSubimage(x, 0, width, height), 0, 0, null);
+        } finally {
+            tileGraphics.dispose();
+        }
+        acquire(1);
+        try {
+            executor.execute(() -> encodeTile(zoom, column, row, tile));
+        } catch (RejectedExecutionException e) {
+            pendingTiles.release();
+            throw e;
+        }
+    }
+
+    private void encodeTile(final int zoom, final int column, final int row, final BufferedImage tile) {
+        try {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            if (!ImageIO.write(tile, tileFormat.getFormatName(), encoded)) {
+                throw new IOException("No ImageIO writer for " + tileFormat.getFormatName());
+            }
+            tileSink.writeTile(zoom, column, row, encoded.toByteArray());
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, new IOException(e));
+        } finally {
+            pendingTiles.release();
+        }
+    }
+
+    /**
+     * Wait until all queued tiles have been written.
+     *
+     * @throws IOException if the thread was interrupted.
+     */
+    void awaitCompletion() throws IOException {
+        acquire(maxPendingTiles);
+        pendingTiles.release(maxPendingTiles);
+    }
+
+    /**
+     * Check whether any tile could not be encoded or written.
+     *
+     * @throws IOException the first failure.
+     */
+    void checkFailure() throws IOException {
+        IOException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    private void acquire(final int permits) throws IOException {
+        try {
+            pendingTiles.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for tiles to be encoded");
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.BlockRowListener;
+import org.codice.imaging.nitf.render.NitfRenderer;
+
+/**
+ * Export an image segment as a pyramid of tiles.
+ *
+ * The image is decoded once, in a single pass, into a strip buffer one tile row plus one block row high, and each row
+ * of tiles is cut from the buffer as soon as the block rows covering it have been drawn. Tiles are encoded on the
+ * supplied executor, with a fixed limit on the number of tiles waiting to be encoded, and each lower zoom level is built
+ * by reducing the rows of tiles of the level above, so the memory used is bounded by the image width rather than the
+ * image size.
+ *
+ * Zoom levels follow the XYZ / TMS convention: the highest zoom level is the full resolution image, each lower level
+ * is half the resolution of the one above, and zoom level 0 is a single tile.
+ */
+public final class TileExporter {
+
+    private static final int DEFAULT_TILE_SIZE = 256;
+    private static final int DEFAULT_MAX_PENDING_TILES = 64;
+
+    private final Executor executor;
+    private final NitfRenderer renderer;
+    private int tileSize = DEFAULT_TILE_SIZE;
+    private int maxPendingTiles = DEFAULT_MAX_PENDING_TILES;
+    private TileFormat tileFormat = TileFormat.PNG;
+    private TileScheme tileScheme = TileScheme.XYZ;
+
+    /**
+     * Constructor.
+     *
+     * @param encodingExecutor the executor to encode and write tiles on.
+     */
+    public TileExporter(final Executor encodingExecutor) {
+        this(encodingExecutor, new NitfRenderer());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param encodingExecutor the executor to encode and write tiles on.
+     * @param nitfRenderer the renderer to use for the image segment.
+     */
+    public TileExporter(final Executor encodingExecutor, final NitfRenderer nitfRenderer) {
+        executor = encodingExecutor;
+        renderer = nitfRenderer;
+    }
+
+    /**
+     * Set the width and height of the tiles.
+     *
+     * @param size the tile size in pixels, which must be even. The default is 256.
+     */
+    public void setTileSize(final int size) {
+        if ((size < 2) || (size % 2 != 0)) {
+            throw new IllegalArgumentException("Tile size must be a positive even number: " + size);
+        }
+        tileSize = size;
+    }
+
+    /**
+     * Set the number of tiles that can wait to be encoded.
+     *
+     * Each waiting tile holds a copy of its image, so this bounds the memory used when the executor is slower than
+     * rendering, whatever the width of the image.
+     *
+     * @param maxPending the maximum number of tiles waiting to be encoded, which must be at least 1. The default is 64.
+     */
+    public void setMaxPendingTiles(final int maxPending) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Maximum pending tiles must be at least 1: " + maxPending);
+        }
+        maxPendingTiles = maxPending;
+    }
+
+    /**
+     * Set the format to encode tiles in.
+     *
+     * @param format the tile format. The default is PNG.
+     */
+    public void setFormat(final TileFormat format) {
+        tileFormat = format;
+    }
+
+    /**
+     * Set the numbering of tile rows.
+     *
+     * @param scheme the tile scheme. The default is XYZ.
+     */
+    public void setScheme(final TileScheme scheme) {
+        tileScheme = scheme;
+    }
+
+    /**
+     * Get the highest zoom level for an image, which is the full resolution level.
+     *
+     * @param imageSegment the image segment.
+     * @return the zoom level.
+     */
+    public int getMaxZoom(final ImageSegment imageSegment) {
+        int zoom = 0;
+        long width = imageSegment.getNumberOfColumns();
+        long height = imageSegment.getNumberOfRows();
+        while ((width > tileSize) || (height > tileSize)) {
+            width = (width + 1) / 2;
+            height = (height + 1) / 2;
+            ++zoom;
+        }
+        return zoom;
+    }
+
+    /**
+     * Export an image segment as tiles.
+     *
+     * The sink is not closed.
+     *
+     * @param imageSegment the image segment to export.
+     * @param tileSink the destination for the encoded tiles.
+     * @return the highest zoom level written.
+     * @throws IOException if the image could not be read, or a tile could not be encoded or written.
+     */
+    public int export(final ImageSegment imageSegment, final TileSink tileSink) throws IOException {
+        int width = (int) imageSegment.getNumberOfColumns();
+        int height = (int) imageSegment.getNumberOfRows();
+        int maxZoom = getMaxZoom(imageSegment);
+        TileEncoder tileEncoder = new TileEncoder(executor, tileSink, tileFormat, tileSize, maxPendingTiles);
+        TileLevel fullResolution = createLevels(tileEncoder, maxZoom, width, height);
+        try {
+            renderTileRows(imageSegment, fullResolution, width, height);
+        } finally {
+            tileEncoder.awaitCompletion();
+        }
+        tileEncoder.checkFailure();
+        return maxZoom;
+    }
+
+    private TileLevel createLevels(final TileEncoder tileEncoder, final int maxZoom, final int width, final int height) {
+        int[] widths = new int[maxZoom + 1];
+        int[] heights = new int[maxZoom + 1];
+        widths[maxZoom] = width;
+        heights[maxZoom] = height;
+        for (int zoom = maxZoom - 1; zoom >= 0; --zoom) {
+            widths[zoom] = (widths[zoom + 1] + 1) / 2;
+            heights[zoom] = (heights[zoom + 1] + 1) / 2;
+        }
+        TileLevel level = null;
+        for (int zoom = 0; zoom <= maxZoom; ++zoom) {
+            level = new TileLevel(zoom, widths[zoom], heights[zoom], tileSize, tileScheme, tileEncoder, level);
+        }
+        return level;
+    }
+
+    private void renderTileRows(final ImageSegment imageSegment, final TileLevel fullResolution, final int width, final int height)
+            throws IOException {
+        TileStrip tileStrip = new TileStrip(fullResolution, width, height, (int) imageSegment.getNumberOfPixelsPerBlockVertical());
+        try {
+            renderer.renderBlocks(imageSegment, tileStrip.graphics, (rowIndex, columnIndex) -> true, tileStrip);
+        } finally {
+            tileStrip.graphics.dispose();
+        }
+        tileStrip.finish();
+    }
+
+    /**
+     * The strip buffer that block rows are drawn into, which cuts each row of tiles once it is complete.
+     */
+    private final class TileStrip implements BlockRowListener {
+
+        private final TileLevel fullResolution;
+        private final int width;
+        private final int height;
+        private final int blockHeight;
+        private final BufferedImage buffer;
+        private final int[] bufferPixels;
+        private final Graphics2D graphics;
+        private int bufferTop = 0;
+        private int tileRow = 0;
+
+        TileStrip(final TileLevel level, final int imageWidth, final int imageHeight, final int blockRows) {
+            fullResolution = level;
+            width = imageWidth;
+            height = imageHeight;
+            blockHeight = blockRows;
+            buffer = new BufferedImage(width, tileSize + blockHeight, BufferedImage.TYPE_INT_ARGB);
+            bufferPixels = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+            graphics = buffer.createGraphics();
+        }
+
+        @Override
+        public void blockRowRendered(final int rowIndex) throws IOException {
+            int bufferBottom = Math.min(height, (rowIndex + 1) * blockHeight);
+            while (bufferBottom - bufferTop >= tileSize) {
+                fullResolution.addTileRow(buffer, tileSize, tileRow);
+                // Move the rows below the tile row to the top of the buffer, and draw the following blocks above them
+                System.arraycopy(bufferPixels, tileSize * width, bufferPixels, 0, blockHeight * width);
+                Arrays.fill(bufferPixels, blockHeight * width, bufferPixels.length, 0);
+                graphics.translate(0, -tileSize);
+                bufferTop += tileSize;
+                ++tileRow;
+            }
+        }
+
+        void finish() throws IOException {
+            if (height > bufferTop) {
+                fullResolution.addTileRow(buffer, height - bufferTop, tileRow);
+            }
+        }
+    }
+}
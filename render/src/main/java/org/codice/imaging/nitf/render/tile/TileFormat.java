@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The image format used to encode tiles.
+ */
+public enum TileFormat {
+
+    /**
+     * PNG, which is lossless and keeps the transparency outside the image at the right and bottom edges.
+     */
+    PNG("png", "png", BufferedImage.TYPE_INT_ARGB),
+
+    /**
+     * JPEG, which is smaller but lossy. The area outside the image at the right and bottom edges is black.
+     */
+    JPEG("jpeg", "jpg", BufferedImage.TYPE_INT_RGB);
+
+    private final String formatName;
+    private final String fileExtension;
+    private final int imageType;
+
+    TileFormat(final String imageIoFormatName, final String extension, final int bufferedImageType) {
+        formatName = imageIoFormatName;
+        fileExtension = extension;
+        imageType = bufferedImageType;
+    }
+
+    /**
+     * @return the ImageIO format name.
+     */
+    String getFormatName() {
+        return formatName;
+    }
+
+    /**
+     * Get the file extension for tiles in this format.
+     *
+     * @return the file extension, without the leading dot.
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * @return the BufferedImage type to encode.
+     */
+    int getImageType() {
+        return imageType;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+
+/**
+ * One zoom level of a tile pyramid, which is cut into tiles a row at a time.
+ *
+ * Each completed row of tiles is reduced to half resolution into the level below, which cuts its own row of tiles once
+ * it has two rows from this level. Only one strip of rows is held for each level.
+ *
+ * Each reduced pixel is the average of the 2x2 pixels it covers, weighted by their alpha so that transparent pixels do
+ * not darken the edges of the image. Where the level above has an odd width or height, the last column or row of pixels
+ * is averaged with itself.
+ */
+final class TileLevel {
+
+    private static final int ALPHA_SHIFT = 24;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int CHANNEL_MASK = 0xFF;
+    private static final int SAMPLES_PER_PIXEL = 4;
+
+    private final int zoom;
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final TileScheme tileScheme;
+    private final TileEncoder tileEncoder;
+    private final TileLevel lowerLevel;
+    private BufferedImage strip = null;
+    private int stripRows = 0;
+
+    TileLevel(final int zoomLevel, final int levelWidth, final int levelHeight, final int size, final TileScheme scheme,
+            final TileEncoder encoder, final TileLevel nextLevel) {
+        zoom = zoomLevel;
+        width = levelWidth;
+        height = levelHeight;
+        tileSize = size;
+        tileScheme = scheme;
+        tileEncoder = encoder;
+        lowerLevel = nextLevel;
+    }
+
+    /**
+     * @return the number of rows of tiles.
+     */
+    int getNumTileRows() {
+        return (height + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * @return the number of columns of tiles.
+     */
+    int getNumTileColumns() {
+        return (width + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * Cut a row of tiles.
+     *
+     * @param rowStrip the image rows for the tiles, at least as wide as this level.
+     * @param rows the number of image rows, which is the tile size except at the bottom of the image.
+     * @param tileRow the index of the row of tiles, counting from the top.
+     * @throws IOException if a tile could not be written.
+     */
+    void addTileRow(final BufferedImage rowStrip, final int rows, final int tileRow) throws IOException {
+        int rowNumber = tileScheme.getRowNumber(tileRow, getNumTileRows());
+        for (int column = 0; column < getNumTileColumns(); ++column) {
+            int x = column * tileSize;
+            tileEncoder.writeTile(zoom, column, rowNumber, rowStrip, x, Math.min(tileSize, width - x), rows);
+        }
+        if (lowerLevel != null) {
+            lowerLevel.addReducedRow(rowStrip, width, rows, tileRow, tileRow == getNumTileRows() - 1);
+        }
+    }
+
+    private void addReducedRow(final BufferedImage higherStrip, final int higherWidth, final int higherRows, final int higherTileRow,
+            final boolean lastHigherRow) throws IOException {
+        if (strip == null) {
+            strip = new BufferedImage(width, tileSize, BufferedImage.TYPE_INT_ARGB);
+        }
+        int top = (higherTileRow % 2) * (tileSize / 2);
+        int reducedRows = (higherRows + 1) / 2;
+        int[] higherPixels = ((DataBufferInt) higherStrip.getRaster().getDataBuffer()).getData();
+        int higherStride = higherStrip.getWidth();
+        int[] pixels = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < reducedRows; ++y) {
+            int upperRow = 2 * y * higherStride;
+            int lowerRow = Math.min(2 * y + 1, higherRows - 1) * higherStride;
+            for (int x = 0; x < width; ++x) {
+                int left = 2 * x;
+                int right = Math.min(2 * x + 1, higherWidth - 1);
+                pixels[(top + y) * width + x] = average(higherPixels[upperRow + left], higherPixels[upperRow + right],
+                        higherPixels[lowerRow + left], higherPixels[lowerRow + right]);
+            }
+        }
+        stripRows = top + reducedRows;
+        if ((higherTileRow % 2 != 0) || lastHigherRow) {
+            addTileRow(strip, stripRows, higherTileRow / 2);
+            stripRows = 0;
+        }
+    }
+
+    private static int average(final int upperLeft, final int upperRight, final int lowerLeft, final int lowerRight) {
+        int alpha = alpha(upperLeft) + alpha(upperRight) + alpha(lowerLeft) + alpha(lowerRight);
+        if (alpha == 0) {
+            return 0;
+        }
+        return (((alpha + SAMPLES_PER_PIXEL / 2) / SAMPLES_PER_PIXEL) << ALPHA_SHIFT)
+                | (averageChannel(upperLeft, upperRight, lowerLeft, lowerRight, RED_SHIFT, alpha) << RED_SHIFT)
+                | (averageChannel(upperLeft, upperRight, lowerLeft, lowerRight, GREEN_SHIFT, alpha) << GREEN_SHIFT)
+                | averageChannel(upperLeft, upperRight, lowerLeft, lowerRight, 0, alpha);
+    }
+
+    private static int averageChannel(final int upperLeft, final int upperRight, final int lowerLeft, final int lowerRight,
+            final int shift, final int alpha) {
+        int weighted = channel(upperLeft, shift) * alpha(upperLeft) + channel(upperRight, shift) * alpha(upperRight)
+                + channel(lowerLeft, shift) * alpha(lowerLeft) + channel(lowerRight, shift) * alpha(lowerRight);
+        return (weighted + alpha / 2) / alpha;
+    }
+
+    private static int alpha(final int argb) {
+        return argb >>> ALPHA_SHIFT;
+    }
+
+    private static int channel(final int argb, final int shift) {
+        return (argb >> shift) & CHANNEL_MASK;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+/**
+ * The numbering of tile rows.
+ */
+public enum TileScheme {
+
+    /**
+     * Tile row 0 is at the top of the image, as used by most web map tile services.
+     */
+    XYZ,
+
+    /**
+     * Tile row 0 is at the bottom of the image, as in the OSGeo Tile Map Service specification.
+     */
+    TMS;
+
+    /**
+     * Get the row number of a tile.
+     *
+     * @param tileRow the row of the tile, counting from the top of the image.
+     * @param numTileRows the number of rows of tiles at the zoom level.
+     * @return the tile row number in this scheme.
+     */
+    int getRowNumber(final int tileRow, final int numTileRows) {
+        if (this == TMS) {
+            return numTileRows - 1 - tileRow;
+        }
+        return tileRow;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A destination for encoded tiles.
+ *
+ * Tiles are written from the encoding threads, so implementations must be thread safe.
+ */
+public interface TileSink extends Closeable {
+
+    /**
+     * Write an encoded tile.
+     *
+     * @param zoom the zoom level, where zoom level 0 is a single tile covering the whole image.
+     * @param column the tile column, counting from the left of the image.
+     * @param row the tile row, numbered according to the tile scheme.
+     * @param encodedTile the encoded tile image.
+     * @throws IOException if the tile could not be written.
+     */
+    void writeTile(int zoom, int column, int row, byte[] encodedTile) throws IOException;
+}
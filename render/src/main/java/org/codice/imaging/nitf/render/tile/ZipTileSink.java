@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Write tiles to a zip archive, as zoom/column/row entries.
+ *
+ * Tiles are written in the order they are encoded, which is not necessarily row order.
+ */
+public final class ZipTileSink implements TileSink {
+
+    private final ZipOutputStream zipOutputStream;
+    private final String fileExtension;
+
+    /**
+     * Constructor.
+     *
+     * @param outputStream the stream to write the archive to, which is closed when the sink is closed.
+     * @param format the format of the tiles, which determines the entry name extension.
+     */
+    public ZipTileSink(final OutputStream outputStream, final TileFormat format) {
+        zipOutputStream = new ZipOutputStream(outputStream);
+        fileExtension = format.getFileExtension();
+    }
+
+    @Override
+    public synchronized void writeTile(final int zoom, final int column, final int row, final byte[] encodedTile) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(zoom + "/" + column + "/" + row + "." + fileExtension));
+        zipOutputStream.write(encodedTile);
+        zipOutputStream.closeEntry();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        zipOutputStream.close();
+    }
+}
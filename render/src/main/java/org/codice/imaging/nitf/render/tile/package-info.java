@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+/**
+ * The classes in this package cut image segments into tile pyramids for map and image tile servers.
+ *
+ * TileExporter renders an image segment a block row at a time, cuts each row of tiles as soon as it is complete, and
+ * builds the lower zoom levels from the tiles already produced, so the memory used does not depend on the image height.
+ * The encoded tiles are written to a TileSink, such as a directory tree or a zip archive.
+ */
+
+package org.codice.imaging.nitf.render.tile;
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import org.codice.imaging.compare.Compare;
+import org.codice.imaging.nitf.core.image.ImageBand;
+import org.codice.imaging.nitf.core.image.ImageMode;
+import org.codice.imaging.nitf.core.image.ImageRepresentation;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for rendering one band from multiband images, where the other bands are skipped.
+ *
+ * Each image is rendered and compared with the rendering of a single band image that holds only the selected band.
+ */
+public class BandSubsetRenderTest {
+
+    private static final int NUM_BANDS = 5;
+    private static final int SELECTED_BAND = 3;
+    private static final int BLOCKS_PER_ROW = 2;
+    private static final int BLOCKS_PER_COLUMN = 2;
+    private static final int BLOCK_SIZE = 3;
+
+    @Test
+    public void testBlockInterleaved() throws IOException {
+        checkBandSubset(ImageMode.BLOCKINTERLEVE, 8);
+        checkBandSubset(ImageMode.BLOCKINTERLEVE, 12);
+    }
+
+    @Test
+    public void testPixelInterleaved() throws IOException {
+        checkBandSubset(ImageMode.PIXELINTERLEVE, 8);
+        checkBandSubset(ImageMode.PIXELINTERLEVE, 12);
+        checkBandSubset(ImageMode.PIXELINTERLEVE, 16);
+    }
+
+    @Test
+    public void testRowInterleaved() throws IOException {
+        checkBandSubset(ImageMode.ROWINTERLEVE, 8);
+        checkBandSubset(ImageMode.ROWINTERLEVE, 12);
+    }
+
+    @Test
+    public void testBandSequential() throws IOException {
+        checkBandSubset(ImageMode.BANDSEQUENTIAL, 8);
+        checkBandSubset(ImageMode.BANDSEQUENTIAL, 12);
+    }
+
+    @Test
+    public void testBandSequentialRowsDrawnInOrder() throws IOException {
+        ImageSegment multiband = createSegment(ImageMode.BANDSEQUENTIAL, NUM_BANDS, 8);
+        BufferedImage referenceImage = new NitfRenderer().render(createSegment(ImageMode.BLOCKINTERLEVE, 1, 8));
+        BufferedImage image = new BufferedImage(referenceImage.getWidth(), referenceImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D target = image.createGraphics();
+        List<Integer> rows = new ArrayList<>();
+        new NitfRenderer().renderBlocks(multiband, target, (rowIndex, columnIndex) -> true, rowIndex -> {
+            // Each row of blocks is complete when it is reported, and the rows below it have not been drawn yet
+            int drawnHeight = (rowIndex + 1) * BLOCK_SIZE;
+            assertTrue(Compare.areIdentical(image.getSubimage(0, 0, image.getWidth(), drawnHeight),
+                    referenceImage.getSubimage(0, 0, image.getWidth(), drawnHeight)));
+            if (drawnHeight < image.getHeight()) {
+                assertEquals(0, image.getRGB(0, drawnHeight) >>> 24);
+            }
+            rows.add(rowIndex);
+        });
+        target.dispose();
+        assertEquals(Arrays.asList(0, 1), rows);
+        assertTrue(Compare.areIdentical(image, referenceImage));
+    }
+
+    private void checkBandSubset(final ImageMode mode, final int bitsPerPixel) throws IOException {
+        ImageSegment multiband = createSegment(mode, NUM_BANDS, bitsPerPixel);
+        ImageSegment reference = createSegment(ImageMode.BLOCKINTERLEVE, 1, bitsPerPixel);
+        BufferedImage multibandImage = new NitfRenderer().render(multiband);
+        BufferedImage referenceImage = new NitfRenderer().render(reference);
+        assertTrue(mode + " " + bitsPerPixel, Compare.areIdentical(multibandImage, referenceImage));
+    }
+
+    private ImageSegment createSegment(final ImageMode mode, final int numBands, final int bitsPerPixel) throws IOException {
+        TestImageSegmentBuilder builder = new TestImageSegmentBuilder()
+                .imageMode(mode)
+                .representation(ImageRepresentation.MULTIBAND)
+                .bitsPerPixel(bitsPerPixel)
+                .blocks(BLOCKS_PER_ROW, BLOCKS_PER_COLUMN, BLOCK_SIZE, BLOCK_SIZE);
+        int firstBand = SELECTED_BAND;
+        if (numBands > 1) {
+            firstBand = 0;
+        }
+        for (int i = 0; i < numBands; ++i) {
+            ImageBand band = new ImageBand();
+            if (firstBand + i == SELECTED_BAND) {
+                band.setImageRepresentation("M");
+            }
+            builder.band(band);
+        }
+        return builder.data(writeSamples(mode, firstBand, numBands, bitsPerPixel)).build();
+    }
+
+    private byte[] writeSamples(final ImageMode mode, final int firstBand, final int numBands, final int bitsPerPixel) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes);
+        int numBlocks = BLOCKS_PER_ROW * BLOCKS_PER_COLUMN;
+        switch (mode) {
+            case BANDSEQUENTIAL:
+                for (int band = firstBand; band < firstBand + numBands; ++band) {
+                    for (int block = 0; block < numBlocks; ++block) {
+                        for (int pixel = 0; pixel < BLOCK_SIZE * BLOCK_SIZE; ++pixel) {
+                            out.writeBits(getSample(band, block, pixel, bitsPerPixel), bitsPerPixel);
+                        }
+                    }
+                }
+                break;
+            case BLOCKINTERLEVE:
+                for (int block = 0; block < numBlocks; ++block) {
+                    for (int band = firstBand; band < firstBand + numBands; ++band) {
+                        for (int pixel = 0; pixel < BLOCK_SIZE * BLOCK_SIZE; ++pixel) {
+                            out.writeBits(getSample(band, block, pixel, bitsPerPixel), bitsPerPixel);
+                        }
+                    }
+                }
+                break;
+            case PIXELINTERLEVE:
+                for (int block = 0; block < numBlocks; ++block) {
+                    for (int pixel = 0; pixel < BLOCK_SIZE * BLOCK_SIZE; ++pixel) {
+                        for (int band = firstBand; band < firstBand + numBands; ++band) {
+                            out.writeBits(getSample(band, block, pixel, bitsPerPixel), bitsPerPixel);
+                        }
+                    }
+                }
+                break;
+            default:
+                for (int block = 0; block < numBlocks; ++block) {
+                    for (int row = 0; row < BLOCK_SIZE; ++row) {
+                        for (int band = firstBand; band < firstBand + numBands; ++band) {
+                            for (int column = 0; column < BLOCK_SIZE; ++column) {
+                                out.writeBits(getSample(band, block, row * BLOCK_SIZE + column, bitsPerPixel), bitsPerPixel);
+                            }
+                        }
+                    }
+                }
+                break;
+        }
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private long getSample(final int band, final int block, final int pixel, final int bitsPerPixel) {
+        long value = band * 41 + block * 13 + pixel * 5;
+        return (value << (bitsPerPixel - 8)) & ((1L << bitsPerPixel) - 1);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.codice.imaging.nitf.core.image.ImageBandLUT;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.PixelJustification;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for display transforms.
+ */
+public class DisplayTransformTest {
+
+    private static final int OPAQUE_BLACK = 0xFF000000;
+    private static final int OPAQUE_WHITE = 0xFFFFFFFF;
+
+    @Test
+    public void testLinear() {
+        DisplayTransform transform = DisplayTransform.linear(1000, 2000);
+        assertEquals(0, transform.apply(0));
+        assertEquals(0, transform.apply(1000));
+        assertEquals(128, transform.apply(1500));
+        assertEquals(255, transform.apply(2000));
+        assertEquals(255, transform.apply(65535));
+    }
+
+    @Test
+    public void testGamma() {
+        DisplayTransform transform = DisplayTransform.gamma(0, 4095, 2.0);
+        assertEquals(0, transform.apply(0));
+        assertEquals(180, transform.apply(2048));
+        assertEquals(255, transform.apply(4095));
+    }
+
+    @Test
+    public void testPercentile() {
+        long[] histogram = new long[4096];
+        histogram[0] = 1;
+        for (int i = 100; i < 200; ++i) {
+            histogram[i] = 1;
+        }
+        histogram[4095] = 1;
+        DisplayTransform transform = DisplayTransform.percentile(histogram, 2.0, 98.0);
+        assertEquals(0, transform.apply(101));
+        assertEquals(255, transform.apply(198));
+        assertTrue(transform.apply(150) > 0);
+        assertTrue(transform.apply(150) < 255);
+    }
+
+    @Test
+    public void testLookupTable() {
+        DisplayTransform transform = DisplayTransform.lookupTable(new ImageBandLUT(new byte[] {(byte) 0xFF, 0x40, 0x10}));
+        assertEquals(255, transform.apply(0));
+        assertEquals(0x40, transform.apply(1));
+        assertEquals(0x10, transform.apply(2));
+        assertEquals(0x10, transform.apply(4095));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        DisplayTransform.linear(2000, 1000);
+    }
+
+    @Test
+    public void testRenderRightJustified() throws IOException {
+        ImageSegment segment = createSegment(PixelJustification.RIGHT, 0);
+        checkRender(segment);
+    }
+
+    @Test
+    public void testRenderLeftJustified() throws IOException {
+        ImageSegment segment = createSegment(PixelJustification.LEFT, 4);
+        checkRender(segment);
+    }
+
+    private void checkRender(final ImageSegment segment) throws IOException {
+        NitfRenderer renderer = new NitfRenderer();
+        renderer.setDisplayTransform(DisplayTransform.linear(1000, 2000));
+        BufferedImage image = renderer.render(segment);
+        assertEquals(OPAQUE_BLACK, image.getRGB(0, 0));
+        assertEquals(OPAQUE_WHITE, image.getRGB(1, 1));
+        assertEquals(OPAQUE_WHITE, image.getRGB(0, 1));
+        int middle = image.getRGB(1, 0) & 0xFF;
+        assertTrue(middle > 0);
+        assertTrue(middle < 255);
+    }
+
+    private ImageSegment createSegment(final PixelJustification justification, final int leftShift) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int value : new int[] {900, 1500, 2500, 4095}) {
+            out.writeShort(value << leftShift);
+        }
+        return new TestImageSegmentBuilder()
+                .justification(justification)
+                .bitsPerPixel(Short.SIZE)
+                .actualBitsPerPixel(12)
+                .blocks(1, 1, 2, 2)
+                .data(bytes.toByteArray())
+                .build();
+    }
+}
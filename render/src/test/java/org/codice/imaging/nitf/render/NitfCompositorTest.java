@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.codice.imaging.nitf.core.RGBColour;
+import org.codice.imaging.nitf.core.SlottedStorage;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.label.LabelSegment;
+import org.codice.imaging.nitf.core.label.LabelSegmentFactory;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Tests for NitfCompositor.
+ */
+public class NitfCompositorTest {
+
+    private static final int TRANSPARENT = 0;
+    private static final int BLACK = 0xFF000000;
+    private static final int GREY = 0xFF808080;
+    private static final int WHITE = 0xFFFFFFFF;
+
+    @Test
+    public void testHigherDisplayLevelCoversLower() throws IOException {
+        SlottedStorage dataSource = new SlottedStorage();
+        dataSource.getImageSegments().add(createSegment(2, 2, 0x80, 1, 0, 0));
+        dataSource.getImageSegments().add(createSegment(1, 1, 0xFF, 2, 4, 4));
+
+        NitfCompositor compositor = new NitfCompositor(dataSource);
+        assertEquals(new Rectangle(0, 0, 8, 8), compositor.getBounds());
+        BufferedImage image = compositor.render(compositor.getBounds());
+        assertEquals(GREY, image.getRGB(1, 1));
+        assertEquals(GREY, image.getRGB(6, 1));
+        assertEquals(WHITE, image.getRGB(5, 5));
+        assertEquals(WHITE, image.getRGB(7, 7));
+    }
+
+    @Test
+    public void testCoveredBlocksAreNotDecoded() throws IOException {
+        // The last block of the lower image is missing from its data, so rendering would fail if it was read
+        ImageSegment lower = createSegment(2, 2, 0x80, 1, 0, 0);
+        byte[] truncated = new byte[48];
+        Arrays.fill(truncated, (byte) 0x80);
+        lower.setData(new MemoryCacheImageInputStream(new ByteArrayInputStream(truncated)));
+        lower.setDataLength(truncated.length);
+        SlottedStorage dataSource = new SlottedStorage();
+        dataSource.getImageSegments().add(lower);
+        dataSource.getImageSegments().add(createSegment(1, 1, 0xFF, 2, 4, 4));
+
+        BufferedImage image = new NitfCompositor(dataSource).render(new Rectangle(0, 0, 8, 8));
+        assertEquals(GREY, image.getRGB(1, 1));
+        assertEquals(GREY, image.getRGB(1, 6));
+        assertEquals(WHITE, image.getRGB(6, 6));
+    }
+
+    @Test
+    public void testViewport() throws IOException {
+        // The lower image is completely hidden in the viewport, so its data is never read
+        ImageSegment lower = createSegment(2, 2, 0x80, 1, 0, 0);
+        lower.setData(new MemoryCacheImageInputStream(new ByteArrayInputStream(new byte[0])));
+        SlottedStorage dataSource = new SlottedStorage();
+        dataSource.getImageSegments().add(lower);
+        dataSource.getImageSegments().add(createSegment(1, 1, 0xFF, 2, 4, 4));
+
+        BufferedImage image = new NitfCompositor(dataSource).render(new Rectangle(5, 5, 2, 2));
+        assertEquals(2, image.getWidth());
+        assertEquals(2, image.getHeight());
+        assertEquals(WHITE, image.getRGB(0, 0));
+        assertEquals(WHITE, image.getRGB(1, 1));
+    }
+
+    @Test
+    public void testAttachment() throws IOException {
+        ImageSegment lower = createSegment(1, 1, 0x00, 1, 2, 2);
+        ImageSegment upper = createSegment(1, 1, 0xFF, 2, 4, 4);
+        upper.setAttachmentLevel(1);
+        SlottedStorage dataSource = new SlottedStorage();
+        dataSource.getImageSegments().add(upper);
+        dataSource.getImageSegments().add(lower);
+
+        NitfCompositor compositor = new NitfCompositor(dataSource);
+        assertEquals(new Rectangle(2, 2, 8, 8), compositor.getBounds());
+        BufferedImage image = compositor.render(new Rectangle(0, 0, 10, 10));
+        assertEquals(TRANSPARENT, image.getRGB(1, 1));
+        assertEquals(BLACK, image.getRGB(2, 2));
+        assertEquals(BLACK, image.getRGB(5, 5));
+        assertEquals(WHITE, image.getRGB(6, 6));
+        assertEquals(WHITE, image.getRGB(9, 9));
+    }
+
+    @Test
+    public void testLabel() throws IOException {
+        LabelSegment label = LabelSegmentFactory.getDefault();
+        label.setLabelDisplayLevel(3);
+        label.setAttachmentLevel(1);
+        label.setLabelLocationRow(1);
+        label.setLabelLocationColumn(1);
+        label.setLabelCellWidth(4);
+        label.setLabelCellHeight(4);
+        label.setLabelBackgroundColour(new RGBColour((byte) 0xFF, (byte) 0x00, (byte) 0x00));
+        label.setLabelTextColour(new RGBColour((byte) 0xFF, (byte) 0x00, (byte) 0x00));
+        label.setData("AB");
+        SlottedStorage dataSource = new SlottedStorage();
+        dataSource.getImageSegments().add(createSegment(1, 1, 0xFF, 1, 2, 2));
+        dataSource.getLabelSegments().add(label);
+
+        BufferedImage image = new NitfCompositor(dataSource).render(new Rectangle(0, 0, 16, 16));
+        assertEquals(0xFFFF0000, image.getRGB(3, 3));
+        assertEquals(0xFFFF0000, image.getRGB(10, 6));
+        assertEquals(WHITE, image.getRGB(2, 2));
+        assertEquals(TRANSPARENT, image.getRGB(12, 6));
+    }
+
+    private ImageSegment createSegment(final int blocksPerRow, final int blocksPerColumn, final int value, final int displayLevel,
+            final int row, final int column) {
+        // Square 4x4 blocks of a single grey level
+        byte[] data = new byte[blocksPerRow * blocksPerColumn * 16];
+        Arrays.fill(data, (byte) value);
+        return new TestImageSegmentBuilder()
+                .blocks(blocksPerRow, blocksPerColumn, 4, 4)
+                .displayLevel(displayLevel)
+                .location(row, column)
+                .data(data)
+                .build();
+    }
+}
@@ -18,9 +18,15 @@
  */
 package org.codice.imaging.nitf.render;
 
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.codice.imaging.nitf.core.common.NitfMetrics;
+import org.codice.imaging.nitf.core.common.NitfMetricsRegistry;
 import org.codice.imaging.nitf.core.image.ImageCompression;
 import org.codice.imaging.nitf.core.image.ImageSegment;
+import static org.junit.Assert.assertEquals;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -51,4 +57,30 @@ public class NitfRendererTest {
         renderer.render(mockImageSegmentHeader, null);
     }
 
+    @Test
+    public void checkOnlyRenderedBlocksCounted() throws IOException {
+        AtomicLong blocksDecoded = new AtomicLong();
+        NitfMetricsRegistry.setMetrics(new NitfMetrics() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public void recordBlocksDecoded(final ImageCompression compression, final long count) {
+                blocksDecoded.addAndGet(count);
+            }
+        });
+        try {
+            ImageSegment segment = new TestImageSegmentBuilder().blocks(3, 2, 2, 2).data(new byte[24]).build();
+            BufferedImage image = new BufferedImage(6, 4, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D target = image.createGraphics();
+            new NitfRenderer().renderBlocks(segment, target, (rowIndex, columnIndex) -> columnIndex == 1);
+            target.dispose();
+            assertEquals(2, blocksDecoded.get());
+        } finally {
+            NitfMetricsRegistry.setMetrics(null);
+        }
+    }
+
 }
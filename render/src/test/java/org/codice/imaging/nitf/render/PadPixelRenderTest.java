@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for pad pixel replacement in masked (NM) images.
+ */
+public class PadPixelRenderTest {
+
+    private static final int PAD_PIXEL_VALUE = 7;
+    private static final int OPAQUE_BLACK = 0xFF000000;
+
+    @Test
+    public void testPadPixelsReplaced() throws IOException {
+        ImageSegment segment = createSegment(0, 0);
+        BufferedImage image = new NitfRenderer().render(segment);
+        assertEquals(OPAQUE_BLACK, image.getRGB(0, 0));
+        assertNotEquals(OPAQUE_BLACK, image.getRGB(1, 0));
+        assertEquals(OPAQUE_BLACK, image.getRGB(2, 0));
+        assertNotEquals(OPAQUE_BLACK, image.getRGB(3, 0));
+    }
+
+    @Test
+    public void testBlockWithoutPadPixelsSkipped() throws IOException {
+        // The second block is recorded as having no pad pixels, so its values are left as they are.
+        ImageSegment segment = createSegment(0, 0xFFFFFFFF);
+        BufferedImage image = new NitfRenderer().render(segment);
+        assertEquals(OPAQUE_BLACK, image.getRGB(0, 0));
+        assertNotEquals(OPAQUE_BLACK, image.getRGB(2, 0));
+    }
+
+    @Test
+    public void testHasPadPixels() throws IOException {
+        ImageSegment segment = createSegment(0, 0xFFFFFFFF);
+        ImageMask imageMask = new ImageMask(segment, segment.getData());
+        assertTrue(imageMask.hasPixelMasks());
+        assertTrue(imageMask.hasPadPixels(0, 0));
+        assertFalse(imageMask.hasPadPixels(1, 0));
+        assertFalse(new ImageMask(segment).hasPadPixels(0, 0));
+    }
+
+    private ImageSegment createSegment(final int firstPadPixelOffset, final int secondPadPixelOffset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(19);
+        out.writeShort(0);
+        out.writeShort(4);
+        out.writeShort(Byte.SIZE);
+        out.writeByte(PAD_PIXEL_VALUE);
+        out.writeInt(firstPadPixelOffset);
+        out.writeInt(secondPadPixelOffset);
+        out.write(new byte[] {PAD_PIXEL_VALUE, 90, 90, 90, PAD_PIXEL_VALUE, 90, 90, 90});
+        return new TestImageSegmentBuilder()
+                .compression(ImageCompression.NOTCOMPRESSEDMASK)
+                .blocks(2, 1, 2, 2)
+                .data(bytes.toByteArray())
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.codice.imaging.nitf.core.common.FileType;
+import org.codice.imaging.nitf.core.image.ImageBand;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.codice.imaging.nitf.core.image.ImageMode;
+import org.codice.imaging.nitf.core.image.ImageRepresentation;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.ImageSegmentFactory;
+import org.codice.imaging.nitf.core.image.PixelJustification;
+import org.codice.imaging.nitf.core.image.PixelValueType;
+
+/**
+ * Builds in-memory image segments for rendering tests.
+ *
+ * The defaults are a single 8 bit monochrome band of uncompressed, block interleaved integer samples, in one 1x1 block.
+ * The image size is always the number of blocks times the block size.
+ */
+public class TestImageSegmentBuilder {
+
+    private ImageMode imageMode = ImageMode.BLOCKINTERLEVE;
+    private ImageCompression imageCompression = ImageCompression.NOTCOMPRESSED;
+    private ImageRepresentation imageRepresentation = ImageRepresentation.MONOCHROME;
+    private PixelValueType pixelValueType = PixelValueType.INTEGER;
+    private PixelJustification pixelJustification = PixelJustification.RIGHT;
+    private int bitsPerPixel = Byte.SIZE;
+    private int actualBitsPerPixel = Byte.SIZE;
+    private int blocksPerRow = 1;
+    private int blocksPerColumn = 1;
+    private int blockWidth = 1;
+    private int blockHeight = 1;
+    private int displayLevel = 0;
+    private int locationRow = 0;
+    private int locationColumn = 0;
+    private final List<ImageBand> bands = new ArrayList<>();
+    private byte[] data = new byte[0];
+
+    public TestImageSegmentBuilder imageMode(final ImageMode mode) {
+        imageMode = mode;
+        return this;
+    }
+
+    public TestImageSegmentBuilder compression(final ImageCompression compression) {
+        imageCompression = compression;
+        return this;
+    }
+
+    public TestImageSegmentBuilder representation(final ImageRepresentation representation) {
+        imageRepresentation = representation;
+        return this;
+    }
+
+    public TestImageSegmentBuilder pixelValueType(final PixelValueType valueType) {
+        pixelValueType = valueType;
+        return this;
+    }
+
+    public TestImageSegmentBuilder justification(final PixelJustification justification) {
+        pixelJustification = justification;
+        return this;
+    }
+
+    /**
+     * Set both the stored and the actual number of bits per pixel per band.
+     */
+    public TestImageSegmentBuilder bitsPerPixel(final int bits) {
+        bitsPerPixel = bits;
+        actualBitsPerPixel = bits;
+        return this;
+    }
+
+    public TestImageSegmentBuilder actualBitsPerPixel(final int bits) {
+        actualBitsPerPixel = bits;
+        return this;
+    }
+
+    public TestImageSegmentBuilder blocks(final int numBlocksPerRow, final int numBlocksPerColumn, final int width, final int height) {
+        blocksPerRow = numBlocksPerRow;
+        blocksPerColumn = numBlocksPerColumn;
+        blockWidth = width;
+        blockHeight = height;
+        return this;
+    }
+
+    public TestImageSegmentBuilder displayLevel(final int level) {
+        displayLevel = level;
+        return this;
+    }
+
+    public TestImageSegmentBuilder location(final int row, final int column) {
+        locationRow = row;
+        locationColumn = column;
+        return this;
+    }
+
+    /**
+     * Add a band. If no bands are added, the segment has a single default band.
+     */
+    public TestImageSegmentBuilder band(final ImageBand band) {
+        bands.add(band);
+        return this;
+    }
+
+    /**
+     * Add a number of default bands.
+     */
+    public TestImageSegmentBuilder bands(final int numBands) {
+        for (int i = 0; i < numBands; ++i) {
+            bands.add(new ImageBand());
+        }
+        return this;
+    }
+
+    /**
+     * Add a band for each band representation (such as "R", "G" or "M").
+     */
+    public TestImageSegmentBuilder bands(final String... bandRepresentations) {
+        for (String bandRepresentation : bandRepresentations) {
+            ImageBand band = new ImageBand();
+            band.setImageRepresentation(bandRepresentation);
+            bands.add(band);
+        }
+        return this;
+    }
+
+    /**
+     * Set the image data, as it is stored in the file.
+     */
+    public TestImageSegmentBuilder data(final byte[] imageData) {
+        data = imageData;
+        return this;
+    }
+
+    public ImageSegment build() {
+        ImageSegment segment = ImageSegmentFactory.getDefault(FileType.NITF_TWO_ONE);
+        segment.setImageMode(imageMode);
+        segment.setImageCompression(imageCompression);
+        segment.setImageRepresentation(imageRepresentation);
+        segment.setPixelValueType(pixelValueType);
+        segment.setPixelJustification(pixelJustification);
+        segment.setNumberOfBitsPerPixelPerBand(bitsPerPixel);
+        segment.setActualBitsPerPixelPerBand(actualBitsPerPixel);
+        segment.setNumberOfBlocksPerRow(blocksPerRow);
+        segment.setNumberOfBlocksPerColumn(blocksPerColumn);
+        segment.setNumberOfPixelsPerBlockHorizontalRaw(blockWidth);
+        segment.setNumberOfPixelsPerBlockVerticalRaw(blockHeight);
+        segment.setNumberOfColumns(blocksPerRow * blockWidth);
+        segment.setNumberOfRows(blocksPerColumn * blockHeight);
+        segment.setImageDisplayLevel(displayLevel);
+        segment.setImageLocationRow(locationRow);
+        segment.setImageLocationColumn(locationColumn);
+        if (bands.isEmpty()) {
+            segment.addImageBand(new ImageBand());
+        }
+        for (ImageBand band : bands) {
+            segment.addImageBand(band);
+        }
+        segment.setData(new MemoryCacheImageInputStream(new ByteArrayInputStream(data)));
+        segment.setDataLength(data.length);
+        return segment;
+    }
+}
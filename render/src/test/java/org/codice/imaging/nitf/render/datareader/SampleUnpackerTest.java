@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.datareader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import org.codice.imaging.nitf.core.common.FileType;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.ImageSegmentFactory;
+import org.codice.imaging.nitf.core.image.PixelJustification;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Tests for SampleUnpacker and the bulk readers from DataReaderFactory.
+ */
+public class SampleUnpackerTest {
+
+    private static final int NUM_SAMPLES = 37;
+
+    @Test
+    public void testAllBitDepths() throws IOException {
+        for (int bits = 1; bits <= Integer.SIZE; ++bits) {
+            for (int leadingBits = 0; leadingBits < Byte.SIZE; ++leadingBits) {
+                checkUnpack(bits, leadingBits);
+            }
+        }
+    }
+
+    @Test
+    public void testTwelveBitPairs() throws IOException {
+        byte[] data = new byte[] {(byte) 0xAB, (byte) 0xCD, (byte) 0xEF, 0x12, 0x34, 0x56, 0x78, (byte) 0x9A};
+        ImageInputStream stream = new MemoryCacheImageInputStream(new ByteArrayInputStream(data));
+        int[] samples = new int[5];
+        new SampleUnpacker(12).unpack(stream, samples, 0, 5);
+        assertArrayEquals(new int[] {0xABC, 0xDEF, 0x123, 0x456, 0x789}, samples);
+        assertEquals(7, stream.getStreamPosition());
+        assertEquals(4, stream.getBitOffset());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyBits() {
+        new SampleUnpacker(Integer.SIZE + 1);
+    }
+
+    @Test
+    public void testArrayReaderMatchesPixelReader() throws IOException {
+        checkArrayReader(1, 1, PixelJustification.RIGHT);
+        checkArrayReader(8, 8, PixelJustification.RIGHT);
+        checkArrayReader(8, 6, PixelJustification.RIGHT);
+        checkArrayReader(12, 12, PixelJustification.RIGHT);
+        checkArrayReader(12, 11, PixelJustification.RIGHT);
+        checkArrayReader(12, 11, PixelJustification.LEFT);
+        checkArrayReader(16, 16, PixelJustification.RIGHT);
+        checkArrayReader(16, 14, PixelJustification.RIGHT);
+    }
+
+    private void checkUnpack(final int bits, final int leadingBits) throws IOException {
+        long[] values = new long[NUM_SAMPLES];
+        Random random = new Random(bits * Byte.SIZE + leadingBits);
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = random.nextLong() & ((1L << bits) - 1);
+        }
+        ImageInputStream stream = createStream(leadingBits, bits, values);
+        stream.readBits(leadingBits);
+        int[] samples = new int[NUM_SAMPLES + 2];
+        new SampleUnpacker(bits).unpack(stream, samples, 2, NUM_SAMPLES);
+        for (int i = 0; i < values.length; ++i) {
+            assertEquals("bits " + bits + ", sample " + i, values[i], samples[i + 2] & 0xFFFFFFFFL);
+        }
+        // The stream should be left at the trailing marker
+        assertEquals(0x5, stream.readBits(3));
+    }
+
+    private void checkArrayReader(final int bits, final int actualBits, final PixelJustification justification) throws IOException {
+        ImageSegment segment = ImageSegmentFactory.getDefault(FileType.NITF_TWO_ONE);
+        segment.setNumberOfBitsPerPixelPerBand(bits);
+        segment.setActualBitsPerPixelPerBand(actualBits);
+        segment.setPixelJustification(justification);
+        long[] values = new long[NUM_SAMPLES];
+        Random random = new Random(bits);
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = random.nextLong() & ((1L << bits) - 1);
+        }
+        IOReaderFunction pixelReader = DataReaderFactory.forImageSegment(segment);
+        ImageInputStream pixelStream = createStream(0, bits, values);
+        int[] expected = new int[NUM_SAMPLES];
+        for (int i = 0; i < expected.length; ++i) {
+            expected[i] = (Integer) pixelReader.apply(pixelStream);
+        }
+        int[] samples = new int[NUM_SAMPLES];
+        DataReaderFactory.arrayReaderForImageSegment(segment).read(createStream(0, bits, values), samples, 0, NUM_SAMPLES);
+        assertArrayEquals(expected, samples);
+    }
+
+    private ImageInputStream createStream(final int leadingBits, final int bits, final long[] values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes);
+        out.writeBits(0, leadingBits);
+        for (long value : values) {
+            out.writeBits(value, bits);
+        }
+        out.writeBits(0x5, 3);
+        out.close();
+        return new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
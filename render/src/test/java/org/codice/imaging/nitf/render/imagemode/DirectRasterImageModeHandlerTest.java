@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.imagemode;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.codice.imaging.compare.Compare;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.codice.imaging.nitf.core.image.ImageMode;
+import org.codice.imaging.nitf.core.image.ImageRepresentation;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.TestImageSegmentBuilder;
+import org.codice.imaging.nitf.render.imagerep.ImageRepresentationHandlerFactory;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for rendering uncompressed blocks directly into raster arrays.
+ *
+ * Each image is rendered by DirectRasterImageModeHandler and by the sample decoding handler for the same image mode,
+ * and the results are compared.
+ */
+public class DirectRasterImageModeHandlerTest {
+
+    private static final int BLOCKS_PER_ROW = 2;
+    private static final int BLOCKS_PER_COLUMN = 2;
+    private static final int BLOCK_SIZE = 3;
+    private static final int PAD_PIXEL_VALUE = 7;
+
+    @Test
+    public void testMono8() throws IOException {
+        checkSameAsDecoded(ImageMode.BLOCKINTERLEVE, ImageRepresentation.MONOCHROME, 8, ImageCompression.NOTCOMPRESSED, "M");
+    }
+
+    @Test
+    public void testMono16() throws IOException {
+        checkSameAsDecoded(ImageMode.BLOCKINTERLEVE, ImageRepresentation.MONOCHROME, 16, ImageCompression.NOTCOMPRESSED, "M");
+    }
+
+    @Test
+    public void testMonoPadPixels() throws IOException {
+        checkSameAsDecoded(ImageMode.BLOCKINTERLEVE, ImageRepresentation.MONOCHROME, 8, ImageCompression.NOTCOMPRESSEDMASK, "M");
+    }
+
+    @Test
+    public void testRgb() throws IOException {
+        checkSameAsDecoded(ImageMode.PIXELINTERLEVE, ImageRepresentation.RGBTRUECOLOUR, 8, ImageCompression.NOTCOMPRESSED, "R", "G", "B");
+    }
+
+    @Test
+    public void testBgr() throws IOException {
+        checkSameAsDecoded(ImageMode.PIXELINTERLEVE, ImageRepresentation.RGBTRUECOLOUR, 8, ImageCompression.NOTCOMPRESSED, "B", "G", "R");
+    }
+
+    @Test
+    public void testUnsupported() throws IOException {
+        assertFalse(DirectRasterImageModeHandler.isSupported(
+                createSegment(ImageMode.BLOCKINTERLEVE, ImageRepresentation.MONOCHROME, 12, ImageCompression.NOTCOMPRESSED, "M")));
+        assertFalse(DirectRasterImageModeHandler.isSupported(
+                createSegment(ImageMode.BLOCKINTERLEVE, ImageRepresentation.RGBTRUECOLOUR, 8, ImageCompression.NOTCOMPRESSED, "R", "G", "B")));
+        assertFalse(DirectRasterImageModeHandler.isSupported(
+                createSegment(ImageMode.PIXELINTERLEVE, ImageRepresentation.RGBTRUECOLOUR, 8, ImageCompression.NOTCOMPRESSEDMASK, "R", "G", "B")));
+        assertFalse(DirectRasterImageModeHandler.isSupported(
+                createSegment(ImageMode.BLOCKINTERLEVE, ImageRepresentation.MULTIBAND, 8, ImageCompression.NOTCOMPRESSED, "LU")));
+
+        ImageSegment rightJustified = createSegment(ImageMode.BLOCKINTERLEVE, ImageRepresentation.MONOCHROME, 16,
+                ImageCompression.NOTCOMPRESSED, "M");
+        rightJustified.setActualBitsPerPixelPerBand(11);
+        assertFalse(DirectRasterImageModeHandler.isSupported(rightJustified));
+    }
+
+    private void checkSameAsDecoded(final ImageMode mode, final ImageRepresentation imageRepresentation, final int bitsPerPixel,
+            final ImageCompression compression, final String... bandRepresentations) throws IOException {
+        ImageSegment direct = createSegment(mode, imageRepresentation, bitsPerPixel, compression, bandRepresentations);
+        assertTrue(DirectRasterImageModeHandler.isSupported(direct));
+        assertTrue(ImageModeHandlerFactory.forImageSegment(direct) instanceof DirectRasterImageModeHandler);
+        BufferedImage directImage = render(new DirectRasterImageModeHandler(direct), direct);
+
+        ImageSegment decoded = createSegment(mode, imageRepresentation, bitsPerPixel, compression, bandRepresentations);
+        ImageModeHandler decodingHandler;
+        if (mode == ImageMode.PIXELINTERLEVE) {
+            decodingHandler = new PixelInterleveImageModeHandler(ImageRepresentationHandlerFactory.forImageSegment(decoded));
+        } else {
+            decodingHandler = new BlockInterleveImageModeHandler(ImageRepresentationHandlerFactory.forImageSegment(decoded));
+        }
+        BufferedImage decodedImage = render(decodingHandler, decoded);
+
+        assertTrue(Compare.areIdentical(directImage, decodedImage));
+    }
+
+    private BufferedImage render(final ImageModeHandler handler, final ImageSegment segment) throws IOException {
+        BufferedImage image = new BufferedImage(BLOCKS_PER_ROW * BLOCK_SIZE, BLOCKS_PER_COLUMN * BLOCK_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D target = image.createGraphics();
+        try {
+            handler.handleImage(segment, target);
+        } finally {
+            target.dispose();
+        }
+        return image;
+    }
+
+    private ImageSegment createSegment(final ImageMode mode, final ImageRepresentation imageRepresentation, final int bitsPerPixel,
+            final ImageCompression compression, final String... bandRepresentations) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int numBlocks = BLOCKS_PER_ROW * BLOCKS_PER_COLUMN;
+        if (compression == ImageCompression.NOTCOMPRESSEDMASK) {
+            // Pad pixels in every block, and no block mask
+            out.writeInt(10 + 4 * numBlocks);
+            out.writeShort(0);
+            out.writeShort(4);
+            out.writeShort(bitsPerPixel);
+            out.writeByte(PAD_PIXEL_VALUE);
+            for (int block = 0; block < numBlocks; ++block) {
+                out.writeInt(0);
+            }
+        }
+        int numSamples = numBlocks * BLOCK_SIZE * BLOCK_SIZE * bandRepresentations.length;
+        for (int i = 0; i < numSamples; ++i) {
+            int sample = (i * 37) % 251;
+            if (i % 5 == 0) {
+                sample = PAD_PIXEL_VALUE;
+            }
+            if (bitsPerPixel == Short.SIZE) {
+                out.writeShort(sample * 257);
+            } else {
+                out.writeByte(sample);
+            }
+        }
+        return new TestImageSegmentBuilder()
+                .imageMode(mode)
+                .compression(compression)
+                .representation(imageRepresentation)
+                .bitsPerPixel(bitsPerPixel)
+                .blocks(BLOCKS_PER_ROW, BLOCKS_PER_COLUMN, BLOCK_SIZE, BLOCK_SIZE)
+                .bands(bandRepresentations)
+                .data(bytes.toByteArray())
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.imagerep;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for Rgb24ImageRepresentationHandler.
+ */
+public class Rgb24ImageRepresentationHandlerTest {
+
+    @Test
+    public void testUnmappedBandNotRendered() {
+        Map<Integer, Integer> bandMapping = new HashMap<>();
+        bandMapping.put(0, 2 * Byte.SIZE);
+        bandMapping.put(1, -1);
+        Rgb24ImageRepresentationHandler handler = new Rgb24ImageRepresentationHandler(bandMapping);
+        assertTrue(handler.isBandRendered(0));
+        assertFalse(handler.isBandRendered(1));
+        assertFalse(handler.isBandRendered(2));
+
+        DataBuffer data = handler.createBufferedImage(1, 1).getRaster().getDataBuffer();
+        handler.renderSamples(data, 0, new int[] {0x12}, 0, 1, 2, null);
+        assertEquals(0, data.getElem(0));
+        handler.renderSamples(data, 0, new int[] {0x12}, 0, 1, 0, null);
+        assertEquals(0xFF120000, data.getElem(0));
+        assertEquals(BufferedImage.TYPE_INT_ARGB, handler.createBufferedImage(1, 1).getType());
+    }
+}
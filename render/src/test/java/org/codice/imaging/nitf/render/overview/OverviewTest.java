@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.overview;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.NitfRenderer;
+import org.codice.imaging.nitf.render.TestImageSegmentBuilder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for overview pyramids.
+ */
+public class OverviewTest {
+
+    private static final int BLACK = 0;
+    private static final int WHITE = 255;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testBuildAverage() throws IOException {
+        OverviewPyramid pyramid = createBuilder(OverviewResampling.AVERAGE).build(createSegment());
+        assertEquals(8, pyramid.getImageWidth());
+        assertEquals(8, pyramid.getImageHeight());
+        assertEquals(2, pyramid.getNumLevels());
+        assertEquals(4, pyramid.getLevel(1).getWidth());
+        assertEquals(4, pyramid.getLevel(1).getHeight());
+        assertEquals(2, pyramid.getLevel(2).getWidth());
+        for (int level = 1; level <= pyramid.getNumLevels(); ++level) {
+            int grey = getGrey(pyramid.getLevel(level), 1, 1);
+            assertTrue(grey > BLACK + 100);
+            assertTrue(grey < WHITE - 100);
+        }
+    }
+
+    @Test
+    public void testBuildNearest() throws IOException {
+        OverviewPyramid pyramid = createBuilder(OverviewResampling.NEAREST).build(createSegment());
+        int grey = getGrey(pyramid.getLevel(1), 1, 1);
+        assertTrue((grey == BLACK) || (grey == WHITE));
+    }
+
+    @Test
+    public void testNoLevelsForSmallImage() throws IOException {
+        OverviewPyramid pyramid = new OverviewBuilder().build(createSegment());
+        assertEquals(0, pyramid.getNumLevels());
+        assertEquals(0, pyramid.getLevelForScale(0.01));
+    }
+
+    @Test
+    public void testLevelForScale() throws IOException {
+        OverviewPyramid pyramid = createBuilder(OverviewResampling.AVERAGE).build(createSegment());
+        assertEquals(0, pyramid.getLevelForScale(1.0));
+        assertEquals(0, pyramid.getLevelForScale(0.6));
+        assertEquals(1, pyramid.getLevelForScale(0.5));
+        assertEquals(1, pyramid.getLevelForScale(0.3));
+        assertEquals(2, pyramid.getLevelForScale(0.25));
+        assertEquals(2, pyramid.getLevelForScale(0.01));
+    }
+
+    @Test
+    public void testRenderFromOverview() throws IOException {
+        ImageSegment segment = createSegment();
+        OverviewPyramid pyramid = createBuilder(OverviewResampling.NEAREST).build(segment);
+        BufferedImage image = new NitfRenderer().render(segment, pyramid, 0.25);
+        assertEquals(2, image.getWidth());
+        assertEquals(2, image.getHeight());
+        assertEquals(pyramid.getLevel(2).getRGB(0, 0), image.getRGB(0, 0));
+
+        BufferedImage fullResolution = new NitfRenderer().render(createSegment(), null, 1.0);
+        assertEquals(8, fullResolution.getWidth());
+    }
+
+    @Test
+    public void testImageLocation() throws IOException {
+        // The pyramid covers only the segment, and the location is applied when rendering from it
+        ImageSegment segment = createSegment(16, 8);
+        OverviewPyramid pyramid = createBuilder(OverviewResampling.NEAREST).build(segment);
+        assertEquals(8, pyramid.getImageWidth());
+        assertEquals(8, pyramid.getImageHeight());
+        assertEquals(4, pyramid.getLevel(1).getWidth());
+        assertEquals(255, pyramid.getLevel(1).getRGB(0, 0) >>> 24);
+
+        BufferedImage image = new NitfRenderer().render(segment, pyramid, 0.25);
+        assertEquals(4, image.getWidth());
+        assertEquals(6, image.getHeight());
+        assertEquals(0, image.getRGB(0, 0) >>> 24);
+        assertEquals(0, image.getRGB(3, 1) >>> 24);
+        assertEquals(pyramid.getLevel(2).getRGB(0, 0), image.getRGB(2, 4));
+        assertEquals(pyramid.getLevel(2).getRGB(1, 1), image.getRGB(3, 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverviewsForDifferentSegment() throws IOException {
+        OverviewPyramid pyramid = createBuilder(OverviewResampling.NEAREST).build(createSegment());
+        new NitfRenderer().render(new TestImageSegmentBuilder().blocks(3, 2, 4, 4).data(new byte[96]).build(), pyramid, 0.5);
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        Path nitfFile = temporaryFolder.newFile("image.ntf").toPath();
+        Files.write(nitfFile, "NITF02.10".getBytes(StandardCharsets.US_ASCII));
+        OverviewCache cache = new OverviewCache(temporaryFolder.getRoot().toPath().resolve("overviews"));
+        assertNull(cache.get(nitfFile, 0));
+
+        ImageSegment segment = createSegment();
+        OverviewPyramid pyramid = cache.getOrBuild(nitfFile, 0, segment, createBuilder(OverviewResampling.NEAREST));
+        OverviewPyramid cached = cache.get(nitfFile, 0);
+        assertNotNull(cached);
+        assertEquals(pyramid.getImageWidth(), cached.getImageWidth());
+        assertEquals(pyramid.getNumLevels(), cached.getNumLevels());
+        assertEquals(pyramid.getLevel(1).getRGB(1, 1), cached.getLevel(1).getRGB(1, 1));
+        assertNull(cache.get(nitfFile, 1));
+
+        Path renamedFile = Files.move(nitfFile, nitfFile.resolveSibling("renamed.ntf"));
+        assertNotNull(cache.get(renamedFile, 0));
+        nitfFile = Files.move(renamedFile, nitfFile);
+
+        Files.write(nitfFile, "NITF02.00".getBytes(StandardCharsets.US_ASCII));
+        assertNull(cache.get(nitfFile, 0));
+    }
+
+    private OverviewBuilder createBuilder(final OverviewResampling resampling) {
+        OverviewBuilder builder = new OverviewBuilder();
+        builder.setResampling(resampling);
+        builder.setMinimumSize(2);
+        return builder;
+    }
+
+    private int getGrey(final BufferedImage image, final int x, final int y) {
+        return image.getRGB(x, y) & 0xFF;
+    }
+
+    private ImageSegment createSegment() {
+        return createSegment(0, 0);
+    }
+
+    private ImageSegment createSegment(final int locationRow, final int locationColumn) {
+        // Four 4x4 blocks, with alternating black and white columns.
+        byte[] data = new byte[64];
+        for (int i = 0; i < data.length; ++i) {
+            if (i % 2 == 1) {
+                data[i] = (byte) WHITE;
+            }
+        }
+        return new TestImageSegmentBuilder().blocks(2, 2, 4, 4).location(locationRow, locationColumn).data(data).build();
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.raster;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.codice.imaging.nitf.core.image.ImageCompression;
+import org.codice.imaging.nitf.core.image.ImageMode;
+import org.codice.imaging.nitf.core.image.ImageRepresentation;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.core.image.PixelJustification;
+import org.codice.imaging.nitf.core.image.PixelValueType;
+import org.codice.imaging.nitf.render.TestImageSegmentBuilder;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests for RasterReader.
+ */
+public class RasterReaderTest {
+
+    @Test
+    public void testBlockInterleavedBytes() throws IOException {
+        // Two blocks across, two blocks down, each 2x2, one band. The image rows are 1-4, 5-8, 9-12 and 13-16.
+        byte[] data = new byte[] {
+            1, 2, 5, 6,
+            3, 4, 7, 8,
+            9, 10, 13, 14,
+            11, 12, 15, 16
+        };
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 2, 2, 2, 2, Byte.SIZE, PixelValueType.INTEGER, data);
+        RasterReader reader = new RasterReader(segment);
+        assertEquals(RasterDataType.BYTE, reader.getDataType());
+        assertFalse(reader.isSigned());
+
+        RasterData block = reader.readBlock(0, 1);
+        assertEquals(2, block.getX());
+        assertEquals(0, block.getY());
+        assertEquals(1, block.getNumBands());
+        assertArrayEquals(new byte[] {3, 4, 7, 8}, block.getByteData(0));
+
+        RasterData region = reader.readRegion(1, 1, 3, 2);
+        assertEquals(3, region.getWidth());
+        assertEquals(2, region.getHeight());
+        assertArrayEquals(new byte[] {6, 7, 8, 10, 11, 12}, region.getByteData(0));
+    }
+
+    @Test
+    public void testBlockInterleavedBandSubset() throws IOException {
+        byte[] data = new byte[] {1, 2, 3, 4, 11, 12, 13, 14, 21, 22, 23, 24};
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 3, 1, 1, 2, 2, Byte.SIZE, PixelValueType.INTEGER, data);
+        RasterData block = new RasterReader(segment).readBlock(0, 0, 2, 0);
+        assertEquals(2, block.getNumBands());
+        assertEquals(2, block.getBandNumber(0));
+        assertArrayEquals(new byte[] {21, 22, 23, 24}, block.getByteData(0));
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, block.getByteData(1));
+    }
+
+    @Test
+    public void testPixelInterleavedShorts() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int pixel = 0; pixel < 4; ++pixel) {
+            for (int band = 0; band < 3; ++band) {
+                out.writeShort(1000 * band + pixel + 60000 * (band / 2));
+            }
+        }
+        ImageSegment segment = createSegment(ImageMode.PIXELINTERLEVE, 3, 1, 1, 2, 2, Short.SIZE, PixelValueType.INTEGER,
+                bytes.toByteArray());
+        RasterReader reader = new RasterReader(segment);
+        assertEquals(RasterDataType.SHORT, reader.getDataType());
+        RasterData block = reader.readBlock(0, 0, 2, 1);
+        short[] band2 = block.getShortData(0);
+        assertEquals(62000, band2[0] & 0xFFFF);
+        assertEquals(62003, band2[3] & 0xFFFF);
+        assertArrayEquals(new short[] {1000, 1001, 1002, 1003}, block.getShortData(1));
+    }
+
+    @Test
+    public void testRowInterleaved() throws IOException {
+        byte[] data = new byte[] {1, 2, 11, 12, 3, 4, 13, 14};
+        ImageSegment segment = createSegment(ImageMode.ROWINTERLEVE, 2, 1, 1, 2, 2, Byte.SIZE, PixelValueType.INTEGER, data);
+        RasterData block = new RasterReader(segment).readBlock(0, 0);
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, block.getByteData(0));
+        assertArrayEquals(new byte[] {11, 12, 13, 14}, block.getByteData(1));
+    }
+
+    @Test
+    public void testBandSequential() throws IOException {
+        // Two blocks across, each 2x1, two bands: band 0 blocks then band 1 blocks.
+        byte[] data = new byte[] {1, 2, 3, 4, 11, 12, 13, 14};
+        ImageSegment segment = createSegment(ImageMode.BANDSEQUENTIAL, 2, 2, 1, 2, 1, Byte.SIZE, PixelValueType.INTEGER, data);
+        RasterReader reader = new RasterReader(segment);
+        assertArrayEquals(new byte[] {13, 14}, reader.readBlock(0, 1, 1).getByteData(0));
+        RasterData region = reader.readRegion(1, 0, 2, 1);
+        assertArrayEquals(new byte[] {2, 3}, region.getByteData(0));
+        assertArrayEquals(new byte[] {12, 13}, region.getByteData(1));
+    }
+
+    @Test
+    public void testPacked12BitRightJustified() throws IOException {
+        byte[] data = new byte[] {(byte) 0xAB, (byte) 0xC1, (byte) 0x23};
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 1, 1, 2, 1, 12, PixelValueType.INTEGER, data);
+        segment.setActualBitsPerPixelPerBand(11);
+        segment.setPixelJustification(PixelJustification.RIGHT);
+        RasterData block = new RasterReader(segment).readBlock(0, 0);
+        assertArrayEquals(new short[] {0x2BC, 0x123}, block.getShortData(0));
+    }
+
+    @Test
+    public void testLeftJustified() throws IOException {
+        byte[] data = new byte[] {(byte) 0xFF, (byte) 0xF0, 0x12, 0x30};
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 1, 1, 2, 1, Short.SIZE, PixelValueType.INTEGER, data);
+        segment.setActualBitsPerPixelPerBand(12);
+        segment.setPixelJustification(PixelJustification.LEFT);
+        RasterData block = new RasterReader(segment).readBlock(0, 0);
+        assertArrayEquals(new short[] {0xFFF, 0x123}, block.getShortData(0));
+    }
+
+    @Test
+    public void testSignedRightJustified() throws IOException {
+        byte[] data = new byte[] {0x0F, (byte) 0xFF, 0x07, (byte) 0xFF, (byte) 0xF8, 0x00};
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 1, 1, 3, 1, Short.SIZE, PixelValueType.SIGNEDINTEGER, data);
+        segment.setActualBitsPerPixelPerBand(12);
+        segment.setPixelJustification(PixelJustification.RIGHT);
+        RasterReader reader = new RasterReader(segment);
+        assertTrue(reader.isSigned());
+        assertArrayEquals(new short[] {-1, 0x7FF, -0x800}, reader.readBlock(0, 0).getShortData(0));
+    }
+
+    @Test
+    public void testReal() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeFloat(1.5f);
+        out.writeFloat(-2.25f);
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 1, 1, 2, 1, Float.SIZE, PixelValueType.REAL,
+                bytes.toByteArray());
+        RasterReader reader = new RasterReader(segment);
+        assertEquals(RasterDataType.FLOAT, reader.getDataType());
+        assertArrayEquals(new float[] {1.5f, -2.25f}, reader.readBlock(0, 0).getFloatData(0), 0.0f);
+    }
+
+    @Test
+    public void testMaskedBlock() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(18);
+        out.writeShort(4);
+        out.writeShort(0);
+        out.writeShort(0);
+        out.writeInt(0);
+        out.writeInt(0xFFFFFFFF);
+        out.write(new byte[] {5, 6});
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 2, 1, 2, 1, Byte.SIZE, PixelValueType.INTEGER,
+                bytes.toByteArray());
+        segment.setImageCompression(ImageCompression.NOTCOMPRESSEDMASK);
+        RasterData region = new RasterReader(segment).readRegion(0, 0, 4, 1);
+        assertArrayEquals(new byte[] {5, 6, 0, 0}, region.getByteData(0));
+    }
+
+    @Test
+    public void testStatistics() throws IOException {
+        ImageStatistics statistics = new RasterReader(createSixteenByteSegment()).readStatistics(1);
+        assertEquals(4, statistics.getBlockCount());
+        assertEquals(1, statistics.getNumBands());
+        BandStatistics band = statistics.getBand(0);
+        assertEquals(0, band.getBandNumber());
+        assertEquals(16, band.getCount());
+        assertEquals(0, band.getPadPixelCount());
+        assertEquals(1.0, band.getMinimum(), 0.0);
+        assertEquals(16.0, band.getMaximum(), 0.0);
+        assertEquals(8.5, band.getMean(), 1e-9);
+        assertEquals(21.25, band.getVariance(), 1e-9);
+        assertEquals(0, band.getHistogramOffset());
+        long[] histogram = band.getHistogram();
+        assertEquals(256, histogram.length);
+        assertEquals(0, histogram[0]);
+        assertEquals(1, histogram[16]);
+        assertEquals(0, histogram[17]);
+    }
+
+    @Test
+    public void testStatisticsBlockStride() throws IOException {
+        ImageStatistics statistics = new RasterReader(createSixteenByteSegment()).readStatistics(2);
+        assertEquals(1, statistics.getBlockCount());
+        BandStatistics band = statistics.getBand(0);
+        assertEquals(4, band.getCount());
+        assertEquals(1.0, band.getMinimum(), 0.0);
+        assertEquals(6.0, band.getMaximum(), 0.0);
+        assertEquals(3.5, band.getMean(), 1e-9);
+    }
+
+    @Test
+    public void testStatisticsMerge() throws IOException {
+        RasterReader reader = new RasterReader(createSixteenByteSegment());
+        ImageStatistics statistics = reader.readBlockRowStatistics(0, 1, 1);
+        statistics.merge(reader.readBlockRowStatistics(1, 1, 1));
+        assertEquals(4, statistics.getBlockCount());
+        BandStatistics band = statistics.getBand(0);
+        assertEquals(16, band.getCount());
+        assertEquals(1.0, band.getMinimum(), 0.0);
+        assertEquals(16.0, band.getMaximum(), 0.0);
+        assertEquals(8.5, band.getMean(), 1e-9);
+        assertEquals(Math.sqrt(21.25), band.getStandardDeviation(), 1e-9);
+        assertEquals(1, band.getHistogram()[9]);
+    }
+
+    @Test
+    public void testStatisticsPadPixels() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(19);
+        out.writeShort(4);
+        out.writeShort(0);
+        out.writeShort(Byte.SIZE);
+        out.writeByte(5);
+        out.writeInt(0);
+        out.writeInt(0xFFFFFFFF);
+        out.write(new byte[] {5, 6});
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 2, 1, 2, 1, Byte.SIZE, PixelValueType.INTEGER,
+                bytes.toByteArray());
+        segment.setImageCompression(ImageCompression.NOTCOMPRESSEDMASK);
+        BandStatistics band = new RasterReader(segment).readStatistics(1).getBand(0);
+        assertEquals(1, band.getCount());
+        assertEquals(3, band.getPadPixelCount());
+        assertEquals(6.0, band.getMean(), 0.0);
+        assertEquals(0.0, band.getStandardDeviation(), 0.0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnsupportedCompression() throws IOException {
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 1, 1, 1, 1, Byte.SIZE, PixelValueType.INTEGER, new byte[1]);
+        segment.setImageCompression(ImageCompression.JPEG);
+        new RasterReader(segment);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegionOutsideImage() throws IOException {
+        ImageSegment segment = createSegment(ImageMode.BLOCKINTERLEVE, 1, 1, 1, 2, 2, Byte.SIZE, PixelValueType.INTEGER, new byte[4]);
+        new RasterReader(segment).readRegion(1, 1, 2, 1);
+    }
+
+    private ImageSegment createSixteenByteSegment() {
+        // Two blocks across, two blocks down, each 2x2, one band, holding the values 1 to 16.
+        byte[] data = new byte[] {1, 2, 5, 6, 3, 4, 7, 8, 9, 10, 13, 14, 11, 12, 15, 16};
+        return createSegment(ImageMode.BLOCKINTERLEVE, 1, 2, 2, 2, 2, Byte.SIZE, PixelValueType.INTEGER, data);
+    }
+
+    private ImageSegment createSegment(final ImageMode mode, final int numBands, final int blocksPerRow, final int blocksPerColumn,
+            final int blockWidth, final int blockHeight, final int bitsPerPixel, final PixelValueType valueType, final byte[] data) {
+        return new TestImageSegmentBuilder()
+                .imageMode(mode)
+                .representation(ImageRepresentation.MULTIBAND)
+                .pixelValueType(valueType)
+                .bitsPerPixel(bitsPerPixel)
+                .blocks(blocksPerRow, blocksPerColumn, blockWidth, blockHeight)
+                .bands(numBands)
+                .data(data)
+                .build();
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) Codice Foundation
+ *
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ *
+ */
+package org.codice.imaging.nitf.render.tile;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.codice.imaging.nitf.core.image.ImageSegment;
+import org.codice.imaging.nitf.render.TestImageSegmentBuilder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for tile pyramid export.
+ */
+public class TileExporterTest {
+
+    private static final int BLOCKS_PER_ROW = 3;
+    private static final int BLOCKS_PER_COLUMN = 2;
+    private static final int BLOCK_SIZE = 4;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ExecutorService executor;
+
+    @Before
+    public void createExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDirectory() throws IOException {
+        Path root = temporaryFolder.getRoot().toPath();
+        TileExporter exporter = new TileExporter(executor);
+        exporter.setTileSize(4);
+        assertEquals(2, exporter.export(createSegment(), new DirectoryTileSink(root, TileFormat.PNG)));
+
+        for (int row = 0; row < BLOCKS_PER_COLUMN; ++row) {
+            for (int column = 0; column < BLOCKS_PER_ROW; ++column) {
+                BufferedImage tile = readTile(root, 2, column, row);
+                assertEquals(4, tile.getWidth());
+                assertEquals(4, tile.getHeight());
+                assertEquals(getBlockValue(row, column), getGrey(tile, 0, 0));
+                assertEquals(getBlockValue(row, column), getGrey(tile, 3, 3));
+            }
+        }
+
+        BufferedImage reducedEdge = readTile(root, 1, 1, 0);
+        assertEquals(getBlockValue(0, 2), getGrey(reducedEdge, 0, 0));
+        assertEquals(getBlockValue(1, 2), getGrey(reducedEdge, 1, 3));
+        assertEquals(0, reducedEdge.getRGB(2, 0) >>> 24);
+        assertFalse(root.resolve("1").resolve("0").resolve("1.png").toFile().exists());
+
+        BufferedImage top = readTile(root, 0, 0, 0);
+        assertEquals(getBlockValue(0, 0), getGrey(top, 0, 0));
+        assertEquals(getBlockValue(1, 2), getGrey(top, 2, 1));
+        assertEquals(0, top.getRGB(3, 0) >>> 24);
+        assertEquals(0, top.getRGB(0, 2) >>> 24);
+    }
+
+    @Test
+    public void testTms() throws IOException {
+        Path root = temporaryFolder.getRoot().toPath();
+        TileExporter exporter = new TileExporter(executor);
+        exporter.setTileSize(4);
+        exporter.setScheme(TileScheme.TMS);
+        exporter.export(createSegment(), new DirectoryTileSink(root, TileFormat.PNG));
+
+        assertEquals(getBlockValue(1, 0), getGrey(readTile(root, 2, 0, 0), 0, 0));
+        assertEquals(getBlockValue(0, 2), getGrey(readTile(root, 2, 2, 1), 0, 0));
+        assertEquals(getBlockValue(0, 0), getGrey(readTile(root, 0, 0, 0), 0, 0));
+    }
+
+    @Test
+    public void testTilesSmallerThanBlocks() throws IOException {
+        Path root = temporaryFolder.getRoot().toPath();
+        TileExporter exporter = new TileExporter(executor);
+        exporter.setTileSize(2);
+        assertEquals(3, exporter.export(createSegment(), new DirectoryTileSink(root, TileFormat.PNG)));
+
+        assertEquals(getBlockValue(0, 0), getGrey(readTile(root, 3, 1, 1), 1, 1));
+        assertEquals(getBlockValue(1, 2), getGrey(readTile(root, 3, 5, 3), 1, 1));
+        assertEquals(getBlockValue(1, 1), getGrey(readTile(root, 2, 1, 1), 0, 0));
+        assertTrue(root.resolve("0").resolve("0").resolve("0.png").toFile().exists());
+    }
+
+    @Test
+    public void testZipJpeg() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        TileExporter exporter = new TileExporter(executor);
+        exporter.setTileSize(4);
+        exporter.setFormat(TileFormat.JPEG);
+        try (TileSink sink = new ZipTileSink(archive, TileFormat.JPEG)) {
+            exporter.export(createSegment(), sink);
+        }
+
+        List<String> entryNames = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entryNames.add(entry.getName());
+            }
+        }
+        assertEquals(9, entryNames.size());
+        assertTrue(entryNames.contains("2/2/1.jpg"));
+        assertTrue(entryNames.contains("1/1/0.jpg"));
+        assertTrue(entryNames.contains("0/0/0.jpg"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOddTileSize() {
+        new TileExporter(executor).setTileSize(255);
+    }
+
+    @Test
+    public void testSinglePass() throws IOException {
+        ImageSegment segment = createSegment();
+        byte[] data = new byte[(int) segment.getDataLength()];
+        segment.getData().readFully(data);
+        ForwardOnlyStream stream = new ForwardOnlyStream(data);
+        segment.setData(stream);
+        TileExporter exporter = new TileExporter(executor);
+        exporter.setTileSize(2);
+        exporter.export(segment, new DirectoryTileSink(temporaryFolder.getRoot().toPath(), TileFormat.PNG));
+        assertEquals(0, stream.backwardSeeks);
+    }
+
+    @Test
+    public void testOddSizeReduction() throws IOException {
+        // A 5x3 image, where the pixel at (x, y) is 10 * x + 60 * y + 10
+        byte[] data = new byte[15];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (byte) (10 * (i % 5) + 60 * (i / 5) + 10);
+        }
+        Path root = temporaryFolder.getRoot().toPath();
+        TileExporter exporter = new TileExporter(executor);
+        exporter.setTileSize(4);
+        exporter.setMaxPendingTiles(1);
+        assertEquals(1, exporter.export(new TestImageSegmentBuilder().blocks(1, 1, 5, 3).data(data).build(),
+                new DirectoryTileSink(root, TileFormat.PNG)));
+
+        BufferedImage reduced = readTile(root, 0, 0, 0);
+        assertEquals(65, getGrey(reduced, 1, 0));
+        // The last column and row of the level above are averaged on their own
+        assertEquals(80, getGrey(reduced, 2, 0));
+        assertEquals(135, getGrey(reduced, 0, 1));
+        assertEquals(170, getGrey(reduced, 2, 1));
+        assertEquals(255, reduced.getRGB(2, 1) >>> 24);
+        assertEquals(0, reduced.getRGB(3, 0) >>> 24);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPendingTiles() {
+        new TileExporter(executor).setMaxPendingTiles(0);
+    }
+
+    private static final class ForwardOnlyStream extends MemoryCacheImageInputStream {
+
+        private int backwardSeeks = 0;
+
+        ForwardOnlyStream(final byte[] data) {
+            super(new ByteArrayInputStream(data));
+        }
+
+        @Override
+        public void seek(final long pos) throws IOException {
+            if (pos < getStreamPosition()) {
+                backwardSeeks++;
+            }
+            super.seek(pos);
+        }
+    }
+
+    private BufferedImage readTile(final Path root, final int zoom, final int column, final int row) throws IOException {
+        return ImageIO.read(root.resolve(Integer.toString(zoom)).resolve(Integer.toString(column)).resolve(row + ".png").toFile());
+    }
+
+    private int getGrey(final BufferedImage image, final int x, final int y) {
+        return image.getRGB(x, y) & 0xFF;
+    }
+
+    private int getBlockValue(final int row, final int column) {
+        return 40 * (row * BLOCKS_PER_ROW + column + 1);
+    }
+
+    private ImageSegment createSegment() {
+        // Six 4x4 blocks in two rows, each a different grey level.
+        byte[] data = new byte[BLOCKS_PER_ROW * BLOCKS_PER_COLUMN * BLOCK_SIZE * BLOCK_SIZE];
+        for (int i = 0; i < data.length; ++i) {
+            int block = i / (BLOCK_SIZE * BLOCK_SIZE);
+            data[i] = (byte) getBlockValue(block / BLOCKS_PER_ROW, block % BLOCKS_PER_ROW);
+        }
+        return new TestImageSegmentBuilder()
+                .blocks(BLOCKS_PER_ROW, BLOCKS_PER_COLUMN, BLOCK_SIZE, BLOCK_SIZE)
+                .data(data)
+                .build();
+    }
+}